@@ -0,0 +1,73 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static br.gov.caixa.api.investimentos.ml.MatrizCaracteristicas.COLUNAS;
+
+/* COMPARA O KERNEL ESCALAR E O VETORIAL NO CALCULO DAS DISTANCIAS DE UMA ENTRADA A TODOS OS PRODUTOS */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class KernelDistanciaBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int quantidadeProdutos;
+
+    private double[] entrada;
+    private double[] colunas;
+    private double[] distancias;
+
+    private KernelDistancia escalar;
+    private KernelDistancia vetorial;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+
+        entrada = new double[COLUNAS];
+        colunas = new double[COLUNAS * quantidadeProdutos];
+        distancias = new double[quantidadeProdutos];
+
+        for (int c = 0; c < COLUNAS; c++) {
+            entrada[c] = random.nextDouble();
+        }
+        for (int i = 0; i < colunas.length; i++) {
+            colunas[i] = random.nextDouble();
+        }
+
+        escalar = KernelDistancia.ESCALAR;
+        vetorial = KernelDistancia.selecionar(true);
+
+        if (vetorial == KernelDistancia.ESCALAR) {
+            throw new IllegalStateException("Kernel vetorial indisponível: execute com -Pbenchmark,vetorial");
+        }
+    }
+
+    @Benchmark
+    public double[] escalar() {
+        escalar.calcularDistancias(entrada, colunas, quantidadeProdutos, distancias);
+        return distancias;
+    }
+
+    @Benchmark
+    public double[] vetorial() {
+        vetorial.calcularDistancias(entrada, colunas, quantidadeProdutos, distancias);
+        return distancias;
+    }
+}
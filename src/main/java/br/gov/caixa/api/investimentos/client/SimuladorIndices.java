@@ -5,22 +5,47 @@ import jakarta.enterprise.context.ApplicationScoped;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /* SIMULA INDICES DE MERCADO
- * COMO SE FOSSE UMA API EXTERNA */
+ * COMO SE FOSSE UMA API EXTERNA.
+ * ASSIM COMO NO SimuladorMercado, O SORTEIO USA O GERADOR RECEBIDO OU O ThreadLocalRandom DA THREAD */
 @ApplicationScoped
 public class SimuladorIndices {
 
-    private final Random random = new Random();
+    private final double[] taxasBase = carregarTaxasBase();
 
     public BigDecimal getTaxaSimulada(Indice indice, int prazoMeses) {
+        return getTaxaSimulada(indice, prazoMeses, ThreadLocalRandom.current());
+    }
+
+    public BigDecimal getTaxaSimulada(Indice indice, int prazoMeses, RandomGenerator gerador) {
         BigDecimal taxaBase = getTaxaBase(indice);
-        BigDecimal variacao = calcularVariacaoPorPeriodo(indice, prazoMeses);
+        BigDecimal variacao = calcularVariacaoPorPeriodo(indice, prazoMeses, gerador);
 
         return taxaBase.add(variacao).max(BigDecimal.ZERO);
     }
 
+    /* MESMA DISTRIBUICAO DE getTaxaSimulada EM PRIMITIVOS,
+     * PARA USO EM SIMULACOES COM MUITOS CAMINHOS */
+    public double sortearTaxa(Indice indice, int prazoMeses, RandomGenerator gerador) {
+        double variacao = getVolatilidadeIndice(indice) * calcularFatorTempo(prazoMeses) *
+                calcularCicloEconomico(prazoMeses, gerador) * (gerador.nextGaussian() * 0.5);
+
+        return Math.max(0.0, taxasBase[indice.ordinal()] + Math.round(variacao * 100.0) / 100.0);
+    }
+
+    private double[] carregarTaxasBase() {
+        double[] taxas = new double[Indice.values().length];
+
+        for (Indice indice : Indice.values()) {
+            taxas[indice.ordinal()] = getTaxaBase(indice).doubleValue();
+        }
+
+        return taxas;
+    }
+
     private BigDecimal getTaxaBase(Indice indice) {
         return switch (indice) {
             case SELIC -> new BigDecimal("10.75");
@@ -32,13 +57,13 @@ public class SimuladorIndices {
         };
     }
 
-    private BigDecimal calcularVariacaoPorPeriodo(Indice indice, int prazoMeses) {
+    private BigDecimal calcularVariacaoPorPeriodo(Indice indice, int prazoMeses, RandomGenerator gerador) {
         double volatilidade = getVolatilidadeIndice(indice);
         double fatorTempo = calcularFatorTempo(prazoMeses);
-        double fatorCicloEconomico = calcularCicloEconomico(prazoMeses);
+        double fatorCicloEconomico = calcularCicloEconomico(prazoMeses, gerador);
 
         double variacao = volatilidade * fatorTempo * fatorCicloEconomico *
-                (random.nextGaussian() * 0.5);
+                (gerador.nextGaussian() * 0.5);
 
         return new BigDecimal(variacao).setScale(2, RoundingMode.HALF_UP);
     }
@@ -61,21 +86,22 @@ public class SimuladorIndices {
         return 1.2;
     }
 
-    private double calcularCicloEconomico(int prazoMeses) {
+
+    private double calcularCicloEconomico(int prazoMeses, RandomGenerator gerador) {
 
         if (prazoMeses <= 3) {
             return 1.0;
         } else if (prazoMeses <= 12) {
 
-            return 0.8 + (random.nextDouble() * 0.4);
+            return 0.8 + (gerador.nextDouble() * 0.4);
         } else if (prazoMeses <= 24) {
 
-            return random.nextBoolean() ?
-                    0.6 + (random.nextDouble() * 0.3) :
-                    1.1 + (random.nextDouble() * 0.4);
+            return gerador.nextBoolean() ?
+                    0.6 + (gerador.nextDouble() * 0.3) :
+                    1.1 + (gerador.nextDouble() * 0.4);
         } else {
 
-            return 0.5 + (random.nextDouble() * 1.0);
+            return 0.5 + (gerador.nextDouble() * 1.0);
         }
     }
 
@@ -7,26 +7,46 @@ import jakarta.enterprise.context.ApplicationScoped;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /* SIMULA INDICES DE MERCADO
- * COMO SE FOSSE UMA API EXTERNA */
+ * COMO SE FOSSE UMA API EXTERNA.
+ * NAO GUARDA GERADOR COMPARTILHADO: O SORTEIO USA O GERADOR DA REQUISICAO (REPRODUZIVEL PELA SEMENTE)
+ * OU, NA FALTA DELE, O ThreadLocalRandom DA THREAD CORRENTE */
 @ApplicationScoped
 public class SimuladorMercado {
 
-    private final Random random = new Random();
-
     public CenarioMercado gerarCenario(TipoProduto tipoProduto, int prazoMeses) {
-        CenarioEconomico cenario = definirCenarioEconomico(prazoMeses);
+        return gerarCenario(tipoProduto, prazoMeses, ThreadLocalRandom.current());
+    }
+
+    public CenarioMercado gerarCenario(TipoProduto tipoProduto, int prazoMeses, RandomGenerator gerador) {
+        CenarioEconomico cenario = definirCenarioEconomico(prazoMeses, gerador.nextDouble());
         BigDecimal multiplicadorRisco = calcularMultiplicadorRisco(tipoProduto, cenario);
         String descricao = gerarDescricaoCenario(cenario, prazoMeses);
 
         return new CenarioMercado(cenario, multiplicadorRisco, descricao, true);
     }
 
-    private CenarioEconomico definirCenarioEconomico(int prazoMeses) {
+    /* SORTEIA APENAS O CENARIO, SEM MONTAR MULTIPLICADOR NEM DESCRICAO,
+     * PARA USO EM SIMULACOES COM MUITOS CAMINHOS */
+    public CenarioEconomico sortearCenarioEconomico(int prazoMeses, RandomGenerator gerador) {
+        return definirCenarioEconomico(prazoMeses, gerador.nextDouble());
+    }
+
+    public BigDecimal calcularRentabilidadeNoCenario(BigDecimal rentabilidadeBase,
+                                                     TipoProduto tipoProduto,
+                                                     CenarioEconomico cenario,
+                                                     TipoRentabilidade tipoRentabilidade) {
+        CenarioMercado cenarioMercado = new CenarioMercado(cenario,
+                calcularMultiplicadorRisco(tipoProduto, cenario), null, true);
+
+        return ajustarRentabilidadePorCenario(rentabilidadeBase, cenarioMercado, tipoRentabilidade);
+    }
+
 
-        double probabilidade = random.nextDouble();
+    private CenarioEconomico definirCenarioEconomico(int prazoMeses, double probabilidade) {
 
         if (prazoMeses <= 6) {
 
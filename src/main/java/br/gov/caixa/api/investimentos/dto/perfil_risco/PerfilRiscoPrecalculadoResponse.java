@@ -0,0 +1,31 @@
+package br.gov.caixa.api.investimentos.dto.perfil_risco;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record PerfilRiscoPrecalculadoResponse(
+        @JsonProperty("clienteId")
+        Long clienteId,
+
+        @JsonProperty("perfil")
+        String perfil,
+
+        @JsonProperty("pontuacao")
+        Integer pontuacao,
+
+        @JsonProperty("descricao")
+        String descricao,
+
+        @JsonProperty("produtoIds")
+        List<Long> produtoIds,
+
+        @JsonProperty("dataReferencia")
+        LocalDate dataReferencia,
+
+        @JsonProperty("dataCalculo")
+        LocalDateTime dataCalculo
+) {
+}
@@ -34,6 +34,16 @@ public record PerfilRiscoResponse(
         );
     }
 
+    /* RECONSTROI A RESPOSTA A PARTIR DO NOME DO PERFIL (EX.: GRAVADO PELO PRE-CALCULO) */
+    public static PerfilRiscoResponse of(Long clienteId, String perfil, Integer pontuacao) {
+        return switch (perfil) {
+            case "CONSERVADOR" -> conservador(clienteId, pontuacao);
+            case "MODERADO" -> moderado(clienteId, pontuacao);
+            case "AGRESSIVO" -> agressivo(clienteId, pontuacao);
+            default -> throw new IllegalArgumentException("Perfil inválido: " + perfil);
+        };
+    }
+
     public static PerfilRiscoResponse agressivo(Long clienteId, Integer pontuacao) {
         return new PerfilRiscoResponse(
                 clienteId,
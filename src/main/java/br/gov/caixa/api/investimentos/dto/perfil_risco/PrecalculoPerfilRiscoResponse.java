@@ -0,0 +1,43 @@
+package br.gov.caixa.api.investimentos.dto.perfil_risco;
+
+import br.gov.caixa.api.investimentos.enums.simulacao.StatusTarefaSimulacao;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record PrecalculoPerfilRiscoResponse(
+        @JsonProperty("id")
+        String id,
+
+        @JsonProperty("status")
+        StatusTarefaSimulacao status,
+
+        @JsonProperty("dataReferencia")
+        LocalDate dataReferencia,
+
+        @JsonProperty("clientesProcessados")
+        Integer clientesProcessados,
+
+        @JsonProperty("clientesComPerfil")
+        Integer clientesComPerfil,
+
+        @JsonProperty("clientesSemHistorico")
+        Integer clientesSemHistorico,
+
+        @JsonProperty("clientesComFalha")
+        Integer clientesComFalha,
+
+        @JsonProperty("dataCriacao")
+        LocalDateTime dataCriacao,
+
+        @JsonProperty("dataInicio")
+        LocalDateTime dataInicio,
+
+        @JsonProperty("dataConclusao")
+        LocalDateTime dataConclusao,
+
+        @JsonProperty("erro")
+        String erro
+) {
+}
@@ -0,0 +1,26 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+public record AgregadoCarteira(
+        @JsonProperty("grupo")
+        String grupo,
+
+        @JsonProperty("quantidadePosicoes")
+        Integer quantidadePosicoes,
+
+        @JsonProperty("valorInvestido")
+        BigDecimal valorInvestido,
+
+        @JsonProperty("valorProjetado")
+        BigDecimal valorProjetado,
+
+        @JsonProperty("rendimento")
+        BigDecimal rendimento,
+
+        @JsonProperty("participacao")
+        BigDecimal participacao
+) {
+}
@@ -0,0 +1,38 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
+import br.gov.caixa.api.investimentos.enums.simulacao.GranularidadeLinhaDoTempo;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record CabecalhoLinhaDoTempo(
+        @JsonProperty("produtoValidado")
+        ProdutoResponse produtoValidado,
+
+        @JsonProperty("valorInvestido")
+        BigDecimal valorInvestido,
+
+        @JsonProperty("rentabilidadeEfetiva")
+        BigDecimal rentabilidadeEfetiva,
+
+        @JsonProperty("cenarioSimulacao")
+        String cenarioSimulacao,
+
+        @JsonProperty("granularidade")
+        GranularidadeLinhaDoTempo granularidade,
+
+        @JsonProperty("totalPeriodos")
+        Integer totalPeriodos,
+
+        @JsonProperty("dataSimulacao")
+        LocalDateTime dataSimulacao,
+
+        @JsonProperty("clienteId")
+        Long clienteId,
+
+        @JsonProperty("semente")
+        Long semente
+) {
+}
@@ -0,0 +1,19 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record ItemComparacaoProduto(
+        @JsonProperty("posicao")
+        Integer posicao,
+
+        @JsonProperty("produto")
+        ProdutoResponse produto,
+
+        @JsonProperty("resultadoSimulacao")
+        ResultadoSimulacao resultadoSimulacao,
+
+        @JsonProperty("selecionado")
+        Boolean selecionado
+) {
+}
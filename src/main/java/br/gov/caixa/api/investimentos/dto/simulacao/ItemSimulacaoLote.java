@@ -0,0 +1,26 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record ItemSimulacaoLote(
+        @JsonProperty("indice")
+        Integer indice,
+
+        @JsonProperty("sucesso")
+        Boolean sucesso,
+
+        @JsonProperty("simulacao")
+        SimulacaoResponse simulacao,
+
+        @JsonProperty("erro")
+        String erro
+) {
+
+    public static ItemSimulacaoLote sucesso(Integer indice, SimulacaoResponse simulacao) {
+        return new ItemSimulacaoLote(indice, true, simulacao, null);
+    }
+
+    public static ItemSimulacaoLote erro(Integer indice, String erro) {
+        return new ItemSimulacaoLote(indice, false, null, erro);
+    }
+}
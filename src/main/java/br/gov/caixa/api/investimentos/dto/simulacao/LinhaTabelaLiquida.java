@@ -0,0 +1,29 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+public record LinhaTabelaLiquida(
+        @JsonProperty("prazoDias")
+        Integer prazoDias,
+
+        @JsonProperty("valorBruto")
+        BigDecimal valorBruto,
+
+        @JsonProperty("rendimentoBruto")
+        BigDecimal rendimentoBruto,
+
+        @JsonProperty("valorIR")
+        BigDecimal valorIR,
+
+        @JsonProperty("valorIOF")
+        BigDecimal valorIOF,
+
+        @JsonProperty("rendimentoLiquido")
+        BigDecimal rendimentoLiquido,
+
+        @JsonProperty("valorLiquido")
+        BigDecimal valorLiquido
+) {
+}
@@ -0,0 +1,17 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+public record PontoLinhaDoTempo(
+        @JsonProperty("periodo")
+        Integer periodo,
+
+        @JsonProperty("saldo")
+        BigDecimal saldo,
+
+        @JsonProperty("rendimentoAcumulado")
+        BigDecimal rendimentoAcumulado
+) {
+}
@@ -0,0 +1,41 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import br.gov.caixa.api.investimentos.enums.produto.NivelRisco;
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record ProjecaoPosicaoCarteira(
+        @JsonProperty("investimentoId")
+        Long investimentoId,
+
+        @JsonProperty("produtoId")
+        Long produtoId,
+
+        @JsonProperty("tipoProduto")
+        TipoProduto tipoProduto,
+
+        @JsonProperty("nivelRisco")
+        NivelRisco nivelRisco,
+
+        @JsonProperty("dataInvestimento")
+        LocalDate dataInvestimento,
+
+        @JsonProperty("prazoMeses")
+        Integer prazoMeses,
+
+        @JsonProperty("valorInvestido")
+        BigDecimal valorInvestido,
+
+        @JsonProperty("rentabilidadeEfetiva")
+        BigDecimal rentabilidadeEfetiva,
+
+        @JsonProperty("valorProjetado")
+        BigDecimal valorProjetado,
+
+        @JsonProperty("cenarioSimulacao")
+        String cenarioSimulacao
+) {
+}
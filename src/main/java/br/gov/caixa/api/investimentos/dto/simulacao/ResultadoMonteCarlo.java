@@ -0,0 +1,38 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+public record ResultadoMonteCarlo(
+        @JsonProperty("valorInvestido")
+        BigDecimal valorInvestido,
+
+        @JsonProperty("prazoMeses")
+        Integer prazoMeses,
+
+        @JsonProperty("caminhos")
+        Integer caminhos,
+
+        @JsonProperty("media")
+        BigDecimal media,
+
+        @JsonProperty("p5")
+        BigDecimal percentil5,
+
+        @JsonProperty("p25")
+        BigDecimal percentil25,
+
+        @JsonProperty("p50")
+        BigDecimal percentil50,
+
+        @JsonProperty("p75")
+        BigDecimal percentil75,
+
+        @JsonProperty("p95")
+        BigDecimal percentil95,
+
+        @JsonProperty("semente")
+        Long semente
+) {
+}
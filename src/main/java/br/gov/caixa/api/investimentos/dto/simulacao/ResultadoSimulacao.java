@@ -30,6 +30,12 @@ public record ResultadoSimulacao(
         Boolean valorSimulado,
 
         @JsonProperty("cenarioSimulacao")
-        String cenarioSimulacao
+        String cenarioSimulacao,
+
+        @JsonProperty("semente")
+        Long semente,
+
+        @JsonProperty("tributacao")
+        TributacaoSimulacao tributacao
 ) {
 }
\ No newline at end of file
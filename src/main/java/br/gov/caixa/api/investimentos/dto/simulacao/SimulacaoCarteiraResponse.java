@@ -0,0 +1,45 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record SimulacaoCarteiraResponse(
+        @JsonProperty("clienteId")
+        Long clienteId,
+
+        @JsonProperty("dataAlvo")
+        LocalDate dataAlvo,
+
+        @JsonProperty("totalPosicoes")
+        Integer totalPosicoes,
+
+        @JsonProperty("valorInvestido")
+        BigDecimal valorInvestido,
+
+        @JsonProperty("valorProjetado")
+        BigDecimal valorProjetado,
+
+        @JsonProperty("rendimento")
+        BigDecimal rendimento,
+
+        @JsonProperty("porTipoProduto")
+        List<AgregadoCarteira> porTipoProduto,
+
+        @JsonProperty("porNivelRisco")
+        List<AgregadoCarteira> porNivelRisco,
+
+        /* SO E PREENCHIDO QUANDO SOLICITADO; CARTEIRAS GRANDES DEVOLVEM APENAS OS AGREGADOS */
+        @JsonProperty("posicoes")
+        List<ProjecaoPosicaoCarteira> posicoes,
+
+        @JsonProperty("dataSimulacao")
+        LocalDateTime dataSimulacao,
+
+        @JsonProperty("semente")
+        Long semente
+) {
+}
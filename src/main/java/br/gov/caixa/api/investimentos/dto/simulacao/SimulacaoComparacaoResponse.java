@@ -0,0 +1,24 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record SimulacaoComparacaoResponse(
+        @JsonProperty("produtos")
+        List<ItemComparacaoProduto> produtos,
+
+        @JsonProperty("totalProdutos")
+        Integer totalProdutos,
+
+        @JsonProperty("dataSimulacao")
+        LocalDateTime dataSimulacao,
+
+        @JsonProperty("clienteId")
+        Long clienteId,
+
+        @JsonProperty("simulacaoId")
+        Long simulacaoId
+) {
+}
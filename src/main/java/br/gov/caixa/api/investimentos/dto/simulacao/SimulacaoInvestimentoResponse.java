@@ -46,6 +46,9 @@ public record SimulacaoInvestimentoResponse(
         Boolean valorSimulado,
 
         @JsonProperty("cenarioSimulacao")
-        String cenarioSimulacao
+        String cenarioSimulacao,
+
+        @JsonProperty("semente")
+        Long semente
 ) {
 }
@@ -0,0 +1,25 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record SimulacaoLoteResponse(
+        @JsonProperty("totalItens")
+        Integer totalItens,
+
+        @JsonProperty("totalSucesso")
+        Integer totalSucesso,
+
+        @JsonProperty("totalErros")
+        Integer totalErros,
+
+        @JsonProperty("itens")
+        List<ItemSimulacaoLote> itens
+) {
+
+    public static SimulacaoLoteResponse of(List<ItemSimulacaoLote> itens) {
+        int sucesso = (int) itens.stream().filter(item -> Boolean.TRUE.equals(item.sucesso())).count();
+        return new SimulacaoLoteResponse(itens.size(), sucesso, itens.size() - sucesso, itens);
+    }
+}
@@ -0,0 +1,75 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+
+/* INFORMAR valorInicial PARA BUSCAR O PRAZO, OU prazoMeses PARA BUSCAR O VALOR INICIAL */
+public record SimulacaoMetaRequest(
+        @NotNull(message = "ID do cliente é obrigatório")
+        @JsonProperty("clienteId")
+        Long clienteId,
+
+        @JsonProperty("produtoId")
+        Long produtoId,
+
+        @NotNull(message = "Valor da meta é obrigatório")
+        @DecimalMin(value = "1.00", message = "Valor mínimo da meta é R$ 1,00")
+        @DecimalMax(value = "999999999.99", message = "Valor máximo da meta é R$ 999.999.999,99")
+        @JsonProperty("valorMeta")
+        BigDecimal valorMeta,
+
+        @DecimalMin(value = "1.00", message = "Valor mínimo de investimento é R$ 1,00")
+        @DecimalMax(value = "999999999.99", message = "Valor máximo de investimento é R$ 999.999.999,99")
+        @JsonProperty("valorInicial")
+        BigDecimal valorInicial,
+
+        @JsonProperty("prazoMeses")
+        @Min(value = 1, message = "Prazo em meses deve ser no mínimo 1")
+        @Max(value = 240, message = "Prazo em meses deve ser no máximo 240 (20 anos)")
+        Integer prazoMeses,
+
+        @JsonProperty("tipoProduto")
+        TipoProduto tipoProduto,
+
+        @JsonProperty("produto")
+        String nome,
+
+        @JsonProperty("tipo_rentabilidade")
+        TipoRentabilidade tipoRentabilidade,
+
+        Indice indice,
+
+        @JsonProperty("liquidez")
+        @Min(value = -1, message = "Liquidez deve ser -1 (sem liquidez) ou >= 0")
+        Integer liquidez,
+
+        Boolean fgc,
+
+        @JsonProperty("semente")
+        Long semente
+) {
+
+    /* MESMOS FILTROS DE PRODUTO, COM O PRAZO DE REFERENCIA DA BUSCA */
+    public SimulacaoRequest paraSimulacaoRequest(int prazoReferenciaMeses) {
+        return new SimulacaoRequest(
+                clienteId,
+                produtoId,
+                valorInicial != null ? valorInicial : valorMeta,
+                prazoReferenciaMeses,
+                null,
+                null,
+                tipoProduto,
+                nome,
+                tipoRentabilidade,
+                indice,
+                liquidez,
+                fgc,
+                semente
+        );
+    }
+}
@@ -0,0 +1,51 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
+import br.gov.caixa.api.investimentos.enums.simulacao.IncognitaMeta;
+import br.gov.caixa.api.investimentos.enums.simulacao.MetodoResolucaoMeta;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record SimulacaoMetaResponse(
+        @JsonProperty("produtoValidado")
+        ProdutoResponse produtoValidado,
+
+        @JsonProperty("incognita")
+        IncognitaMeta incognita,
+
+        @JsonProperty("metodo")
+        MetodoResolucaoMeta metodo,
+
+        @JsonProperty("iteracoes")
+        Integer iteracoes,
+
+        @JsonProperty("valorMeta")
+        BigDecimal valorMeta,
+
+        @JsonProperty("valorInicial")
+        BigDecimal valorInicial,
+
+        @JsonProperty("prazoMeses")
+        Integer prazoMeses,
+
+        @JsonProperty("valorFinal")
+        BigDecimal valorFinal,
+
+        @JsonProperty("rentabilidadeEfetiva")
+        BigDecimal rentabilidadeEfetiva,
+
+        @JsonProperty("cenarioSimulacao")
+        String cenarioSimulacao,
+
+        @JsonProperty("dataSimulacao")
+        LocalDateTime dataSimulacao,
+
+        @JsonProperty("clienteId")
+        Long clienteId,
+
+        @JsonProperty("semente")
+        Long semente
+) {
+}
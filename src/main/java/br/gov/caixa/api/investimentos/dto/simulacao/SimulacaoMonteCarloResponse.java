@@ -0,0 +1,21 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+public record SimulacaoMonteCarloResponse(
+        @JsonProperty("produtoValidado")
+        ProdutoResponse produtoValidado,
+
+        @JsonProperty("resultadoMonteCarlo")
+        ResultadoMonteCarlo resultadoMonteCarlo,
+
+        @JsonProperty("dataSimulacao")
+        LocalDateTime dataSimulacao,
+
+        @JsonProperty("clienteId")
+        Long clienteId
+) {
+}
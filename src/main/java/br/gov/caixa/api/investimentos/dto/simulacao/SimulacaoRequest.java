@@ -54,9 +54,20 @@ public record SimulacaoRequest(
         @Min(value = -1, message = "Liquidez deve ser -1 (sem liquidez) ou >= 0")
         Integer liquidez,
 
-        Boolean fgc
+        Boolean fgc,
+
+        /* OPCIONAL: REPETE EXATAMENTE OS SORTEIOS DE UMA SIMULACAO ANTERIOR */
+        @JsonProperty("semente")
+        Long semente
 ) {
 
+    public SimulacaoRequest(Long clienteId, Long produtoId, BigDecimal valor, Integer prazoMeses, Integer prazoDias,
+                            Integer prazoAnos, TipoProduto tipoProduto, String nome,
+                            TipoRentabilidade tipoRentabilidade, Indice indice, Integer liquidez, Boolean fgc) {
+        this(clienteId, produtoId, valor, prazoMeses, prazoDias, prazoAnos, tipoProduto, nome, tipoRentabilidade,
+                indice, liquidez, fgc, null);
+    }
+
     public int getPrazoEmDias() {
         if (prazoDias != null && prazoDias > 0) {
             return prazoDias;
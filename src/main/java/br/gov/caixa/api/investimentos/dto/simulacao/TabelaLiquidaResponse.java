@@ -0,0 +1,38 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record TabelaLiquidaResponse(
+        @JsonProperty("produtoValidado")
+        ProdutoResponse produtoValidado,
+
+        @JsonProperty("valorInvestido")
+        BigDecimal valorInvestido,
+
+        @JsonProperty("rentabilidadeEfetiva")
+        BigDecimal rentabilidadeEfetiva,
+
+        @JsonProperty("cenarioSimulacao")
+        String cenarioSimulacao,
+
+        @JsonProperty("isento")
+        Boolean isento,
+
+        @JsonProperty("linhas")
+        List<LinhaTabelaLiquida> linhas,
+
+        @JsonProperty("dataSimulacao")
+        LocalDateTime dataSimulacao,
+
+        @JsonProperty("clienteId")
+        Long clienteId,
+
+        @JsonProperty("semente")
+        Long semente
+) {
+}
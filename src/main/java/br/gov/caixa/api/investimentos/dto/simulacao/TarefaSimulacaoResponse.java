@@ -0,0 +1,41 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import br.gov.caixa.api.investimentos.enums.simulacao.StatusTarefaSimulacao;
+import br.gov.caixa.api.investimentos.enums.simulacao.TipoTarefaSimulacao;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TarefaSimulacaoResponse(
+        @JsonProperty("id")
+        String id,
+
+        @JsonProperty("tipo")
+        TipoTarefaSimulacao tipo,
+
+        @JsonProperty("status")
+        StatusTarefaSimulacao status,
+
+        @JsonProperty("totalItens")
+        Integer totalItens,
+
+        @JsonProperty("itensProcessados")
+        Integer itensProcessados,
+
+        @JsonProperty("percentualConcluido")
+        BigDecimal percentualConcluido,
+
+        @JsonProperty("dataCriacao")
+        LocalDateTime dataCriacao,
+
+        @JsonProperty("dataInicio")
+        LocalDateTime dataInicio,
+
+        @JsonProperty("dataConclusao")
+        LocalDateTime dataConclusao,
+
+        @JsonProperty("erro")
+        String erro
+) {
+}
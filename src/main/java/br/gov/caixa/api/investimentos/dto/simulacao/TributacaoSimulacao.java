@@ -0,0 +1,35 @@
+package br.gov.caixa.api.investimentos.dto.simulacao;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+public record TributacaoSimulacao(
+        @JsonProperty("isento")
+        Boolean isento,
+
+        @JsonProperty("prazoDias")
+        Integer prazoDias,
+
+        @JsonProperty("rendimentoBruto")
+        BigDecimal rendimentoBruto,
+
+        @JsonProperty("aliquotaIR")
+        BigDecimal aliquotaIR,
+
+        @JsonProperty("valorIR")
+        BigDecimal valorIR,
+
+        @JsonProperty("aliquotaIOF")
+        BigDecimal aliquotaIOF,
+
+        @JsonProperty("valorIOF")
+        BigDecimal valorIOF,
+
+        @JsonProperty("rendimentoLiquido")
+        BigDecimal rendimentoLiquido,
+
+        @JsonProperty("valorFinalLiquido")
+        BigDecimal valorFinalLiquido
+) {
+}
@@ -0,0 +1,9 @@
+package br.gov.caixa.api.investimentos.dto.telemetria;
+
+public record MetricasCacheRecomendacaoDTO(
+        long acertos,
+        long falhas,
+        long atualizacoes,
+        double taxaAcerto
+) {
+}
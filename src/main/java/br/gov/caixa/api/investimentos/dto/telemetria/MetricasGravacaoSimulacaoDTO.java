@@ -0,0 +1,14 @@
+package br.gov.caixa.api.investimentos.dto.telemetria;
+
+public record MetricasGravacaoSimulacaoDTO(
+        boolean gravacaoAssincrona,
+        int profundidadeFila,
+        int capacidadeFila,
+        long simulacoesGravadas,
+        long lotesGravados,
+        long simulacoesGravadasSincronamente,
+        long simulacoesComFalha,
+        double latenciaMediaLoteMs,
+        double latenciaMaximaLoteMs
+) {
+}
@@ -0,0 +1,19 @@
+package br.gov.caixa.api.investimentos.dto.visao_cliente;
+
+import br.gov.caixa.api.investimentos.dto.perfil_risco.PerfilRiscoResponse;
+import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record VisaoClienteResponse(
+        @JsonProperty("clienteId")
+        Long clienteId,
+
+        @JsonProperty("perfilRisco")
+        PerfilRiscoResponse perfilRisco,
+
+        @JsonProperty("produtosRecomendados")
+        List<ProdutoResponse> produtosRecomendados
+) {
+}
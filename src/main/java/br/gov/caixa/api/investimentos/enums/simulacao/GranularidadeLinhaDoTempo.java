@@ -0,0 +1,38 @@
+package br.gov.caixa.api.investimentos.enums.simulacao;
+
+public enum GranularidadeLinhaDoTempo {
+    MENSAL("mensal", 1),
+    DIARIA("diaria", 30);
+
+    private final String parametro;
+    private final int passosPorMes;
+
+    GranularidadeLinhaDoTempo(String parametro, int passosPorMes) {
+        this.parametro = parametro;
+        this.passosPorMes = passosPorMes;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public int getPassosPorMes() {
+        return passosPorMes;
+    }
+
+    public static GranularidadeLinhaDoTempo fromString(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return MENSAL;
+        }
+
+        for (GranularidadeLinhaDoTempo granularidade : values()) {
+            if (granularidade.parametro.equalsIgnoreCase(valor.trim()) ||
+                    granularidade.name().equalsIgnoreCase(valor.trim())) {
+                return granularidade;
+            }
+        }
+
+        throw new IllegalArgumentException("Valor de granularidade inválido: " + valor
+                + ". Valores aceitos: mensal, diaria");
+    }
+}
@@ -0,0 +1,16 @@
+package br.gov.caixa.api.investimentos.enums.simulacao;
+
+public enum IncognitaMeta {
+    VALOR_INICIAL("Valor inicial necessário para atingir a meta no prazo informado"),
+    PRAZO("Prazo necessário para atingir a meta com o valor inicial informado");
+
+    private final String descricao;
+
+    IncognitaMeta(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
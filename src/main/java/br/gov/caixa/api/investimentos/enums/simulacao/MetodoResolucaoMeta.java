@@ -0,0 +1,16 @@
+package br.gov.caixa.api.investimentos.enums.simulacao;
+
+public enum MetodoResolucaoMeta {
+    FORMA_FECHADA("Solução analítica conferida com o cálculo exato"),
+    BISSECAO("Busca binária sobre o prazo, limitada ao prazo máximo de simulação");
+
+    private final String descricao;
+
+    MetodoResolucaoMeta(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
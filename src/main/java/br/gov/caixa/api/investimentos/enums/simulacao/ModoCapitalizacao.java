@@ -0,0 +1,16 @@
+package br.gov.caixa.api.investimentos.enums.simulacao;
+
+public enum ModoCapitalizacao {
+    EXATO_LIMITADO("Exato com precisão limitada (MathContext DECIMAL128)"),
+    LOG_EXP("Rápido em ponto flutuante (exp/log1p)");
+
+    private final String descricao;
+
+    ModoCapitalizacao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
@@ -0,0 +1,32 @@
+package br.gov.caixa.api.investimentos.enums.simulacao;
+
+public enum ModoSimulacao {
+    CENARIO_UNICO("cenario_unico"),
+    MONTECARLO("montecarlo"),
+    COMPARACAO("comparacao");
+
+    private final String parametro;
+
+    ModoSimulacao(String parametro) {
+        this.parametro = parametro;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public static ModoSimulacao fromString(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return CENARIO_UNICO;
+        }
+
+        for (ModoSimulacao modo : values()) {
+            if (modo.parametro.equalsIgnoreCase(valor.trim()) || modo.name().equalsIgnoreCase(valor.trim())) {
+                return modo;
+            }
+        }
+
+        throw new IllegalArgumentException("Modo de simulação inválido: " + valor
+                + ". Valores aceitos: cenario_unico, montecarlo, comparacao");
+    }
+}
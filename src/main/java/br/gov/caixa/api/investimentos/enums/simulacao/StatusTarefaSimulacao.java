@@ -0,0 +1,22 @@
+package br.gov.caixa.api.investimentos.enums.simulacao;
+
+public enum StatusTarefaSimulacao {
+    PENDENTE("Aguardando um executor livre"),
+    EXECUTANDO("Em execução"),
+    CONCLUIDA("Concluída; o resultado está disponível"),
+    FALHOU("Interrompida por erro");
+
+    private final String descricao;
+
+    StatusTarefaSimulacao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public boolean isFinalizada() {
+        return this == CONCLUIDA || this == FALHOU;
+    }
+}
@@ -0,0 +1,16 @@
+package br.gov.caixa.api.investimentos.enums.simulacao;
+
+public enum TipoTarefaSimulacao {
+    LOTE("Lote de simulações calculado em blocos"),
+    MONTECARLO("Distribuição Monte Carlo de uma simulação");
+
+    private final String descricao;
+
+    TipoTarefaSimulacao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
@@ -0,0 +1,9 @@
+package br.gov.caixa.api.investimentos.event.cliente;
+
+import java.util.List;
+
+/* DISPARADO QUANDO INVESTIMENTOS OU SIMULACOES SAO GRAVADOS PARA O CLIENTE, COM AS ENTRADAS GRAVADAS
+ * (Investimento OU SimulacaoInvestimento); OBSERVADORES QUE GUARDAM RESULTADOS DERIVADOS DO HISTORICO
+ * DEVEM ATUALIZA-LOS OU INVALIDA-LOS */
+public record HistoricoClienteAlteradoEvent(Long clienteId, List<?> entradas) {
+}
@@ -0,0 +1,14 @@
+package br.gov.caixa.api.investimentos.event.produto;
+
+/* DISPARADO PELO ProdutoService A CADA ESCRITA NO CATALOGO;
+ * OBSERVADORES QUE MANTEM ESTRUTURAS DERIVADAS DO CATALOGO DEVEM INVALIDA-LAS. O CatalogoProdutos REPASSA O
+ * produtoId NA FOTOGRAFIA SEGUINTE (CatalogoIndexado.getProdutosAlterados); produtoId E NULL NA LIMPEZA */
+public record CatalogoProdutoAlteradoEvent(Long produtoId, TipoAlteracao tipoAlteracao) {
+
+    public enum TipoAlteracao {
+        CRIACAO,
+        ATUALIZACAO,
+        REMOCAO,
+        LIMPEZA
+    }
+}
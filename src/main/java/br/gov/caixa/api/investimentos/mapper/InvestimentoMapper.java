@@ -71,6 +71,27 @@ public class InvestimentoMapper {
         return inv;
     }
 
+    /* PRODUTO TRANSITORIO (NAO PERSISTIDO) COM AS CONDICOES GRAVADAS NA POSICAO NO MOMENTO DA CONTRATACAO */
+    public Produto toProdutoContratado(Investimento investimento) {
+        if (investimento == null) {
+            return null;
+        }
+
+        Produto produto = new Produto(
+                null,
+                investimento.getTipo(),
+                investimento.getTipoRentabilidade(),
+                investimento.getRentabilidade(),
+                investimento.getPeriodoRentabilidade(),
+                investimento.getIndice(),
+                investimento.getLiquidez(),
+                investimento.getMinimoDiasInvestimento(),
+                investimento.getFgc()
+        );
+        produto.setId(investimento.getProdutoId());
+        return produto;
+    }
+
     public void updateEntityFromRequest(Investimento investimento, InvestimentoRequest request, Produto produto) {
         if (investimento == null || request == null || produto == null) {
             return;
@@ -31,7 +31,8 @@ public class SimulacaoInvestimentoMapper {
                 simulacao.getRentabilidadeEfetiva(),
                 simulacao.getRendimento(),
                 simulacao.getValorSimulado(),
-                simulacao.getCenarioSimulacao()
+                simulacao.getCenarioSimulacao(),
+                simulacao.getSemente()
         );
     }
 
@@ -51,7 +52,7 @@ public class SimulacaoInvestimentoMapper {
             return null;
         }
 
-        return new SimulacaoInvestimento(
+        SimulacaoInvestimento simulacao = new SimulacaoInvestimento(
                 clienteId,
                 produtoId,
                 nomeProduto,
@@ -65,6 +66,9 @@ public class SimulacaoInvestimentoMapper {
                 resultado.valorSimulado(),
                 resultado.cenarioSimulacao()
         );
+        simulacao.setSemente(resultado.semente());
+
+        return simulacao;
     }
 
     public SimulacaoInvestimento toEntity(Long clienteId, Long produtoId, String produto, BigDecimal valorInvestido,
@@ -0,0 +1,202 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/* PONTUACAO ACUMULADA DE UM HISTORICO SOBRE UMA VERSAO DO CATALOGO, ALIMENTADA UMA ENTRADA POR VEZ PELO GeradorRecomendacaoML.
+ * COMO O PESO DE CADA ENTRADA DECAI COM exp(-dias / 365), A SOMA E GUARDADA NO DIA DE REFERENCIA:
+ * peso * exp((diaEntrada - diaReferencia) / 365). NA LEITURA A SOMA E MULTIPLICADA UMA VEZ POR exp(-(hoje - diaReferencia) / 365),
+ * ENTAO O RESULTADO CUSTA O NUMERO DE PRODUTOS PONTUADOS, E NAO O TAMANHO DO HISTORICO.
+ * ENTRADAS SEM DATA NAO DECAEM E FICAM EM UMA SOMA SEPARADA.
+ * OS INVESTIMENTOS TRUNCAM O PESO DECAIDO PARA INTEIRO, COMO NA RECOMENDACAO COMPLETA; COMO (int) NAO SE FATORA, CADA
+ * INVESTIMENTO DATADO FICA GUARDADO (PRODUTO, PESO BASE E DIA) E E TRUNCADO NA LEITURA, QUE ENTAO CUSTA TAMBEM O NUMERO
+ * DESSES INVESTIMENTOS. O RESULTADO COMPLETO DA DATA FICA GUARDADO ATE A PROXIMA ENTRADA */
+public final class AcumuladorRecomendacao {
+
+    private final CandidatosRecomendacao candidatos;
+    private final long versaoCatalogo;
+    private final long diaReferencia;
+
+    /* PRODUTOS PONTUADOS NA ORDEM EM QUE APARECERAM: indicePorPosicao[posicaoNaLista] -> INDICE NOS VETORES ABAIXO */
+    private final Map<Integer, Integer> indicePorPosicao = new HashMap<>();
+    private int[] posicoes = new int[8];
+    private double[] comDecaimento = new double[8];
+    private double[] semDecaimento = new double[8];
+    private int quantidade;
+
+    /* ENTRADAS TRUNCADAS NA LEITURA: INDICE NOS VETORES ACIMA, PESO BASE E DIA DA ENTRADA */
+    private int[] indicesTruncados = new int[0];
+    private double[] pesosTruncados = new double[0];
+    private long[] diasTruncados = new long[0];
+    private int quantidadeTruncados;
+
+    private ResultadoRecomendacao ultimoResultado;
+    private LocalDate dataUltimoResultado;
+
+    AcumuladorRecomendacao(CandidatosRecomendacao candidatos, long versaoCatalogo, LocalDate dataReferencia) {
+        this.candidatos = candidatos;
+        this.versaoCatalogo = versaoCatalogo;
+        this.diaReferencia = dataReferencia.toEpochDay();
+    }
+
+    public long getVersaoCatalogo() {
+        return versaoCatalogo;
+    }
+
+    public LocalDate getDataReferencia() {
+        return LocalDate.ofEpochDay(diaReferencia);
+    }
+
+    /* ASSINATURA DA MATRIZ DO CATALOGO SOBRE A QUAL AS SOMAS FORAM FEITAS */
+    public long getAssinaturaCatalogo() {
+        return candidatos.getMatriz().getAssinatura();
+    }
+
+    public synchronized boolean isEmpty() {
+        return quantidade == 0;
+    }
+
+    /* PRODUTOS EM ORDEM DECRESCENTE DE PONTUACAO NA DATA INFORMADA; EMPATES FICAM NA ORDEM DE APARICAO */
+    public ResultadoRecomendacao resultado(LocalDate data) {
+        return resultado(data, Integer.MAX_VALUE);
+    }
+
+    /* SO OS limite PRIMEIROS PRODUTOS. SE O RESULTADO COMPLETO DA DATA JA ESTA GUARDADO, DEVOLVE O PREFIXO DELE;
+     * SENAO SELECIONA OS limite MELHORES SEM ORDENAR O RESTANTE, E SO O RESULTADO COMPLETO E GUARDADO */
+    public synchronized ResultadoRecomendacao resultado(LocalDate data, int limite) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
+
+        if (ultimoResultado != null && data.equals(dataUltimoResultado)) {
+            return ultimoResultado.limitar(limite);
+        }
+
+        double fatorDecaimento = Math.exp(-(data.toEpochDay() - diaReferencia) / 365.0);
+        double[] pontuacoes = new double[quantidade];
+
+        for (int i = 0; i < quantidade; i++) {
+            pontuacoes[i] = comDecaimento[i] * fatorDecaimento + semDecaimento[i];
+        }
+
+        long hoje = data.toEpochDay();
+
+        for (int i = 0; i < quantidadeTruncados; i++) {
+            pontuacoes[indicesTruncados[i]] += (int) (pesosTruncados[i] * Math.exp(-(hoje - diasTruncados[i]) / 365.0));
+        }
+
+        int[] ordem = RankingParcial.ordenar(pontuacoes, quantidade, limite);
+
+        List<Produto> produtos = candidatos.getProdutos();
+        List<Produto> ordenados = new ArrayList<>(ordem.length);
+        double[] pontuacoesOrdenadas = new double[ordem.length];
+
+        for (int i = 0; i < ordem.length; i++) {
+            ordenados.add(produtos.get(posicoes[ordem[i]]));
+            pontuacoesOrdenadas[i] = pontuacoes[ordem[i]];
+        }
+
+        ResultadoRecomendacao resultado = ResultadoRecomendacao.construir(ordenados, pontuacoesOrdenadas);
+
+        if (ordem.length == quantidade) {
+            ultimoResultado = resultado;
+            dataUltimoResultado = data;
+        }
+
+        return resultado;
+    }
+
+    /* SOMAS POR PRODUTO NA ORDEM DE APARICAO, SEM O DECAIMENTO DA LEITURA, E AS ENTRADAS TRUNCADAS */
+    public synchronized EstatisticasAcumuladas exportar() {
+        List<Produto> produtos = candidatos.getProdutos();
+        long[] produtoIds = new long[quantidade];
+
+        for (int i = 0; i < quantidade; i++) {
+            produtoIds[i] = produtos.get(posicoes[i]).getId();
+        }
+
+        long[] produtoIdsTruncados = new long[quantidadeTruncados];
+
+        for (int i = 0; i < quantidadeTruncados; i++) {
+            produtoIdsTruncados[i] = produtoIds[indicesTruncados[i]];
+        }
+
+        return new EstatisticasAcumuladas(produtoIds, Arrays.copyOf(comDecaimento, quantidade),
+                Arrays.copyOf(semDecaimento, quantidade), produtoIdsTruncados,
+                Arrays.copyOf(pesosTruncados, quantidadeTruncados), Arrays.copyOf(diasTruncados, quantidadeTruncados));
+    }
+
+    CandidatosRecomendacao getCandidatos() {
+        return candidatos;
+    }
+
+    /* SOMAS JA ACUMULADAS NO MESMO DIA DE REFERENCIA, RESTAURADAS PELO GeradorRecomendacaoML */
+    synchronized void restaurar(int posicao, double somaComDecaimento, double somaSemDecaimento) {
+        int indice = indiceDaPosicao(posicao);
+
+        comDecaimento[indice] += somaComDecaimento;
+        semDecaimento[indice] += somaSemDecaimento;
+        ultimoResultado = null;
+    }
+
+    /* ENTRADA TRUNCADA JA GUARDADA, RESTAURADA PELO GeradorRecomendacaoML DEPOIS DAS SOMAS */
+    synchronized void restaurarTruncada(int posicao, double pesoBase, long dia) {
+        guardarTruncada(indiceDaPosicao(posicao), pesoBase, dia);
+        ultimoResultado = null;
+    }
+
+    /* CHAMADO PELO GeradorRecomendacaoML COM O MONITOR DO ACUMULADOR JA ADQUIRIDO. truncar: O PESO DECAIDO E
+     * TRUNCADO PARA INTEIRO NA LEITURA; SEM DATA NAO HA DECAIMENTO E O PESO BASE JA E INTEIRO */
+    void adicionar(int posicao, double pesoBase, LocalDate data, boolean truncar) {
+
+        int indice = indiceDaPosicao(posicao);
+
+        if (data == null) {
+            semDecaimento[indice] += truncar ? (int) pesoBase : pesoBase;
+        } else if (truncar) {
+            guardarTruncada(indice, pesoBase, data.toEpochDay());
+        } else {
+            comDecaimento[indice] += pesoBase * Math.exp((data.toEpochDay() - diaReferencia) / 365.0);
+        }
+
+        ultimoResultado = null;
+    }
+
+    private void guardarTruncada(int indice, double pesoBase, long dia) {
+        if (quantidadeTruncados == indicesTruncados.length) {
+            int capacidade = Math.max(8, quantidadeTruncados * 2);
+            indicesTruncados = Arrays.copyOf(indicesTruncados, capacidade);
+            pesosTruncados = Arrays.copyOf(pesosTruncados, capacidade);
+            diasTruncados = Arrays.copyOf(diasTruncados, capacidade);
+        }
+
+        indicesTruncados[quantidadeTruncados] = indice;
+        pesosTruncados[quantidadeTruncados] = pesoBase;
+        diasTruncados[quantidadeTruncados] = dia;
+        quantidadeTruncados++;
+    }
+
+    private int indiceDaPosicao(int posicao) {
+        Integer indice = indicePorPosicao.get(posicao);
+
+        if (indice == null) {
+            if (quantidade == posicoes.length) {
+                posicoes = Arrays.copyOf(posicoes, quantidade * 2);
+                comDecaimento = Arrays.copyOf(comDecaimento, quantidade * 2);
+                semDecaimento = Arrays.copyOf(semDecaimento, quantidade * 2);
+            }
+
+            indice = quantidade++;
+            posicoes[indice] = posicao;
+            indicePorPosicao.put(posicao, indice);
+        }
+
+        return indice;
+    }
+}
@@ -0,0 +1,145 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static br.gov.caixa.api.investimentos.ml.MatrizCaracteristicas.COLUNAS;
+
+/* PRODUTOS DE UMA LISTA PRONTOS PARA A BUSCA DO MAIS PROXIMO. QUANDO A LISTA E EXATAMENTE O CATALOGO DA MATRIZ
+ * A BUSCA USA O IndiceKD; SENAO AS CARACTERISTICAS FICAM POR COLUNA E SAO PERCORRIDAS PELO KernelDistancia, COM
+ * OS PRODUTOS FORA DO CATALOGO NORMALIZADOS UMA VEZ, NA CONSTRUCAO. OS DOIS CAMINHOS COMPARAM A DISTANCIA AO
+ * QUADRADO, QUE PRESERVA A ORDEM DA EUCLIDIANA, E DEVOLVEM O MESMO PRODUTO.
+ * IMUTAVEL DEPOIS DE CONSTRUIDA: O VETOR DE DISTANCIAS DA FORCA BRUTA E DE QUEM CHAMA (criarDistancias) */
+final class CandidatosRecomendacao {
+
+    private final MatrizCaracteristicas matriz;
+    private final List<Produto> produtos;
+    private final int[] posicaoPorLinha;
+
+    private double[] candidatos;
+    private long[] ids;
+    private boolean[] comId;
+
+    CandidatosRecomendacao(MatrizCaracteristicas matriz, List<Produto> produtos) {
+        this.matriz = matriz;
+        this.produtos = produtos;
+        this.posicaoPorLinha = mapearCatalogo(matriz, produtos);
+
+        if (posicaoPorLinha == null) {
+            prepararForcaBruta();
+        }
+    }
+
+    MatrizCaracteristicas getMatriz() {
+        return matriz;
+    }
+
+    List<Produto> getProdutos() {
+        return produtos;
+    }
+
+    /* POSICAO DO PRODUTO NA LISTA; -1 QUANDO ELE NAO ESTA NELA */
+    int posicao(long produtoId) {
+        if (posicaoPorLinha != null) {
+            int linha = matriz.linha(produtoId);
+            return linha >= 0 ? posicaoPorLinha[linha] : -1;
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            if (comId[i] && ids[i] == produtoId) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /* NULL QUANDO A BUSCA E PELO IndiceKD */
+    double[] criarDistancias() {
+        return posicaoPorLinha == null ? new double[produtos.size()] : null;
+    }
+
+    /* POSICAO NA LISTA DO PRODUTO MAIS PROXIMO, IGNORANDO OS DE MESMO produtoId DA ENTRADA; -1 SE NAO HOUVER */
+    int buscarMaisProximo(double[] entrada, Long produtoIdExcluido, KernelDistancia kernel, double[] distancias) {
+
+        if (posicaoPorLinha != null) {
+            int linha = matriz.buscarMaisProximo(entrada, posicaoPorLinha, produtoIdExcluido);
+            return linha >= 0 ? posicaoPorLinha[linha] : -1;
+        }
+
+        kernel.calcularDistancias(entrada, candidatos, ids.length, distancias);
+
+        boolean excluir = produtoIdExcluido != null;
+        long idExcluido = excluir ? produtoIdExcluido : 0L;
+
+        int maisProximo = -1;
+        double menorDistancia = Double.MAX_VALUE;
+
+        for (int i = 0; i < ids.length; i++) {
+            if (excluir && comId[i] && ids[i] == idExcluido) {
+                continue;
+            }
+
+            if (distancias[i] < menorDistancia) {
+                menorDistancia = distancias[i];
+                maisProximo = i;
+            }
+        }
+
+        return maisProximo;
+    }
+
+    /* CANDIDATOS POR COLUNA: candidatos[coluna * quantidade + i] */
+    private void prepararForcaBruta() {
+        int quantidade = produtos.size();
+
+        candidatos = new double[quantidade * COLUNAS];
+        ids = new long[quantidade];
+        comId = new boolean[quantidade];
+
+        double[] linhaProduto = new double[COLUNAS];
+
+        for (int i = 0; i < quantidade; i++) {
+            Produto produto = produtos.get(i);
+            int linha = matriz.linha(produto.getId());
+
+            if (linha >= 0) {
+                matriz.copiarLinha(linha, linhaProduto, 0);
+            } else {
+                MatrizCaracteristicas.preencherProduto(produto, linhaProduto, 0);
+            }
+
+            for (int coluna = 0; coluna < COLUNAS; coluna++) {
+                candidatos[coluna * quantidade + i] = linhaProduto[coluna];
+            }
+
+            comId[i] = produto.getId() != null;
+            ids[i] = comId[i] ? produto.getId() : 0L;
+        }
+    }
+
+    /* POSICAO NA LISTA DE CADA LINHA DA MATRIZ QUANDO A LISTA CONTEM EXATAMENTE OS PRODUTOS DO CATALOGO; SENAO NULL */
+    private static int[] mapearCatalogo(MatrizCaracteristicas matriz, List<Produto> produtos) {
+
+        if (produtos.size() != matriz.quantidadeLinhas()) {
+            return null;
+        }
+
+        int[] posicaoPorLinha = new int[produtos.size()];
+        Arrays.fill(posicaoPorLinha, -1);
+
+        for (int i = 0; i < produtos.size(); i++) {
+            int linha = matriz.linha(produtos.get(i).getId());
+
+            if (linha < 0 || posicaoPorLinha[linha] >= 0) {
+                return null;
+            }
+
+            posicaoPorLinha[linha] = i;
+        }
+
+        return posicaoPorLinha;
+    }
+}
@@ -0,0 +1,106 @@
+package br.gov.caixa.api.investimentos.ml;
+
+/* SOMAS DE UM AcumuladorRecomendacao POR PRODUTO, NA ORDEM EM QUE OS PRODUTOS APARECERAM, MAIS AS ENTRADAS QUE SO SAO
+ * TRUNCADAS NA LEITURA (PRODUTO, PESO BASE E DIA), PARA SEREM GRAVADAS E RESTAURADAS (VER
+ * GeradorRecomendacaoML.restaurarAcumulador). comDecaimento JA ESTA NO DIA DE REFERENCIA DO ACUMULADOR.
+ * O TEXTO E "produtoId:comDecaimento:semDecaimento" POR PRODUTO, SEPARADOS POR ";", SEGUIDO, SE HOUVER ENTRADAS
+ * TRUNCADAS, DE "|" E "produtoId:pesoBase:dia" POR ENTRADA; O Double.toString PRESERVA O VALOR EXATO */
+public record EstatisticasAcumuladas(long[] produtoIds, double[] comDecaimento, double[] semDecaimento,
+                                     long[] produtoIdsTruncados, double[] pesosTruncados, long[] diasTruncados) {
+
+    public EstatisticasAcumuladas {
+        if (produtoIds.length != comDecaimento.length || produtoIds.length != semDecaimento.length) {
+            throw new IllegalArgumentException("Produtos e somas devem ter o mesmo tamanho");
+        }
+        if (produtoIdsTruncados.length != pesosTruncados.length || produtoIdsTruncados.length != diasTruncados.length) {
+            throw new IllegalArgumentException("Entradas truncadas devem ter o mesmo tamanho");
+        }
+    }
+
+    public EstatisticasAcumuladas(long[] produtoIds, double[] comDecaimento, double[] semDecaimento) {
+        this(produtoIds, comDecaimento, semDecaimento, new long[0], new double[0], new long[0]);
+    }
+
+    public int tamanho() {
+        return produtoIds.length;
+    }
+
+    public int quantidadeTruncados() {
+        return produtoIdsTruncados.length;
+    }
+
+    public String codificar() {
+        StringBuilder texto = new StringBuilder();
+
+        for (int i = 0; i < produtoIds.length; i++) {
+            if (i > 0) {
+                texto.append(';');
+            }
+            texto.append(produtoIds[i]).append(':').append(comDecaimento[i]).append(':').append(semDecaimento[i]);
+        }
+
+        if (produtoIdsTruncados.length > 0) {
+            texto.append('|');
+
+            for (int i = 0; i < produtoIdsTruncados.length; i++) {
+                if (i > 0) {
+                    texto.append(';');
+                }
+                texto.append(produtoIdsTruncados[i]).append(':').append(pesosTruncados[i]).append(':').append(diasTruncados[i]);
+            }
+        }
+
+        return texto.toString();
+    }
+
+    public static EstatisticasAcumuladas decodificar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return new EstatisticasAcumuladas(new long[0], new double[0], new double[0]);
+        }
+
+        String[] partes = texto.split("\\|", -1);
+
+        if (partes.length > 2) {
+            throw new IllegalArgumentException("Estatísticas acumuladas inválidas: " + texto);
+        }
+
+        String[] produtos = partes[0].split(";");
+        long[] produtoIds = new long[produtos.length];
+        double[] comDecaimento = new double[produtos.length];
+        double[] semDecaimento = new double[produtos.length];
+
+        for (int i = 0; i < produtos.length; i++) {
+            String[] campos = campos(produtos[i]);
+
+            produtoIds[i] = Long.parseLong(campos[0]);
+            comDecaimento[i] = Double.parseDouble(campos[1]);
+            semDecaimento[i] = Double.parseDouble(campos[2]);
+        }
+
+        String[] truncados = partes.length == 2 ? partes[1].split(";") : new String[0];
+        long[] produtoIdsTruncados = new long[truncados.length];
+        double[] pesosTruncados = new double[truncados.length];
+        long[] diasTruncados = new long[truncados.length];
+
+        for (int i = 0; i < truncados.length; i++) {
+            String[] campos = campos(truncados[i]);
+
+            produtoIdsTruncados[i] = Long.parseLong(campos[0]);
+            pesosTruncados[i] = Double.parseDouble(campos[1]);
+            diasTruncados[i] = Long.parseLong(campos[2]);
+        }
+
+        return new EstatisticasAcumuladas(produtoIds, comDecaimento, semDecaimento, produtoIdsTruncados,
+                pesosTruncados, diasTruncados);
+    }
+
+    private static String[] campos(String item) {
+        String[] campos = item.split(":");
+
+        if (campos.length != 3) {
+            throw new IllegalArgumentException("Estatísticas acumuladas inválidas: " + item);
+        }
+
+        return campos;
+    }
+}
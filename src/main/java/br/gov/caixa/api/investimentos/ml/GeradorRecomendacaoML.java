@@ -1,25 +1,69 @@
 package br.gov.caixa.api.investimentos.ml;
 
-import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
-import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
-import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
-import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
 import br.gov.caixa.api.investimentos.model.investimento.Investimento;
 import br.gov.caixa.api.investimentos.model.produto.Produto;
 import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoProdutos;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
+import static br.gov.caixa.api.investimentos.ml.MatrizCaracteristicas.COLUNAS;
+import static br.gov.caixa.api.investimentos.ml.MatrizCaracteristicas.COLUNA_VALOR;
+
 @ApplicationScoped
 public class GeradorRecomendacaoML {
 
+    @Inject
+    CatalogoProdutos catalogoProdutos;
+
+    @ConfigProperty(name = "recomendacao.kernel-vetorial.habilitado", defaultValue = "true")
+    boolean kernelVetorialHabilitado;
+
+    /* MATRIZ DO CATALOGO E A LISTA DE PRODUTOS DA MESMA VERSAO, COMPARTILHADAS PELOS ACUMULADORES; A MATRIZ E
+     * REFEITA QUANDO A VERSAO DO CatalogoProdutos MUDA (VER obterCandidatos) */
+    private volatile CandidatosRecomendacao candidatosCatalogo;
+
+    private volatile KernelDistancia kernel;
+
     public List<Produto> encontrarProdutosOrdenadosPorAparicao(List<?> entradas, List<Produto> todosProdutos) {
+        return recomendar(entradas, todosProdutos).getProdutos();
+    }
+
+    /* SO OS limite PRIMEIROS DA LISTA ORDENADA, SEM ORDENAR O RESTANTE */
+    public List<Produto> encontrarProdutosOrdenadosPorAparicao(List<?> entradas, List<Produto> todosProdutos, int limite) {
+        return recomendar(entradas, todosProdutos, limite).getProdutos();
+    }
+
+    /* SOBRE UM CATALOGO JA CARREGADO, PARA AS THREADS DOS CALCULOS EM PARALELO */
+    public List<Produto> encontrarProdutosOrdenadosPorAparicao(List<?> entradas, List<Produto> todosProdutos, int limite,
+                                                               CatalogoIndexado catalogo) {
+        return recomendar(entradas, todosProdutos, limite, catalogo).getProdutos();
+    }
+
+    /* NAO ALTERA OS PRODUTOS RECEBIDOS: AS PONTUACOES VEM NO ResultadoRecomendacao */
+    public ResultadoRecomendacao recomendar(List<?> entradas, List<Produto> todosProdutos) {
+        return recomendar(entradas, todosProdutos, Integer.MAX_VALUE);
+    }
+
+    /* RECOMENDACAO LIMITADA AOS limite PRODUTOS MAIS PONTUADOS (VER RankingParcial); OS DEMAIS FICAM FORA DO RESULTADO */
+    public ResultadoRecomendacao recomendar(List<?> entradas, List<Produto> todosProdutos, int limite) {
+        return recomendar(entradas, todosProdutos, limite, null);
+    }
+
+    /* catalogo NULL: O ATUAL DO CatalogoProdutos, LIDO SO QUANDO HA O QUE RECOMENDAR */
+    private ResultadoRecomendacao recomendar(List<?> entradas, List<Produto> todosProdutos, int limite,
+                                             CatalogoIndexado catalogo) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
         if (entradas == null) {
             throw new IllegalArgumentException("Lista de entradas não pode ser nula");
         }
@@ -27,186 +71,294 @@ public class GeradorRecomendacaoML {
             throw new IllegalArgumentException("Lista de produtos não pode ser nula");
         }
         if (entradas.isEmpty() || todosProdutos.isEmpty()) {
-            return List.of();
+            return ResultadoRecomendacao.vazio();
         }
 
-        Map<Produto, Double> contador = new HashMap<>();
+        CandidatosRecomendacao candidatos = new CandidatosRecomendacao(
+                (catalogo != null ? obterCandidatos(catalogo) : obterCandidatosCatalogo()).getMatriz(), todosProdutos);
+        KernelDistancia kernelAtual = obterKernel();
+        double[] distancias = candidatos.criarDistancias();
+        LocalDate hoje = LocalDate.now();
+
+        /* PONTUACAO POR POSICAO NA LISTA E AS POSICOES PONTUADAS NA ORDEM EM QUE APARECERAM */
+        int quantidade = todosProdutos.size();
+        double[] pontuacaoPorPosicao = new double[quantidade];
+        boolean[] pontuada = new boolean[quantidade];
+        List<Integer> posicoesPontuadas = new ArrayList<>();
+
+        double[] caracteristicasEntrada = new double[COLUNAS];
 
         for (Object entrada : entradas) {
-            Produto produtoMaisProximo = null;
-            double menorDistancia = Double.MAX_VALUE;
-            double pesoBase = 0;
-            double decayFactor = 1.0;
-            double peso = 0;
-
-            if (entrada instanceof Investimento investimento) {
-                pesoBase = (int) (Math.log10(investimento.getValor().doubleValue() + 1) * 1000);
-                if (investimento.getData() != null) {
-                    long diasDesdeInvestimento = ChronoUnit.DAYS.between(investimento.getData(), LocalDate.now());
-                    decayFactor = Math.exp(-diasDesdeInvestimento / 365.0);
+            Ponderacao ponderacao = ponderar(entrada, candidatos, caracteristicasEntrada);
+            int maisProximo = candidatos.buscarMaisProximo(caracteristicasEntrada, ponderacao.produtoId(), kernelAtual, distancias);
+
+            if (maisProximo >= 0) {
+                if (!pontuada[maisProximo]) {
+                    pontuada[maisProximo] = true;
+                    posicoesPontuadas.add(maisProximo);
                 }
-                peso = (int) (pesoBase * decayFactor);
-            } else if (entrada instanceof SimulacaoInvestimento simulacao) {
-                pesoBase = (Math.log10(simulacao.getValorInvestido().doubleValue() + 1) * 100);
-
-                double diasDesdeSimulacao = ChronoUnit.DAYS.between(simulacao.getDataSimulacao().toLocalDate(), LocalDate.now());
-                decayFactor = Math.exp(-diasDesdeSimulacao / 365.0);
-                peso = (pesoBase * decayFactor);
-            } else {
-                throw new IllegalArgumentException("Tipo não suportado: " + entrada.getClass());
+
+                pontuacaoPorPosicao[maisProximo] += ponderacao.peso(hoje);
             }
+        }
 
-            for (Produto produto : todosProdutos) {
-                Long produtoId = null;
-                if (entrada instanceof Investimento investimento) {
-                    produtoId = investimento.getProdutoId();
-                } else if (entrada instanceof SimulacaoInvestimento simulacao) {
-                    produtoId = simulacao.getProdutoId();
-                }
-                if (produtoId != null && produtoId.equals(produto.getId())) {
-                    continue;
-                }
+        /* PONTUACOES NA ORDEM DE APARICAO, QUE E O CRITERIO DE DESEMPATE DO RANKING */
+        double[] pontuacoesPorAparicao = new double[posicoesPontuadas.size()];
 
-                double distancia = calcularDistanciaEuclidiana(entrada, produto, todosProdutos);
-                if (distancia < menorDistancia) {
-                    menorDistancia = distancia;
-                    produtoMaisProximo = produto;
-                }
+        for (int i = 0; i < posicoesPontuadas.size(); i++) {
+            pontuacoesPorAparicao[i] = pontuacaoPorPosicao[posicoesPontuadas.get(i)];
+        }
+
+        int[] ordem = RankingParcial.ordenar(pontuacoesPorAparicao, pontuacoesPorAparicao.length, limite);
+        List<Produto> produtos = new ArrayList<>(ordem.length);
+        double[] pontuacoes = new double[ordem.length];
+
+        for (int i = 0; i < ordem.length; i++) {
+            produtos.add(todosProdutos.get(posicoesPontuadas.get(ordem[i])));
+            pontuacoes[i] = pontuacoesPorAparicao[ordem[i]];
+        }
+
+        return ResultadoRecomendacao.construir(produtos, pontuacoes);
+    }
+
+    /* SOMA O SINAL DE COOCORRENCIA A RECOMENDACAO: peso * (MAIOR PONTUACAO DA RECOMENDACAO) * sinal, ENTAO COM peso 1 UM
+     * PRODUTO SEM PONTUACAO PROPRIA E COM SINAL 1 EMPATA COM O PRIMEIRO DA RECOMENDACAO. PRODUTOS SO COM SINAL ENTRAM
+     * DEPOIS DOS RECOMENDADOS, POR ID, E SO SE ESTAO NO CATALOGO; EMPATES MANTEM ESSA ORDEM */
+    public ResultadoRecomendacao combinar(ResultadoRecomendacao recomendacao, SinalCoocorrencia sinal, double peso, int limite) {
+        return combinar(recomendacao, sinal, peso, limite, catalogoProdutos.obterCatalogo());
+    }
+
+    /* SOBRE UM CATALOGO JA CARREGADO, PARA THREADS SEM CONTEXTO DE REQUISICAO (PRE-CALCULO EM LOTE) */
+    public ResultadoRecomendacao combinar(ResultadoRecomendacao recomendacao, SinalCoocorrencia sinal, double peso, int limite,
+                                          CatalogoIndexado catalogo) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
+        if (sinal.isEmpty() || peso <= 0) {
+            return recomendacao.limitar(limite);
+        }
+
+        double escala = peso * (recomendacao.isEmpty() ? 1.0 : recomendacao.pontuacaoNaPosicao(0));
+
+        List<Produto> candidatos = new ArrayList<>(recomendacao.tamanho() + sinal.tamanho());
+        double[] pontuacoes = new double[recomendacao.tamanho() + sinal.tamanho()];
+
+        for (int i = 0; i < recomendacao.tamanho(); i++) {
+            Produto produto = recomendacao.getProdutos().get(i);
+            double coocorrencia = produto.getId() != null ? sinal.valor(produto.getId()) : 0.0;
+
+            pontuacoes[candidatos.size()] = recomendacao.pontuacaoNaPosicao(i) + escala * coocorrencia;
+            candidatos.add(produto);
+        }
+
+        for (int i = 0; i < sinal.tamanho(); i++) {
+            long produtoId = sinal.produtoIdNaPosicao(i);
+            Produto produto = catalogo.buscarPorId(produtoId);
+
+            if (produto != null && !recomendacao.contem(produtoId)) {
+                pontuacoes[candidatos.size()] = escala * sinal.valorNaPosicao(i);
+                candidatos.add(produto);
             }
+        }
+
+        int[] ordem = RankingParcial.ordenar(pontuacoes, candidatos.size(), limite);
+        List<Produto> produtos = new ArrayList<>(ordem.length);
+        double[] pontuacoesOrdenadas = new double[ordem.length];
+
+        for (int i = 0; i < ordem.length; i++) {
+            produtos.add(candidatos.get(ordem[i]));
+            pontuacoesOrdenadas[i] = pontuacoes[ordem[i]];
+        }
+
+        return ResultadoRecomendacao.construir(produtos, pontuacoesOrdenadas);
+    }
+
+    /* ACUMULADOR VAZIO SOBRE O CATALOGO ATUAL, PARA SER ALIMENTADO POR acumular A CADA NOVA ENTRADA DO HISTORICO */
+    public AcumuladorRecomendacao criarAcumulador() {
+        return criarAcumulador(catalogoProdutos.obterCatalogo());
+    }
+
+    /* ACUMULADOR SOBRE UM CATALOGO JA CARREGADO; NAO CONSULTA O CatalogoProdutos */
+    public AcumuladorRecomendacao criarAcumulador(CatalogoIndexado catalogo) {
+        CandidatosRecomendacao candidatos = obterCandidatos(catalogo);
+        return new AcumuladorRecomendacao(candidatos, candidatos.getMatriz().getVersao(), LocalDate.now());
+    }
+
+    /* CONSTROI A MATRIZ DO CATALOGO ANTES DE O TRABALHO SER DIVIDIDO ENTRE THREADS */
+    public void prepararCandidatos(CatalogoIndexado catalogo) {
+        obterCandidatos(catalogo);
+    }
+
+    public long obterAssinaturaCatalogo() {
+        return obterCandidatosCatalogo().getMatriz().getAssinatura();
+    }
 
-            if (produtoMaisProximo != null) {
+    /* ACUMULADOR SOBRE O CATALOGO ATUAL COM AS SOMAS EXPORTADAS DE OUTRO (AcumuladorRecomendacao.exportar), SEM
+     * RELER O HISTORICO. DEVOLVE NULL QUANDO AS SOMAS FORAM FEITAS SOBRE OUTRA MATRIZ OU CITAM PRODUTO QUE SAIU
+     * DO CATALOGO, JA QUE O PRODUTO MAIS PROXIMO DAS ENTRADAS PODE TER MUDADO */
+    public AcumuladorRecomendacao restaurarAcumulador(long assinaturaCatalogo, LocalDate dataReferencia,
+                                                      EstatisticasAcumuladas estatisticas) {
+        CandidatosRecomendacao candidatos = obterCandidatosCatalogo();
 
-                produtoMaisProximo.setPontuacao(produtoMaisProximo.getPontuacao() + peso);
-                contador.merge(produtoMaisProximo, peso, Double::sum);
+        if (candidatos.getMatriz().getAssinatura() != assinaturaCatalogo) {
+            return null;
+        }
+
+        AcumuladorRecomendacao acumulador = new AcumuladorRecomendacao(candidatos, candidatos.getMatriz().getVersao(), dataReferencia);
+
+        for (int i = 0; i < estatisticas.tamanho(); i++) {
+            int posicao = candidatos.posicao(estatisticas.produtoIds()[i]);
+
+            if (posicao < 0) {
+                return null;
+            }
+
+            acumulador.restaurar(posicao, estatisticas.comDecaimento()[i], estatisticas.semDecaimento()[i]);
+        }
+
+        for (int i = 0; i < estatisticas.quantidadeTruncados(); i++) {
+            int posicao = candidatos.posicao(estatisticas.produtoIdsTruncados()[i]);
+
+            if (posicao < 0) {
+                return null;
             }
+
+            acumulador.restaurarTruncada(posicao, estatisticas.pesosTruncados()[i], estatisticas.diasTruncados()[i]);
+        }
+
+        return acumulador;
+    }
+
+    /* PROCURA O PRODUTO MAIS PROXIMO DE CADA ENTRADA UMA UNICA VEZ E SOMA O PESO NO ACUMULADOR.
+     * O DECAIMENTO E APLICADO SO NA LEITURA, PELO PROPRIO ACUMULADOR */
+    public void acumular(AcumuladorRecomendacao acumulador, List<?> entradas) {
+        if (entradas == null) {
+            throw new IllegalArgumentException("Lista de entradas não pode ser nula");
         }
 
-        return contador.entrySet()
-                .stream()
-                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-                .map(Map.Entry::getKey)
-                .toList();
+        KernelDistancia kernelAtual = obterKernel();
+        CandidatosRecomendacao candidatos = acumulador.getCandidatos();
+        double[] caracteristicasEntrada = new double[COLUNAS];
+        double[] distancias = candidatos.criarDistancias();
+
+        synchronized (acumulador) {
+
+            for (Object entrada : entradas) {
+                Ponderacao ponderacao = ponderar(entrada, candidatos, caracteristicasEntrada);
+                int maisProximo = candidatos.buscarMaisProximo(caracteristicasEntrada, ponderacao.produtoId(), kernelAtual, distancias);
+
+                if (maisProximo >= 0) {
+                    acumulador.adicionar(maisProximo, ponderacao.pesoBase(), ponderacao.data(), ponderacao.inteiro());
+                }
+            }
+        }
     }
 
-    private double calcularDistanciaEuclidiana(Object entrada, Produto produto, List<Produto> todoProdutos) {
-        double valorNorm;
-        double tipoNorm;
-        double tipoRentNorm;
-        double periodoRentNorm;
-        double indiceNorm;
-        double liquidezNorm;
-        double fgcNorm;
-        double minimoInvNorm;
+    /* PREENCHE AS CARACTERISTICAS DA ENTRADA E DEVOLVE O PESO SEM DECAIMENTO, A DATA QUE DEFINE O DECAIMENTO
+     * (NULL QUANDO NAO DECAI) E O produtoId QUE NAO PODE SER RECOMENDADO DE VOLTA */
+    private Ponderacao ponderar(Object entrada, CandidatosRecomendacao candidatos, double[] caracteristicasEntrada) {
 
         if (entrada instanceof Investimento investimento) {
-            valorNorm = normalizar(investimento.getValor().doubleValue(), 0, 1_000_000);
-            tipoNorm = normalizarTipoProduto(investimento.getTipo());
-            tipoRentNorm = normalizarTipoRentabilidade(investimento.getTipoRentabilidade());
-            periodoRentNorm = normalizarPeriodoRentabilidade(investimento.getPeriodoRentabilidade());
-            indiceNorm = normalizarIndice(investimento.getIndice());
-            liquidezNorm = normalizar(
-                    investimento.getLiquidez() != null ? investimento.getLiquidez() : 0,
-                    -1, 365
-            );
-            fgcNorm = investimento.getFgc() != null && investimento.getFgc() ? 1.0 : 0.0;
-            minimoInvNorm = normalizar(
-                    investimento.getMinimoDiasInvestimento() != null ? investimento.getMinimoDiasInvestimento() : 0,
-                    0, 1800
-            );
-        } else if (entrada instanceof SimulacaoInvestimento simulacao) {
-            valorNorm = normalizar(simulacao.getValorInvestido().doubleValue(), 0, 1_000_000);
-
-            Produto p = null;
-
-            for (Produto todoProduto : todoProdutos) {
-                if (Objects.equals(simulacao.getProdutoId(), todoProduto.getId())) {
-                    p = todoProduto;
+            MatrizCaracteristicas.preencherInvestimento(investimento, caracteristicasEntrada);
+
+            return new Ponderacao((int) (Math.log10(investimento.getValor().doubleValue() + 1) * 1000),
+                    investimento.getData(), investimento.getProdutoId(), true);
+        }
+
+        if (entrada instanceof SimulacaoInvestimento simulacao) {
+            preencherSimulacao(simulacao, candidatos.getMatriz(), candidatos.getProdutos(), caracteristicasEntrada);
+
+            return new Ponderacao(Math.log10(simulacao.getValorInvestido().doubleValue() + 1) * 100,
+                    simulacao.getDataSimulacao().toLocalDate(), simulacao.getProdutoId(), false);
+        }
+
+        throw new IllegalArgumentException("Tipo não suportado: " + entrada.getClass());
+    }
+
+    private KernelDistancia obterKernel() {
+        KernelDistancia atual = kernel;
+
+        if (atual == null) {
+            atual = KernelDistancia.selecionar(kernelVetorialHabilitado);
+            kernel = atual;
+        }
+
+        return atual;
+    }
+
+    /* A SIMULACAO USA AS CARACTERISTICAS DO PRODUTO SIMULADO COM O VALOR INVESTIDO NA SIMULACAO */
+    private void preencherSimulacao(SimulacaoInvestimento simulacao, MatrizCaracteristicas matrizCatalogo,
+                                    List<Produto> todosProdutos, double[] destino) {
+
+        int linha = matrizCatalogo.linha(simulacao.getProdutoId());
+
+        if (linha >= 0) {
+            matrizCatalogo.copiarLinha(linha, destino, 0);
+        } else {
+            Produto produto = null;
+
+            for (Produto candidato : todosProdutos) {
+                if (Objects.equals(simulacao.getProdutoId(), candidato.getId())) {
+                    produto = candidato;
                     break;
                 }
             }
 
-            if (p == null) {
+            if (produto == null) {
                 throw new IllegalArgumentException(
                         "Produto não encontrado para simulação com produtoId: " + simulacao.getProdutoId()
                 );
             }
 
-            tipoNorm = p.getTipo().getValor();
-
-            tipoRentNorm = normalizarTipoRentabilidade(p.getTipoRentabilidade());
-            periodoRentNorm = normalizarPeriodoRentabilidade(p.getPeriodoRentabilidade());
-            indiceNorm = normalizarIndice(p.getIndice());
-            liquidezNorm = normalizar(
-                    p.getLiquidez() != null ? p.getLiquidez() : 0,
-                    -1, 365
-            );
-            fgcNorm = p.getFgc() != null && p.getFgc() ? 1.0 : 0.0;
-            minimoInvNorm = normalizar(
-                    p.getMinimoDiasInvestimento() != null ? p.getMinimoDiasInvestimento() : 0,
-                    0, 1800
-            );
-        } else {
-            throw new IllegalArgumentException(
-                    "Tipo não suportado: " + entrada.getClass()
-            );
+            MatrizCaracteristicas.preencherProduto(produto, destino, 0);
         }
 
-        double prodValorNorm = produto.getRentabilidade() != null ?
-                normalizar(produto.getRentabilidade().doubleValue() * 10000, 0, 1_000_000) : 0.5;
-        double prodTipoNorm = normalizarTipoProduto(produto.getTipo());
-        double prodTipoRentNorm = normalizarTipoRentabilidade(produto.getTipoRentabilidade());
-        double prodPeriodoRentNorm = normalizarPeriodoRentabilidade(produto.getPeriodoRentabilidade());
-        double prodIndiceNorm = normalizarIndice(produto.getIndice());
-        double prodLiquidezNorm = normalizar(produto.getLiquidez(), -1, 365);
-        double prodFgcNorm = produto.getFgc() ? 1.0 : 0.0;
-        double prodMinimoInvNorm = normalizar(produto.getMinimoDiasInvestimento(), 0, 1800);
-
-        return Math.sqrt(
-                Math.pow(valorNorm - prodValorNorm, 2) +
-                        Math.pow(tipoNorm - prodTipoNorm, 2) +
-                        Math.pow(tipoRentNorm - prodTipoRentNorm, 2) +
-                        Math.pow(periodoRentNorm - prodPeriodoRentNorm, 2) +
-                        Math.pow(indiceNorm - prodIndiceNorm, 2) +
-                        Math.pow(liquidezNorm - prodLiquidezNorm, 2) +
-                        Math.pow(fgcNorm - prodFgcNorm, 2) +
-                        Math.pow(minimoInvNorm - prodMinimoInvNorm, 2)
-        );
+        destino[COLUNA_VALOR] = MatrizCaracteristicas.normalizarValor(simulacao.getValorInvestido().doubleValue());
     }
 
-    private double normalizar(double valor, double min, double max) {
-        if (max == min) return 0.5;
-        return Math.max(0, Math.min(1, (valor - min) / (max - min)));
+    private CandidatosRecomendacao obterCandidatosCatalogo() {
+        return obterCandidatos(catalogoProdutos.obterCatalogo());
     }
 
-    private double normalizarTipoProduto(TipoProduto tipo) {
-        return tipo.getValor();
-    }
+    /* SO UMA VERSAO MAIS NOVA QUE A GUARDADA SUBSTITUI A MATRIZ COMPARTILHADA: UM CATALOGO ANTIGO RECEBIDO POR
+     * PARAMETRO GANHA CANDIDATOS PROPRIOS */
+    private CandidatosRecomendacao obterCandidatos(CatalogoIndexado catalogo) {
+        CandidatosRecomendacao atual = candidatosCatalogo;
 
-    private double normalizarTipoRentabilidade(TipoRentabilidade tipo) {
-        if (tipo == null) return 0.5;
-        return tipo == TipoRentabilidade.PRE ? 0.0 : 1.0;
-    }
+        if (atual != null && atual.getMatriz().getVersao() == catalogo.getVersao()) {
+            return atual;
+        }
 
-    private double normalizarPeriodoRentabilidade(PeriodoRentabilidade periodo) {
-        if (periodo == null) return 0.5;
-        return switch (periodo) {
-            case AO_DIA -> 0.0;
-            case AO_MES -> 0.33;
-            case AO_ANO -> 0.66;
-            case PERIODO_TOTAL -> 1.0;
-        };
-    }
+        synchronized (this) {
+            atual = candidatosCatalogo;
 
-    private double normalizarIndice(Indice indice) {
-        if (indice == null || indice == Indice.NENHUM) return 0.0;
-        return switch (indice) {
-            case SELIC -> 0.2;
-            case CDI -> 0.4;
-            case IPCA -> 0.6;
-            case IGP_M -> 0.8;
-            case IBOVESPA -> 1.0;
-            default -> 0.0;
-        };
+            if (atual != null && atual.getMatriz().getVersao() == catalogo.getVersao()) {
+                return atual;
+            }
+
+            MatrizCaracteristicas anterior = atual != null ? atual.getMatriz() : null;
+            MatrizCaracteristicas matriz = MatrizCaracteristicas.construir(catalogo.getVersao(), catalogo.listarTodos(),
+                    anterior, anterior != null && anterior.getVersao() == catalogo.getVersaoAnterior()
+                            ? catalogo.getProdutosAlterados() : null);
+            CandidatosRecomendacao novos = new CandidatosRecomendacao(matriz, catalogo.listarTodos());
+
+            if (atual == null || atual.getMatriz().getVersao() < catalogo.getVersao()) {
+                candidatosCatalogo = novos;
+            }
+
+            return novos;
+        }
     }
 
+    /* OS INVESTIMENTOS TRUNCAM O PESO DECAIDO PARA INTEIRO, COMO SEMPRE FIZERAM NA RECOMENDACAO COMPLETA; O
+     * AcumuladorRecomendacao TRUNCA DO MESMO JEITO NA LEITURA */
+    private record Ponderacao(double pesoBase, LocalDate data, Long produtoId, boolean inteiro) {
+
+        double peso(LocalDate hoje) {
+            double decaimento = data != null ? Math.exp(-ChronoUnit.DAYS.between(data, hoje) / 365.0) : 1.0;
+            double peso = pesoBase * decaimento;
+
+            return inteiro ? (int) peso : peso;
+        }
+    }
 }
@@ -0,0 +1,307 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import static br.gov.caixa.api.investimentos.ml.MatrizCaracteristicas.COLUNAS;
+
+/* KD-TREE IMPLICITA SOBRE AS LINHAS DA MatrizCaracteristicas: CADA FAIXA [inicio, fim) DE nos TEM O NO NO MEIO,
+ * DIVIDIDO NA COLUNA DE MAIOR AMPLITUDE DA FAIXA. A BUSCA DEVOLVE O MESMO VIZINHO DA FORCA BRUTA:
+ * A DISTANCIA E SOMADA NA MESMA ORDEM DE COLUNAS E EMPATES SAO DECIDIDOS PELA MENOR POSICAO NA LISTA DO CHAMADOR.
+ * CADA PRODUTO OCUPA UMA VAGA: AS DA ARVORE, FIXAS DESDE A CONSTRUCAO, E AS EXTRAS, PERCORRIDAS POR FORCA BRUTA.
+ * linhaPorVaga LEVA A VAGA A LINHA DA MATRIZ ATUAL (-1 QUANDO O PRODUTO SAIU OU MUDOU). NA NOVA VERSAO DO CATALOGO
+ * (atualizar) OS PRODUTOS ALTERADOS PERDEM A VAGA ANTIGA E GANHAM UMA EXTRA, E A DIVISAO DA ARVORE E REAPROVEITADA:
+ * VAGAS MORTAS CONTINUAM DIVIDINDO O ESPACO, SO NAO SAO AVALIADAS, ENTAO A PODA CONTINUA VALIDA */
+final class IndiceKD {
+
+    /* QUANDO AS VAGAS EXTRAS MAIS AS MORTAS PASSAM DO MAIOR ENTRE ESSE VALOR E UM QUARTO DA ARVORE, A ATUALIZACAO
+     * DEVOLVE NULL E O INDICE E RECONSTRUIDO, PARA QUE A FORCA BRUTA DAS EXTRAS NAO DOMINE A BUSCA */
+    private static final int VAGAS_AVULSAS_MINIMO = 32;
+
+    /* ARVORE: CARACTERISTICAS E IDS POR VAGA, DA MATRIZ EM QUE FOI CONSTRUIDA, E A ORDEM DAS VAGAS NOS NOS */
+    private final double[] caracteristicas;
+    private final long[] idsArvore;
+    private final int[] nos;
+    private final int[] coluna;
+
+    /* VAGAS EXTRAS: A VAGA nos.length + i E O PRODUTO idsExtras[i] */
+    private final double[] caracteristicasExtras;
+    private final long[] idsExtras;
+
+    private final int[] linhaPorVaga;
+    private final int vagasMortas;
+
+    private IndiceKD(double[] caracteristicas, long[] idsArvore, int[] nos, int[] coluna,
+                     double[] caracteristicasExtras, long[] idsExtras, int[] linhaPorVaga, int vagasMortas) {
+        this.caracteristicas = caracteristicas;
+        this.idsArvore = idsArvore;
+        this.nos = nos;
+        this.coluna = coluna;
+        this.caracteristicasExtras = caracteristicasExtras;
+        this.idsExtras = idsExtras;
+        this.linhaPorVaga = linhaPorVaga;
+        this.vagasMortas = vagasMortas;
+    }
+
+    /* A VAGA i DA ARVORE E A LINHA i DA MATRIZ */
+    static IndiceKD construir(double[] caracteristicas, long[] ids, int quantidadeLinhas) {
+
+        int[] nos = new int[quantidadeLinhas];
+        int[] linhaPorVaga = new int[quantidadeLinhas];
+        for (int i = 0; i < quantidadeLinhas; i++) {
+            nos[i] = i;
+            linhaPorVaga[i] = i;
+        }
+
+        int[] coluna = new int[quantidadeLinhas];
+        dividir(caracteristicas, nos, coluna, 0, quantidadeLinhas);
+
+        return new IndiceKD(caracteristicas, ids, nos, coluna, new double[0], new long[0], linhaPorVaga, 0);
+    }
+
+    /* INDICE DA NOVA MATRIZ A PARTIR DESTE, TROCANDO SO AS VAGAS DOS produtosAlterados. A MATRIZ ANTERIOR E A NOVA
+     * PRECISAM TER UM ID DISTINTO POR LINHA. DEVOLVE NULL, PARA O INDICE SER RECONSTRUIDO, QUANDO AS VAGAS AVULSAS
+     * PASSAM DO LIMITE OU QUANDO A DIFERENCA NAO EXPLICA A NOVA MATRIZ (UM PRODUTO FORA DE produtosAlterados QUE
+     * SAIU, ENTROU OU MUDOU DE CARACTERISTICAS) */
+    IndiceKD atualizar(double[] novasCaracteristicas, Map<Long, Integer> novaLinhaPorId, int quantidadeLinhas,
+                       Set<Long> produtosAlterados) {
+
+        int vagasArvore = nos.length;
+        int extrasMantidas = 0;
+        long[] idsNovasExtras = new long[idsExtras.length + produtosAlterados.size()];
+        double[] novasExtras = new double[idsNovasExtras.length * COLUNAS];
+        int[] novaLinhaPorVaga = new int[vagasArvore + idsNovasExtras.length];
+        boolean[] linhaCoberta = new boolean[quantidadeLinhas];
+        int cobertas = 0;
+        int mortas = 0;
+
+        for (int vaga = 0; vaga < vagasArvore + idsExtras.length; vaga++) {
+            boolean daArvore = vaga < vagasArvore;
+            long id = daArvore ? idsArvore[vaga] : idsExtras[vaga - vagasArvore];
+            boolean viva = linhaPorVaga[vaga] >= 0 && !produtosAlterados.contains(id);
+            Integer linha = viva ? novaLinhaPorId.get(id) : null;
+
+            if (viva && (linha == null || linhaCoberta[linha] || !mesmaLinha(daArvore ? caracteristicas : caracteristicasExtras,
+                    daArvore ? vaga : vaga - vagasArvore, novasCaracteristicas, linha))) {
+                return null;
+            }
+
+            if (daArvore) {
+                novaLinhaPorVaga[vaga] = viva ? linha : -1;
+                mortas += viva ? 0 : 1;
+            } else if (viva) {
+                novaLinhaPorVaga[vagasArvore + extrasMantidas] = linha;
+                idsNovasExtras[extrasMantidas] = id;
+                System.arraycopy(novasCaracteristicas, linha * COLUNAS, novasExtras, extrasMantidas * COLUNAS, COLUNAS);
+                extrasMantidas++;
+            }
+
+            if (viva) {
+                linhaCoberta[linha] = true;
+                cobertas++;
+            }
+        }
+
+        int extras = extrasMantidas;
+
+        for (Long id : produtosAlterados) {
+            Integer linha = novaLinhaPorId.get(id);
+
+            if (linha != null) {
+                if (linhaCoberta[linha]) {
+                    return null;
+                }
+
+                novaLinhaPorVaga[vagasArvore + extras] = linha;
+                idsNovasExtras[extras] = id;
+                System.arraycopy(novasCaracteristicas, linha * COLUNAS, novasExtras, extras * COLUNAS, COLUNAS);
+                linhaCoberta[linha] = true;
+                cobertas++;
+                extras++;
+            }
+        }
+
+        if (cobertas != quantidadeLinhas || extras + mortas > Math.max(VAGAS_AVULSAS_MINIMO, vagasArvore / 4)) {
+            return null;
+        }
+
+        return new IndiceKD(caracteristicas, idsArvore, nos, coluna, Arrays.copyOf(novasExtras, extras * COLUNAS),
+                Arrays.copyOf(idsNovasExtras, extras), Arrays.copyOf(novaLinhaPorVaga, vagasArvore + extras), mortas);
+    }
+
+    int quantidadeExtras() {
+        return idsExtras.length;
+    }
+
+    int quantidadeVagasMortas() {
+        return vagasMortas;
+    }
+
+    /* posicaoPorLinha[linha] E A POSICAO DO PRODUTO NA LISTA DO CHAMADOR; LINHAS COM O idExcluido SAO IGNORADAS.
+     * RETORNA A LINHA MAIS PROXIMA OU -1. AS EXTRAS SAO AVALIADAS ANTES, PARA A DISTANCIA DELAS JA PODAR A ARVORE;
+     * O RESULTADO NAO DEPENDE DA ORDEM, JA QUE O MELHOR E O DE MENOR (DISTANCIA, POSICAO) */
+    int buscarMaisProximo(double[] entrada, int[] posicaoPorLinha, long[] ids, boolean[] comId,
+                          boolean excluir, long idExcluido) {
+
+        Busca busca = new Busca(entrada, posicaoPorLinha, ids, comId, excluir, idExcluido);
+
+        for (int i = 0; i < idsExtras.length; i++) {
+            busca.avaliar(linhaPorVaga[nos.length + i], caracteristicasExtras, i);
+        }
+
+        buscar(busca, 0, nos.length);
+
+        return busca.melhorLinha;
+    }
+
+    private void buscar(Busca busca, int inicio, int fim) {
+
+        if (inicio >= fim) {
+            return;
+        }
+
+        int meio = (inicio + fim) >>> 1;
+        int vaga = nos[meio];
+
+        if (linhaPorVaga[vaga] >= 0) {
+            busca.avaliar(linhaPorVaga[vaga], caracteristicas, vaga);
+        }
+
+        if (fim - inicio == 1) {
+            return;
+        }
+
+        double diferenca = busca.entrada[coluna[meio]] - caracteristicas[vaga * COLUNAS + coluna[meio]];
+        boolean esquerdaPrimeiro = diferenca <= 0;
+
+        buscar(busca, esquerdaPrimeiro ? inicio : meio + 1, esquerdaPrimeiro ? meio : fim);
+
+        /* O LADO OPOSTO SO E DESCARTADO QUANDO ESTA ESTRITAMENTE MAIS LONGE, PARA MANTER O DESEMPATE */
+        if (diferenca * diferenca <= busca.menorDistancia) {
+            buscar(busca, esquerdaPrimeiro ? meio + 1 : inicio, esquerdaPrimeiro ? fim : meio);
+        }
+    }
+
+    private static boolean mesmaLinha(double[] origem, int vaga, double[] destino, int linha) {
+        return Arrays.equals(origem, vaga * COLUNAS, (vaga + 1) * COLUNAS, destino, linha * COLUNAS, (linha + 1) * COLUNAS);
+    }
+
+    private static void dividir(double[] caracteristicas, int[] linhas, int[] coluna, int inicio, int fim) {
+
+        if (fim - inicio <= 1) {
+            return;
+        }
+
+        int meio = (inicio + fim) >>> 1;
+        int colunaDivisao = colunaDeMaiorAmplitude(caracteristicas, linhas, inicio, fim);
+
+        selecionar(caracteristicas, linhas, inicio, fim - 1, meio, colunaDivisao);
+        coluna[meio] = colunaDivisao;
+
+        dividir(caracteristicas, linhas, coluna, inicio, meio);
+        dividir(caracteristicas, linhas, coluna, meio + 1, fim);
+    }
+
+    private static int colunaDeMaiorAmplitude(double[] caracteristicas, int[] linhas, int inicio, int fim) {
+
+        int melhorColuna = 0;
+        double maiorAmplitude = -1;
+
+        for (int c = 0; c < COLUNAS; c++) {
+            double minimo = Double.MAX_VALUE;
+            double maximo = -Double.MAX_VALUE;
+
+            for (int i = inicio; i < fim; i++) {
+                double valor = caracteristicas[linhas[i] * COLUNAS + c];
+                minimo = Math.min(minimo, valor);
+                maximo = Math.max(maximo, valor);
+            }
+
+            if (maximo - minimo > maiorAmplitude) {
+                maiorAmplitude = maximo - minimo;
+                melhorColuna = c;
+            }
+        }
+
+        return melhorColuna;
+    }
+
+    /* QUICKSELECT: DEIXA NA POSICAO k A LINHA DE ORDEM k NA COLUNA, MENORES OU IGUAIS A ESQUERDA E MAIORES OU IGUAIS A DIREITA */
+    private static void selecionar(double[] caracteristicas, int[] linhas, int esquerda, int direita, int k, int c) {
+
+        while (esquerda < direita) {
+            double pivo = caracteristicas[linhas[(esquerda + direita) >>> 1] * COLUNAS + c];
+            int i = esquerda;
+            int j = direita;
+
+            while (i <= j) {
+                while (caracteristicas[linhas[i] * COLUNAS + c] < pivo) {
+                    i++;
+                }
+                while (caracteristicas[linhas[j] * COLUNAS + c] > pivo) {
+                    j--;
+                }
+                if (i <= j) {
+                    int troca = linhas[i];
+                    linhas[i] = linhas[j];
+                    linhas[j] = troca;
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                direita = j;
+            } else if (k >= i) {
+                esquerda = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static final class Busca {
+
+        private final double[] entrada;
+        private final int[] posicaoPorLinha;
+        private final long[] ids;
+        private final boolean[] comId;
+        private final boolean excluir;
+        private final long idExcluido;
+
+        private int melhorLinha = -1;
+        private double menorDistancia = Double.MAX_VALUE;
+
+        private Busca(double[] entrada, int[] posicaoPorLinha, long[] ids, boolean[] comId,
+                      boolean excluir, long idExcluido) {
+            this.entrada = entrada;
+            this.posicaoPorLinha = posicaoPorLinha;
+            this.ids = ids;
+            this.comId = comId;
+            this.excluir = excluir;
+            this.idExcluido = idExcluido;
+        }
+
+        /* linha NA MATRIZ ATUAL; AS CARACTERISTICAS ESTAO EM caracteristicas NA POSICAO vaga */
+        private void avaliar(int linha, double[] caracteristicas, int vaga) {
+
+            if (excluir && comId[linha] && ids[linha] == idExcluido) {
+                return;
+            }
+
+            int base = vaga * COLUNAS;
+            double distancia = 0;
+            for (int c = 0; c < COLUNAS; c++) {
+                double diferenca = entrada[c] - caracteristicas[base + c];
+                distancia += diferenca * diferenca;
+            }
+
+            if (distancia < menorDistancia || (distancia == menorDistancia && melhorLinha >= 0 &&
+                    posicaoPorLinha[linha] < posicaoPorLinha[melhorLinha])) {
+                menorDistancia = distancia;
+                melhorLinha = linha;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import java.util.Arrays;
+
+/* DISTANCIA EUCLIDIANA AO QUADRADO DE UMA ENTRADA A TODOS OS CANDIDATOS DE UMA VEZ.
+ * OS CANDIDATOS VEM POR COLUNA (colunas[coluna * quantidade + candidato]) E CADA DISTANCIA E SOMADA
+ * COLUNA A COLUNA, NA MESMA ORDEM DA VERSAO ESCALAR, ENTAO AS IMPLEMENTACOES DEVOLVEM OS MESMOS VALORES */
+interface KernelDistancia {
+
+    String MODULO_VETORIAL = "jdk.incubator.vector";
+
+    KernelDistancia ESCALAR = (entrada, colunas, quantidade, distancias) -> {
+        Arrays.fill(distancias, 0, quantidade, 0.0);
+
+        for (int coluna = 0; coluna < entrada.length; coluna++) {
+            double valor = entrada[coluna];
+            int base = coluna * quantidade;
+
+            for (int i = 0; i < quantidade; i++) {
+                double diferenca = valor - colunas[base + i];
+                distancias[i] += diferenca * diferenca;
+            }
+        }
+    };
+
+    void calcularDistancias(double[] entrada, double[] colunas, int quantidade, double[] distancias);
+
+    /* O KERNEL VETORIAL (src/vector/java) SO EXISTE NO BUILD COM O PERFIL vetorial E SO E CARREGADO QUANDO O
+     * MODULO INCUBADO ESTA NA JVM (--add-modules jdk.incubator.vector); FORA DISSO O KERNEL E O ESCALAR */
+    static KernelDistancia selecionar(boolean vetorialHabilitado) {
+
+        if (!vetorialHabilitado || ModuleLayer.boot().findModule(MODULO_VETORIAL).isEmpty()) {
+            return ESCALAR;
+        }
+
+        try {
+            return (KernelDistancia) Class.forName(KernelDistancia.class.getPackageName() + ".KernelDistanciaVetorial")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return ESCALAR;
+        }
+    }
+}
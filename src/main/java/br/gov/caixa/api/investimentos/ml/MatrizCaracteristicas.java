@@ -0,0 +1,225 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.model.investimento.Investimento;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/* CARACTERISTICAS NORMALIZADAS DOS PRODUTOS EM UM UNICO double[] (UMA LINHA DE 8 COLUNAS POR PRODUTO)
+ * E O MAPA produtoId -> LINHA, COM O IndiceKD DAS LINHAS. CONSTRUIDA UMA VEZ POR VERSAO DO CATALOGO E NUNCA ALTERADA DEPOIS.
+ * COLUNAS: VALOR, TIPO, TIPO DE RENTABILIDADE, PERIODO, INDICE, LIQUIDEZ, FGC, MINIMO DE DIAS */
+final class MatrizCaracteristicas {
+
+    static final int COLUNAS = 8;
+
+    static final int COLUNA_VALOR = 0;
+
+    /* NORMALIZACAO DOS ENUMS POR ORDINAL; A ULTIMA POSICAO E O VALOR PARA NULL */
+    private static final double[] TIPO_RENTABILIDADE = porOrdinal(TipoRentabilidade.values().length, 0.5);
+    private static final double[] PERIODO_RENTABILIDADE = porOrdinal(PeriodoRentabilidade.values().length, 0.5);
+    private static final double[] INDICE = porOrdinal(Indice.values().length, 0.0);
+
+    static {
+        for (TipoRentabilidade tipo : TipoRentabilidade.values()) {
+            TIPO_RENTABILIDADE[tipo.ordinal()] = tipo == TipoRentabilidade.PRE ? 0.0 : 1.0;
+        }
+
+        for (PeriodoRentabilidade periodo : PeriodoRentabilidade.values()) {
+            PERIODO_RENTABILIDADE[periodo.ordinal()] = switch (periodo) {
+                case AO_DIA -> 0.0;
+                case AO_MES -> 0.33;
+                case AO_ANO -> 0.66;
+                case PERIODO_TOTAL -> 1.0;
+            };
+        }
+
+        for (Indice indice : Indice.values()) {
+            INDICE[indice.ordinal()] = switch (indice) {
+                case SELIC -> 0.2;
+                case CDI -> 0.4;
+                case IPCA -> 0.6;
+                case IGP_M -> 0.8;
+                case IBOVESPA -> 1.0;
+                case NENHUM -> 0.0;
+            };
+        }
+    }
+
+    private final long versao;
+    private final double[] caracteristicas;
+    private final long[] ids;
+    private final boolean[] comId;
+    private final Map<Long, Integer> linhaPorId;
+    private final IndiceKD indice;
+    private final long assinatura;
+
+    private MatrizCaracteristicas(long versao, double[] caracteristicas, long[] ids, boolean[] comId,
+                                  Map<Long, Integer> linhaPorId, IndiceKD indice) {
+        this.versao = versao;
+        this.caracteristicas = caracteristicas;
+        this.ids = ids;
+        this.comId = comId;
+        this.linhaPorId = linhaPorId;
+        this.indice = indice;
+        this.assinatura = ((long) Arrays.hashCode(caracteristicas) << 32) ^ (Arrays.hashCode(ids) & 0xFFFFFFFFL);
+    }
+
+    static MatrizCaracteristicas construir(long versao, List<Produto> produtos) {
+        return construir(versao, produtos, null);
+    }
+
+    static MatrizCaracteristicas construir(long versao, List<Produto> produtos, MatrizCaracteristicas anterior) {
+        return construir(versao, produtos, anterior, null);
+    }
+
+    /* QUANDO A NOVA VERSAO DO CATALOGO NAO MUDA NENHUMA CARACTERISTICA NEM A ORDEM DOS PRODUTOS
+     * (POR EXEMPLO, SO O NOME FOI ALTERADO), O IndiceKD DA MATRIZ ANTERIOR E REAPROVEITADO. COM OS produtosAlterados
+     * DESDE A MATRIZ ANTERIOR (CatalogoIndexado.getProdutosAlterados), O INDICE E ATUALIZADO SO NAS VAGAS DELES
+     * (IndiceKD.atualizar); SEM ELES, OU COM PRODUTOS SEM ID OU REPETIDOS, E RECONSTRUIDO */
+    static MatrizCaracteristicas construir(long versao, List<Produto> produtos, MatrizCaracteristicas anterior,
+                                           Set<Long> produtosAlterados) {
+
+        int quantidade = produtos.size();
+        double[] caracteristicas = new double[quantidade * COLUNAS];
+        long[] ids = new long[quantidade];
+        boolean[] comId = new boolean[quantidade];
+        Map<Long, Integer> linhaPorId = new HashMap<>();
+
+        for (int linha = 0; linha < quantidade; linha++) {
+            Produto produto = produtos.get(linha);
+
+            preencherProduto(produto, caracteristicas, linha * COLUNAS);
+            comId[linha] = produto.getId() != null;
+            ids[linha] = comId[linha] ? produto.getId() : 0L;
+
+            if (comId[linha]) {
+                linhaPorId.putIfAbsent(produto.getId(), linha);
+            }
+        }
+
+        boolean mesmasLinhas = anterior != null && Arrays.equals(anterior.caracteristicas, caracteristicas) &&
+                Arrays.equals(anterior.ids, ids) && Arrays.equals(anterior.comId, comId);
+
+        if (mesmasLinhas) {
+            return new MatrizCaracteristicas(versao, anterior.caracteristicas, anterior.ids, anterior.comId,
+                    anterior.linhaPorId, anterior.indice);
+        }
+
+        IndiceKD indice = null;
+
+        if (anterior != null && produtosAlterados != null && anterior.isIdentificadaPorId() &&
+                linhaPorId.size() == quantidade) {
+            indice = anterior.indice.atualizar(caracteristicas, linhaPorId, quantidade, produtosAlterados);
+        }
+
+        if (indice == null) {
+            indice = IndiceKD.construir(caracteristicas, ids, quantidade);
+        }
+
+        return new MatrizCaracteristicas(versao, caracteristicas, ids, comId, Map.copyOf(linhaPorId), indice);
+    }
+
+    long getVersao() {
+        return versao;
+    }
+
+    /* DEPENDE SO DAS CARACTERISTICAS E DA ORDEM DOS PRODUTOS, ENTAO E A MESMA ENTRE REINICIOS DA APLICACAO
+     * (AO CONTRARIO DA VERSAO) E MUDA QUANDO O PRODUTO MAIS PROXIMO DE ALGUMA ENTRADA PODE MUDAR */
+    long getAssinatura() {
+        return assinatura;
+    }
+
+    int quantidadeLinhas() {
+        return ids.length;
+    }
+
+    /* posicaoPorLinha[linha] E A POSICAO DO PRODUTO DA LINHA NA LISTA DO CHAMADOR, USADA NO DESEMPATE */
+    int buscarMaisProximo(double[] entrada, int[] posicaoPorLinha, Long produtoIdExcluido) {
+        return indice.buscarMaisProximo(entrada, posicaoPorLinha, ids, comId,
+                produtoIdExcluido != null, produtoIdExcluido != null ? produtoIdExcluido : 0L);
+    }
+
+    boolean isMesmoIndice(MatrizCaracteristicas outra) {
+        return outra != null && indice == outra.indice;
+    }
+
+    IndiceKD getIndice() {
+        return indice;
+    }
+
+    /* TODA LINHA TEM UM produtoId, DISTINTO DAS DEMAIS */
+    private boolean isIdentificadaPorId() {
+        return linhaPorId.size() == ids.length;
+    }
+
+    /* RETORNA -1 QUANDO O PRODUTO NAO ESTA NA MATRIZ */
+    int linha(Long produtoId) {
+        if (produtoId == null) {
+            return -1;
+        }
+
+        Integer linha = linhaPorId.get(produtoId);
+        return linha != null ? linha : -1;
+    }
+
+    void copiarLinha(int linha, double[] destino, int deslocamento) {
+        System.arraycopy(caracteristicas, linha * COLUNAS, destino, deslocamento, COLUNAS);
+    }
+
+    /* O VALOR DO PRODUTO E A RENTABILIDADE EM ESCALA DE 10.000 */
+    static void preencherProduto(Produto produto, double[] destino, int deslocamento) {
+        destino[deslocamento + COLUNA_VALOR] = produto.getRentabilidade() != null ?
+                normalizar(produto.getRentabilidade().doubleValue() * 10000, 0, 1_000_000) : 0.5;
+
+        preencherComuns(produto.getTipo(), produto.getTipoRentabilidade(), produto.getPeriodoRentabilidade(),
+                produto.getIndice(), produto.getLiquidez(), produto.getFgc(), produto.getMinimoDiasInvestimento(),
+                destino, deslocamento);
+    }
+
+    static void preencherInvestimento(Investimento investimento, double[] destino) {
+        destino[COLUNA_VALOR] = normalizar(investimento.getValor().doubleValue(), 0, 1_000_000);
+
+        preencherComuns(investimento.getTipo(), investimento.getTipoRentabilidade(),
+                investimento.getPeriodoRentabilidade(), investimento.getIndice(), investimento.getLiquidez(),
+                investimento.getFgc(), investimento.getMinimoDiasInvestimento(), destino, 0);
+    }
+
+    static double normalizarValor(double valor) {
+        return normalizar(valor, 0, 1_000_000);
+    }
+
+    private static void preencherComuns(TipoProduto tipo, TipoRentabilidade tipoRentabilidade,
+                                        PeriodoRentabilidade periodo, Indice indice, Integer liquidez,
+                                        Boolean fgc, Integer minimoDias, double[] destino, int deslocamento) {
+
+        destino[deslocamento + 1] = tipo != null ? tipo.getValor() : 0.0;
+        destino[deslocamento + 2] = porOrdinal(TIPO_RENTABILIDADE, tipoRentabilidade);
+        destino[deslocamento + 3] = porOrdinal(PERIODO_RENTABILIDADE, periodo);
+        destino[deslocamento + 4] = porOrdinal(INDICE, indice);
+        destino[deslocamento + 5] = normalizar(liquidez != null ? liquidez : 0, -1, 365);
+        destino[deslocamento + 6] = fgc != null && fgc ? 1.0 : 0.0;
+        destino[deslocamento + 7] = normalizar(minimoDias != null ? minimoDias : 0, 0, 1800);
+    }
+
+    private static double normalizar(double valor, double min, double max) {
+        return Math.max(0, Math.min(1, (valor - min) / (max - min)));
+    }
+
+    private static double porOrdinal(double[] tabela, Enum<?> valor) {
+        return tabela[valor != null ? valor.ordinal() : tabela.length - 1];
+    }
+
+    private static double[] porOrdinal(int quantidade, double valorNulo) {
+        double[] tabela = new double[quantidade + 1];
+        tabela[quantidade] = valorNulo;
+        return tabela;
+    }
+}
@@ -0,0 +1,188 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/* COOCORRENCIA DE PRODUTOS ENTRE CLIENTES ("QUEM INVESTIU EM X TAMBEM INVESTIU EM Y"). CADA PRODUTO GANHA UM INDICE
+ * DENSO NA PRIMEIRA VEZ QUE APARECE; A LINHA DE X GUARDA SO AS COLUNAS NAO NULAS (INDICE DE Y E QUANTOS CLIENTES
+ * TEM X E Y) EM VETORES DE PRIMITIVOS. O PAR (CLIENTE, PRODUTO) E REGISTRADO UMA VEZ: NA PRIMEIRA VEZ QUE O CLIENTE
+ * INVESTE EM UM PRODUTO, A CONTAGEM DO PAR COM CADA PRODUTO QUE ELE JA TINHA SOBE EM UM. COMO O RESULTADO SO DEPENDE
+ * DO CONJUNTO DE PARES, A ORDEM DOS REGISTROS NAO IMPORTA E REPETIR UM PAR NAO ALTERA NADA.
+ * O SINAL DE UM CLIENTE (SinalCoocorrencia) E SOMADO A RECOMENDACAO PELO GeradorRecomendacaoML.combinar */
+public final class ModeloCoocorrencia {
+
+    private final Map<Long, Integer> indicePorProduto = new HashMap<>();
+    private final Map<Long, ProdutosCliente> produtosPorCliente = new HashMap<>();
+
+    private long[] produtoPorIndice = new long[16];
+    private int[] clientesPorProduto = new int[16];
+    private int[][] colunas = new int[16][];
+    private int[][] contagens = new int[16][];
+    private int[] tamanhoLinha = new int[16];
+    private int quantidadeProdutos;
+
+    /* FALSE QUANDO O CLIENTE JA TINHA O PRODUTO */
+    public synchronized boolean registrar(long clienteId, long produtoId) {
+
+        int produto = indiceDoProduto(produtoId);
+        ProdutosCliente doCliente = produtosPorCliente.computeIfAbsent(clienteId, c -> new ProdutosCliente());
+
+        if (doCliente.contem(produto)) {
+            return false;
+        }
+
+        for (int i = 0; i < doCliente.quantidade; i++) {
+            int outro = doCliente.indices[i];
+
+            incrementar(produto, outro);
+            incrementar(outro, produto);
+        }
+
+        doCliente.adicionar(produto);
+        clientesPorProduto[produto]++;
+
+        return true;
+    }
+
+    /* PARA CADA PRODUTO Y QUE O CLIENTE NAO TEM, A MEDIA SOBRE OS PRODUTOS X DO CLIENTE DA FRACAO DOS CLIENTES DE X
+     * QUE TAMBEM TEM Y. O CUSTO DEPENDE DOS PRODUTOS DO CLIENTE E DAS LINHAS DELES, NAO DO NUMERO DE CLIENTES */
+    public synchronized SinalCoocorrencia sinal(long clienteId) {
+
+        ProdutosCliente doCliente = produtosPorCliente.get(clienteId);
+
+        if (doCliente == null || doCliente.quantidade == 0) {
+            return SinalCoocorrencia.vazio();
+        }
+
+        double[] soma = new double[quantidadeProdutos];
+
+        for (int i = 0; i < doCliente.quantidade; i++) {
+            int produto = doCliente.indices[i];
+            double clientes = clientesPorProduto[produto];
+
+            for (int j = 0; j < tamanhoLinha[produto]; j++) {
+                soma[colunas[produto][j]] += contagens[produto][j] / clientes;
+            }
+        }
+
+        for (int i = 0; i < doCliente.quantidade; i++) {
+            soma[doCliente.indices[i]] = 0;
+        }
+
+        int quantidade = 0;
+        long[] produtoIds = new long[quantidadeProdutos];
+        double[] valores = new double[quantidadeProdutos];
+
+        for (int produto = 0; produto < quantidadeProdutos; produto++) {
+            if (soma[produto] > 0) {
+                produtoIds[quantidade] = produtoPorIndice[produto];
+                valores[quantidade++] = soma[produto] / doCliente.quantidade;
+            }
+        }
+
+        return SinalCoocorrencia.construir(Arrays.copyOf(produtoIds, quantidade), Arrays.copyOf(valores, quantidade));
+    }
+
+    public synchronized int quantidadeClientes() {
+        return produtosPorCliente.size();
+    }
+
+    public synchronized int quantidadeProdutos() {
+        return quantidadeProdutos;
+    }
+
+    /* QUANTOS CLIENTES TEM OS DOIS PRODUTOS */
+    public synchronized int contagem(long produtoId, long outroProdutoId) {
+        Integer produto = indicePorProduto.get(produtoId);
+        Integer outro = indicePorProduto.get(outroProdutoId);
+
+        if (produto == null || outro == null) {
+            return 0;
+        }
+
+        int coluna = buscarColuna(produto, outro);
+        return coluna >= 0 ? contagens[produto][coluna] : 0;
+    }
+
+    private int indiceDoProduto(long produtoId) {
+        Integer indice = indicePorProduto.get(produtoId);
+
+        if (indice != null) {
+            return indice;
+        }
+
+        if (quantidadeProdutos == produtoPorIndice.length) {
+            int capacidade = quantidadeProdutos * 2;
+
+            produtoPorIndice = Arrays.copyOf(produtoPorIndice, capacidade);
+            clientesPorProduto = Arrays.copyOf(clientesPorProduto, capacidade);
+            colunas = Arrays.copyOf(colunas, capacidade);
+            contagens = Arrays.copyOf(contagens, capacidade);
+            tamanhoLinha = Arrays.copyOf(tamanhoLinha, capacidade);
+        }
+
+        int novo = quantidadeProdutos++;
+        produtoPorIndice[novo] = produtoId;
+        colunas[novo] = new int[4];
+        contagens[novo] = new int[4];
+        indicePorProduto.put(produtoId, novo);
+
+        return novo;
+    }
+
+    private void incrementar(int linha, int coluna) {
+        int posicao = buscarColuna(linha, coluna);
+
+        if (posicao >= 0) {
+            contagens[linha][posicao]++;
+            return;
+        }
+
+        int tamanho = tamanhoLinha[linha];
+
+        if (tamanho == colunas[linha].length) {
+            colunas[linha] = Arrays.copyOf(colunas[linha], tamanho * 2);
+            contagens[linha] = Arrays.copyOf(contagens[linha], tamanho * 2);
+        }
+
+        colunas[linha][tamanho] = coluna;
+        contagens[linha][tamanho] = 1;
+        tamanhoLinha[linha] = tamanho + 1;
+    }
+
+    private int buscarColuna(int linha, int coluna) {
+        int[] daLinha = colunas[linha];
+
+        for (int i = 0; i < tamanhoLinha[linha]; i++) {
+            if (daLinha[i] == coluna) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /* INDICES DOS PRODUTOS DE UM CLIENTE; POUCOS POR CLIENTE, ENTAO A BUSCA E LINEAR */
+    private static final class ProdutosCliente {
+
+        private int[] indices = new int[4];
+        private int quantidade;
+
+        boolean contem(int produto) {
+            for (int i = 0; i < quantidade; i++) {
+                if (indices[i] == produto) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void adicionar(int produto) {
+            if (quantidade == indices.length) {
+                indices = Arrays.copyOf(indices, quantidade * 2);
+            }
+            indices[quantidade++] = produto;
+        }
+    }
+}
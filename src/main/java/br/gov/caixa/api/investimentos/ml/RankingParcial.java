@@ -0,0 +1,111 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import java.util.Arrays;
+
+/* ORDENA AS POSICOES 0..quantidade-1 POR PONTUACAO DECRESCENTE, COM EMPATES NA ORDEM DAS POSICOES (A ORDEM DE APARICAO).
+ * QUANDO SO OS limite PRIMEIROS INTERESSAM, MANTEM UM HEAP DE MINIMO COM limite POSICOES: CADA CANDIDATA E COMPARADA COM
+ * A PIOR DO HEAP E SO ENTRA SE FOR MELHOR, EM O(n log k) E SEM ORDENAR AS DEMAIS. O PREFIXO DEVOLVIDO E O MESMO DA
+ * ORDENACAO COMPLETA */
+final class RankingParcial {
+
+    private RankingParcial() {
+    }
+
+    static int[] ordenar(double[] pontuacoes, int quantidade, int limite) {
+        int tamanho = Math.min(limite, quantidade);
+
+        if (tamanho <= 0) {
+            return new int[0];
+        }
+
+        if (tamanho == quantidade) {
+            return ordenarTodas(pontuacoes, quantidade);
+        }
+
+        /* heap[0] E A PIOR POSICAO ENTRE AS SELECIONADAS */
+        int[] heap = new int[tamanho];
+
+        for (int i = 0; i < tamanho; i++) {
+            heap[i] = i;
+            subir(heap, i, pontuacoes);
+        }
+
+        for (int i = tamanho; i < quantidade; i++) {
+            if (melhor(i, heap[0], pontuacoes)) {
+                heap[0] = i;
+                descer(heap, tamanho, pontuacoes);
+            }
+        }
+
+        /* ESVAZIA O HEAP DO FIM PARA O INICIO: A PIOR SAI PRIMEIRO E FICA NA ULTIMA POSICAO */
+        int[] ordem = new int[tamanho];
+
+        for (int restantes = tamanho; restantes > 0; restantes--) {
+            ordem[restantes - 1] = heap[0];
+            heap[0] = heap[restantes - 1];
+            descer(heap, restantes - 1, pontuacoes);
+        }
+
+        return ordem;
+    }
+
+    private static int[] ordenarTodas(double[] pontuacoes, int quantidade) {
+        Integer[] ordem = new Integer[quantidade];
+
+        for (int i = 0; i < quantidade; i++) {
+            ordem[i] = i;
+        }
+
+        Arrays.sort(ordem, (a, b) -> Double.compare(pontuacoes[b], pontuacoes[a]));
+
+        return Arrays.stream(ordem).mapToInt(Integer::intValue).toArray();
+    }
+
+    /* a VEM ANTES DE b NA ORDENACAO COMPLETA */
+    private static boolean melhor(int a, int b, double[] pontuacoes) {
+        int comparacao = Double.compare(pontuacoes[a], pontuacoes[b]);
+        return comparacao > 0 || (comparacao == 0 && a < b);
+    }
+
+    private static void subir(int[] heap, int indice, double[] pontuacoes) {
+        while (indice > 0) {
+            int pai = (indice - 1) / 2;
+
+            if (!melhor(heap[pai], heap[indice], pontuacoes)) {
+                return;
+            }
+
+            trocar(heap, pai, indice);
+            indice = pai;
+        }
+    }
+
+    private static void descer(int[] heap, int tamanho, double[] pontuacoes) {
+        int indice = 0;
+
+        while (true) {
+            int pior = indice;
+            int esquerda = 2 * indice + 1;
+            int direita = esquerda + 1;
+
+            if (esquerda < tamanho && melhor(heap[pior], heap[esquerda], pontuacoes)) {
+                pior = esquerda;
+            }
+            if (direita < tamanho && melhor(heap[pior], heap[direita], pontuacoes)) {
+                pior = direita;
+            }
+            if (pior == indice) {
+                return;
+            }
+
+            trocar(heap, pior, indice);
+            indice = pior;
+        }
+    }
+
+    private static void trocar(int[] heap, int a, int b) {
+        int temporario = heap[a];
+        heap[a] = heap[b];
+        heap[b] = temporario;
+    }
+}
@@ -0,0 +1,106 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+
+import java.util.Arrays;
+import java.util.List;
+
+/* RESULTADO IMUTAVEL DE UMA RECOMENDACAO: PRODUTOS EM ORDEM DECRESCENTE DE PONTUACAO E A PONTUACAO DE CADA UM.
+ * A PONTUACAO FICA AQUI, NUM MAPA produtoId -> PONTUACAO EM PRIMITIVOS (ENDERECAMENTO ABERTO), E NAO NA ENTIDADE,
+ * DE FORMA QUE O MESMO CATALOGO PODE SER PONTUADO POR VARIAS REQUISICOES AO MESMO TEMPO */
+public final class ResultadoRecomendacao {
+
+    private static final ResultadoRecomendacao VAZIO = new ResultadoRecomendacao(List.of(), new double[0]);
+
+    private final List<Produto> produtos;
+    private final double[] pontuacoes;
+
+    private final long[] chaves;
+    private final double[] valores;
+    private final boolean[] ocupadas;
+
+    private ResultadoRecomendacao(List<Produto> produtos, double[] pontuacoes) {
+        this.produtos = produtos;
+        this.pontuacoes = pontuacoes;
+
+        int capacidade = Integer.highestOneBit(Math.max(1, produtos.size()) * 2 - 1) << 1;
+        this.chaves = new long[capacidade];
+        this.valores = new double[capacidade];
+        this.ocupadas = new boolean[capacidade];
+
+        for (int i = 0; i < produtos.size(); i++) {
+            Long id = produtos.get(i).getId();
+
+            if (id != null) {
+                int posicao = posicao(id);
+
+                chaves[posicao] = id;
+                valores[posicao] += pontuacoes[i];
+                ocupadas[posicao] = true;
+            }
+        }
+    }
+
+    /* produtosOrdenados E pontuacoes SAO ALINHADOS E JA ESTAO EM ORDEM DECRESCENTE DE PONTUACAO */
+    public static ResultadoRecomendacao construir(List<Produto> produtosOrdenados, double[] pontuacoes) {
+        if (produtosOrdenados.size() != pontuacoes.length) {
+            throw new IllegalArgumentException("Produtos e pontuações devem ter o mesmo tamanho");
+        }
+
+        return new ResultadoRecomendacao(List.copyOf(produtosOrdenados), pontuacoes.clone());
+    }
+
+    public static ResultadoRecomendacao vazio() {
+        return VAZIO;
+    }
+
+    public List<Produto> getProdutos() {
+        return produtos;
+    }
+
+    public boolean isEmpty() {
+        return produtos.isEmpty();
+    }
+
+    public int tamanho() {
+        return produtos.size();
+    }
+
+    public Produto getPrimeiro() {
+        return produtos.getFirst();
+    }
+
+    /* OS limite PRIMEIROS PRODUTOS COM SUAS PONTUACOES; OS QUE FICAM DE FORA PASSAM A TER PONTUACAO ZERO */
+    public ResultadoRecomendacao limitar(int limite) {
+        if (limite >= produtos.size()) {
+            return this;
+        }
+
+        return new ResultadoRecomendacao(produtos.subList(0, limite), Arrays.copyOf(pontuacoes, limite));
+    }
+
+    public double pontuacaoNaPosicao(int posicao) {
+        return pontuacoes[posicao];
+    }
+
+    /* PONTUACAO DO PRODUTO NA RECOMENDACAO; ZERO QUANDO ELE NAO FOI RECOMENDADO */
+    public double pontuacao(long produtoId) {
+        int posicao = posicao(produtoId);
+        return ocupadas[posicao] ? valores[posicao] : 0.0;
+    }
+
+    public boolean contem(long produtoId) {
+        return ocupadas[posicao(produtoId)];
+    }
+
+    private int posicao(long produtoId) {
+        int mascara = chaves.length - 1;
+        int posicao = Long.hashCode(produtoId * 0x9E3779B97F4A7C15L) & mascara;
+
+        while (ocupadas[posicao] && chaves[posicao] != produtoId) {
+            posicao = (posicao + 1) & mascara;
+        }
+
+        return posicao;
+    }
+}
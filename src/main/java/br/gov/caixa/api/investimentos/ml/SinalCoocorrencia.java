@@ -0,0 +1,69 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import java.util.Arrays;
+
+/* SINAL DE COOCORRENCIA DE UM CLIENTE: PRODUTOS QUE ELE NAO TEM E O VALOR DE CADA UM, ENTRE 0 E 1, EM VETORES
+ * ORDENADOS POR produtoId PARA A BUSCA BINARIA */
+public final class SinalCoocorrencia {
+
+    private static final SinalCoocorrencia VAZIO = new SinalCoocorrencia(new long[0], new double[0]);
+
+    private final long[] produtoIds;
+    private final double[] valores;
+
+    private SinalCoocorrencia(long[] produtoIds, double[] valores) {
+        this.produtoIds = produtoIds;
+        this.valores = valores;
+    }
+
+    /* produtoIds E valores SAO ALINHADOS; A ORDEM DE ENTRADA NAO IMPORTA */
+    public static SinalCoocorrencia construir(long[] produtoIds, double[] valores) {
+        if (produtoIds.length != valores.length) {
+            throw new IllegalArgumentException("Produtos e valores devem ter o mesmo tamanho");
+        }
+
+        Integer[] ordem = new Integer[produtoIds.length];
+
+        for (int i = 0; i < ordem.length; i++) {
+            ordem[i] = i;
+        }
+
+        Arrays.sort(ordem, (a, b) -> Long.compare(produtoIds[a], produtoIds[b]));
+
+        long[] idsOrdenados = new long[ordem.length];
+        double[] valoresOrdenados = new double[ordem.length];
+
+        for (int i = 0; i < ordem.length; i++) {
+            idsOrdenados[i] = produtoIds[ordem[i]];
+            valoresOrdenados[i] = valores[ordem[i]];
+        }
+
+        return new SinalCoocorrencia(idsOrdenados, valoresOrdenados);
+    }
+
+    public static SinalCoocorrencia vazio() {
+        return VAZIO;
+    }
+
+    public boolean isEmpty() {
+        return produtoIds.length == 0;
+    }
+
+    public int tamanho() {
+        return produtoIds.length;
+    }
+
+    public long produtoIdNaPosicao(int posicao) {
+        return produtoIds[posicao];
+    }
+
+    public double valorNaPosicao(int posicao) {
+        return valores[posicao];
+    }
+
+    /* ZERO QUANDO O PRODUTO NAO TEM SINAL */
+    public double valor(long produtoId) {
+        int posicao = Arrays.binarySearch(produtoIds, produtoId);
+        return posicao >= 0 ? valores[posicao] : 0.0;
+    }
+}
@@ -0,0 +1,145 @@
+package br.gov.caixa.api.investimentos.model.cliente;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/* HISTORICO DE UM CLIENTE JA SOMADO POR PRODUTO PARA A RECOMENDACAO E O PERFIL DE RISCO (VER
+ * EstatisticasAcumuladas), MAIS OS IDS DAS ENTRADAS MAIS RECENTES JA SOMADAS, PARA QUE NAO SEJAM CONTADAS DE NOVO */
+@Entity
+@Table(name = "resumo_historico_cliente")
+public class ResumoHistoricoCliente extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "cliente_id", columnDefinition = "INTEGER")
+    private Long clienteId;
+
+    @Column(name = "assinatura_catalogo", nullable = false)
+    private Long assinaturaCatalogo;
+
+    @Column(name = "data_referencia", nullable = false)
+    private LocalDate dataReferencia;
+
+    @Column(name = "investimentos", nullable = false, columnDefinition = "TEXT")
+    private String investimentos;
+
+    @Column(name = "simulacoes", nullable = false, columnDefinition = "TEXT")
+    private String simulacoes;
+
+    @Column(name = "ids_investimentos", nullable = false, columnDefinition = "TEXT")
+    private String idsInvestimentos;
+
+    @Column(name = "ids_simulacoes", nullable = false, columnDefinition = "TEXT")
+    private String idsSimulacoes;
+
+    @Column(name = "data_atualizacao", nullable = false)
+    private LocalDateTime dataAtualizacao;
+
+    public ResumoHistoricoCliente() {
+    }
+
+    public ResumoHistoricoCliente(Long clienteId) {
+        this.setClienteId(clienteId);
+    }
+
+    public List<Long> listarIdsInvestimentos() {
+        return separar(idsInvestimentos);
+    }
+
+    public List<Long> listarIdsSimulacoes() {
+        return separar(idsSimulacoes);
+    }
+
+    public void definirIdsInvestimentos(List<Long> ids) {
+        this.setIdsInvestimentos(juntar(ids));
+    }
+
+    public void definirIdsSimulacoes(List<Long> ids) {
+        this.setIdsSimulacoes(juntar(ids));
+    }
+
+    private static String juntar(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static List<Long> separar(String texto) {
+        List<Long> ids = new ArrayList<>();
+
+        if (texto != null && !texto.isEmpty()) {
+            for (String id : texto.split(",")) {
+                ids.add(Long.valueOf(id));
+            }
+        }
+
+        return ids;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public Long getAssinaturaCatalogo() {
+        return assinaturaCatalogo;
+    }
+
+    public void setAssinaturaCatalogo(Long assinaturaCatalogo) {
+        this.assinaturaCatalogo = assinaturaCatalogo;
+    }
+
+    public LocalDate getDataReferencia() {
+        return dataReferencia;
+    }
+
+    public void setDataReferencia(LocalDate dataReferencia) {
+        this.dataReferencia = dataReferencia;
+    }
+
+    public String getInvestimentos() {
+        return investimentos;
+    }
+
+    public void setInvestimentos(String investimentos) {
+        this.investimentos = investimentos;
+    }
+
+    public String getSimulacoes() {
+        return simulacoes;
+    }
+
+    public void setSimulacoes(String simulacoes) {
+        this.simulacoes = simulacoes;
+    }
+
+    public String getIdsInvestimentos() {
+        return idsInvestimentos;
+    }
+
+    public void setIdsInvestimentos(String idsInvestimentos) {
+        this.idsInvestimentos = idsInvestimentos;
+    }
+
+    public String getIdsSimulacoes() {
+        return idsSimulacoes;
+    }
+
+    public void setIdsSimulacoes(String idsSimulacoes) {
+        this.idsSimulacoes = idsSimulacoes;
+    }
+
+    public LocalDateTime getDataAtualizacao() {
+        return dataAtualizacao;
+    }
+
+    public void setDataAtualizacao(LocalDateTime dataAtualizacao) {
+        this.dataAtualizacao = dataAtualizacao;
+    }
+}
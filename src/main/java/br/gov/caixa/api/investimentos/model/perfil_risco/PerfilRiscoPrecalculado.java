@@ -0,0 +1,112 @@
+package br.gov.caixa.api.investimentos.model.perfil_risco;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/* PERFIL DE RISCO E RECOMENDACAO DE UM CLIENTE GRAVADOS PELO PRE-CALCULO. perfil NULO SIGNIFICA CLIENTE SEM HISTORICO */
+@Entity
+@Table(name = "perfil_risco_precalculado")
+public class PerfilRiscoPrecalculado extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "cliente_id", columnDefinition = "INTEGER")
+    private Long clienteId;
+
+    @Column(name = "perfil", length = 20)
+    private String perfil;
+
+    @Column(name = "pontuacao")
+    private Integer pontuacao;
+
+    @Column(name = "produto_ids", nullable = false, columnDefinition = "TEXT")
+    private String produtoIds;
+
+    @Column(name = "data_referencia", nullable = false)
+    private LocalDate dataReferencia;
+
+    @Column(name = "data_calculo", nullable = false)
+    private LocalDateTime dataCalculo;
+
+    public PerfilRiscoPrecalculado() {
+    }
+
+    public PerfilRiscoPrecalculado(Long clienteId, String perfil, Integer pontuacao, List<Long> produtoIds,
+                                   LocalDate dataReferencia) {
+        this.setClienteId(clienteId);
+        this.setPerfil(perfil);
+        this.setPontuacao(pontuacao);
+        this.setProdutoIds(produtoIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        this.setDataReferencia(dataReferencia);
+        this.setDataCalculo(LocalDateTime.now());
+    }
+
+    public boolean isSemHistorico() {
+        return perfil == null;
+    }
+
+    public List<Long> listarProdutoIds() {
+        List<Long> ids = new ArrayList<>();
+
+        if (produtoIds != null && !produtoIds.isEmpty()) {
+            for (String id : produtoIds.split(",")) {
+                ids.add(Long.valueOf(id));
+            }
+        }
+
+        return ids;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public String getPerfil() {
+        return perfil;
+    }
+
+    public void setPerfil(String perfil) {
+        this.perfil = perfil;
+    }
+
+    public Integer getPontuacao() {
+        return pontuacao;
+    }
+
+    public void setPontuacao(Integer pontuacao) {
+        this.pontuacao = pontuacao;
+    }
+
+    public String getProdutoIds() {
+        return produtoIds;
+    }
+
+    public void setProdutoIds(String produtoIds) {
+        this.produtoIds = produtoIds;
+    }
+
+    public LocalDate getDataReferencia() {
+        return dataReferencia;
+    }
+
+    public void setDataReferencia(LocalDate dataReferencia) {
+        this.dataReferencia = dataReferencia;
+    }
+
+    public LocalDateTime getDataCalculo() {
+        return dataCalculo;
+    }
+
+    public void setDataCalculo(LocalDateTime dataCalculo) {
+        this.dataCalculo = dataCalculo;
+    }
+}
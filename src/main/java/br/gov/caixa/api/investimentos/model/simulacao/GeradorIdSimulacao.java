@@ -0,0 +1,35 @@
+package br.gov.caixa.api.investimentos.model.simulacao;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.IdentityGenerator;
+
+/* SEM ID ATRIBUIDO O INSERT USA A COLUNA IDENTITY, COMO ANTES; COM ID ATRIBUIDO (WRITE-BEHIND, QUE DEVOLVE O ID
+ * ANTES DE GRAVAR) O INSERT LEVA O PROPRIO ID */
+public class GeradorIdSimulacao extends IdentityGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public boolean generatedOnExecution() {
+        return true;
+    }
+
+    @Override
+    public boolean generatedOnExecution(Object entidade, SharedSessionContractImplementor sessao) {
+        return idAtribuido(entidade, sessao) == null;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor sessao, Object entidade, Object valorAtual, EventType tipoEvento) {
+        return idAtribuido(entidade, sessao);
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    private static Object idAtribuido(Object entidade, SharedSessionContractImplementor sessao) {
+        return sessao.getEntityPersister(null, entidade).getIdentifier(entidade, sessao);
+    }
+}
@@ -0,0 +1,15 @@
+package br.gov.caixa.api.investimentos.model.simulacao;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/* ID DA SIMULACAO: IDENTITY DO BANCO, OU O JA ATRIBUIDO PELA APLICACAO NA GRAVACAO ASSINCRONA */
+@IdGeneratorType(GeradorIdSimulacao.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface IdSimulacao {
+}
@@ -13,8 +13,9 @@ import java.time.LocalDateTime;
 @Table(name = "simulacao_investimento")
 public class SimulacaoInvestimento extends PanacheEntityBase {
 
+    /* IDENTITY; SO A GRAVACAO ASSINCRONA ATRIBUI O ID ANTES (SequenciaIdSimulacao), POIS O DEVOLVE ANTES DE GRAVAR */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdSimulacao
     @Column(name = "id", columnDefinition = "INTEGER")
     private Long id;
 
@@ -66,6 +67,10 @@ public class SimulacaoInvestimento extends PanacheEntityBase {
     @Column(name = "cenario_simulacao", length = 500)
     private String cenarioSimulacao;
 
+    /* SEMENTE DOS SORTEIOS DO CENARIO: REENVIADA NA REQUISICAO, REPRODUZ A SIMULACAO (AUDITORIA) */
+    @Column(name = "semente")
+    private Long semente;
+
     public SimulacaoInvestimento() {
         this.dataSimulacao = LocalDateTime.now();
     }
@@ -223,4 +228,12 @@ public class SimulacaoInvestimento extends PanacheEntityBase {
     public void setCenarioSimulacao(String cenarioSimulacao) {
         this.cenarioSimulacao = cenarioSimulacao;
     }
+
+    public Long getSemente() {
+        return semente;
+    }
+
+    public void setSemente(Long semente) {
+        this.semente = semente;
+    }
 }
@@ -3,6 +3,8 @@ package br.gov.caixa.api.investimentos.repository.cliente;
 import br.gov.caixa.api.investimentos.model.cliente.Pessoa;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 
+import java.util.List;
+
 public interface IPessoaRepository extends PanacheRepository<Pessoa> {
 
     Pessoa findByCpf(String cpf);
@@ -12,4 +14,6 @@ public interface IPessoaRepository extends PanacheRepository<Pessoa> {
     boolean existsByCpf(String cpf);
 
     boolean existsByUsername(String username);
+
+    List<Long> listarIdsAposId(Long aposId, int limite);
 }
\ No newline at end of file
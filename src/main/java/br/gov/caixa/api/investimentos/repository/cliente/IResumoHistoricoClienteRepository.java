@@ -0,0 +1,13 @@
+package br.gov.caixa.api.investimentos.repository.cliente;
+
+import br.gov.caixa.api.investimentos.model.cliente.ResumoHistoricoCliente;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+
+public interface IResumoHistoricoClienteRepository extends PanacheRepositoryBase<ResumoHistoricoCliente, Long> {
+
+    boolean inserirSeAusente(ResumoHistoricoCliente resumo);
+
+    void removerPorCliente(Long clienteId);
+
+    void removerTodos();
+}
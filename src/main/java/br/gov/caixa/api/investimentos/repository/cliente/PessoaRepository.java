@@ -3,6 +3,8 @@ package br.gov.caixa.api.investimentos.repository.cliente;
 import br.gov.caixa.api.investimentos.model.cliente.Pessoa;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.List;
+
 @ApplicationScoped
 public class PessoaRepository implements IPessoaRepository {
 
@@ -21,4 +23,13 @@ public class PessoaRepository implements IPessoaRepository {
     public boolean existsByUsername(String username) {
         return count("username", username) > 0;
     }
+
+    /* IDS EM ORDEM CRESCENTE A PARTIR DO PRIMEIRO MAIOR QUE aposId (PAGINACAO POR CHAVE, SEM OFFSET) */
+    public List<Long> listarIdsAposId(Long aposId, int limite) {
+        return getEntityManager()
+                .createQuery("SELECT p.id FROM Pessoa p WHERE p.id > ?1 ORDER BY p.id", Long.class)
+                .setParameter(1, aposId)
+                .setMaxResults(limite)
+                .getResultList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package br.gov.caixa.api.investimentos.repository.cliente;
+
+import br.gov.caixa.api.investimentos.model.cliente.ResumoHistoricoCliente;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+
+@ApplicationScoped
+public class ResumoHistoricoClienteRepository implements IResumoHistoricoClienteRepository {
+
+    /**
+     * Grava o resumo se o cliente ainda não tem um; devolve false quando já existia
+     */
+    @Transactional
+    public boolean inserirSeAusente(ResumoHistoricoCliente resumo) {
+        if (findById(resumo.getClienteId()) != null) {
+            return false;
+        }
+
+        persist(resumo);
+        return true;
+    }
+
+    /**
+     * Remove o resumo do cliente; participa da transação de quem chama, se houver
+     */
+    @Transactional
+    public void removerPorCliente(Long clienteId) {
+        delete("clienteId", clienteId);
+    }
+
+    /**
+     * Remove todos os resumos
+     */
+    @Transactional
+    public void removerTodos() {
+        deleteAll();
+    }
+}
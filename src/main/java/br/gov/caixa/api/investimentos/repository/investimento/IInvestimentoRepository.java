@@ -3,13 +3,18 @@ package br.gov.caixa.api.investimentos.repository.investimento;
 import br.gov.caixa.api.investimentos.model.investimento.Investimento;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface IInvestimentoRepository extends PanacheRepository<Investimento> {
 
     List<Investimento> findByClienteId(Long clienteId);
 
+    List<Investimento> findByClienteIds(Collection<Long> clienteIds);
+
     List<Investimento> findByProdutoId(Long produtoId);
 
     List<Investimento> findByClienteIdOrderByDate(Long clienteId);
+
+    List<Object[]> listarParesClienteProduto();
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package br.gov.caixa.api.investimentos.repository.investimento;
 import br.gov.caixa.api.investimentos.model.investimento.Investimento;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
 import java.util.List;
 
 @ApplicationScoped
@@ -12,6 +13,10 @@ public class InvestimentoRepository implements IInvestimentoRepository {
         return find("clienteId", clienteId).list();
     }
 
+    public List<Investimento> findByClienteIds(Collection<Long> clienteIds) {
+        return find("clienteId in ?1", clienteIds).list();
+    }
+
     public List<Investimento> findByProdutoId(Long produtoId) {
         return find("produtoId", produtoId).list();
     }
@@ -19,4 +24,11 @@ public class InvestimentoRepository implements IInvestimentoRepository {
     public List<Investimento> findByClienteIdOrderByDate(Long clienteId) {
         return find("clienteId = ?1 ORDER BY data DESC", clienteId).list();
     }
+
+    /* PARES DISTINTOS [clienteId, produtoId], SEM CARREGAR AS ENTIDADES */
+    public List<Object[]> listarParesClienteProduto() {
+        return getEntityManager()
+                .createQuery("SELECT DISTINCT i.clienteId, i.produtoId FROM Investimento i", Object[].class)
+                .getResultList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package br.gov.caixa.api.investimentos.repository.perfil_risco;
+
+import br.gov.caixa.api.investimentos.model.perfil_risco.PerfilRiscoPrecalculado;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface IPerfilRiscoPrecalculadoRepository extends PanacheRepositoryBase<PerfilRiscoPrecalculado, Long> {
+
+    PerfilRiscoPrecalculado findByClienteId(Long clienteId, LocalDate dataReferencia);
+
+    List<PerfilRiscoPrecalculado> listarComPerfilAposCliente(Long aposClienteId, int limite);
+
+    void substituirFaixa(Long aposClienteId, Long ateClienteId, List<PerfilRiscoPrecalculado> precalculados);
+
+    void removerAposCliente(Long aposClienteId);
+
+    void removerPorCliente(Long clienteId);
+
+    void removerPorClientes(Collection<Long> clienteIds);
+
+    void removerTodos();
+
+    boolean existeTabela();
+}
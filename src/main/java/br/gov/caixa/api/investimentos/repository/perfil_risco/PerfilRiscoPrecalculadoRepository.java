@@ -0,0 +1,85 @@
+package br.gov.caixa.api.investimentos.repository.perfil_risco;
+
+import br.gov.caixa.api.investimentos.model.perfil_risco.PerfilRiscoPrecalculado;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@ApplicationScoped
+public class PerfilRiscoPrecalculadoRepository implements IPerfilRiscoPrecalculadoRepository {
+
+    /**
+     * Busca o pré-cálculo do cliente válido para a data de referência
+     */
+    public PerfilRiscoPrecalculado findByClienteId(Long clienteId, LocalDate dataReferencia) {
+        return find("clienteId = ?1 and dataReferencia = ?2", clienteId, dataReferencia).firstResult();
+    }
+
+    /**
+     * Lista os clientes com perfil em ordem de ID, a partir do primeiro ID maior que aposClienteId
+     */
+    public List<PerfilRiscoPrecalculado> listarComPerfilAposCliente(Long aposClienteId, int limite) {
+        return find("perfil is not null and clienteId > ?1 order by clienteId", aposClienteId)
+                .page(0, limite)
+                .list();
+    }
+
+    /**
+     * Substitui as linhas da faixa (aposClienteId, ateClienteId] pelas informadas em uma única transação;
+     * clientes da faixa que não vieram na lista (removidos ou com falha no cálculo) deixam de ter linha
+     */
+    @Transactional
+    public void substituirFaixa(Long aposClienteId, Long ateClienteId, List<PerfilRiscoPrecalculado> precalculados) {
+        delete("clienteId > ?1 and clienteId <= ?2", aposClienteId, ateClienteId);
+        persist(precalculados);
+    }
+
+    /**
+     * Remove as linhas de clientes com ID maior que aposClienteId
+     */
+    @Transactional
+    public void removerAposCliente(Long aposClienteId) {
+        delete("clienteId > ?1", aposClienteId);
+    }
+
+    /**
+     * Remove a linha do cliente; participa da transação de quem chama, se houver
+     */
+    @Transactional
+    public void removerPorCliente(Long clienteId) {
+        delete("clienteId", clienteId);
+    }
+
+    /**
+     * Remove as linhas dos clientes informados
+     */
+    @Transactional
+    public void removerPorClientes(Collection<Long> clienteIds) {
+        if (!clienteIds.isEmpty()) {
+            delete("clienteId in ?1", clienteIds);
+        }
+    }
+
+    /**
+     * Remove todos os pré-cálculos
+     */
+    @Transactional
+    public void removerTodos() {
+        deleteAll();
+    }
+
+    /**
+     * Verifica se a tabela perfil_risco_precalculado já foi criada pelo script de db/migration;
+     * a consulta ao catálogo do SQLite não falha quando a tabela não existe
+     */
+    public boolean existeTabela() {
+        Number tabelas = (Number) getEntityManager()
+                .createNativeQuery("SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = 'perfil_risco_precalculado'")
+                .getSingleResult();
+
+        return tabelas.intValue() > 0;
+    }
+}
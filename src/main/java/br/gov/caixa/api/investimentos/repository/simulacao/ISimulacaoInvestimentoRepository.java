@@ -5,12 +5,15 @@ import io.quarkus.hibernate.orm.panache.PanacheRepository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ISimulacaoInvestimentoRepository extends PanacheRepository<SimulacaoInvestimento> {
 
     List<SimulacaoInvestimento> findByClienteId(Long clienteId);
 
+    List<SimulacaoInvestimento> findByClienteIds(Collection<Long> clienteIds);
+
     List<SimulacaoInvestimento> findByClienteIdOrderByDate(Long clienteId);
 
     List<SimulacaoInvestimento> findByProduto(String produto);
@@ -26,4 +29,8 @@ public interface ISimulacaoInvestimentoRepository extends PanacheRepository<Simu
     SimulacaoInvestimento findLastByClienteId(Long clienteId);
 
     BigDecimal getTotalInvestidoByClienteId(Long clienteId);
+
+    long findMaxId();
+
+    void persistBatch(List<SimulacaoInvestimento> simulacoes);
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package br.gov.caixa.api.investimentos.repository.simulacao;
 
 import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +22,13 @@ public class SimulacaoInvestimentoRepository implements ISimulacaoInvestimentoRe
         return find("clienteId", clienteId).list();
     }
 
+    /**
+     * Busca as simulações de vários clientes em uma única consulta
+     */
+    public List<SimulacaoInvestimento> findByClienteIds(Collection<Long> clienteIds) {
+        return find("clienteId in ?1", clienteIds).list();
+    }
+
     /**
      * Busca simulações de um cliente ordenadas por data (mais recentes primeiro)
      */
@@ -88,4 +97,23 @@ public class SimulacaoInvestimentoRepository implements ISimulacaoInvestimentoRe
             throw new IllegalStateException("Tipo inesperado: " + result.getClass());
         }
     }
+
+    /**
+     * Maior identificador gravado (0 quando a tabela está vazia)
+     */
+    public long findMaxId() {
+        Long maiorId = getEntityManager()
+                .createQuery("SELECT MAX(s.id) FROM SimulacaoInvestimento s", Long.class)
+                .getSingleResult();
+
+        return maiorId != null ? maiorId : 0L;
+    }
+
+    /**
+     * Grava um lote de simulações em uma transação própria
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void persistBatch(List<SimulacaoInvestimento> simulacoes) {
+        persist(simulacoes);
+    }
 }
\ No newline at end of file
@@ -3,7 +3,9 @@ package br.gov.caixa.api.investimentos.resource.perfil_risco;
 import br.gov.caixa.api.investimentos.dto.common.ErrorResponse;
 import br.gov.caixa.api.investimentos.dto.perfil_risco.PerfilRiscoResponse;
 import br.gov.caixa.api.investimentos.exception.cliente.ClienteNotFoundException;
+import br.gov.caixa.api.investimentos.service.perfil_risco.ExecucaoPrecalculo;
 import br.gov.caixa.api.investimentos.service.perfil_risco.PerfilRiscoService;
+import br.gov.caixa.api.investimentos.service.perfil_risco.PrecalculoPerfilRiscoService;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
@@ -19,6 +21,36 @@ public class PerfilRiscoResource {
     @Inject
     PerfilRiscoService perfilRiscoService;
 
+    @Inject
+    PrecalculoPerfilRiscoService precalculoPerfilRiscoService;
+
+    /* PRE-CALCULO DE TODOS OS CLIENTES: A SUBMISSAO RESPONDE 202; COM UMA EXECUCAO EM ANDAMENTO DEVOLVE A MESMA */
+    @POST
+    @Path("/precalculo")
+    @RolesAllowed({"ADMIN"})
+    public Response iniciarPrecalculo() {
+        ExecucaoPrecalculo execucao = precalculoPerfilRiscoService.iniciar();
+        return Response.status(Response.Status.ACCEPTED)
+                .entity(execucao.getSituacao())
+                .build();
+    }
+
+    @GET
+    @Path("/precalculo")
+    @RolesAllowed({"ADMIN"})
+    public Response consultarPrecalculo() {
+        return Response.ok(precalculoPerfilRiscoService.buscarUltimaExecucao().getSituacao()).build();
+    }
+
+    /* EXPORTACAO DOS PERFIS PRE-CALCULADOS EM ORDEM DE clienteId; A PROXIMA PAGINA USA O ULTIMO clienteId RECEBIDO */
+    @GET
+    @Path("/precalculados")
+    @RolesAllowed({"ADMIN"})
+    public Response listarPrecalculados(@QueryParam("aposClienteId") Long aposClienteId,
+                                        @QueryParam("limite") Integer limite) {
+        return Response.ok(precalculoPerfilRiscoService.listar(aposClienteId, limite)).build();
+    }
+
     @GET
     @Path("/{clienteId}")
     public Response calcularPerfilRisco(@PathParam("clienteId") Long clienteId) {
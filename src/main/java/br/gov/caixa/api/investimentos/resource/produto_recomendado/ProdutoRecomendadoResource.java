@@ -31,12 +31,13 @@ public class ProdutoRecomendadoResource {
 
     @GET
     @Path("/cliente/{clienteId}")
-    public Response buscarProdutosPorCliente(@PathParam("clienteId") @Positive Long clienteId) {
+    public Response buscarProdutosPorCliente(@PathParam("clienteId") @Positive Long clienteId,
+                                             @QueryParam("limite") @Positive Integer limite) {
         try {
 
             authHelper.validarAcessoAoCliente(jwt, clienteId);
 
-            List<ProdutoResponse> produtos = produtoRecomendadoService.buscarProdutosPorCliente(clienteId);
+            List<ProdutoResponse> produtos = produtoRecomendadoService.buscarProdutosPorCliente(clienteId, limite);
 
             return Response.ok(produtos).build();
 
@@ -1,22 +1,42 @@
 package br.gov.caixa.api.investimentos.resource.simulacao;
 
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoCarteiraResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoComparacaoResponse;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoInvestimentoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoLoteResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMetaRequest;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMetaResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMonteCarloResponse;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoRequest;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.TabelaLiquidaResponse;
+import br.gov.caixa.api.investimentos.enums.simulacao.GranularidadeLinhaDoTempo;
+import br.gov.caixa.api.investimentos.enums.simulacao.ModoSimulacao;
+import br.gov.caixa.api.investimentos.exception.auth.AccessDeniedException;
 import br.gov.caixa.api.investimentos.helper.auth.JwtAuthorizationHelper;
 import br.gov.caixa.api.investimentos.mapper.SimulacaoInvestimentoMapper;
 import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+import br.gov.caixa.api.investimentos.service.simulacao.LinhaDoTempoSimulacao;
 import br.gov.caixa.api.investimentos.service.simulacao.SimulacaoInvestimentoService;
+import br.gov.caixa.api.investimentos.service.simulacao.TarefaSimulacao;
+import br.gov.caixa.api.investimentos.service.simulacao.TarefasSimulacaoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.jwt.JsonWebToken;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Path("/simular-investimento")
@@ -37,11 +57,44 @@ public class SimulacaoInvestimentoResource {
     @Inject
     SimulacaoInvestimentoMapper simulacaoMapper;
 
+    @Inject
+    TarefasSimulacaoService tarefasSimulacaoService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
+    private static final int LINHAS_POR_ENVIO = 64;
+
     @POST
-    public Response simularInvestimento(@Valid SimulacaoRequest request) {
+    public Response simularInvestimento(@Valid SimulacaoRequest request,
+                                        @QueryParam("modo") String modo,
+                                        @QueryParam("caminhos") Integer caminhos,
+                                        @QueryParam("persistir") @DefaultValue("true") boolean persistir) {
+
+        ModoSimulacao modoSimulacao = ModoSimulacao.fromString(modo);
 
         authHelper.validarAcessoAoCliente(jwt, request.clienteId());
 
+        if (modoSimulacao == ModoSimulacao.MONTECARLO) {
+            SimulacaoMonteCarloResponse distribuicao =
+                    simulacaoInvestimentoService.simularInvestimentoMonteCarlo(request, caminhos);
+
+            return Response.status(Response.Status.OK)
+                    .entity(distribuicao)
+                    .build();
+        }
+
+        if (modoSimulacao == ModoSimulacao.COMPARACAO) {
+            SimulacaoComparacaoResponse comparacao =
+                    simulacaoInvestimentoService.simularInvestimentoComparacao(request, persistir);
+
+            return Response.status(comparacao.simulacaoId() != null ? Response.Status.CREATED : Response.Status.OK)
+                    .entity(comparacao)
+                    .build();
+        }
+
         SimulacaoResponse simulacao = simulacaoInvestimentoService.simularInvestimento(request);
 
         return Response.status(Response.Status.CREATED)
@@ -49,6 +102,163 @@ public class SimulacaoInvestimentoResource {
                 .build();
     }
 
+    @POST
+    @Path("/meta")
+    public Response simularMeta(@Valid SimulacaoMetaRequest request) {
+
+        authHelper.validarAcessoAoCliente(jwt, request.clienteId());
+
+        SimulacaoMetaResponse meta = simulacaoInvestimentoService.simularMeta(request);
+
+        return Response.status(Response.Status.OK)
+                .entity(meta)
+                .build();
+    }
+
+    @POST
+    @Path("/tabela-liquida")
+    public Response simularTabelaLiquida(@Valid SimulacaoRequest request) {
+
+        authHelper.validarAcessoAoCliente(jwt, request.clienteId());
+
+        TabelaLiquidaResponse tabela = simulacaoInvestimentoService.simularTabelaLiquida(request);
+
+        return Response.status(Response.Status.OK)
+                .entity(tabela)
+                .build();
+    }
+
+    /* NDJSON: A PRIMEIRA LINHA E O CABECALHO (PRODUTO, CENARIO E TAXA) E CADA LINHA SEGUINTE UM PONTO DO SALDO */
+    @POST
+    @Path("/linha-do-tempo")
+    @Produces({MEDIA_TYPE_NDJSON, MediaType.APPLICATION_JSON})
+    public Response simularLinhaDoTempo(@Valid SimulacaoRequest request,
+                                        @QueryParam("granularidade") String granularidade) {
+
+        GranularidadeLinhaDoTempo granularidadeLinhaDoTempo = GranularidadeLinhaDoTempo.fromString(granularidade);
+
+        authHelper.validarAcessoAoCliente(jwt, request.clienteId());
+
+        LinhaDoTempoSimulacao linhaDoTempo =
+                simulacaoInvestimentoService.simularLinhaDoTempo(request, granularidadeLinhaDoTempo);
+
+        StreamingOutput saida = output -> {
+            escreverLinha(output, linhaDoTempo.getCabecalho());
+
+            int linhasPendentes = 0;
+            while (linhaDoTempo.hasNext()) {
+                escreverLinha(output, linhaDoTempo.next());
+
+                if (++linhasPendentes == LINHAS_POR_ENVIO) {
+                    output.flush();
+                    linhasPendentes = 0;
+                }
+            }
+
+            output.flush();
+        };
+
+        return Response.status(Response.Status.OK)
+                .type(MEDIA_TYPE_NDJSON)
+                .entity(saida)
+                .build();
+    }
+
+    private void escreverLinha(OutputStream output, Object linha) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(linha));
+        output.write('\n');
+    }
+
+    @POST
+    @Path("/lote")
+    public Response simularInvestimentoLote(
+            @NotEmpty(message = "Lote de simulações não pode ser vazio") List<SimulacaoRequest> requests) {
+
+        validarAcessoAosClientes(requests);
+
+        SimulacaoLoteResponse lote = simulacaoInvestimentoService.simularInvestimentoLote(requests);
+
+        return Response.status(Response.Status.OK)
+                .entity(lote)
+                .build();
+    }
+
+    /* TAREFAS ASSINCRONAS: A SUBMISSAO RESPONDE 202 COM O ID; O ANDAMENTO E O RESULTADO SAO CONSULTADOS DEPOIS */
+    @POST
+    @Path("/tarefas/lote")
+    public Response submeterTarefaLote(
+            @NotEmpty(message = "Lote de simulações não pode ser vazio") List<SimulacaoRequest> requests) {
+
+        validarAcessoAosClientes(requests);
+
+        TarefaSimulacao tarefa = tarefasSimulacaoService.submeterLote(requests);
+
+        return Response.status(Response.Status.ACCEPTED)
+                .entity(tarefa.getSituacao())
+                .build();
+    }
+
+    @POST
+    @Path("/tarefas/montecarlo")
+    public Response submeterTarefaMonteCarlo(@Valid SimulacaoRequest request,
+                                             @QueryParam("caminhos") Integer caminhos) {
+
+        authHelper.validarAcessoAoCliente(jwt, request.clienteId());
+
+        TarefaSimulacao tarefa = tarefasSimulacaoService.submeterMonteCarlo(request, caminhos);
+
+        return Response.status(Response.Status.ACCEPTED)
+                .entity(tarefa.getSituacao())
+                .build();
+    }
+
+    @GET
+    @Path("/tarefas/{id}")
+    public Response consultarTarefa(@PathParam("id") String id) {
+
+        TarefaSimulacao tarefa = tarefasSimulacaoService.buscar(id);
+
+        validarAcessoATarefa(tarefa);
+
+        return Response.status(Response.Status.OK)
+                .entity(tarefa.getSituacao())
+                .build();
+    }
+
+    /* 200 COM O RESULTADO QUANDO CONCLUIDA; 202 COM A SITUACAO ENQUANTO NAO TERMINA; 409 SE A TAREFA FALHOU */
+    @GET
+    @Path("/tarefas/{id}/resultado")
+    public Response baixarResultadoTarefa(@PathParam("id") String id) {
+
+        TarefaSimulacao tarefa = tarefasSimulacaoService.buscar(id);
+
+        validarAcessoATarefa(tarefa);
+
+        return switch (tarefa.getStatus()) {
+            case CONCLUIDA -> Response.status(Response.Status.OK).entity(tarefa.getResultado()).build();
+            case FALHOU -> Response.status(Response.Status.CONFLICT).entity(tarefa.getSituacao()).build();
+            case PENDENTE, EXECUTANDO -> Response.status(Response.Status.ACCEPTED).entity(tarefa.getSituacao()).build();
+        };
+    }
+
+    /* TAREFA SEM CLIENTE NAO TEM DONO A VERIFICAR; E RECUSADA EM VEZ DE LIBERADA A QUALQUER UM */
+    private void validarAcessoATarefa(TarefaSimulacao tarefa) {
+        if (tarefa.getClienteIds().isEmpty()) {
+            throw new AccessDeniedException("Acesso negado: tarefa sem cliente associado");
+        }
+
+        tarefa.getClienteIds().forEach(clienteId -> authHelper.validarAcessoAoCliente(jwt, clienteId));
+    }
+
+    private void validarAcessoAosClientes(List<SimulacaoRequest> requests) {
+        requests.stream()
+                .filter(Objects::nonNull)
+                .map(SimulacaoRequest::clienteId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(clienteId -> authHelper.validarAcessoAoCliente(jwt, clienteId));
+    }
+
     @GET
     @Path("/historico/{clienteId}")
     public Response buscarHistoricoSimulacoes(@PathParam("clienteId") @Positive Long clienteId) {
@@ -82,6 +292,23 @@ public class SimulacaoInvestimentoResource {
                 .build();
     }
 
+    @GET
+    @Path("/carteira/{clienteId}")
+    public Response projetarCarteira(@PathParam("clienteId") @Positive Long clienteId,
+                                     @QueryParam("dataAlvo") LocalDate dataAlvo,
+                                     @QueryParam("semente") Long semente,
+                                     @QueryParam("posicoes") @DefaultValue("false") boolean incluirPosicoes) {
+
+        authHelper.validarAcessoAoCliente(jwt, clienteId);
+
+        SimulacaoCarteiraResponse carteira =
+                simulacaoInvestimentoService.projetarCarteira(clienteId, dataAlvo, semente, incluirPosicoes);
+
+        return Response.status(Response.Status.OK)
+                .entity(carteira)
+                .build();
+    }
+
     @GET
     @Path("/estatisticas/{clienteId}")
     public Response buscarEstatisticasCliente(@PathParam("clienteId") @Positive Long clienteId) {
@@ -2,9 +2,13 @@ package br.gov.caixa.api.investimentos.resource.telemetria;
 
 import br.gov.caixa.api.investimentos.dto.telemetria.AcessoLogDTO;
 import br.gov.caixa.api.investimentos.dto.telemetria.EstatisticasAcessoDTO;
+import br.gov.caixa.api.investimentos.dto.telemetria.MetricasCacheRecomendacaoDTO;
+import br.gov.caixa.api.investimentos.dto.telemetria.MetricasGravacaoSimulacaoDTO;
 import br.gov.caixa.api.investimentos.dto.telemetria.TelemetriaResponse;
 import br.gov.caixa.api.investimentos.model.telemetria.TelemetriaMetrica;
 import br.gov.caixa.api.investimentos.repository.telemetria.TelemetriaMetricaRepository;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.RecomendacaoClienteService;
+import br.gov.caixa.api.investimentos.service.simulacao.GravacaoAssincronaSimulacao;
 import br.gov.caixa.api.investimentos.service.telemetria.AcessoLogService;
 import br.gov.caixa.api.investimentos.service.telemetria.TelemetriaService;
 import io.quarkus.cache.CacheInvalidateAll;
@@ -30,6 +34,12 @@ public class TelemetriaResource {
     @Inject
     AcessoLogService acessoLogService;
 
+    @Inject
+    GravacaoAssincronaSimulacao gravacaoAssincronaSimulacao;
+
+    @Inject
+    RecomendacaoClienteService recomendacaoClienteService;
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @CacheResult(cacheName = "telemetria")
@@ -92,6 +102,34 @@ public class TelemetriaResource {
         }
     }
 
+    @GET
+    @Path("/gravacao-simulacoes")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response obterMetricasGravacaoSimulacoes() {
+        try {
+            MetricasGravacaoSimulacaoDTO metricas = gravacaoAssincronaSimulacao.obterMetricas();
+            return Response.ok(metricas).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Erro ao obter métricas de gravação das simulações: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/cache-recomendacoes")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response obterMetricasCacheRecomendacoes() {
+        try {
+            MetricasCacheRecomendacaoDTO metricas = recomendacaoClienteService.obterMetricas();
+            return Response.ok(metricas).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Erro ao obter métricas do cache de recomendações: " + e.getMessage())
+                    .build();
+        }
+    }
+
     @GET
     @Path("/acesso-logs")
     @Produces(MediaType.APPLICATION_JSON)
@@ -0,0 +1,57 @@
+package br.gov.caixa.api.investimentos.resource.visao_cliente;
+
+import br.gov.caixa.api.investimentos.dto.common.ErrorResponse;
+import br.gov.caixa.api.investimentos.dto.visao_cliente.VisaoClienteResponse;
+import br.gov.caixa.api.investimentos.exception.cliente.ClienteNotFoundException;
+import br.gov.caixa.api.investimentos.helper.auth.JwtAuthorizationHelper;
+import br.gov.caixa.api.investimentos.service.visao_cliente.VisaoClienteService;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.validation.constraints.Positive;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+
+@Path("/visao-cliente")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RolesAllowed({"USER", "ADMIN"})
+public class VisaoClienteResource {
+
+    @Inject
+    VisaoClienteService visaoClienteService;
+
+    @Inject
+    JsonWebToken jwt;
+
+    @Inject
+    JwtAuthorizationHelper authHelper;
+
+    /* PERFIL DE RISCO E PRODUTOS RECOMENDADOS JUNTOS: EQUIVALE A GET /perfil-risco/{clienteId} SEGUIDO DE
+     * GET /produtos-recomendados/cliente/{clienteId}, COM UMA UNICA LEITURA E PONTUACAO DO HISTORICO */
+    @GET
+    @Path("/{clienteId}")
+    public Response buscarVisao(@PathParam("clienteId") @Positive Long clienteId,
+                                @QueryParam("limite") @Positive Integer limite) {
+
+        authHelper.validarAcessoAoCliente(jwt, clienteId);
+
+        try {
+            VisaoClienteResponse visao = visaoClienteService.buscarVisao(clienteId, limite);
+            return Response.ok(visao).build();
+        } catch (ClienteNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(ErrorResponse.notFound(e.getMessage()))
+                    .build();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(ErrorResponse.badRequest(e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(ErrorResponse.internalError("Erro interno no servidor"))
+                    .build();
+        }
+    }
+}
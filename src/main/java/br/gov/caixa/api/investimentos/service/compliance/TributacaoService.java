@@ -1,52 +1,139 @@
 package br.gov.caixa.api.investimentos.service.compliance;
 
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
 import jakarta.enterprise.context.ApplicationScoped;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+/* ALIQUOTAS PRE-CALCULADAS: IR POR FAIXA DE PRAZO (TABELA REGRESSIVA) E IOF POR DIA ATE O 29o DIA.
+ * O CALCULO DE UM PRAZO E UMA CONSULTA; A TABELA POR PRAZO PERCORRE AS FAIXAS EM ORDEM, SEM REAVALIA-LAS */
 @ApplicationScoped
 public class TributacaoService {
 
+    private static final int PRAZO_ISENCAO_IOF_DIAS = 30;
+
+    /* LIMITE SUPERIOR (INCLUSIVO) DE CADA FAIXA DE IR; A ULTIMA ALIQUOTA VALE ACIMA DO ULTIMO LIMITE */
+    private static final int[] LIMITES_FAIXAS_IR = {180, 360, 720};
+
+    private static final BigDecimal[] ALIQUOTAS_IR = {
+            new BigDecimal("0.225"),
+            new BigDecimal("0.20"),
+            new BigDecimal("0.175"),
+            new BigDecimal("0.15")
+    };
+
+    private static final BigDecimal[] ALIQUOTAS_IOF = carregarAliquotasIOF();
+
     public BigDecimal calcularIR(BigDecimal rendimento, int prazoDias) {
+        return calcularIR(rendimento, aliquotaIR(prazoDias));
+    }
+
+    public BigDecimal calcularIOF(BigDecimal rendimento, int prazoDias) {
+        return calcularIOF(rendimento, aliquotaIOF(prazoDias));
+    }
+
+    public BigDecimal calcularRendimentoLiquido(BigDecimal rendimentoBruto, int prazoDias) {
+        BigDecimal ir = calcularIR(rendimentoBruto, prazoDias);
+        BigDecimal iof = calcularIOF(rendimentoBruto, prazoDias);
+
+        return rendimentoBruto.subtract(ir).subtract(iof);
+    }
+
+    public Tributacao calcular(BigDecimal rendimentoBruto, int prazoDias) {
+        return tributar(rendimentoBruto, aliquotaIR(prazoDias), aliquotaIOF(prazoDias));
+    }
+
+    /* rendimentosBrutos[i] E O RENDIMENTO NO PRAZO DE i + 1 DIAS */
+    public Tributacao[] calcularTabela(BigDecimal[] rendimentosBrutos) {
+
+        Tributacao[] tabela = new Tributacao[rendimentosBrutos.length];
+        int faixa = 0;
+
+        for (int i = 0; i < rendimentosBrutos.length; i++) {
+            int prazoDias = i + 1;
+
+            while (faixa < LIMITES_FAIXAS_IR.length && prazoDias > LIMITES_FAIXAS_IR[faixa]) {
+                faixa++;
+            }
+
+            BigDecimal aliquotaIOF = prazoDias < PRAZO_ISENCAO_IOF_DIAS ? ALIQUOTAS_IOF[prazoDias] : BigDecimal.ZERO;
+
+            tabela[i] = tributar(rendimentosBrutos[i], ALIQUOTAS_IR[faixa], aliquotaIOF);
+        }
+
+        return tabela;
+    }
+
+    /* POUPANCA, LCI, LCA E CRI SAO ISENTOS PARA PESSOA FISICA; OS DEMAIS SEGUEM A TABELA REGRESSIVA */
+    public boolean isIsento(TipoProduto tipoProduto) {
+        return tipoProduto == TipoProduto.POUPANCA || tipoProduto == TipoProduto.LCI ||
+                tipoProduto == TipoProduto.LCA || tipoProduto == TipoProduto.CRI;
+    }
+
+    private Tributacao tributar(BigDecimal rendimentoBruto, BigDecimal aliquotaIR, BigDecimal aliquotaIOF) {
+        BigDecimal ir = calcularIR(rendimentoBruto, aliquotaIR);
+        BigDecimal iof = calcularIOF(rendimentoBruto, aliquotaIOF);
+
+        return new Tributacao(aliquotaIR, ir, aliquotaIOF, iof, rendimentoBruto.subtract(ir).subtract(iof));
+    }
+
+    private BigDecimal calcularIR(BigDecimal rendimento, BigDecimal aliquota) {
         if (rendimento.compareTo(BigDecimal.ZERO) <= 0) {
             return BigDecimal.ZERO;
         }
 
-        BigDecimal aliquota;
-        if (prazoDias <= 180) {
-            aliquota = new BigDecimal("0.225");
-        } else if (prazoDias <= 360) {
-            aliquota = new BigDecimal("0.20");
-        } else if (prazoDias <= 720) {
-            aliquota = new BigDecimal("0.175");
-        } else {
-            aliquota = new BigDecimal("0.15");
+        return rendimento.multiply(aliquota).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal calcularIOF(BigDecimal rendimento, BigDecimal percentualIOF) {
+        if (percentualIOF.signum() == 0 || rendimento.compareTo(BigDecimal.ZERO) <= 0) {
+            return BigDecimal.ZERO;
         }
 
-        return rendimento.multiply(aliquota).setScale(2, RoundingMode.HALF_UP);
+        return rendimento.multiply(percentualIOF).setScale(2, RoundingMode.HALF_UP);
     }
 
-    public BigDecimal calcularIOF(BigDecimal rendimento, int prazoDias) {
-        if (prazoDias >= 30 || rendimento.compareTo(BigDecimal.ZERO) <= 0) {
+    private BigDecimal aliquotaIR(int prazoDias) {
+        for (int faixa = 0; faixa < LIMITES_FAIXAS_IR.length; faixa++) {
+            if (prazoDias <= LIMITES_FAIXAS_IR[faixa]) {
+                return ALIQUOTAS_IR[faixa];
+            }
+        }
+
+        return ALIQUOTAS_IR[LIMITES_FAIXAS_IR.length];
+    }
+
+    private BigDecimal aliquotaIOF(int prazoDias) {
+        if (prazoDias >= PRAZO_ISENCAO_IOF_DIAS) {
             return BigDecimal.ZERO;
         }
 
-        BigDecimal percentualIOF = new BigDecimal("96")
-                .subtract(new BigDecimal(prazoDias - 1).multiply(new BigDecimal("3.33")))
-                .divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP);
+        return prazoDias >= 0 ? ALIQUOTAS_IOF[prazoDias] : percentualIOF(prazoDias);
+    }
+
+    private static BigDecimal[] carregarAliquotasIOF() {
+        BigDecimal[] aliquotas = new BigDecimal[PRAZO_ISENCAO_IOF_DIAS];
 
-        if (percentualIOF.compareTo(BigDecimal.ZERO) < 0) {
-            percentualIOF = BigDecimal.ZERO;
+        for (int prazoDias = 0; prazoDias < PRAZO_ISENCAO_IOF_DIAS; prazoDias++) {
+            aliquotas[prazoDias] = percentualIOF(prazoDias);
         }
 
-        return rendimento.multiply(percentualIOF).setScale(2, RoundingMode.HALF_UP);
+        return aliquotas;
     }
 
-    public BigDecimal calcularRendimentoLiquido(BigDecimal rendimentoBruto, int prazoDias) {
-        BigDecimal ir = calcularIR(rendimentoBruto, prazoDias);
-        BigDecimal iof = calcularIOF(rendimentoBruto, prazoDias);
+    private static BigDecimal percentualIOF(int prazoDias) {
+        BigDecimal percentualIOF = new BigDecimal("96")
+                .subtract(new BigDecimal(prazoDias - 1).multiply(new BigDecimal("3.33")))
+                .divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP);
 
-        return rendimentoBruto.subtract(ir).subtract(iof);
+        return percentualIOF.max(BigDecimal.ZERO);
+    }
+
+    public record Tributacao(BigDecimal aliquotaIR,
+                             BigDecimal valorIR,
+                             BigDecimal aliquotaIOF,
+                             BigDecimal valorIOF,
+                             BigDecimal rendimentoLiquido) {
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package br.gov.caixa.api.investimentos.service.investimento;
 
 import br.gov.caixa.api.investimentos.dto.investimento.InvestimentoRequest;
 import br.gov.caixa.api.investimentos.dto.investimento.InvestimentoResponse;
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
 import br.gov.caixa.api.investimentos.exception.cliente.ClienteNotFoundException;
 import br.gov.caixa.api.investimentos.exception.produto.ProdutoNotFoundException;
 import br.gov.caixa.api.investimentos.mapper.InvestimentoMapper;
@@ -12,6 +13,7 @@ import br.gov.caixa.api.investimentos.repository.cliente.IPessoaRepository;
 import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
 import br.gov.caixa.api.investimentos.repository.produto.IProdutoRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
@@ -32,6 +34,9 @@ public class InvestimentoService {
     @Inject
     IInvestimentoRepository investimentoRepository;
 
+    @Inject
+    Event<HistoricoClienteAlteradoEvent> historicoAlterado;
+
     @Transactional
     public InvestimentoResponse criar(InvestimentoRequest request) {
         if (request == null) {
@@ -55,6 +60,7 @@ public class InvestimentoService {
 
         Investimento investimento = investimentoMapper.toEntity(request, produto);
         investimentoRepository.persist(investimento);
+        historicoAlterado.fire(new HistoricoClienteAlteradoEvent(request.clienteId(), List.of(investimento)));
 
         return investimentoMapper.toResponse(investimento);
     }
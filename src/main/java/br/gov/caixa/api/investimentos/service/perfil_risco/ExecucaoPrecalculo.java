@@ -0,0 +1,85 @@
+package br.gov.caixa.api.investimentos.service.perfil_risco;
+
+import br.gov.caixa.api.investimentos.dto.perfil_risco.PrecalculoPerfilRiscoResponse;
+import br.gov.caixa.api.investimentos.enums.simulacao.StatusTarefaSimulacao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/* ESTADO DE UMA EXECUCAO DO PRE-CALCULO DE PERFIS. SO A THREAD COORDENADORA ESCREVE; AS CONSULTAS LEEM OS
+ * CAMPOS VOLATEIS, E O STATUS E SEMPRE O ULTIMO CAMPO GRAVADO EM CADA TRANSICAO */
+public final class ExecucaoPrecalculo {
+
+    private final String id;
+    private final LocalDate dataReferencia;
+    private final LocalDateTime dataCriacao;
+
+    private volatile StatusTarefaSimulacao status = StatusTarefaSimulacao.PENDENTE;
+    private volatile int clientesProcessados;
+    private volatile int clientesComPerfil;
+    private volatile int clientesSemHistorico;
+    private volatile int clientesComFalha;
+    private volatile LocalDateTime dataInicio;
+    private volatile LocalDateTime dataConclusao;
+    private volatile String erro;
+
+    ExecucaoPrecalculo(LocalDate dataReferencia) {
+        this.id = UUID.randomUUID().toString();
+        this.dataReferencia = dataReferencia;
+        this.dataCriacao = LocalDateTime.now();
+    }
+
+    void iniciar() {
+        dataInicio = LocalDateTime.now();
+        status = StatusTarefaSimulacao.EXECUTANDO;
+    }
+
+    void registrarBloco(int comPerfil, int semHistorico, int comFalha) {
+        clientesComPerfil += comPerfil;
+        clientesSemHistorico += semHistorico;
+        clientesComFalha += comFalha;
+        clientesProcessados += comPerfil + semHistorico + comFalha;
+    }
+
+    void concluir() {
+        dataConclusao = LocalDateTime.now();
+        status = StatusTarefaSimulacao.CONCLUIDA;
+    }
+
+    void falhar(String mensagem) {
+        erro = mensagem;
+        dataConclusao = LocalDateTime.now();
+        status = StatusTarefaSimulacao.FALHOU;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public StatusTarefaSimulacao getStatus() {
+        return status;
+    }
+
+    public LocalDate getDataReferencia() {
+        return dataReferencia;
+    }
+
+    public PrecalculoPerfilRiscoResponse getSituacao() {
+        StatusTarefaSimulacao statusAtual = status;
+
+        return new PrecalculoPerfilRiscoResponse(
+                id,
+                statusAtual,
+                dataReferencia,
+                clientesProcessados,
+                clientesComPerfil,
+                clientesSemHistorico,
+                clientesComFalha,
+                dataCriacao,
+                dataInicio,
+                dataConclusao,
+                erro
+        );
+    }
+}
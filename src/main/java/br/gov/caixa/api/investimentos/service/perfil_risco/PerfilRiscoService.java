@@ -3,61 +3,66 @@ package br.gov.caixa.api.investimentos.service.perfil_risco;
 import br.gov.caixa.api.investimentos.dto.perfil_risco.PerfilRiscoResponse;
 import br.gov.caixa.api.investimentos.enums.produto.NivelRisco;
 import br.gov.caixa.api.investimentos.exception.cliente.ClienteNotFoundException;
-import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
-import br.gov.caixa.api.investimentos.model.investimento.Investimento;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.perfil_risco.PerfilRiscoPrecalculado;
 import br.gov.caixa.api.investimentos.model.produto.Produto;
-import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
-import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
-import br.gov.caixa.api.investimentos.repository.produto.IProdutoRepository;
-import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import br.gov.caixa.api.investimentos.repository.perfil_risco.IPerfilRiscoPrecalculadoRepository;
 import br.gov.caixa.api.investimentos.service.cliente.ClienteService;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.RecomendacaoClienteService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.LocalDate;
 
 @ApplicationScoped
 public class PerfilRiscoService {
 
-    @Inject
-    ClienteService clienteService;
-
-    @Inject
-    IInvestimentoRepository investimentoRepository;
+    private static final String SEM_HISTORICO =
+            "Cliente não possui histórico de investimentos nem simulações para calcular perfil de risco";
 
     @Inject
-    ISimulacaoInvestimentoRepository simulacaoRepository;
+    ClienteService clienteService;
 
     @Inject
-    IProdutoRepository produtoRepository;
+    RecomendacaoClienteService recomendacaoClienteService;
 
     @Inject
-    GeradorRecomendacaoML geradorRecomendacaoML;
+    IPerfilRiscoPrecalculadoRepository precalculadoRepository;
 
+    /* USA O PRE-CALCULO DO DIA QUANDO HOUVER; SENAO CALCULA A PARTIR DA RECOMENDACAO DO CLIENTE */
     public PerfilRiscoResponse calcularPerfilRisco(Long clienteId) {
 
         validarCliente(clienteId);
 
-        List<Produto> produtos_sugeridos = new ArrayList<>();
-        List<Produto> produtos = produtoRepository.listAll();
-
-        List<Investimento> investimentos = investimentoRepository.findByClienteId(clienteId);
-        List<SimulacaoInvestimento> simulacoes = simulacaoRepository.findByClienteId(clienteId);
+        PerfilRiscoPrecalculado precalculado = precalculadoRepository.findByClienteId(clienteId, LocalDate.now());
 
-        if (!investimentos.isEmpty()) {
-            produtos_sugeridos = geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(investimentos, produtos);
+        if (precalculado != null) {
+            return lerPrecalculado(clienteId, precalculado);
         }
 
-        if (produtos_sugeridos.isEmpty()) {
-            produtos_sugeridos = geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(simulacoes, produtos);
+        return determinarPerfil(clienteId, recomendacaoClienteService.recomendar(clienteId));
+    }
+
+    /* PERFIL A PARTIR DE UMA LINHA DO PRE-CALCULO JA CARREGADA; O CLIENTE NAO E VALIDADO AQUI */
+    public PerfilRiscoResponse lerPrecalculado(Long clienteId, PerfilRiscoPrecalculado precalculado) {
+
+        if (precalculado.isSemHistorico()) {
+            throw new IllegalStateException(SEM_HISTORICO);
         }
 
-        if (produtos_sugeridos.isEmpty()) {
-            throw new IllegalStateException("Cliente não possui histórico de investimentos nem simulações para calcular perfil de risco");
+        return PerfilRiscoResponse.of(clienteId, precalculado.getPerfil(), precalculado.getPontuacao());
+    }
+
+    /* PERFIL A PARTIR DE UMA RECOMENDACAO JA CALCULADA; O CLIENTE NAO E VALIDADO AQUI */
+    public PerfilRiscoResponse determinarPerfil(Long clienteId, ResultadoRecomendacao recomendacao) {
+
+        if (recomendacao.isEmpty()) {
+            throw new IllegalStateException(SEM_HISTORICO);
         }
 
-        return determinarPerfilFinal(clienteId, contarNivelRisco(produtos_sugeridos, produtos_sugeridos.getFirst().getRisco()), contarTotal(produtos_sugeridos), produtos_sugeridos.getFirst());
+        Produto principal = recomendacao.getPrimeiro();
+
+        return determinarPerfilFinal(clienteId, contarNivelRisco(recomendacao, principal.getRisco()), contarTotal(recomendacao), principal);
     }
 
     private void validarCliente(Long clienteId) {
@@ -68,23 +73,23 @@ public class PerfilRiscoService {
         }
     }
 
-    private int contarNivelRisco(List<Produto> produtos, NivelRisco nivel) {
+    private int contarNivelRisco(ResultadoRecomendacao recomendacao, NivelRisco nivel) {
         int quantidade = 0;
 
-        for (Produto produto : produtos) {
-            if (produto.getRisco().equals(nivel)) {
-                quantidade += produto.getPontuacao();
+        for (int i = 0; i < recomendacao.tamanho(); i++) {
+            if (recomendacao.getProdutos().get(i).getRisco().equals(nivel)) {
+                quantidade += recomendacao.pontuacaoNaPosicao(i);
             }
         }
 
         return quantidade;
     }
 
-    private int contarTotal(List<Produto> produtos) {
+    private int contarTotal(ResultadoRecomendacao recomendacao) {
         int quantidade = 0;
 
-        for (Produto produto : produtos) {
-            quantidade += produto.getPontuacao();
+        for (int i = 0; i < recomendacao.tamanho(); i++) {
+            quantidade += recomendacao.pontuacaoNaPosicao(i);
         }
 
         return quantidade;
@@ -0,0 +1,401 @@
+package br.gov.caixa.api.investimentos.service.perfil_risco;
+
+import br.gov.caixa.api.investimentos.dto.perfil_risco.PerfilRiscoPrecalculadoResponse;
+import br.gov.caixa.api.investimentos.dto.perfil_risco.PerfilRiscoResponse;
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
+import br.gov.caixa.api.investimentos.event.produto.CatalogoProdutoAlteradoEvent;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.investimento.Investimento;
+import br.gov.caixa.api.investimentos.model.perfil_risco.PerfilRiscoPrecalculado;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+import br.gov.caixa.api.investimentos.repository.cliente.IPessoaRepository;
+import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
+import br.gov.caixa.api.investimentos.repository.perfil_risco.IPerfilRiscoPrecalculadoRepository;
+import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.CoocorrenciaProdutosService;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.RecomendacaoClienteService;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/* PRE-CALCULO DO PERFIL DE RISCO E DA RECOMENDACAO DE TODOS OS CLIENTES (EX.: EXPORTACAO NOTURNA PARA O CRM).
+ * OS CLIENTES SAO LIDOS EM BLOCOS POR ORDEM DE ID (PAGINACAO POR CHAVE), COM O HISTORICO DO BLOCO EM DUAS CONSULTAS;
+ * CADA BLOCO E PONTUADO EM PARALELO ENQUANTO O SEGUINTE E LIDO, E GRAVADO NA TABELA perfil_risco_precalculado
+ * NUMA TRANSACAO. OS ENDPOINTS ONLINE USAM A LINHA DO CLIENTE QUANDO ELA E DO DIA. A LINHA E REMOVIDA NA MESMA
+ * TRANSACAO QUE ALTERA O HISTORICO DO CLIENTE, E A TABELA INTEIRA QUANDO O CATALOGO MUDA */
+@ApplicationScoped
+public class PrecalculoPerfilRiscoService {
+
+    private static final int LIMITE_PADRAO_EXPORTACAO = 1000;
+    private static final int LIMITE_MAXIMO_EXPORTACAO = 10000;
+
+    @Inject
+    IPessoaRepository pessoaRepository;
+
+    @Inject
+    IInvestimentoRepository investimentoRepository;
+
+    @Inject
+    ISimulacaoInvestimentoRepository simulacaoRepository;
+
+    @Inject
+    IPerfilRiscoPrecalculadoRepository precalculadoRepository;
+
+    @Inject
+    RecomendacaoClienteService recomendacaoClienteService;
+
+    @Inject
+    PerfilRiscoService perfilRiscoService;
+
+    @Inject
+    CoocorrenciaProdutosService coocorrenciaProdutosService;
+
+    @ConfigProperty(name = "perfil-risco.precalculo.tamanho-bloco", defaultValue = "500")
+    int tamanhoBloco;
+
+    @ConfigProperty(name = "perfil-risco.precalculo.paralelismo", defaultValue = "4")
+    int paralelismo;
+
+    /* CLIENTES COM HISTORICO ALTERADO DURANTE A EXECUCAO EM ANDAMENTO */
+    private final Set<Long> clientesAlterados = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean catalogoAlterado;
+    private volatile boolean tabelaDisponivel;
+    private volatile ExecucaoPrecalculo ultimaExecucao;
+    private volatile ExecutorService executor;
+
+    /* UMA EXECUCAO POR VEZ: COM OUTRA EM ANDAMENTO, DEVOLVE A QUE JA ESTA RODANDO */
+    public synchronized ExecucaoPrecalculo iniciar() {
+
+        ExecucaoPrecalculo atual = ultimaExecucao;
+
+        if (atual != null && !atual.getStatus().isFinalizada()) {
+            return atual;
+        }
+
+        ExecucaoPrecalculo execucao = new ExecucaoPrecalculo(LocalDate.now());
+
+        clientesAlterados.clear();
+        catalogoAlterado = false;
+        ultimaExecucao = execucao;
+
+        Thread.ofPlatform().name("precalculo-perfil").daemon(true).start(() -> executar(execucao));
+
+        return execucao;
+    }
+
+    public ExecucaoPrecalculo buscarUltimaExecucao() {
+
+        ExecucaoPrecalculo execucao = ultimaExecucao;
+
+        if (execucao == null) {
+            throw new RuntimeException("Execução de pré-cálculo de perfil de risco não encontrada");
+        }
+
+        return execucao;
+    }
+
+    /* EXPORTACAO PAGINADA POR CHAVE: A PROXIMA PAGINA COMECA APOS O ULTIMO clienteId DEVOLVIDO */
+    public List<PerfilRiscoPrecalculadoResponse> listar(Long aposClienteId, Integer limite) {
+
+        int tamanho = limite != null ? limite : LIMITE_PADRAO_EXPORTACAO;
+
+        if (tamanho < 1 || tamanho > LIMITE_MAXIMO_EXPORTACAO) {
+            throw new IllegalArgumentException("Limite deve ser um valor entre 1 e " + LIMITE_MAXIMO_EXPORTACAO);
+        }
+
+        return precalculadoRepository.listarComPerfilAposCliente(aposClienteId != null ? aposClienteId : 0L, tamanho)
+                .stream()
+                .map(precalculado -> {
+                    PerfilRiscoResponse perfil = PerfilRiscoResponse.of(precalculado.getClienteId(),
+                            precalculado.getPerfil(), precalculado.getPontuacao());
+
+                    return new PerfilRiscoPrecalculadoResponse(
+                            precalculado.getClienteId(),
+                            perfil.perfil(),
+                            perfil.pontuacao(),
+                            perfil.descricao(),
+                            precalculado.listarProdutoIds(),
+                            precalculado.getDataReferencia(),
+                            precalculado.getDataCalculo()
+                    );
+                })
+                .collect(Collectors.toList());
+    }
+
+    /* NA TRANSACAO DE QUEM GRAVOU O HISTORICO: A LINHA DO CLIENTE SAI JUNTO COM A GRAVACAO. DURANTE UMA EXECUCAO O
+     * CLIENTE TAMBEM E ANOTADO, PARA QUE UM BLOCO LIDO ANTES DA ALTERACAO NAO DEIXE GRAVADA UMA LINHA DESATUALIZADA */
+    void onHistoricoAlterado(@Observes HistoricoClienteAlteradoEvent evento) {
+        if (emExecucao()) {
+            clientesAlterados.add(evento.clienteId());
+        }
+        if (tabelaDisponivel()) {
+            precalculadoRepository.removerPorCliente(evento.clienteId());
+        }
+    }
+
+    void onCatalogoAlterado(@Observes CatalogoProdutoAlteradoEvent evento) {
+        if (emExecucao()) {
+            catalogoAlterado = true;
+        }
+        if (tabelaDisponivel()) {
+            precalculadoRepository.removerTodos();
+        }
+    }
+
+    /* SEM A TABELA (SCRIPT DE db/migration AINDA NAO APLICADO) NAO HA O QUE INVALIDAR, E O ERRO DE SQL MARCARIA PARA
+     * ROLLBACK A TRANSACAO DE QUEM GRAVOU O HISTORICO OU O CATALOGO. SO A RESPOSTA POSITIVA FICA GUARDADA, PARA QUE A
+     * TABELA CRIADA COM A APLICACAO NO AR PASSE A SER USADA */
+    private boolean tabelaDisponivel() {
+        if (tabelaDisponivel) {
+            return true;
+        }
+
+        if (!precalculadoRepository.existeTabela()) {
+            System.err.println("Tabela perfil_risco_precalculado não encontrada; aplique o script " +
+                    "db/migration/create_perfil_risco_precalculado.sql");
+            return false;
+        }
+
+        tabelaDisponivel = true;
+        return true;
+    }
+
+    void executar(ExecucaoPrecalculo execucao) {
+
+        execucao.iniciar();
+
+        try {
+            processar(execucao);
+            execucao.concluir();
+        } catch (RuntimeException e) {
+            execucao.falhar(mensagemDaCausa(e));
+        }
+    }
+
+    /* CADA BLOCO SUBSTITUI A FAIXA DE IDS (ultimoId, ultimoIdDoBloco]; NO FIM SAEM AS LINHAS APOS O ULTIMO CLIENTE */
+    private void processar(ExecucaoPrecalculo execucao) {
+
+        int tamanho = Math.max(1, tamanhoBloco);
+        Long ultimoId = 0L;
+        BlocoClientes bloco = carregarBloco(ultimoId, tamanho);
+
+        while (!bloco.clienteIds().isEmpty()) {
+            PerfilRiscoPrecalculado[] calculados = new PerfilRiscoPrecalculado[bloco.clienteIds().size()];
+            List<Future<Void>> calculos = calcularEmParalelo(bloco, execucao.getDataReferencia(), calculados);
+
+            Long ultimoIdBloco = bloco.clienteIds().getLast();
+            BlocoClientes proximo = carregarBloco(ultimoIdBloco, tamanho);
+
+            aguardar(calculos);
+            gravarBloco(execucao, bloco, ultimoId, ultimoIdBloco, calculados);
+
+            ultimoId = ultimoIdBloco;
+            bloco = proximo;
+        }
+
+        precalculadoRepository.removerAposCliente(ultimoId);
+        verificarCatalogo();
+    }
+
+    /* O CATALOGO (E A MATRIZ DO GERADOR) TAMBEM E RESOLVIDO AQUI: AS THREADS QUE PONTUAM O BLOCO NAO TEM CONTEXTO
+     * DE REQUISICAO NEM TRANSACAO, ENTAO NAO PODEM RECARREGAR O CATALOGO DEPOIS DE UMA ESCRITA EM PRODUTOS */
+    @Transactional
+    BlocoClientes carregarBloco(Long aposId, int tamanho) {
+
+        List<Long> clienteIds = pessoaRepository.listarIdsAposId(aposId, tamanho);
+
+        if (clienteIds.isEmpty()) {
+            return new BlocoClientes(clienteIds, null, Map.of(), Map.of());
+        }
+
+        return new BlocoClientes(
+                clienteIds,
+                recomendacaoClienteService.prepararCatalogo(),
+                investimentoRepository.findByClienteIds(clienteIds).stream()
+                        .collect(Collectors.groupingBy(Investimento::getClienteId)),
+                simulacaoRepository.findByClienteIds(clienteIds).stream()
+                        .collect(Collectors.groupingBy(SimulacaoInvestimento::getClienteId))
+        );
+    }
+
+    /* DIVIDE O BLOCO EM UM TRECHO CONTIGUO POR THREAD; NAO ESPERA O FIM PARA QUE O PROXIMO BLOCO SEJA LIDO JUNTO */
+    private List<Future<Void>> calcularEmParalelo(BlocoClientes bloco, LocalDate data, PerfilRiscoPrecalculado[] destino) {
+
+        int trechos = Math.min(Math.max(1, paralelismo), destino.length);
+        int tamanhoTrecho = (destino.length + trechos - 1) / trechos;
+
+        List<Future<Void>> calculos = new ArrayList<>(trechos);
+
+        for (int inicio = 0; inicio < destino.length; inicio += tamanhoTrecho) {
+            int primeiro = inicio;
+            int ultimo = Math.min(inicio + tamanhoTrecho, destino.length);
+
+            calculos.add(getExecutor().submit(() -> {
+                for (int i = primeiro; i < ultimo; i++) {
+                    destino[i] = calcularCliente(bloco, bloco.clienteIds().get(i), data);
+                }
+                return null;
+            }));
+        }
+
+        return calculos;
+    }
+
+    /* NULL QUANDO O CALCULO FALHA (EX.: SIMULACAO DE PRODUTO FORA DO CATALOGO): SEM LINHA, O ENDPOINT ONLINE
+     * CALCULA NA HORA E RESPONDE COM O MESMO ERRO DE SEMPRE. SO O ERRO DE DADOS DO CLIENTE SAI SEM O STACK TRACE */
+    private PerfilRiscoPrecalculado calcularCliente(BlocoClientes bloco, Long clienteId, LocalDate data) {
+        try {
+            ResultadoRecomendacao recomendacao = recomendacaoClienteService.recomendar(
+                    bloco.catalogo(),
+                    bloco.investimentos().getOrDefault(clienteId, List.of()),
+                    bloco.simulacoes().getOrDefault(clienteId, List.of()),
+                    data);
+
+            if (recomendacao.isEmpty()) {
+                return new PerfilRiscoPrecalculado(clienteId, null, null, List.of(), data);
+            }
+
+            PerfilRiscoResponse perfil = perfilRiscoService.determinarPerfil(clienteId, recomendacao);
+            List<Long> produtoIds = coocorrenciaProdutosService.combinar(clienteId, recomendacao, Integer.MAX_VALUE,
+                            bloco.catalogo())
+                    .getProdutos().stream().map(Produto::getId).toList();
+
+            return new PerfilRiscoPrecalculado(clienteId, perfil.perfil(), perfil.pontuacao(), produtoIds, data);
+        } catch (RuntimeException e) {
+            System.err.println("Erro no pré-cálculo de perfil de risco do cliente " + clienteId + ": " + e.getMessage());
+            if (!(e instanceof IllegalArgumentException)) {
+                e.printStackTrace();
+            }
+            return null;
+        }
+    }
+
+    private void aguardar(List<Future<Void>> calculos) {
+        try {
+            for (Future<Void> calculo : calculos) {
+                calculo.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pré-cálculo de perfil de risco interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro no pré-cálculo de perfil de risco: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /* CLIENTES ALTERADOS DEPOIS DA LEITURA DO BLOCO NAO SAO GRAVADOS; OS ALTERADOS ENQUANTO O BLOCO ERA GRAVADO
+     * SAO REMOVIDOS LOGO APOS, JA QUE A REMOCAO FEITA PELA GRAVACAO DO HISTORICO PODE TER VINDO ANTES.
+     * UM BLOCO EM QUE TODOS OS CLIENTES FALHARAM NAO E ERRO DE DADOS, E A EXECUCAO FALHA SEM GRAVA-LO */
+    private void gravarBloco(ExecucaoPrecalculo execucao, BlocoClientes bloco, Long aposId, Long ateId,
+                             PerfilRiscoPrecalculado[] calculados) {
+
+        if (Arrays.stream(calculados).allMatch(Objects::isNull)) {
+            throw new IllegalStateException("Falha no pré-cálculo de todos os clientes com ID de " +
+                    bloco.clienteIds().getFirst() + " a " + ateId + "; consulte o log de erros");
+        }
+
+        List<PerfilRiscoPrecalculado> linhas = new ArrayList<>(calculados.length);
+        int comPerfil = 0;
+        int semHistorico = 0;
+        int comFalha = 0;
+
+        for (PerfilRiscoPrecalculado calculado : calculados) {
+            if (calculado == null) {
+                comFalha++;
+                continue;
+            }
+
+            if (calculado.isSemHistorico()) {
+                semHistorico++;
+            } else {
+                comPerfil++;
+            }
+
+            if (!clientesAlterados.contains(calculado.getClienteId())) {
+                linhas.add(calculado);
+            }
+        }
+
+        precalculadoRepository.substituirFaixa(aposId, ateId, linhas);
+
+        List<Long> alterados = bloco.clienteIds().stream().filter(clientesAlterados::contains).toList();
+        precalculadoRepository.removerPorClientes(alterados);
+
+        verificarCatalogo();
+
+        execucao.registrarBloco(comPerfil, semHistorico, comFalha);
+    }
+
+    /* OS BLOCOS JA GRAVADOS FORAM PONTUADOS COM O CATALOGO ANTIGO */
+    private void verificarCatalogo() {
+        if (catalogoAlterado) {
+            precalculadoRepository.removerTodos();
+            throw new IllegalStateException("Catálogo de produtos alterado durante o pré-cálculo; execute-o novamente");
+        }
+    }
+
+    private boolean emExecucao() {
+        ExecucaoPrecalculo execucao = ultimaExecucao;
+        return execucao != null && !execucao.getStatus().isFinalizada();
+    }
+
+    /* OS INTERCEPTADORES EMBRULHAM A FALHA ORIGINAL (EX.: ROLLBACK); A MENSAGEM UTIL E A DA CAUSA MAIS INTERNA */
+    private String mensagemDaCausa(Throwable erro) {
+        Throwable causa = erro;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+    }
+
+    private ExecutorService getExecutor() {
+        ExecutorService executorAtual = executor;
+
+        if (executorAtual == null) {
+            synchronized (this) {
+                executorAtual = executor;
+
+                if (executorAtual == null) {
+                    executorAtual = Executors.newFixedThreadPool(Math.max(1, paralelismo),
+                            Thread.ofPlatform().name("precalculo-perfil-", 0).daemon(true).factory());
+                    executor = executorAtual;
+                }
+            }
+        }
+
+        return executorAtual;
+    }
+
+    @PreDestroy
+    void encerrarExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    record BlocoClientes(List<Long> clienteIds,
+                         CatalogoIndexado catalogo,
+                         Map<Long, List<Investimento>> investimentos,
+                         Map<Long, List<SimulacaoInvestimento>> simulacoes) {
+    }
+}
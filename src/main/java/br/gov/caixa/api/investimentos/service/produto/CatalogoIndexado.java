@@ -0,0 +1,209 @@
+package br.gov.caixa.api.investimentos.service.produto;
+
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/* FOTOGRAFIA IMUTAVEL DO CATALOGO DE PRODUTOS.
+ * OS PRODUTOS FICAM PRE-ORDENADOS POR RISCO E RENTABILIDADE (DECRESCENTE) E CADA CRITERIO DE FILTRO
+ * E UM BITSET SOBRE ESSAS POSICOES; A INTERSECCAO JA DEVOLVE OS CANDIDATOS NA ORDEM FINAL.
+ * A FOTOGRAFIA CARREGADA PELO CatalogoProdutos TRAZ OS IDS DOS PRODUTOS CRIADOS, ALTERADOS OU REMOVIDOS DESDE A
+ * FOTOGRAFIA ANTERIOR, PARA QUE ESTRUTURAS DERIVADAS SO REFACAM O QUE MUDOU */
+public final class CatalogoIndexado {
+
+    public static final Comparator<Produto> ORDEM_RISCO_RENTABILIDADE = (p1, p2) -> {
+
+        int risco1 = p1.getRisco().ordinal();
+        int risco2 = p2.getRisco().ordinal();
+
+        if (risco1 != risco2) {
+            return Integer.compare(risco1, risco2);
+        }
+
+        return p2.getRentabilidade().compareTo(p1.getRentabilidade());
+    };
+
+    private static final BitSet VAZIO = new BitSet();
+
+    private final long versao;
+    private final long versaoAnterior;
+    private final Set<Long> produtosAlterados;
+    private final List<Produto> produtos;
+    private final Map<Long, Produto> produtosPorId;
+
+    private final BitSet[] porTipo = novosBitSets(TipoProduto.values().length);
+    private final BitSet[] porTipoRentabilidade = novosBitSets(TipoRentabilidade.values().length);
+    private final BitSet[] porIndice = novosBitSets(Indice.values().length);
+    private final Map<Integer, BitSet> porLiquidez = new HashMap<>();
+    private final Map<String, BitSet> porNome = new HashMap<>();
+    private final BitSet comFgc = new BitSet();
+    private final BitSet semFgc = new BitSet();
+
+    /* MINIMO DE DIAS EM ORDEM CRESCENTE E A POSICAO DO PRODUTO CORRESPONDENTE */
+    private final int[] minimoDiasOrdenado;
+    private final int[] posicaoPorMinimoDias;
+
+    private CatalogoIndexado(long versao, long versaoAnterior, Set<Long> produtosAlterados, List<Produto> produtos) {
+
+        this.versao = versao;
+        this.versaoAnterior = versaoAnterior;
+        this.produtosAlterados = produtosAlterados;
+        this.produtos = produtos;
+        this.produtosPorId = new HashMap<>();
+
+        List<int[]> minimos = new ArrayList<>();
+
+        for (int posicao = 0; posicao < produtos.size(); posicao++) {
+            Produto produto = produtos.get(posicao);
+
+            produtosPorId.putIfAbsent(produto.getId(), produto);
+            porNome.computeIfAbsent(produto.getNome(), k -> new BitSet()).set(posicao);
+
+            if (produto.getTipo() != null) {
+                porTipo[produto.getTipo().ordinal()].set(posicao);
+            }
+            if (produto.getTipoRentabilidade() != null) {
+                porTipoRentabilidade[produto.getTipoRentabilidade().ordinal()].set(posicao);
+            }
+            if (produto.getIndice() != null) {
+                porIndice[produto.getIndice().ordinal()].set(posicao);
+            }
+            if (produto.getLiquidez() != null) {
+                porLiquidez.computeIfAbsent(produto.getLiquidez(), k -> new BitSet()).set(posicao);
+            }
+            if (produto.getFgc() != null) {
+                (produto.getFgc() ? comFgc : semFgc).set(posicao);
+            }
+            if (produto.getMinimoDiasInvestimento() != null) {
+                minimos.add(new int[]{produto.getMinimoDiasInvestimento(), posicao});
+            }
+        }
+
+        minimos.sort(Comparator.comparingInt(par -> par[0]));
+
+        this.minimoDiasOrdenado = new int[minimos.size()];
+        this.posicaoPorMinimoDias = new int[minimos.size()];
+
+        for (int i = 0; i < minimos.size(); i++) {
+            minimoDiasOrdenado[i] = minimos.get(i)[0];
+            posicaoPorMinimoDias[i] = minimos.get(i)[1];
+        }
+    }
+
+    public static CatalogoIndexado construir(long versao, List<Produto> produtos) {
+        return construir(versao, produtos, -1, null);
+    }
+
+    /* produtosAlterados NULL: A DIFERENCA PARA A VERSAO ANTERIOR NAO E CONHECIDA (PRIMEIRA CARGA OU LIMPEZA) */
+    public static CatalogoIndexado construir(long versao, List<Produto> produtos, long versaoAnterior,
+                                             Set<Long> produtosAlterados) {
+
+        List<Produto> ordenados = new ArrayList<>(produtos.size());
+        for (Produto produto : produtos) {
+            if (produto != null) {
+                ordenados.add(produto);
+            }
+        }
+
+        ordenados.sort(ORDEM_RISCO_RENTABILIDADE);
+
+        return new CatalogoIndexado(versao, versaoAnterior,
+                produtosAlterados != null ? Set.copyOf(produtosAlterados) : null, List.copyOf(ordenados));
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    /* VERSAO DA FOTOGRAFIA A QUE getProdutosAlterados SE REFERE; -1 QUANDO NAO HA */
+    public long getVersaoAnterior() {
+        return versaoAnterior;
+    }
+
+    /* NULL QUANDO A DIFERENCA PARA A VERSAO ANTERIOR NAO E CONHECIDA */
+    public Set<Long> getProdutosAlterados() {
+        return produtosAlterados;
+    }
+
+    /* TODOS OS PRODUTOS, NA ORDEM DE RISCO E RENTABILIDADE */
+    public List<Produto> listarTodos() {
+        return produtos;
+    }
+
+    public Produto buscarPorId(Long id) {
+        return id != null ? produtosPorId.get(id) : null;
+    }
+
+    /* CRITERIOS NULOS NAO FILTRAM; O PRAZO SEMPRE FILTRA PELO MINIMO DE DIAS DO PRODUTO */
+    public List<Produto> filtrar(String nome, TipoProduto tipo, TipoRentabilidade tipoRentabilidade,
+                                 Indice indice, Integer liquidez, Boolean fgc, int prazoDias) {
+
+        BitSet candidatos = porPrazoMinimo(prazoDias);
+
+        if (nome != null) {
+            candidatos.and(porNome.getOrDefault(nome, VAZIO));
+        }
+        if (tipo != null) {
+            candidatos.and(porTipo[tipo.ordinal()]);
+        }
+        if (tipoRentabilidade != null) {
+            candidatos.and(porTipoRentabilidade[tipoRentabilidade.ordinal()]);
+        }
+        if (indice != null) {
+            candidatos.and(porIndice[indice.ordinal()]);
+        }
+        if (liquidez != null) {
+            candidatos.and(porLiquidez.getOrDefault(liquidez, VAZIO));
+        }
+        if (fgc != null) {
+            candidatos.and(fgc ? comFgc : semFgc);
+        }
+
+        List<Produto> resultado = new ArrayList<>(candidatos.cardinality());
+        for (int posicao = candidatos.nextSetBit(0); posicao >= 0; posicao = candidatos.nextSetBit(posicao + 1)) {
+            resultado.add(produtos.get(posicao));
+        }
+
+        return resultado;
+    }
+
+    private BitSet porPrazoMinimo(int prazoDias) {
+
+        int limite = 0;
+        int fim = minimoDiasOrdenado.length;
+
+        while (limite < fim) {
+            int meio = (limite + fim) >>> 1;
+
+            if (minimoDiasOrdenado[meio] <= prazoDias) {
+                limite = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+
+        BitSet candidatos = new BitSet(produtos.size());
+        for (int i = 0; i < limite; i++) {
+            candidatos.set(posicaoPorMinimoDias[i]);
+        }
+
+        return candidatos;
+    }
+
+    private static BitSet[] novosBitSets(int quantidade) {
+        BitSet[] bitSets = new BitSet[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            bitSets[i] = new BitSet();
+        }
+        return bitSets;
+    }
+}
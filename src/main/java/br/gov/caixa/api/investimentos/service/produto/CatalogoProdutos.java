@@ -0,0 +1,86 @@
+package br.gov.caixa.api.investimentos.service.produto;
+
+import br.gov.caixa.api.investimentos.event.produto.CatalogoProdutoAlteradoEvent;
+import br.gov.caixa.api.investimentos.event.produto.CatalogoProdutoAlteradoEvent.TipoAlteracao;
+import br.gov.caixa.api.investimentos.repository.produto.IProdutoRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* MANTEM EM MEMORIA O CATALOGO INDEXADO. ESCRITAS NO ProdutoService INCREMENTAM A VERSAO
+ * E O PROXIMO ACESSO RECARREGA O CATALOGO DO BANCO, SUBSTITUINDO A FOTOGRAFIA DE UMA VEZ.
+ * OS IDS DOS PRODUTOS DE CADA EVENTO SE ACUMULAM ATE A RECARGA E VAO NA NOVA FOTOGRAFIA (VER CatalogoIndexado);
+ * UMA LIMPEZA, OU UM EVENTO SEM produtoId, DEIXA A DIFERENCA DESCONHECIDA */
+@ApplicationScoped
+public class CatalogoProdutos {
+
+    @Inject
+    IProdutoRepository produtoRepository;
+
+    private final AtomicLong versaoCatalogo = new AtomicLong();
+
+    /* PROTEGIDOS PELO PROPRIO CONJUNTO, JUNTO COM O INCREMENTO DA VERSAO */
+    private final Set<Long> produtosAlterados = new HashSet<>();
+    private boolean alteracaoDesconhecida;
+
+    private volatile CatalogoIndexado catalogo;
+
+    public CatalogoIndexado obterCatalogo() {
+        CatalogoIndexado atual = catalogo;
+
+        if (atual != null && atual.getVersao() == versaoCatalogo.get()) {
+            return atual;
+        }
+
+        synchronized (this) {
+            atual = catalogo;
+
+            if (atual != null && atual.getVersao() == versaoCatalogo.get()) {
+                return atual;
+            }
+
+            long versao;
+            Set<Long> alterados;
+
+            synchronized (produtosAlterados) {
+                versao = versaoCatalogo.get();
+                alterados = alteracaoDesconhecida ? null : Set.copyOf(produtosAlterados);
+                produtosAlterados.clear();
+                alteracaoDesconhecida = false;
+            }
+
+            try {
+                atual = atual != null
+                        ? CatalogoIndexado.construir(versao, produtoRepository.listAll(), atual.getVersao(), alterados)
+                        : CatalogoIndexado.construir(versao, produtoRepository.listAll());
+            } catch (RuntimeException e) {
+                /* OS IDS JA SAIRAM DO CONJUNTO: A PROXIMA RECARGA NAO SABE MAIS O QUE MUDOU */
+                synchronized (produtosAlterados) {
+                    alteracaoDesconhecida = true;
+                }
+                throw e;
+            }
+
+            catalogo = atual;
+
+            return atual;
+        }
+    }
+
+    void onCatalogoAlterado(@Observes(during = TransactionPhase.AFTER_SUCCESS) CatalogoProdutoAlteradoEvent evento) {
+        synchronized (produtosAlterados) {
+            if (evento.produtoId() == null || evento.tipoAlteracao() == TipoAlteracao.LIMPEZA) {
+                alteracaoDesconhecida = true;
+            } else {
+                produtosAlterados.add(evento.produtoId());
+            }
+
+            versaoCatalogo.incrementAndGet();
+        }
+    }
+}
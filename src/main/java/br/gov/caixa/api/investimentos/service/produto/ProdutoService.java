@@ -4,11 +4,14 @@ import br.gov.caixa.api.investimentos.dto.produto.ProdutoRequest;
 import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
 import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
 import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.event.produto.CatalogoProdutoAlteradoEvent;
+import br.gov.caixa.api.investimentos.event.produto.CatalogoProdutoAlteradoEvent.TipoAlteracao;
 import br.gov.caixa.api.investimentos.exception.produto.ProdutoNotFoundException;
 import br.gov.caixa.api.investimentos.mapper.ProdutoMapper;
 import br.gov.caixa.api.investimentos.model.produto.Produto;
 import br.gov.caixa.api.investimentos.repository.produto.IProdutoRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
@@ -24,6 +27,9 @@ public class ProdutoService {
     @Inject
     IProdutoRepository produtoRepository;
 
+    @Inject
+    Event<CatalogoProdutoAlteradoEvent> catalogoAlterado;
+
     public List<ProdutoResponse> listarTodos() {
         List<Produto> produtos = produtoRepository.listAll();
         return produtoMapper.toResponseList(produtos);
@@ -92,6 +98,8 @@ public class ProdutoService {
 
         produtoRepository.persist(produto);
 
+        notificarAlteracaoCatalogo(produto.getId(), TipoAlteracao.CRIACAO);
+
         return produtoMapper.toResponse(produto);
     }
 
@@ -114,6 +122,8 @@ public class ProdutoService {
         produtoMapper.updateEntityFromRequest(produto, request);
         produtoRepository.persist(produto);
 
+        notificarAlteracaoCatalogo(id, TipoAlteracao.ATUALIZACAO);
+
         return produtoMapper.toResponse(produto);
     }
 
@@ -127,6 +137,8 @@ public class ProdutoService {
         if (!removido) {
             throw new ProdutoNotFoundException("Produto não encontrado com ID: " + id);
         }
+
+        notificarAlteracaoCatalogo(id, TipoAlteracao.REMOCAO);
     }
 
     public boolean existePorId(Long id) {
@@ -143,6 +155,12 @@ public class ProdutoService {
     @Transactional
     public void limparTodos() {
         produtoRepository.deleteAll();
+
+        notificarAlteracaoCatalogo(null, TipoAlteracao.LIMPEZA);
+    }
+
+    private void notificarAlteracaoCatalogo(Long produtoId, TipoAlteracao tipoAlteracao) {
+        catalogoAlterado.fire(new CatalogoProdutoAlteradoEvent(produtoId, tipoAlteracao));
     }
 
     private void validarDadosProduto(ProdutoRequest request) {
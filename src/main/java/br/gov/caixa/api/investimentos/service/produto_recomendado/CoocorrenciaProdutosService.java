@@ -0,0 +1,93 @@
+package br.gov.caixa.api.investimentos.service.produto_recomendado;
+
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
+import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
+import br.gov.caixa.api.investimentos.ml.ModeloCoocorrencia;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.investimento.Investimento;
+import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/* SINAL "QUEM INVESTIU EM X TAMBEM INVESTIU EM Y" PARA OS PRODUTOS RECOMENDADOS. O ModeloCoocorrencia E CARREGADO
+ * UMA VEZ, NA PRIMEIRA LEITURA, COM OS PARES DISTINTOS (CLIENTE, PRODUTO) DOS INVESTIMENTOS, E DEPOIS CADA NOVO
+ * INVESTIMENTO E REGISTRADO APOS O COMMIT. UM INVESTIMENTO QUE CHEGA DURANTE A CARGA PODE SER REGISTRADO PELO EVENTO
+ * E PELA CONSULTA SEM PROBLEMA: O PAR REPETIDO E IGNORADO. A LEITURA NAO CONSULTA O HISTORICO DE OUTROS CLIENTES.
+ * O PERFIL DE RISCO NAO USA ESTE SINAL: ELE REFLETE SO O HISTORICO DO PROPRIO CLIENTE */
+@ApplicationScoped
+public class CoocorrenciaProdutosService {
+
+    @Inject
+    IInvestimentoRepository investimentoRepository;
+
+    @Inject
+    GeradorRecomendacaoML geradorRecomendacaoML;
+
+    @ConfigProperty(name = "recomendacao.coocorrencia.peso", defaultValue = "0.5")
+    double peso;
+
+    private final ModeloCoocorrencia modelo = new ModeloCoocorrencia();
+
+    private volatile boolean carregado;
+
+    /* COM O SINAL DESLIGADO (peso ZERO) A RECOMENDACAO PODE SER LIMITADA NA ORIGEM */
+    public boolean isAtivo() {
+        return peso > 0;
+    }
+
+    /* A recomendacao DEVE SER A COMPLETA: O SINAL PODE SUBIR QUALQUER PRODUTO DELA */
+    public ResultadoRecomendacao combinar(Long clienteId, ResultadoRecomendacao recomendacao, int limite) {
+        if (!isAtivo()) {
+            return recomendacao.limitar(limite);
+        }
+
+        return geradorRecomendacaoML.combinar(recomendacao, obterModelo().sinal(clienteId), peso, limite);
+    }
+
+    /* SOBRE UM CATALOGO JA CARREGADO, PARA AS THREADS DO PRE-CALCULO */
+    public ResultadoRecomendacao combinar(Long clienteId, ResultadoRecomendacao recomendacao, int limite,
+                                          CatalogoIndexado catalogo) {
+        if (!isAtivo()) {
+            return recomendacao.limitar(limite);
+        }
+
+        return geradorRecomendacaoML.combinar(recomendacao, obterModelo().sinal(clienteId), peso, limite, catalogo);
+    }
+
+    void onHistoricoAlterado(@Observes(during = TransactionPhase.AFTER_SUCCESS) HistoricoClienteAlteradoEvent evento) {
+        for (Object entrada : evento.entradas()) {
+            if (entrada instanceof Investimento investimento && investimento.getProdutoId() != null) {
+                modelo.registrar(evento.clienteId(), investimento.getProdutoId());
+            }
+        }
+    }
+
+    ModeloCoocorrencia obterModelo() {
+        if (!carregado) {
+            carregar();
+        }
+
+        return modelo;
+    }
+
+    /* TRANSACIONAL PARA QUE A CARGA TAMBEM FUNCIONE NAS THREADS DO PRE-CALCULO, FORA DE UMA REQUISICAO */
+    @Transactional
+    synchronized void carregar() {
+        if (carregado) {
+            return;
+        }
+
+        for (Object[] par : investimentoRepository.listarParesClienteProduto()) {
+            if (par[0] != null && par[1] != null) {
+                modelo.registrar((Long) par[0], (Long) par[1]);
+            }
+        }
+
+        carregado = true;
+    }
+}
@@ -0,0 +1,149 @@
+package br.gov.caixa.api.investimentos.service.produto_recomendado;
+
+import br.gov.caixa.api.investimentos.ml.AcumuladorRecomendacao;
+import br.gov.caixa.api.investimentos.ml.EstatisticasAcumuladas;
+import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.investimento.Investimento;
+import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/* PONTUACOES ACUMULADAS DO HISTORICO DE UM CLIENTE: INVESTIMENTOS E SIMULACOES EM ACUMULADORES SEPARADOS,
+ * JA QUE AS SIMULACOES SO SAO USADAS QUANDO OS INVESTIMENTOS NAO PONTUAM NENHUM PRODUTO.
+ * OS IDS JA SOMADOS EVITAM CONTAR DUAS VEZES UMA ENTRADA LIDA DO BANCO NA CARGA E RECEBIDA DEPOIS PELO EVENTO.
+ * UMA SIMULACAO DE PRODUTO FORA DO CATALOGO SO E ERRO QUANDO AS SIMULACOES SAO DE FATO USADAS */
+final class PontuacaoCliente {
+
+    private final AcumuladorRecomendacao investimentos;
+    private final AcumuladorRecomendacao simulacoes;
+
+    private final Set<Long> idsInvestimentos = new HashSet<>();
+    private final Set<Long> idsSimulacoes = new HashSet<>();
+
+    private volatile IllegalArgumentException erroSimulacoes;
+
+    PontuacaoCliente(AcumuladorRecomendacao investimentos, AcumuladorRecomendacao simulacoes) {
+        this.investimentos = investimentos;
+        this.simulacoes = simulacoes;
+    }
+
+    /* PONTUACAO RESTAURADA DE UM RESUMO: OS IDS SAO OS MAIS RECENTES JA SOMADOS NELE */
+    PontuacaoCliente(AcumuladorRecomendacao investimentos, AcumuladorRecomendacao simulacoes,
+                     Collection<Long> idsInvestimentos, Collection<Long> idsSimulacoes) {
+        this(investimentos, simulacoes);
+        this.idsInvestimentos.addAll(idsInvestimentos);
+        this.idsSimulacoes.addAll(idsSimulacoes);
+    }
+
+    static PontuacaoCliente criar(GeradorRecomendacaoML geradorRecomendacaoML, List<Investimento> investimentos,
+                                  List<SimulacaoInvestimento> simulacoes) {
+        return preencher(new PontuacaoCliente(geradorRecomendacaoML.criarAcumulador(),
+                geradorRecomendacaoML.criarAcumulador()), geradorRecomendacaoML, investimentos, simulacoes);
+    }
+
+    /* SOBRE UM CATALOGO JA CARREGADO: NAO CONSULTA O CatalogoProdutos */
+    static PontuacaoCliente criar(GeradorRecomendacaoML geradorRecomendacaoML, CatalogoIndexado catalogo,
+                                  List<Investimento> investimentos, List<SimulacaoInvestimento> simulacoes) {
+        return preencher(new PontuacaoCliente(geradorRecomendacaoML.criarAcumulador(catalogo),
+                geradorRecomendacaoML.criarAcumulador(catalogo)), geradorRecomendacaoML, investimentos, simulacoes);
+    }
+
+    private static PontuacaoCliente preencher(PontuacaoCliente pontuacao, GeradorRecomendacaoML geradorRecomendacaoML,
+                                              List<Investimento> investimentos, List<SimulacaoInvestimento> simulacoes) {
+        pontuacao.adicionar(investimentos, geradorRecomendacaoML);
+        pontuacao.adicionar(simulacoes, geradorRecomendacaoML);
+
+        return pontuacao;
+    }
+
+    synchronized void adicionar(List<?> entradas, GeradorRecomendacaoML geradorRecomendacaoML) {
+
+        List<Investimento> novosInvestimentos = new ArrayList<>();
+        List<SimulacaoInvestimento> novasSimulacoes = new ArrayList<>();
+
+        for (Object entrada : entradas) {
+            if (entrada instanceof Investimento investimento) {
+                if (investimento.getId() == null || idsInvestimentos.add(investimento.getId())) {
+                    novosInvestimentos.add(investimento);
+                }
+            } else if (entrada instanceof SimulacaoInvestimento simulacao) {
+                if (simulacao.getId() == null || idsSimulacoes.add(simulacao.getId())) {
+                    novasSimulacoes.add(simulacao);
+                }
+            }
+        }
+
+        geradorRecomendacaoML.acumular(investimentos, novosInvestimentos);
+
+        if (erroSimulacoes == null) {
+            try {
+                geradorRecomendacaoML.acumular(simulacoes, novasSimulacoes);
+            } catch (IllegalArgumentException e) {
+                erroSimulacoes = e;
+            }
+        }
+    }
+
+    /* COM UMA SIMULACAO FORA DO CATALOGO A PONTUACAO NAO E RESUMIDA: O ERRO PRECISA SER REPETIDO A CADA LEITURA */
+    boolean isResumivel() {
+        return erroSimulacoes == null;
+    }
+
+    /* OS DOIS ACUMULADORES SAO CRIADOS JUNTOS, SOBRE O MESMO CATALOGO E O MESMO DIA DE REFERENCIA */
+    LocalDate getDataReferencia() {
+        return investimentos.getDataReferencia();
+    }
+
+    long getAssinaturaCatalogo() {
+        return investimentos.getAssinaturaCatalogo();
+    }
+
+    synchronized EstatisticasAcumuladas exportarInvestimentos() {
+        return investimentos.exportar();
+    }
+
+    synchronized EstatisticasAcumuladas exportarSimulacoes() {
+        return simulacoes.exportar();
+    }
+
+    synchronized List<Long> listarIdsRecentesInvestimentos(int quantidade) {
+        return maiores(idsInvestimentos, quantidade);
+    }
+
+    synchronized List<Long> listarIdsRecentesSimulacoes(int quantidade) {
+        return maiores(idsSimulacoes, quantidade);
+    }
+
+    ResultadoRecomendacao resultado(LocalDate data) {
+        return resultado(data, Integer.MAX_VALUE);
+    }
+
+    ResultadoRecomendacao resultado(LocalDate data, int limite) {
+        ResultadoRecomendacao resultado = investimentos.resultado(data, limite);
+
+        if (!resultado.isEmpty()) {
+            return resultado;
+        }
+
+        if (erroSimulacoes != null) {
+            throw erroSimulacoes;
+        }
+
+        return simulacoes.resultado(data, limite);
+    }
+
+    private static List<Long> maiores(Set<Long> ids, int quantidade) {
+        return ids.stream()
+                .sorted(Comparator.reverseOrder())
+                .limit(quantidade)
+                .toList();
+    }
+}
@@ -3,17 +3,18 @@ package br.gov.caixa.api.investimentos.service.produto_recomendado;
 import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
 import br.gov.caixa.api.investimentos.enums.produto.NivelRisco;
 import br.gov.caixa.api.investimentos.mapper.ProdutoMapper;
-import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
-import br.gov.caixa.api.investimentos.model.investimento.Investimento;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.perfil_risco.PerfilRiscoPrecalculado;
 import br.gov.caixa.api.investimentos.model.produto.Produto;
-import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
-import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
+import br.gov.caixa.api.investimentos.repository.perfil_risco.IPerfilRiscoPrecalculadoRepository;
 import br.gov.caixa.api.investimentos.repository.produto.IProdutoRepository;
-import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
 import br.gov.caixa.api.investimentos.service.cliente.ClienteService;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoProdutos;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -28,16 +29,19 @@ public class ProdutoRecomendadoService {
     IProdutoRepository produtoRepository;
 
     @Inject
-    IInvestimentoRepository investimentoRepository;
+    ClienteService clienteService;
 
     @Inject
-    ISimulacaoInvestimentoRepository simulacaoRepository;
+    RecomendacaoClienteService recomendacaoClienteService;
 
     @Inject
-    ClienteService clienteService;
+    IPerfilRiscoPrecalculadoRepository precalculadoRepository;
+
+    @Inject
+    CatalogoProdutos catalogoProdutos;
 
     @Inject
-    GeradorRecomendacaoML geradorRecomendacaoML;
+    CoocorrenciaProdutosService coocorrenciaProdutosService;
 
     public List<ProdutoResponse> buscarProdutosPorPerfil(String perfil) {
         if (perfil == null || perfil.trim().isEmpty()) {
@@ -56,24 +60,25 @@ public class ProdutoRecomendadoService {
     }
 
     public List<ProdutoResponse> buscarProdutosPorCliente(Long clienteId) {
+        return buscarProdutosPorCliente(clienteId, null);
+    }
+
+    /* limite NULO DEVOLVE TODOS OS PRODUTOS RECOMENDADOS */
+    public List<ProdutoResponse> buscarProdutosPorCliente(Long clienteId, Integer limite) {
         if (clienteId == null) {
             throw new IllegalArgumentException("Cliente ID não pode ser nulo");
         }
+        if (limite != null && limite < 1) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
 
         clienteService.buscarPorId(clienteId);
 
-        List<Produto> produtos_sugeridos = new ArrayList<>();
-        List<Produto> produtos = produtoRepository.listAll();
-
-        List<Investimento> investimentos = investimentoRepository.findByClienteId(clienteId);
-        List<SimulacaoInvestimento> simulacoes = simulacaoRepository.findByClienteId(clienteId);
+        int quantidade = limite != null ? limite : Integer.MAX_VALUE;
+        List<Produto> produtos_sugeridos = buscarPrecalculados(clienteId, quantidade);
 
-        if (!investimentos.isEmpty()) {
-            produtos_sugeridos = geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(investimentos, produtos);
-        }
-
-        if (produtos_sugeridos.isEmpty()) {
-            produtos_sugeridos = geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(simulacoes, produtos);
+        if (produtos_sugeridos == null) {
+            produtos_sugeridos = recomendar(clienteId, quantidade);
         }
 
         if (produtos_sugeridos.isEmpty()) {
@@ -83,6 +88,50 @@ public class ProdutoRecomendadoService {
         return produtoMapper.toResponseList(produtos_sugeridos);
     }
 
+    /* PRODUTOS A PARTIR DA RECOMENDACAO COMPLETA DO CLIENTE JA CALCULADA (EX.: PELA VISAO DO CLIENTE, QUE TAMBEM
+     * USA ELA PARA O PERFIL DE RISCO) */
+    public List<Produto> listarRecomendados(Long clienteId, ResultadoRecomendacao recomendacao, int limite) {
+        return coocorrenciaProdutosService.combinar(clienteId, recomendacao, limite).getProdutos();
+    }
+
+    /* OS limite PRIMEIROS PRODUTOS DE UMA LINHA DO PRE-CALCULO; NULL QUANDO ALGUM DELES JA NAO ESTA NO CATALOGO */
+    public List<Produto> listarPrecalculados(PerfilRiscoPrecalculado precalculado, int limite) {
+
+        CatalogoIndexado catalogo = catalogoProdutos.obterCatalogo();
+        List<Produto> produtos = new ArrayList<>();
+
+        List<Long> produtoIds = precalculado.listarProdutoIds();
+
+        for (Long produtoId : produtoIds.subList(0, Math.min(limite, produtoIds.size()))) {
+            Produto produto = catalogo.buscarPorId(produtoId);
+
+            if (produto == null) {
+                return null;
+            }
+
+            produtos.add(produto);
+        }
+
+        return produtos;
+    }
+
+    /* O SINAL DE COOCORRENCIA PODE SUBIR QUALQUER PRODUTO, ENTAO COM ELE LIGADO A RECOMENDACAO DO CLIENTE E A COMPLETA */
+    private List<Produto> recomendar(Long clienteId, int limite) {
+        if (!coocorrenciaProdutosService.isAtivo()) {
+            return recomendacaoClienteService.recomendar(clienteId, limite).getProdutos();
+        }
+
+        return listarRecomendados(clienteId, recomendacaoClienteService.recomendar(clienteId), limite);
+    }
+
+    /* NULL QUANDO NAO HA PRE-CALCULO DO DIA OU ALGUM PRODUTO DELE JA NAO ESTA NO CATALOGO */
+    private List<Produto> buscarPrecalculados(Long clienteId, int limite) {
+
+        PerfilRiscoPrecalculado precalculado = precalculadoRepository.findByClienteId(clienteId, LocalDate.now());
+
+        return precalculado != null ? listarPrecalculados(precalculado, limite) : null;
+    }
+
     private NivelRisco mapearPerfilParaNivelRisco(String perfil) {
         return switch (perfil.toLowerCase()) {
             case "conservador" -> NivelRisco.BAIXO;
@@ -0,0 +1,118 @@
+package br.gov.caixa.api.investimentos.service.produto_recomendado;
+
+import br.gov.caixa.api.investimentos.dto.telemetria.MetricasCacheRecomendacaoDTO;
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
+import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.investimento.Investimento;
+import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoProdutos;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/* RECOMENDACAO DO CLIENTE (INVESTIMENTOS E, NA FALTA DELES, SIMULACOES) COMPARTILHADA PELOS PRODUTOS
+ * RECOMENDADOS E PELO PERFIL DE RISCO. O CACHE "recomendacoes-cliente" GUARDA A PontuacaoCliente, COM O HISTORICO
+ * JA SOMADO POR PRODUTO; A CARGA VEM DO RESUMO DO HISTORICO (ResumoHistoricoClienteService), E O HISTORICO INTEIRO
+ * SO E LIDO QUANDO O CLIENTE AINDA NAO TEM RESUMO. A CHAVE TEM A VERSAO DO CATALOGO, ENTAO ESCRITAS
+ * NO CATALOGO NUNCA SAO SERVIDAS DESATUALIZADAS. NOVOS INVESTIMENTOS E SIMULACOES SAO SOMADOS NA PONTUACAO DO CLIENTE
+ * QUANDO ELA ESTA NO CACHE, E O DECAIMENTO DIARIO E APLICADO NA LEITURA */
+@ApplicationScoped
+public class RecomendacaoClienteService {
+
+    @Inject
+    @CacheName("recomendacoes-cliente")
+    Cache cache;
+
+    @Inject
+    CatalogoProdutos catalogoProdutos;
+
+    @Inject
+    ResumoHistoricoClienteService resumoHistoricoClienteService;
+
+    @Inject
+    GeradorRecomendacaoML geradorRecomendacaoML;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder atualizacoes = new LongAdder();
+
+    /* O CLIENTE JA DEVE TER SIDO VALIDADO; SEM HISTORICO O RESULTADO E VAZIO */
+    public ResultadoRecomendacao recomendar(Long clienteId) {
+        return recomendar(clienteId, Integer.MAX_VALUE);
+    }
+
+    /* SO OS limite PRODUTOS MAIS PONTUADOS, NA MESMA ORDEM DA RECOMENDACAO COMPLETA */
+    public ResultadoRecomendacao recomendar(Long clienteId, int limite) {
+
+        ChaveRecomendacao chave = new ChaveRecomendacao(clienteId, catalogoProdutos.obterCatalogo().getVersao());
+        AtomicBoolean carregado = new AtomicBoolean();
+
+        PontuacaoCliente pontuacao = cache.<ChaveRecomendacao, PontuacaoCliente>get(chave, c -> {
+            carregado.set(true);
+            return resumoHistoricoClienteService.carregar(clienteId);
+        }).await().indefinitely();
+
+        (carregado.get() ? falhas : acertos).increment();
+
+        return pontuacao.resultado(LocalDate.now(), limite);
+    }
+
+    /* CATALOGO PARA O recomendar EM LOTE, COM A MATRIZ DO GERADOR JA CONSTRUIDA. DEVE SER CHAMADO NA THREAD QUE TEM
+     * CONTEXTO DE REQUISICAO OU TRANSACAO: A RECARGA DO CATALOGO CONSULTA O BANCO */
+    public CatalogoIndexado prepararCatalogo() {
+        CatalogoIndexado catalogo = catalogoProdutos.obterCatalogo();
+        geradorRecomendacaoML.prepararCandidatos(catalogo);
+        return catalogo;
+    }
+
+    /* RECOMENDACAO SOBRE UM HISTORICO E UM CATALOGO JA CARREGADOS, SEM PASSAR PELO CACHE NEM PELO BANCO (USADA PELAS
+     * THREADS DO PRE-CALCULO EM LOTE) */
+    public ResultadoRecomendacao recomendar(CatalogoIndexado catalogo, List<Investimento> investimentos,
+                                            List<SimulacaoInvestimento> simulacoes, LocalDate data) {
+        return PontuacaoCliente.criar(geradorRecomendacaoML, catalogo, investimentos, simulacoes).resultado(data);
+    }
+
+    public MetricasCacheRecomendacaoDTO obterMetricas() {
+        long totalAcertos = acertos.sum();
+        long totalFalhas = falhas.sum();
+        long consultas = totalAcertos + totalFalhas;
+
+        return new MetricasCacheRecomendacaoDTO(
+                totalAcertos,
+                totalFalhas,
+                atualizacoes.sum(),
+                consultas == 0 ? 0.0 : (double) totalAcertos / consultas
+        );
+    }
+
+    /* CLIENTE FORA DO CACHE NAO E CARREGADO AQUI: A PROXIMA LEITURA JA ENXERGA AS NOVAS ENTRADAS NO BANCO.
+     * SE A CARGA AINDA ESTA EM ANDAMENTO, AS ENTRADAS SAO SOMADAS QUANDO ELA TERMINA (SEM REPETIR AS QUE ELA JA LEU) */
+    void onHistoricoAlterado(@Observes(during = TransactionPhase.AFTER_SUCCESS) HistoricoClienteAlteradoEvent evento) {
+        ChaveRecomendacao chave = new ChaveRecomendacao(evento.clienteId(), catalogoProdutos.obterCatalogo().getVersao());
+        CompletableFuture<PontuacaoCliente> pontuacao = cache.as(CaffeineCache.class).getIfPresent(chave);
+
+        if (pontuacao != null) {
+            pontuacao.thenAccept(p -> {
+                p.adicionar(evento.entradas(), geradorRecomendacaoML);
+                atualizacoes.increment();
+            });
+        }
+    }
+
+
+    record ChaveRecomendacao(Long clienteId, long versaoCatalogo) {
+    }
+}
@@ -0,0 +1,203 @@
+package br.gov.caixa.api.investimentos.service.produto_recomendado;
+
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
+import br.gov.caixa.api.investimentos.ml.AcumuladorRecomendacao;
+import br.gov.caixa.api.investimentos.ml.EstatisticasAcumuladas;
+import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
+import br.gov.caixa.api.investimentos.model.cliente.ResumoHistoricoCliente;
+import br.gov.caixa.api.investimentos.repository.cliente.IResumoHistoricoClienteRepository;
+import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
+import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/* CARGA DA PontuacaoCliente PELO RESUMO DO HISTORICO (TABELA resumo_historico_cliente), QUE CUSTA O NUMERO DE
+ * PRODUTOS PONTUADOS E DE INVESTIMENTOS DATADOS (VER AcumuladorRecomendacao), E NAO O TAMANHO DO HISTORICO. O RESUMO E CRIADO NA PRIMEIRA LEITURA DO CLIENTE (A UNICA QUE LE
+ * O HISTORICO INTEIRO) E ATUALIZADO NA MESMA TRANSACAO QUE GRAVA NOVAS ENTRADAS. QUANDO AS CARACTERISTICAS DO
+ * CATALOGO MUDAM A ASSINATURA NAO CONFERE E O RESUMO E REFEITO NA LEITURA SEGUINTE.
+ * UMA LEITURA QUE COMECOU ANTES DE UMA GRAVACAO DO MESMO CLIENTE TERMINAR NAO PODE DEIXAR UM RESUMO SEM AS NOVAS
+ * ENTRADAS: CADA GRAVACAO AVANCA A GERACAO DA FAIXA DO CLIENTE E O DEIXA MARCADO ATE O FIM DA TRANSACAO, E A LEITURA
+ * SO GRAVA (E SO MANTEM O QUE GRAVOU) SE O CLIENTE NAO ESTA MARCADO E A GERACAO NAO MUDOU DESDE QUE ELA COMECOU */
+@ApplicationScoped
+public class ResumoHistoricoClienteService {
+
+    /* IDS MAIS RECENTES GUARDADOS NO RESUMO, PARA QUE A ENTRADA SOMADA NELE E RECEBIDA DEPOIS PELO EVENTO AFTER_SUCCESS
+     * DO CACHE NAO SEJA CONTADA DUAS VEZES */
+    static final int IDS_RECENTES = 32;
+
+    private static final int FAIXAS = 64;
+
+    @Inject
+    IResumoHistoricoClienteRepository resumoRepository;
+
+    @Inject
+    IInvestimentoRepository investimentoRepository;
+
+    @Inject
+    ISimulacaoInvestimentoRepository simulacaoRepository;
+
+    @Inject
+    GeradorRecomendacaoML geradorRecomendacaoML;
+
+    @Inject
+    TransactionSynchronizationRegistry transacoes;
+
+    @ConfigProperty(name = "recomendacao.resumo-historico.habilitado", defaultValue = "true")
+    boolean habilitado;
+
+    private final AtomicLongArray geracoes = new AtomicLongArray(FAIXAS);
+
+    /* CLIENTES COM GRAVACAO DE HISTORICO AINDA NAO CONCLUIDA -> QUANTIDADE DE TRANSACOES */
+    private final Map<Long, Integer> gravacoesEmAndamento = new ConcurrentHashMap<>();
+
+    /* DENTRO DE UMA TRANSACAO O RESUMO SO E LIDO: A GRAVACAO DELE SO FICA VISIVEL NO COMMIT DE QUEM CHAMOU */
+    PontuacaoCliente carregar(Long clienteId) {
+
+        if (!habilitado) {
+            return lerHistorico(clienteId);
+        }
+
+        boolean podeGravar = transacoes.getTransactionStatus() == Status.STATUS_NO_TRANSACTION;
+        int faixa = faixa(clienteId);
+        long geracao = geracoes.get(faixa);
+
+        ResumoHistoricoCliente resumo = resumoRepository.findById(clienteId);
+
+        if (resumo != null) {
+            PontuacaoCliente pontuacao = restaurar(resumo);
+
+            if (pontuacao != null) {
+                return pontuacao;
+            }
+
+            if (podeGravar) {
+                resumoRepository.removerPorCliente(clienteId);
+            }
+        }
+
+        PontuacaoCliente pontuacao = lerHistorico(clienteId);
+
+        if (podeGravar && pontuacao.isResumivel() && semGravacaoDesde(clienteId, faixa, geracao)) {
+            ResumoHistoricoCliente novo = new ResumoHistoricoCliente(clienteId);
+            preencher(novo, pontuacao);
+
+            if (resumoRepository.inserirSeAusente(novo) && !semGravacaoDesde(clienteId, faixa, geracao)) {
+                resumoRepository.removerPorCliente(clienteId);
+            }
+        }
+
+        return pontuacao;
+    }
+
+    /* NA TRANSACAO DE QUEM GRAVOU O HISTORICO (NA GRAVACAO WRITE-BEHIND, A TRANSACAO PROPRIA DO EVENTO, ABERTA
+     * DEPOIS DO COMMIT DO LOTE); SEM TRANSACAO O EVENTO JA VEM DEPOIS DO COMMIT, ENTAO BASTA AVANCAR A GERACAO */
+    void onHistoricoAlterado(@Observes HistoricoClienteAlteradoEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+
+        Long clienteId = evento.clienteId();
+        int faixa = faixa(clienteId);
+
+        geracoes.incrementAndGet(faixa);
+
+        if (transacoes.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            gravacoesEmAndamento.merge(clienteId, 1, Integer::sum);
+            transacoes.registerInterposedSynchronization(new FimGravacao(clienteId, faixa));
+        }
+
+        atualizar(evento);
+    }
+
+    @Transactional
+    void atualizar(HistoricoClienteAlteradoEvent evento) {
+        ResumoHistoricoCliente resumo = resumoRepository.findById(evento.clienteId());
+
+        if (resumo == null) {
+            return;
+        }
+
+        PontuacaoCliente pontuacao = restaurar(resumo);
+
+        if (pontuacao != null) {
+            pontuacao.adicionar(evento.entradas(), geradorRecomendacaoML);
+        }
+
+        if (pontuacao == null || !pontuacao.isResumivel()) {
+            resumoRepository.delete(resumo);
+            return;
+        }
+
+        preencher(resumo, pontuacao);
+    }
+
+    /* NULL QUANDO O RESUMO FOI FEITO SOBRE OUTRO CATALOGO */
+    private PontuacaoCliente restaurar(ResumoHistoricoCliente resumo) {
+        AcumuladorRecomendacao investimentos = geradorRecomendacaoML.restaurarAcumulador(resumo.getAssinaturaCatalogo(),
+                resumo.getDataReferencia(), EstatisticasAcumuladas.decodificar(resumo.getInvestimentos()));
+        AcumuladorRecomendacao simulacoes = geradorRecomendacaoML.restaurarAcumulador(resumo.getAssinaturaCatalogo(),
+                resumo.getDataReferencia(), EstatisticasAcumuladas.decodificar(resumo.getSimulacoes()));
+
+        if (investimentos == null || simulacoes == null) {
+            return null;
+        }
+
+        return new PontuacaoCliente(investimentos, simulacoes, resumo.listarIdsInvestimentos(), resumo.listarIdsSimulacoes());
+    }
+
+    private void preencher(ResumoHistoricoCliente resumo, PontuacaoCliente pontuacao) {
+        resumo.setAssinaturaCatalogo(pontuacao.getAssinaturaCatalogo());
+        resumo.setDataReferencia(pontuacao.getDataReferencia());
+        resumo.setInvestimentos(pontuacao.exportarInvestimentos().codificar());
+        resumo.setSimulacoes(pontuacao.exportarSimulacoes().codificar());
+        resumo.definirIdsInvestimentos(pontuacao.listarIdsRecentesInvestimentos(IDS_RECENTES));
+        resumo.definirIdsSimulacoes(pontuacao.listarIdsRecentesSimulacoes(IDS_RECENTES));
+        resumo.setDataAtualizacao(LocalDateTime.now());
+    }
+
+    private PontuacaoCliente lerHistorico(Long clienteId) {
+        return PontuacaoCliente.criar(geradorRecomendacaoML, investimentoRepository.findByClienteId(clienteId),
+                simulacaoRepository.findByClienteId(clienteId));
+    }
+
+    private boolean semGravacaoDesde(Long clienteId, int faixa, long geracao) {
+        return !gravacoesEmAndamento.containsKey(clienteId) && geracoes.get(faixa) == geracao;
+    }
+
+    private static int faixa(Long clienteId) {
+        return Math.floorMod(clienteId.hashCode(), FAIXAS);
+    }
+
+    /* COMMIT OU ROLLBACK: A MARCA SAI E A GERACAO AVANCA DE NOVO, PARA A LEITURA QUE COMECOU ANTES DO COMMIT */
+    private final class FimGravacao implements Synchronization {
+
+        private final Long clienteId;
+        private final int faixa;
+
+        private FimGravacao(Long clienteId, int faixa) {
+            this.clienteId = clienteId;
+            this.faixa = faixa;
+        }
+
+        @Override
+        public void beforeCompletion() {
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            geracoes.incrementAndGet(faixa);
+            gravacoesEmAndamento.computeIfPresent(clienteId, (id, quantidade) -> quantidade > 1 ? quantidade - 1 : null);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.simulacao.ResultadoSimulacao;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoRequest;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/* RESULTADOS DE SIMULACOES COM SEMENTE INFORMADA, QUE SAO DETERMINISTICAS.
+ * A CHAVE REUNE SO O QUE ALTERA O RESULTADO DEPOIS DA ESCOLHA DO PRODUTO: VERSAO DO CATALOGO, PRODUTO,
+ * VALOR, PRAZOS, SEMENTE E A DATA BASE QUE APARECE NA DESCRICAO DO CENARIO. O LIMITE DE ENTRADAS E A
+ * EXPIRACAO SAO CONFIGURADOS NO CACHE "simulacao-resultados" (quarkus.cache.caffeine) */
+@ApplicationScoped
+public class CacheResultadoSimulacao {
+
+    @Inject
+    @CacheName("simulacao-resultados")
+    Cache cache;
+
+    public ResultadoSimulacao obter(long versaoCatalogo, Long produtoId, SimulacaoRequest request, long semente,
+                                    Supplier<ResultadoSimulacao> calculo) {
+
+        ChaveResultado chave = new ChaveResultado(
+                versaoCatalogo,
+                produtoId,
+                request.valor(),
+                request.prazoMeses(),
+                request.prazoDias(),
+                request.prazoAnos(),
+                semente,
+                LocalDate.now()
+        );
+
+        return cache.<ChaveResultado, ResultadoSimulacao>get(chave, c -> calculo.get()).await().indefinitely();
+    }
+
+    /* BigDecimal COMPARA TAMBEM A ESCALA, QUE VOLTA EM valorInvestido */
+    record ChaveResultado(long versaoCatalogo,
+                          Long produtoId,
+                          BigDecimal valor,
+                          Integer prazoMeses,
+                          Integer prazoDias,
+                          Integer prazoAnos,
+                          long semente,
+                          LocalDate dataBase) {
+    }
+}
@@ -0,0 +1,392 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.telemetria.MetricasGravacaoSimulacaoDTO;
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
+import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/* GRAVACAO WRITE-BEHIND DAS SIMULACOES: A ENTIDADE RECEBE O ID DA SequenciaIdSimulacao E VAI PARA UMA FILA
+ * LIMITADA, QUE UMA THREAD DEDICADA ESVAZIA EM LOTES, UMA TRANSACAO POR LOTE. COM O MODO DESLIGADO OU A FILA CHEIA A GRAVACAO
+ * E SINCRONA, NA TRANSACAO DO CHAMADOR; COM O MODO DESLIGADO O ID VEM DA COLUNA IDENTITY.
+ * NO ENCERRAMENTO DA APLICACAO A FILA E DRENADA ANTES DE SAIR.
+ * O ID JA FOI DEVOLVIDO AO CLIENTE, ENTAO UM LOTE QUE FALHA E REPETIDO E DEPOIS GRAVADO UMA SIMULACAO POR VEZ;
+ * AS QUE AINDA FALHAM VAO, UMA POR LINHA EM JSON, PARA O ARQUIVO DE SIMULACOES NAO GRAVADAS.
+ * OS EVENTOS DE HISTORICO DOS LOTES SAO DISPARADOS COM CONTEXTO DE REQUISICAO E TRANSACAO PROPRIOS, COMO OS
+ * OBSERVADORES ESPERAM, E NENHUM ERRO DE UM LOTE INTERROMPE A THREAD QUE ESVAZIA A FILA */
+@ApplicationScoped
+public class GravacaoAssincronaSimulacao {
+
+    private static final Duration ESPERA_ENCERRAMENTO = Duration.ofSeconds(30);
+
+    @Inject
+    ISimulacaoInvestimentoRepository simulacaoRepository;
+
+    @Inject
+    SequenciaIdSimulacao sequenciaIdSimulacao;
+
+    @Inject
+    Event<HistoricoClienteAlteradoEvent> historicoAlterado;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "simulacao.persistencia.write-behind", defaultValue = "false")
+    boolean habilitada;
+
+    @ConfigProperty(name = "simulacao.persistencia.capacidade-fila", defaultValue = "10000")
+    int capacidadeFila;
+
+    @ConfigProperty(name = "simulacao.persistencia.tamanho-lote", defaultValue = "500")
+    int tamanhoLote;
+
+    @ConfigProperty(name = "simulacao.persistencia.intervalo-ms", defaultValue = "100")
+    long intervaloMs;
+
+    @ConfigProperty(name = "simulacao.persistencia.tentativas-lote", defaultValue = "3")
+    int tentativasPorLote;
+
+    @ConfigProperty(name = "simulacao.persistencia.espera-tentativa-ms", defaultValue = "200")
+    long esperaEntreTentativasMs;
+
+    @ConfigProperty(name = "simulacao.persistencia.arquivo-nao-gravadas", defaultValue = "simulacoes-nao-gravadas.ndjson")
+    String arquivoNaoGravadas;
+
+    private volatile BlockingQueue<SimulacaoInvestimento> fila;
+    private volatile Thread gravador;
+    private volatile boolean encerrando;
+
+    private final LongAdder simulacoesGravadas = new LongAdder();
+    private final LongAdder lotesGravados = new LongAdder();
+    private final LongAdder gravacoesSincronas = new LongAdder();
+    private final LongAdder simulacoesComFalha = new LongAdder();
+    private final LongAdder latenciaTotalNanos = new LongAdder();
+    private final AtomicLong latenciaMaximaNanos = new AtomicLong();
+
+    /* A GRAVACAO SINCRONA PARTICIPA DA TRANSACAO DO CHAMADOR */
+    public void gravar(SimulacaoInvestimento simulacao) {
+
+        atribuirId(simulacao);
+
+        if (habilitada && !encerrando) {
+            BlockingQueue<SimulacaoInvestimento> filaAtual = obterFila();
+
+            if (filaAtual.offer(simulacao)) {
+                /* O ENCERRAMENTO PODE TER DRENADO A FILA ENTRE A VERIFICACAO E O offer */
+                if (!encerrando || !filaAtual.remove(simulacao)) {
+                    return;
+                }
+            }
+        }
+
+        simulacaoRepository.persist(simulacao);
+        gravacoesSincronas.increment();
+        historicoAlterado.fire(new HistoricoClienteAlteradoEvent(simulacao.getClienteId(), List.of(simulacao)));
+    }
+
+    /* COM O MODO LIGADO TODA GRAVACAO (INCLUSIVE A DO LOTE, QUE E SINCRONA) USA A SEQUENCIA, PARA QUE OS IDS DA
+     * MEMORIA E OS DA COLUNA IDENTITY NAO COLIDAM */
+    public void atribuirId(SimulacaoInvestimento simulacao) {
+        if (habilitada && simulacao.getId() == null) {
+            simulacao.setId(sequenciaIdSimulacao.proximoId());
+        }
+    }
+
+    public MetricasGravacaoSimulacaoDTO obterMetricas() {
+
+        BlockingQueue<SimulacaoInvestimento> filaAtual = fila;
+        long lotes = lotesGravados.sum();
+
+        return new MetricasGravacaoSimulacaoDTO(
+                habilitada,
+                filaAtual != null ? filaAtual.size() : 0,
+                capacidadeFila,
+                simulacoesGravadas.sum(),
+                lotes,
+                gravacoesSincronas.sum(),
+                simulacoesComFalha.sum(),
+                lotes > 0 ? paraMilissegundos(latenciaTotalNanos.sum()) / lotes : 0.0,
+                paraMilissegundos(latenciaMaximaNanos.get())
+        );
+    }
+
+    void aoEncerrar(@Observes ShutdownEvent evento) {
+        encerrar();
+    }
+
+    void encerrar() {
+
+        encerrando = true;
+
+        Thread gravadorAtual = gravador;
+        if (gravadorAtual != null) {
+            try {
+                gravadorAtual.join(ESPERA_ENCERRAMENTO);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        BlockingQueue<SimulacaoInvestimento> filaAtual = fila;
+        if (filaAtual == null) {
+            return;
+        }
+
+        List<SimulacaoInvestimento> lote = new ArrayList<>(tamanhoLote);
+        while (filaAtual.drainTo(lote, tamanhoLote) > 0) {
+            gravarLoteSemInterromper(lote);
+            lote.clear();
+        }
+    }
+
+    private BlockingQueue<SimulacaoInvestimento> obterFila() {
+        BlockingQueue<SimulacaoInvestimento> filaAtual = fila;
+
+        if (filaAtual == null) {
+            synchronized (this) {
+                filaAtual = fila;
+
+                if (filaAtual == null) {
+                    filaAtual = new ArrayBlockingQueue<>(Math.max(1, capacidadeFila));
+                    fila = filaAtual;
+
+                    gravador = Thread.ofPlatform().name("simulacao-gravador").daemon(true)
+                            .start(this::executarGravador);
+                }
+            }
+        }
+
+        return filaAtual;
+    }
+
+    private void executarGravador() {
+
+        List<SimulacaoInvestimento> lote = new ArrayList<>(tamanhoLote);
+
+        while (!encerrando) {
+            try {
+                SimulacaoInvestimento primeira = fila.poll(intervaloMs, TimeUnit.MILLISECONDS);
+
+                if (primeira == null) {
+                    continue;
+                }
+
+                lote.add(primeira);
+                fila.drainTo(lote, Math.max(0, tamanhoLote - 1));
+
+                gravarLoteSemInterromper(lote);
+                lote.clear();
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /* AS FALHAS DE GRAVACAO JA SAO TRATADAS EM gravarLote; O QUE CHEGA AQUI E INESPERADO E SO E REGISTRADO */
+    private void gravarLoteSemInterromper(List<SimulacaoInvestimento> lote) {
+        try {
+            gravarLote(lote);
+        } catch (RuntimeException e) {
+            System.err.println("Erro inesperado ao gravar lote de " + lote.size() + " simulações: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    void gravarLote(List<SimulacaoInvestimento> lote) {
+
+        List<SimulacaoInvestimento> simulacoes = List.copyOf(lote);
+        List<SimulacaoInvestimento> gravadas = simulacoes;
+        long inicio = System.nanoTime();
+
+        RuntimeException erro = gravarComTentativas(simulacoes);
+
+        if (erro == null) {
+            long latencia = System.nanoTime() - inicio;
+
+            lotesGravados.increment();
+            latenciaTotalNanos.add(latencia);
+            latenciaMaximaNanos.accumulateAndGet(latencia, Math::max);
+        } else {
+            System.err.println("Erro ao gravar lote de " + simulacoes.size() + " simulações; gravando uma por vez: " +
+                    erro.getMessage());
+            gravadas = gravarUmaPorVez(simulacoes);
+        }
+
+        simulacoesGravadas.add(gravadas.size());
+
+        /* O HISTORICO SO MUDA PARA QUEM LE O BANCO DEPOIS QUE O LOTE FOI GRAVADO */
+        Map<Long, List<SimulacaoInvestimento>> porCliente = new LinkedHashMap<>();
+        gravadas.forEach(simulacao -> porCliente.computeIfAbsent(simulacao.getClienteId(), c -> new ArrayList<>()).add(simulacao));
+        porCliente.forEach((clienteId, doCliente) ->
+                notificarComTentativas(new HistoricoClienteAlteradoEvent(clienteId, doCliente)));
+    }
+
+    /* A TRANSACAO DO EVENTO CONCORRE COM AS DAS REQUISICOES (NO SQLITE, BANCO BLOQUEADO) E E DESFEITA POR INTEIRO
+     * QUANDO FALHA, ENTAO E REPETIDA COMO OS LOTES */
+    private void notificarComTentativas(HistoricoClienteAlteradoEvent evento) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                notificarHistorico(evento);
+                return;
+            } catch (RuntimeException e) {
+                if (tentativa >= Math.max(1, tentativasPorLote) || !aguardarNovaTentativa(tentativa)) {
+                    System.err.println("Erro ao notificar alteração do histórico do cliente " + evento.clienteId() +
+                            ": " + e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    /* A THREAD DO GRAVADOR NAO TEM CONTEXTO DE REQUISICAO NEM TRANSACAO: OS OBSERVADORES SINCRONOS GRAVAM NO BANCO
+     * E OS AFTER_SUCCESS PODEM RECARREGAR O CATALOGO PELO PANACHE. UMA TRANSACAO POR CLIENTE, PARA QUE A FALHA DE UM
+     * NAO DESFACA O QUE FOI FEITO PARA OS OUTROS */
+    @ActivateRequestContext
+    @Transactional
+    void notificarHistorico(HistoricoClienteAlteradoEvent evento) {
+        historicoAlterado.fire(evento);
+    }
+
+    /* NULL QUANDO O LOTE FOI GRAVADO; SENAO O ERRO DA ULTIMA TENTATIVA. A TRANSACAO DE CADA TENTATIVA E DESFEITA
+     * POR INTEIRO, ENTAO O LOTE PODE SER REPETIDO */
+    private RuntimeException gravarComTentativas(List<SimulacaoInvestimento> simulacoes) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                simulacaoRepository.persistBatch(simulacoes);
+                return null;
+            } catch (RuntimeException e) {
+                if (tentativa >= Math.max(1, tentativasPorLote) || !aguardarNovaTentativa(tentativa)) {
+                    return e;
+                }
+            }
+        }
+    }
+
+    /* UMA SIMULACAO INVALIDA NAO IMPEDE A GRAVACAO DAS DEMAIS DO LOTE */
+    private List<SimulacaoInvestimento> gravarUmaPorVez(List<SimulacaoInvestimento> simulacoes) {
+
+        List<SimulacaoInvestimento> gravadas = new ArrayList<>(simulacoes.size());
+
+        for (SimulacaoInvestimento simulacao : simulacoes) {
+            try {
+                simulacaoRepository.persistBatch(List.of(simulacao));
+                gravadas.add(simulacao);
+            } catch (RuntimeException e) {
+                simulacoesComFalha.increment();
+                guardarNaoGravada(simulacao, e);
+            }
+        }
+
+        return gravadas;
+    }
+
+    /* SEM O ARQUIVO, A LINHA VAI PARA O LOG DE ERROS, QUE E O ULTIMO LUGAR DE ONDE ELA PODE SER RECUPERADA */
+    private synchronized void guardarNaoGravada(SimulacaoInvestimento simulacao, RuntimeException erro) {
+
+        String linha;
+
+        try {
+            linha = objectMapper.writeValueAsString(SimulacaoNaoGravada.de(simulacao, erro));
+        } catch (JsonProcessingException e) {
+            linha = simulacao.toString();
+        }
+
+        try {
+            Files.writeString(Path.of(arquivoNaoGravadas), linha + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            System.err.println("Simulação " + simulacao.getId() + " não gravada (" + erro.getMessage() +
+                    "); guardada em " + arquivoNaoGravadas);
+        } catch (IOException e) {
+            System.err.println("Simulação não gravada e não guardada em " + arquivoNaoGravadas + " (" +
+                    e.getMessage() + "): " + linha);
+        }
+    }
+
+    /* FALSE QUANDO A THREAD FOI INTERROMPIDA: O LOTE SEGUE DIRETO PARA A GRAVACAO UMA POR VEZ */
+    private boolean aguardarNovaTentativa(int tentativa) {
+        try {
+            Thread.sleep(esperaEntreTentativasMs * tentativa);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static double paraMilissegundos(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /* LINHA DO ARQUIVO DE SIMULACOES NAO GRAVADAS: OS CAMPOS DA TABELA, O ERRO E QUANDO A GRAVACAO FOI ABANDONADA */
+    record SimulacaoNaoGravada(
+            Long id,
+            Long clienteId,
+            Long produtoId,
+            String produto,
+            BigDecimal valorInvestido,
+            BigDecimal valorFinal,
+            Integer prazoMeses,
+            Integer prazoDias,
+            Integer prazoAnos,
+            LocalDateTime dataSimulacao,
+            BigDecimal rentabilidadeEfetiva,
+            BigDecimal rendimento,
+            Boolean valorSimulado,
+            String cenarioSimulacao,
+            Long semente,
+            String erro,
+            LocalDateTime dataFalha
+    ) {
+
+        static SimulacaoNaoGravada de(SimulacaoInvestimento simulacao, RuntimeException erro) {
+            return new SimulacaoNaoGravada(
+                    simulacao.getId(),
+                    simulacao.getClienteId(),
+                    simulacao.getProdutoId(),
+                    simulacao.getProduto(),
+                    simulacao.getValorInvestido(),
+                    simulacao.getValorFinal(),
+                    simulacao.getPrazoMeses(),
+                    simulacao.getPrazoDias(),
+                    simulacao.getPrazoAnos(),
+                    simulacao.getDataSimulacao(),
+                    simulacao.getRentabilidadeEfetiva(),
+                    simulacao.getRendimento(),
+                    simulacao.getValorSimulado(),
+                    simulacao.getCenarioSimulacao(),
+                    simulacao.getSemente(),
+                    erro.getMessage(),
+                    LocalDateTime.now()
+            );
+        }
+    }
+}
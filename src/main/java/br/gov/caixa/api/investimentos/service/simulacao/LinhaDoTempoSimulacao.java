@@ -0,0 +1,93 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.simulacao.CabecalhoLinhaDoTempo;
+import br.gov.caixa.api.investimentos.dto.simulacao.PontoLinhaDoTempo;
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.GranularidadeLinhaDoTempo;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/* SALDO DA SIMULACAO PASSO A PASSO (MES OU DIA), GERADO SOB DEMANDA: CADA PONTO E O SALDO ANTERIOR
+ * MULTIPLICADO PELO FATOR DE UM PERIODO DE CAPITALIZACAO DO PRODUTO, SEM RECALCULAR A POTENCIA
+ * E SEM MANTER A SERIE EM MEMORIA. NO PASSO prazoMeses O SALDO COINCIDE COM O VALOR FINAL DA
+ * SIMULACAO NO MODO EXATO_LIMITADO (MESMO ERRO DA TABELA POR PRAZO DO MotorCapitalizacao) */
+public final class LinhaDoTempoSimulacao implements Iterator<PontoLinhaDoTempo> {
+
+    private final CabecalhoLinhaDoTempo cabecalho;
+    private final BigDecimal valorInicial;
+    private final BigDecimal fatorCapitalizacao;
+    private final int passosEntreCapitalizacoes;
+    private final boolean capitalizaNoInicio;
+
+    private BigDecimal saldo;
+    private int passo;
+
+    private LinhaDoTempoSimulacao(CabecalhoLinhaDoTempo cabecalho,
+                                  BigDecimal fatorCapitalizacao,
+                                  int passosEntreCapitalizacoes,
+                                  boolean capitalizaNoInicio) {
+        this.cabecalho = cabecalho;
+        this.valorInicial = cabecalho.valorInvestido();
+        this.fatorCapitalizacao = fatorCapitalizacao;
+        this.passosEntreCapitalizacoes = passosEntreCapitalizacoes;
+        this.capitalizaNoInicio = capitalizaNoInicio;
+        this.saldo = valorInicial;
+    }
+
+    /* AO_ANO E PERIODO_TOTAL CAPITALIZAM NO INICIO DO PERIODO, SEGUINDO O ARREDONDAMENTO PARA CIMA
+     * DE MotorCapitalizacao.calcularFatorNoPrazo; AO_DIA E AO_MES CAPITALIZAM AO FIM DE CADA PERIODO */
+    static LinhaDoTempoSimulacao iniciar(CabecalhoLinhaDoTempo cabecalho,
+                                         BigDecimal taxaDecimal,
+                                         PeriodoRentabilidade periodo,
+                                         MotorCapitalizacao motorCapitalizacao) {
+
+        GranularidadeLinhaDoTempo granularidade = cabecalho.granularidade();
+        BigDecimal fatorDoPeriodo = motorCapitalizacao.calcularFatorDoPeriodo(taxaDecimal, periodo);
+
+        return switch (periodo) {
+            case AO_DIA -> granularidade == GranularidadeLinhaDoTempo.MENSAL
+                    ? new LinhaDoTempoSimulacao(cabecalho,
+                            motorCapitalizacao.calcularFatorNoPrazo(taxaDecimal, periodo, 1), 1, false)
+                    : new LinhaDoTempoSimulacao(cabecalho, fatorDoPeriodo, 1, false);
+            case AO_MES -> new LinhaDoTempoSimulacao(cabecalho, fatorDoPeriodo,
+                    granularidade.getPassosPorMes(), false);
+            case AO_ANO -> new LinhaDoTempoSimulacao(cabecalho, fatorDoPeriodo,
+                    12 * granularidade.getPassosPorMes(), true);
+            case PERIODO_TOTAL -> new LinhaDoTempoSimulacao(cabecalho, fatorDoPeriodo, Integer.MAX_VALUE, true);
+        };
+    }
+
+    public CabecalhoLinhaDoTempo getCabecalho() {
+        return cabecalho;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return passo < cabecalho.totalPeriodos();
+    }
+
+    @Override
+    public PontoLinhaDoTempo next() {
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        passo++;
+
+        int passosDesdeInicio = capitalizaNoInicio ? passo - 1 : passo;
+        if (passosDesdeInicio % passosEntreCapitalizacoes == 0) {
+            saldo = saldo.multiply(fatorCapitalizacao, MathContext.DECIMAL128);
+        }
+
+        return new PontoLinhaDoTempo(
+                passo,
+                saldo.setScale(2, RoundingMode.HALF_UP),
+                saldo.subtract(valorInicial).setScale(2, RoundingMode.HALF_UP)
+        );
+    }
+}
@@ -0,0 +1,118 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.ModoCapitalizacao;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/* CALCULA O FATOR DE CAPITALIZACAO COMPOSTA (1 + taxa)^periodos COM CUSTO INDEPENDENTE DO HORIZONTE.
+ *
+ * LIMITES DE ERRO EM RELACAO AO BigDecimal.pow(periodos) SEM MathContext (CALCULO ANTERIOR):
+ *
+ * EXATO_LIMITADO: pow(periodos, DECIMAL128), O(log n) multiplicacoes com 34 digitos significativos.
+ *   Erro relativo < 1e-30; apos multiplicar pelo valor e arredondar em centavos o resultado so
+ *   difere do anterior em empates exatos de arredondamento.
+ *
+ * LOG_EXP: exp(periodos * log1p(taxa)) em double.
+ *   Erro relativo <= (|periodos * ln(1 + taxa)| + 2) * 2.3e-16, ou seja, < 2e-15 para fatores ate 1.000x.
+ *   Para valores finais ate R$ 1 trilhao a diferenca fica abaixo de R$ 0,01.
+ *
+ * NA TABELA POR PRAZO DO MODO EXATO_LIMITADO CADA MES E OBTIDO DO ANTERIOR COM UMA MULTIPLICACAO
+ * DECIMAL128, SOMANDO NO MAXIMO 1e-33 DE ERRO RELATIVO POR MES (< 1e-30 ATE 600 MESES). */
+@ApplicationScoped
+public class MotorCapitalizacao {
+
+    private static final int DIAS_POR_MES = 30;
+
+    @ConfigProperty(name = "simulacao.capitalizacao.modo", defaultValue = "EXATO_LIMITADO")
+    ModoCapitalizacao modo;
+
+    public BigDecimal calcularFator(BigDecimal taxaPorPeriodo, int periodos) {
+        return calcularFator(taxaPorPeriodo, periodos, modo);
+    }
+
+    public BigDecimal calcularFator(BigDecimal taxaPorPeriodo, int periodos, ModoCapitalizacao modoCapitalizacao) {
+
+        if (periodos == 0) {
+            return BigDecimal.ONE;
+        }
+
+        return switch (modoCapitalizacao) {
+            case EXATO_LIMITADO -> BigDecimal.ONE.add(taxaPorPeriodo).pow(periodos, MathContext.DECIMAL128);
+            case LOG_EXP -> BigDecimal.valueOf(calcularFator(taxaPorPeriodo.doubleValue(), periodos));
+        };
+    }
+
+    /* CONVERTE A TAXA ANUAL DECIMAL PARA O PERIODO DE CAPITALIZACAO DO PRODUTO */
+    public BigDecimal calcularFatorNoPrazo(BigDecimal taxaDecimal, PeriodoRentabilidade periodo, int prazoMeses) {
+        return switch (periodo) {
+            case AO_DIA -> calcularFator(taxaDiaria(taxaDecimal), prazoMeses * DIAS_POR_MES);
+            case AO_MES -> calcularFator(taxaMensal(taxaDecimal), prazoMeses);
+            case AO_ANO -> calcularFator(taxaDecimal, anosCapitalizados(prazoMeses));
+            case PERIODO_TOTAL -> BigDecimal.ONE.add(taxaDecimal);
+        };
+    }
+
+    /* FATOR DE UM UNICO PERIODO DE CAPITALIZACAO DO PRODUTO (1 + TAXA CONVERTIDA) */
+    public BigDecimal calcularFatorDoPeriodo(BigDecimal taxaDecimal, PeriodoRentabilidade periodo) {
+        return switch (periodo) {
+            case AO_DIA -> BigDecimal.ONE.add(taxaDiaria(taxaDecimal));
+            case AO_MES -> BigDecimal.ONE.add(taxaMensal(taxaDecimal));
+            case AO_ANO, PERIODO_TOTAL -> BigDecimal.ONE.add(taxaDecimal);
+        };
+    }
+
+    /* FATORES PARA TODOS OS PRAZOS DE 0 A prazoMaximoMeses */
+    public BigDecimal[] calcularFatoresPorPrazo(BigDecimal taxaDecimal, PeriodoRentabilidade periodo,
+                                                int prazoMaximoMeses) {
+
+        BigDecimal[] fatores = new BigDecimal[prazoMaximoMeses + 1];
+
+        if (modo == ModoCapitalizacao.EXATO_LIMITADO &&
+                (periodo == PeriodoRentabilidade.AO_DIA || periodo == PeriodoRentabilidade.AO_MES)) {
+
+            BigDecimal fatorMensal = calcularFatorNoPrazo(taxaDecimal, periodo, 1);
+
+            fatores[0] = BigDecimal.ONE;
+            for (int prazo = 1; prazo <= prazoMaximoMeses; prazo++) {
+                fatores[prazo] = fatores[prazo - 1].multiply(fatorMensal, MathContext.DECIMAL128);
+            }
+
+            return fatores;
+        }
+
+        for (int prazo = 0; prazo <= prazoMaximoMeses; prazo++) {
+            boolean mesmoAno = periodo == PeriodoRentabilidade.AO_ANO && prazo > 0 &&
+                    anosCapitalizados(prazo) == anosCapitalizados(prazo - 1);
+
+            fatores[prazo] = mesmoAno ? fatores[prazo - 1] : calcularFatorNoPrazo(taxaDecimal, periodo, prazo);
+        }
+
+        return fatores;
+    }
+
+    private BigDecimal taxaDiaria(BigDecimal taxaDecimal) {
+        return taxaDecimal.divide(new BigDecimal("365"), 8, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal taxaMensal(BigDecimal taxaDecimal) {
+        return taxaDecimal.divide(new BigDecimal("12"), 6, RoundingMode.HALF_UP);
+    }
+
+    private int anosCapitalizados(int prazoMeses) {
+        return (int) Math.ceil(prazoMeses / 12.0);
+    }
+
+    /* VERSAO EM PRIMITIVOS PARA CAMINHOS DE MONTE CARLO */
+    public double calcularFator(double taxaPorPeriodo, double periodos) {
+        return Math.exp(periodos * Math.log1p(taxaPorPeriodo));
+    }
+
+    public ModoCapitalizacao getModo() {
+        return modo;
+    }
+}
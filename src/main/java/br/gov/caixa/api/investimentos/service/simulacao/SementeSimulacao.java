@@ -0,0 +1,16 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/* TODA SIMULACAO SORTEIA A PARTIR DE UM SplittableRandom PROPRIO, CRIADO COM A SEMENTE DA REQUISICAO
+ * OU, NA FALTA DELA, COM UMA SEMENTE NOVA TIRADA DO ThreadLocalRandom (SEM DISPUTA ENTRE THREADS).
+ * A SEMENTE USADA VOLTA NA RESPOSTA; REENVIA-LA REPRODUZ OS MESMOS SORTEIOS */
+final class SementeSimulacao {
+
+    private SementeSimulacao() {
+    }
+
+    static long resolver(Long semente) {
+        return semente != null ? semente : ThreadLocalRandom.current().nextLong();
+    }
+}
@@ -0,0 +1,33 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/* IDENTIFICADORES DE SIMULACAO ATRIBUIDOS EM MEMORIA, A PARTIR DO MAIOR ID JA GRAVADO, SO COM A GRAVACAO
+ * ASSINCRONA LIGADA: A RESPOSTA DEVOLVE O ID ANTES DE A LINHA EXISTIR NO BANCO. SEM ELA O ID VEM DA COLUNA IDENTITY.
+ * PRESSUPOE UMA UNICA INSTANCIA DA APLICACAO ESCREVENDO NA TABELA, COMO JA E O CASO COM SQLITE */
+@ApplicationScoped
+public class SequenciaIdSimulacao {
+
+    private static final long NAO_INICIALIZADA = -1L;
+
+    @Inject
+    ISimulacaoInvestimentoRepository simulacaoRepository;
+
+    private final AtomicLong ultimoId = new AtomicLong(NAO_INICIALIZADA);
+
+    public long proximoId() {
+        if (ultimoId.get() == NAO_INICIALIZADA) {
+            synchronized (this) {
+                if (ultimoId.get() == NAO_INICIALIZADA) {
+                    ultimoId.set(simulacaoRepository.findMaxId());
+                }
+            }
+        }
+
+        return ultimoId.incrementAndGet();
+    }
+}
@@ -3,14 +3,36 @@ package br.gov.caixa.api.investimentos.service.simulacao;
 import br.gov.caixa.api.investimentos.client.SimuladorIndices;
 import br.gov.caixa.api.investimentos.client.SimuladorMercado;
 import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.AgregadoCarteira;
+import br.gov.caixa.api.investimentos.dto.simulacao.CabecalhoLinhaDoTempo;
+import br.gov.caixa.api.investimentos.dto.simulacao.ItemComparacaoProduto;
+import br.gov.caixa.api.investimentos.dto.simulacao.ItemSimulacaoLote;
+import br.gov.caixa.api.investimentos.dto.simulacao.LinhaTabelaLiquida;
+import br.gov.caixa.api.investimentos.dto.simulacao.PontoLinhaDoTempo;
+import br.gov.caixa.api.investimentos.dto.simulacao.ProjecaoPosicaoCarteira;
+import br.gov.caixa.api.investimentos.dto.simulacao.ResultadoMonteCarlo;
 import br.gov.caixa.api.investimentos.dto.simulacao.ResultadoSimulacao;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoCarteiraResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoComparacaoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoLoteResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMetaRequest;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMetaResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMonteCarloResponse;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoRequest;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.TabelaLiquidaResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.TributacaoSimulacao;
+import br.gov.caixa.api.investimentos.enums.produto.NivelRisco;
 import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
 import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
 import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.GranularidadeLinhaDoTempo;
+import br.gov.caixa.api.investimentos.enums.simulacao.IncognitaMeta;
 import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.enums.simulacao.MetodoResolucaoMeta;
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
 import br.gov.caixa.api.investimentos.exception.produto.NenhumProdutoDisponivelException;
+import br.gov.caixa.api.investimentos.mapper.InvestimentoMapper;
 import br.gov.caixa.api.investimentos.mapper.ProdutoMapper;
 import br.gov.caixa.api.investimentos.mapper.SimulacaoInvestimentoMapper;
 import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
@@ -18,19 +40,44 @@ import br.gov.caixa.api.investimentos.model.investimento.Investimento;
 import br.gov.caixa.api.investimentos.model.produto.Produto;
 import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
 import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
-import br.gov.caixa.api.investimentos.repository.produto.IProdutoRepository;
 import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import br.gov.caixa.api.investimentos.service.compliance.TributacaoService;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoProdutos;
 import br.gov.caixa.api.investimentos.service.produto.ProdutoService;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class SimulacaoInvestimentoService {
@@ -57,40 +104,81 @@ public class SimulacaoInvestimentoService {
     IInvestimentoRepository investimentoRepository;
 
     @Inject
-    IProdutoRepository produtoRepository;
+    CatalogoProdutos catalogoProdutos;
 
     @Inject
     GeradorRecomendacaoML geradorRecomendacaoML;
 
-    @Transactional
-    public SimulacaoResponse simularInvestimento(SimulacaoRequest request) {
+    @Inject
+    Validator validator;
 
-        validarRegrasNegocio(request);
+    @Inject
+    SimulacaoMonteCarloService simulacaoMonteCarloService;
 
-        List<Produto> produtos = encontrarProdutoMaisApropriado(request);
-        List<Produto> produtos_sugeridos = new ArrayList<Produto>();
+    @Inject
+    MotorCapitalizacao motorCapitalizacao;
 
-        List<Investimento> investimentos = investimentoRepository.findByClienteId(request.clienteId());
+    @Inject
+    TabelaFatoresCapitalizacao tabelaFatoresCapitalizacao;
 
-        if (!investimentos.isEmpty()) {
-            produtos_sugeridos = geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(investimentos, produtos);
-        }
 
-        if (produtos_sugeridos.isEmpty()) {
-            produtos_sugeridos = geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(investimentos, produtos);
-        }
+    @Inject
+    GravacaoAssincronaSimulacao gravacaoAssincronaSimulacao;
 
-        if (produtos_sugeridos.isEmpty()) {
-            produtos_sugeridos = produtos;
-        }
+    @Inject
+    CacheResultadoSimulacao cacheResultadoSimulacao;
 
-        if (produtos_sugeridos.isEmpty()) {
-            throw new NenhumProdutoDisponivelException("Nenhum produto encontrado com os critérios informados");
-        }
+    @Inject
+    TributacaoService tributacaoService;
+
+    @Inject
+    InvestimentoMapper investimentoMapper;
+
+    @Inject
+    Event<HistoricoClienteAlteradoEvent> historicoAlterado;
+
+    @ConfigProperty(name = "simulacao.lote.paralelismo", defaultValue = "4")
+    int paralelismoLote;
 
-        Produto produto = produtos_sugeridos.getFirst();
+    @ConfigProperty(name = "simulacao.lote.tamanho-maximo", defaultValue = "10000")
+    int tamanhoMaximoLote;
 
-        ResultadoSimulacao resultado = calcularSimulacao(request, produto);
+    @ConfigProperty(name = "simulacao.montecarlo.caminhos-padrao", defaultValue = "10000")
+    int caminhosPadraoMonteCarlo;
+
+    @ConfigProperty(name = "simulacao.montecarlo.caminhos-maximo", defaultValue = "100000")
+    int caminhosMaximoMonteCarlo;
+
+    @ConfigProperty(name = "simulacao.linha-do-tempo.prazo-maximo-meses", defaultValue = "600")
+    int prazoMaximoLinhaDoTempo;
+
+    /* UMA LINHA POR DIA: 3 ANOS COBREM TODAS AS FAIXAS DO IR, ATE A DE MAIS DE 720 DIAS */
+    @ConfigProperty(name = "simulacao.tabela-liquida.prazo-maximo-dias", defaultValue = "1095")
+    int prazoMaximoTabelaLiquida;
+
+    private static final int TAMANHO_BLOCO_CONSULTA = 500;
+
+    private static final int PRAZO_MAXIMO_MESES = 240;
+
+    private static final BigDecimal VALOR_MINIMO_INVESTIMENTO = new BigDecimal("1.00");
+
+    private volatile ExecutorService executorLote;
+
+    @Transactional
+    public SimulacaoResponse simularInvestimento(SimulacaoRequest request) {
+
+        validarRegrasNegocio(request);
+
+        CatalogoIndexado catalogo = catalogoProdutos.obterCatalogo();
+
+        List<Produto> produtos = encontrarProdutoMaisApropriado(request, catalogo);
+
+        List<Investimento> investimentos = investimentoRepository.findByClienteId(request.clienteId());
+
+        Produto produto = selecionarProduto(produtos, investimentos, catalogo);
+
+        ResultadoSimulacao resultado = calcularSimulacao(request, produto, catalogo,
+                tabelaFatoresCapitalizacao.obterFatores(catalogo));
 
         SimulacaoInvestimento simulacaoPersistida = persistirSimulacao(request, produto, resultado);
 
@@ -105,161 +193,910 @@ public class SimulacaoInvestimentoService {
         );
     }
 
-    private List<Produto> encontrarProdutoMaisApropriado(SimulacaoRequest request) {
+    /* DISTRIBUICAO DO VALOR FINAL EM N CAMINHOS DE CENARIO; NAO PERSISTE SIMULACAO */
+    public SimulacaoMonteCarloResponse simularInvestimentoMonteCarlo(SimulacaoRequest request, Integer caminhos) {
+        return simularInvestimentoMonteCarlo(request, caminhos, caminhosMaximoMonteCarlo);
+    }
 
-        if (request.produtoId() != null) {
-            Produto produto = produtoRepository.findById(request.produtoId());
+    /* AS TAREFAS ASSINCRONAS ACEITAM UM LIMITE DE CAMINHOS MAIOR QUE O DA REQUISICAO SINCRONA */
+    public SimulacaoMonteCarloResponse simularInvestimentoMonteCarlo(SimulacaoRequest request, Integer caminhos,
+                                                                     int caminhosMaximo) {
 
-            if (produto != null) {
-                return List.of(produto);
+        int totalCaminhos = caminhos != null ? caminhos : caminhosPadraoMonteCarlo;
+
+        if (totalCaminhos < 1 || totalCaminhos > caminhosMaximo) {
+            throw new IllegalArgumentException("Número de caminhos deve estar entre 1 e " + caminhosMaximo);
+        }
+
+        validarRegrasNegocio(request);
+
+        CatalogoIndexado catalogo = catalogoProdutos.obterCatalogo();
+
+        List<Produto> produtos = encontrarProdutoMaisApropriado(request, catalogo);
+
+        List<Investimento> investimentos = investimentoRepository.findByClienteId(request.clienteId());
+
+        Produto produto = selecionarProduto(produtos, investimentos, catalogo);
+
+        ResultadoMonteCarlo resultado = simulacaoMonteCarloService.simular(
+                request.valor(), request.getPrazoEmMeses(), produto, totalCaminhos, request.semente());
+
+        return new SimulacaoMonteCarloResponse(
+                produtoMapper.toResponse(produto),
+                resultado,
+                LocalDateTime.now(),
+                request.clienteId()
+        );
+    }
+
+    /* SIMULA O MESMO VALOR E PRAZO EM TODOS OS PRODUTOS QUE ATENDEM AOS FILTROS, EM PARALELO, E DEVOLVE
+     * O RANKING POR VALOR FINAL. SO A SIMULACAO DO PRODUTO SELECIONADO (O MESMO DA SIMULACAO SIMPLES)
+     * E PERSISTIDA, E APENAS QUANDO persistir FOR VERDADEIRO */
+    @Transactional
+    public SimulacaoComparacaoResponse simularInvestimentoComparacao(SimulacaoRequest request, boolean persistir) {
+
+        validarRegrasNegocio(request);
+
+        CatalogoIndexado catalogo = catalogoProdutos.obterCatalogo();
+
+        List<Investimento> investimentos = investimentoRepository.findByClienteId(request.clienteId());
+
+        Produto selecionado = selecionarProduto(encontrarProdutoMaisApropriado(request, catalogo), investimentos,
+                catalogo);
+
+        /* UM produtoId FORA DOS FILTROS AINDA ENTRA NA COMPARACAO */
+        List<Produto> candidatos = new ArrayList<>(filtrarCatalogo(request, catalogo));
+        if (!candidatos.contains(selecionado)) {
+            candidatos.add(selecionado);
+        }
+
+        /* OS GERADORES SAO DERIVADOS DA SEMENTE NA ORDEM DOS CANDIDATOS, ANTES DO PARALELISMO; O PRODUTO
+         * SELECIONADO USA A PROPRIA SEMENTE E REPETE O RESULTADO DA SIMULACAO SIMPLES COM A MESMA SEMENTE */
+        long semente = SementeSimulacao.resolver(request.semente());
+        SplittableRandom raiz = new SplittableRandom(semente);
+
+        RandomGenerator[] geradores = new RandomGenerator[candidatos.size()];
+        for (int i = 0; i < candidatos.size(); i++) {
+            geradores[i] = candidatos.get(i) == selecionado ? new SplittableRandom(semente) : raiz.split();
+        }
+
+        TabelaFatoresCapitalizacao.Fatores fatores = tabelaFatoresCapitalizacao.obterFatores(catalogo);
+
+        ResultadoSimulacao[] resultados = new ResultadoSimulacao[candidatos.size()];
+
+        calcularEmParalelo(resultados,
+                i -> calcularSimulacao(request, candidatos.get(i), semente, geradores[i], fatores),
+                "comparação de produtos");
+
+        /* ORDENACAO ESTAVEL: EMPATES MANTEM A ORDEM DE RISCO E RENTABILIDADE DO CATALOGO */
+        List<Integer> ranking = new ArrayList<>(candidatos.size());
+        for (int i = 0; i < candidatos.size(); i++) {
+            ranking.add(i);
+        }
+        ranking.sort((i1, i2) -> resultados[i2].valorFinal().compareTo(resultados[i1].valorFinal()));
+
+        Long simulacaoId = null;
+        List<ItemComparacaoProduto> itens = new ArrayList<>(ranking.size());
+
+        for (int posicao = 0; posicao < ranking.size(); posicao++) {
+            int indice = ranking.get(posicao);
+            Produto produto = candidatos.get(indice);
+            boolean isSelecionado = produto == selecionado;
+
+            if (isSelecionado && persistir) {
+                simulacaoId = persistirSimulacao(request, produto, resultados[indice]).getId();
             }
+
+            itens.add(new ItemComparacaoProduto(
+                    posicao + 1,
+                    produtoMapper.toResponse(produto),
+                    resultados[indice],
+                    isSelecionado
+            ));
         }
 
-        List<Produto> produtos = produtoRepository.listAll();
+        return new SimulacaoComparacaoResponse(
+                itens,
+                itens.size(),
+                LocalDateTime.now(),
+                request.clienteId(),
+                simulacaoId
+        );
+    }
+
+    /* VALIDA E SORTEIA O CENARIO ANTES DE DEVOLVER; OS PONTOS SAO CALCULADOS A MEDIDA QUE SAO CONSUMIDOS.
+     * NAO PERSISTE SIMULACAO */
+    public LinhaDoTempoSimulacao simularLinhaDoTempo(SimulacaoRequest request, GranularidadeLinhaDoTempo granularidade) {
 
-        return produtos.stream()
-                .filter(Objects::nonNull)
-                .filter(produto -> filtrarPorNome(produto, request.nome()))
-                .filter(produto -> filtrarPorTipo(produto, request.tipoProduto()))
-                .filter(produto -> filtrarPorTipoRentabilidade(produto, request.tipoRentabilidade()))
-                .filter(produto -> filtrarPorIndice(produto, request.indice()))
-                .filter(produto -> filtrarPorLiquidez(produto, request.liquidez()))
-                .filter(produto -> filtrarPorFgc(produto, request.fgc()))
-                .filter(produto -> filtrarPorPrazoMinimo(produto, request.getPrazoEmDias()))
+        validarRegrasNegocio(request, prazoMaximoLinhaDoTempo);
+
+        CatalogoIndexado catalogo = catalogoProdutos.obterCatalogo();
+
+        List<Produto> produtos = encontrarProdutoMaisApropriado(request, catalogo);
+
+        List<Investimento> investimentos = investimentoRepository.findByClienteId(request.clienteId());
+
+        Produto produto = selecionarProduto(produtos, investimentos, catalogo);
+
+        int prazoMeses = request.getPrazoEmMeses();
+
+        long semente = SementeSimulacao.resolver(request.semente());
+        SplittableRandom gerador = new SplittableRandom(semente);
 
-                .sorted(this::compararProdutos)
-                .toList();
+        SimuladorMercado.CenarioMercado cenario = simuladorMercado.gerarCenario(produto.getTipo(), prazoMeses, gerador);
+
+        BigDecimal rentabilidadeEfetiva = calcularRentabilidadeEfetiva(produto, prazoMeses, cenario, gerador);
+
+        CabecalhoLinhaDoTempo cabecalho = new CabecalhoLinhaDoTempo(
+                produtoMapper.toResponse(produto),
+                request.valor(),
+                rentabilidadeEfetiva.setScale(4, RoundingMode.HALF_UP),
+                cenario.getDescricao(),
+                granularidade,
+                prazoMeses * granularidade.getPassosPorMes(),
+                LocalDateTime.now(),
+                request.clienteId(),
+                semente
+        );
+
+        return LinhaDoTempoSimulacao.iniciar(cabecalho, paraTaxaDecimal(rentabilidadeEfetiva),
+                produto.getPeriodoRentabilidade(), motorCapitalizacao);
     }
 
-    private ResultadoSimulacao calcularSimulacao(SimulacaoRequest request, Produto produto) {
-        BigDecimal valorInicial = request.valor();
+    /* RENDIMENTO BRUTO, IR, IOF E LIQUIDO PARA CADA PRAZO DE 1 ATE O PRAZO DA REQUISICAO EM DIAS, NUM UNICO
+     * CENARIO: OS SALDOS VEM DA LINHA DO TEMPO DIARIA E OS IMPOSTOS DA TABELA DO TributacaoService EM UMA
+     * PASSADA. NAO PERSISTE SIMULACAO */
+    public TabelaLiquidaResponse simularTabelaLiquida(SimulacaoRequest request) {
+
+        validarRegrasNegocio(request);
+
+        if (request.getPrazoEmDias() > prazoMaximoTabelaLiquida) {
+            throw new RuntimeException("Prazo da tabela líquida não pode ser maior que " + prazoMaximoTabelaLiquida + " dias");
+        }
+
+        CatalogoIndexado catalogo = catalogoProdutos.obterCatalogo();
+
+        List<Produto> produtos = encontrarProdutoMaisApropriado(request, catalogo);
+
+        List<Investimento> investimentos = investimentoRepository.findByClienteId(request.clienteId());
+
+        Produto produto = selecionarProduto(produtos, investimentos, catalogo);
+
         int prazoMeses = request.getPrazoEmMeses();
+        int prazoDias = request.getPrazoEmDias();
 
-        SimuladorMercado.CenarioMercado cenario = simuladorMercado.gerarCenario(produto.getTipo(), prazoMeses);
+        long semente = SementeSimulacao.resolver(request.semente());
+        SplittableRandom gerador = new SplittableRandom(semente);
 
-        BigDecimal rentabilidadeEfetiva = calcularRentabilidadeEfetiva(produto, prazoMeses, cenario);
+        SimuladorMercado.CenarioMercado cenario = simuladorMercado.gerarCenario(produto.getTipo(), prazoMeses, gerador);
 
-        BigDecimal valorFinal = calcularValorFinal(valorInicial, rentabilidadeEfetiva,
-                produto.getPeriodoRentabilidade(), prazoMeses);
+        BigDecimal rentabilidadeEfetiva = calcularRentabilidadeEfetiva(produto, prazoMeses, cenario, gerador);
 
-        BigDecimal rendimento = valorFinal.subtract(valorInicial);
+        CabecalhoLinhaDoTempo cabecalho = new CabecalhoLinhaDoTempo(null, request.valor(), rentabilidadeEfetiva,
+                cenario.getDescricao(), GranularidadeLinhaDoTempo.DIARIA, prazoDias, null, request.clienteId(), semente);
 
-        return new ResultadoSimulacao(
+        LinhaDoTempoSimulacao linhaDoTempo = LinhaDoTempoSimulacao.iniciar(cabecalho,
+                paraTaxaDecimal(rentabilidadeEfetiva), produto.getPeriodoRentabilidade(), motorCapitalizacao);
+
+        BigDecimal[] valoresBrutos = new BigDecimal[prazoDias];
+        BigDecimal[] rendimentosBrutos = new BigDecimal[prazoDias];
+
+        for (int i = 0; i < prazoDias; i++) {
+            PontoLinhaDoTempo ponto = linhaDoTempo.next();
+            valoresBrutos[i] = ponto.saldo();
+            rendimentosBrutos[i] = ponto.rendimentoAcumulado();
+        }
+
+        boolean isento = tributacaoService.isIsento(produto.getTipo());
+        TributacaoService.Tributacao[] tributacoes = isento ? null : tributacaoService.calcularTabela(rendimentosBrutos);
+
+        List<LinhaTabelaLiquida> linhas = new ArrayList<>(prazoDias);
+
+        for (int i = 0; i < prazoDias; i++) {
+            BigDecimal valorIR = isento ? BigDecimal.ZERO : tributacoes[i].valorIR();
+            BigDecimal valorIOF = isento ? BigDecimal.ZERO : tributacoes[i].valorIOF();
+            BigDecimal rendimentoLiquido = isento ? rendimentosBrutos[i] : tributacoes[i].rendimentoLiquido();
+
+            linhas.add(new LinhaTabelaLiquida(
+                    i + 1,
+                    valoresBrutos[i],
+                    rendimentosBrutos[i],
+                    valorIR,
+                    valorIOF,
+                    rendimentoLiquido,
+                    request.valor().add(rendimentoLiquido)
+            ));
+        }
+
+        return new TabelaLiquidaResponse(
+                produtoMapper.toResponse(produto),
+                request.valor(),
+                rentabilidadeEfetiva.setScale(4, RoundingMode.HALF_UP),
+                cenario.getDescricao(),
+                isento,
+                linhas,
+                LocalDateTime.now(),
+                request.clienteId(),
+                semente
+        );
+    }
+
+    /* SIMULACAO REVERSA: RESOLVE O VALOR INICIAL (DADO O PRAZO) OU O PRAZO (DADO O VALOR INICIAL) PARA
+     * ATINGIR valorMeta. O CENARIO E A TAXA EFETIVA SAO SORTEADOS UMA UNICA VEZ, PARA O PRAZO INFORMADO OU,
+     * NA BUSCA DO PRAZO, PARA O PRAZO MAXIMO, DE FORMA QUE O VALOR FINAL SEJA MONOTONO NO PRAZO.
+     * NAO PERSISTE SIMULACAO */
+    public SimulacaoMetaResponse simularMeta(SimulacaoMetaRequest request) {
+
+        if ((request.valorInicial() == null) == (request.prazoMeses() == null)) {
+            throw new IllegalArgumentException("Deve ser informado exatamente um entre 'valorInicial' e 'prazoMeses'");
+        }
+
+        IncognitaMeta incognita = request.prazoMeses() == null ? IncognitaMeta.PRAZO : IncognitaMeta.VALOR_INICIAL;
+        int prazoReferencia = incognita == IncognitaMeta.PRAZO ? PRAZO_MAXIMO_MESES : request.prazoMeses();
+
+        SimulacaoRequest simulacaoRequest = request.paraSimulacaoRequest(prazoReferencia);
+
+        validarRegrasNegocio(simulacaoRequest);
+
+        CatalogoIndexado catalogo = catalogoProdutos.obterCatalogo();
+        TabelaFatoresCapitalizacao.Fatores fatores = tabelaFatoresCapitalizacao.obterFatores(catalogo);
+
+        List<Produto> produtos = encontrarProdutoMaisApropriado(simulacaoRequest, catalogo);
+
+        List<Investimento> investimentos = investimentoRepository.findByClienteId(request.clienteId());
+
+        Produto produto = selecionarProduto(produtos, investimentos, catalogo);
+
+        long semente = SementeSimulacao.resolver(request.semente());
+        SplittableRandom gerador = new SplittableRandom(semente);
+
+        SimuladorMercado.CenarioMercado cenario = simuladorMercado.gerarCenario(
+                produto.getTipo(), prazoReferencia, gerador);
+
+        BigDecimal rentabilidadeEfetiva = calcularRentabilidadeEfetiva(produto, prazoReferencia, cenario, gerador);
+
+        PeriodoRentabilidade periodo = produto.getPeriodoRentabilidade();
+
+        ResolucaoMeta resolucao = incognita == IncognitaMeta.VALOR_INICIAL
+                ? resolverValorInicial(request.valorMeta(), rentabilidadeEfetiva, periodo, prazoReferencia, fatores)
+                : resolverPrazo(request.valorMeta(), request.valorInicial(), rentabilidadeEfetiva, periodo,
+                        prazoMinimoDoProduto(produto), fatores);
+
+        BigDecimal valorFinal = calcularValorFinal(resolucao.valorInicial(), rentabilidadeEfetiva, periodo,
+                resolucao.prazoMeses(), fatores);
+
+        return new SimulacaoMetaResponse(
+                produtoMapper.toResponse(produto),
+                incognita,
+                resolucao.metodo(),
+                resolucao.iteracoes(),
+                request.valorMeta(),
+                resolucao.valorInicial(),
+                resolucao.prazoMeses(),
                 valorFinal.setScale(2, RoundingMode.HALF_UP),
                 rentabilidadeEfetiva.setScale(4, RoundingMode.HALF_UP),
-                request.prazoMeses(),
-                request.prazoDias(),
-                request.prazoAnos(),
-                valorInicial,
-                rendimento.setScale(2, RoundingMode.HALF_UP),
-                true,
+                cenario.getDescricao(),
+                LocalDateTime.now(),
+                request.clienteId(),
+                semente
+        );
+    }
+
+    /* O VALOR FINAL E LINEAR NO VALOR INICIAL: valorInicial = meta / fator, ARREDONDADO PARA CIMA
+     * EM CENTAVOS PARA QUE O VALOR FINAL NAO FIQUE ABAIXO DA META */
+    private ResolucaoMeta resolverValorInicial(BigDecimal valorMeta, BigDecimal rentabilidadeEfetiva,
+                                               PeriodoRentabilidade periodo, int prazoMeses,
+                                               TabelaFatoresCapitalizacao.Fatores fatores) {
+
+        BigDecimal fator = calcularValorFinal(BigDecimal.ONE, rentabilidadeEfetiva, periodo, prazoMeses, fatores);
+
+        BigDecimal valorInicial = valorMeta.divide(fator, 2, RoundingMode.CEILING).max(VALOR_MINIMO_INVESTIMENTO);
+
+        return new ResolucaoMeta(valorInicial, prazoMeses, MetodoResolucaoMeta.FORMA_FECHADA, 0);
+    }
+
+    /* ESTIMA O PRAZO POR LOGARITMOS E CONFERE COM O CALCULO EXATO; SE A ESTIMATIVA NAO FOR O MENOR
+     * PRAZO QUE ATINGE A META, FAZ BISSECAO ENTRE O PRAZO MINIMO DO PRODUTO E O PRAZO MAXIMO */
+    private ResolucaoMeta resolverPrazo(BigDecimal valorMeta, BigDecimal valorInicial, BigDecimal rentabilidadeEfetiva,
+                                        PeriodoRentabilidade periodo, int prazoMinimo,
+                                        TabelaFatoresCapitalizacao.Fatores fatores) {
+
+        IntPredicate atingeMeta = prazo -> calcularValorFinal(valorInicial, rentabilidadeEfetiva, periodo, prazo,
+                fatores).setScale(2, RoundingMode.HALF_UP).compareTo(valorMeta) >= 0;
+
+        int estimativa = Math.max(prazoMinimo,
+                estimarPrazo(valorMeta, valorInicial, paraTaxaDecimal(rentabilidadeEfetiva), periodo));
+
+        if (estimativa <= PRAZO_MAXIMO_MESES && atingeMeta.test(estimativa) &&
+                (estimativa == prazoMinimo || !atingeMeta.test(estimativa - 1))) {
+            return new ResolucaoMeta(valorInicial, estimativa, MetodoResolucaoMeta.FORMA_FECHADA, 0);
+        }
+
+        if (!atingeMeta.test(PRAZO_MAXIMO_MESES)) {
+            throw new IllegalArgumentException("Meta não pode ser atingida em até " + PRAZO_MAXIMO_MESES +
+                    " meses com o produto selecionado");
+        }
+
+        int inferior = prazoMinimo;
+        int superior = PRAZO_MAXIMO_MESES;
+        int iteracoes = 0;
+
+        while (inferior < superior) {
+            int meio = (inferior + superior) >>> 1;
+            iteracoes++;
+
+            if (atingeMeta.test(meio)) {
+                superior = meio;
+            } else {
+                inferior = meio + 1;
+            }
+        }
+
+        return new ResolucaoMeta(valorInicial, inferior, MetodoResolucaoMeta.BISSECAO, iteracoes);
+    }
+
+    /* Integer.MAX_VALUE QUANDO NAO HA SOLUCAO ANALITICA DENTRO DO PRAZO MAXIMO */
+    private int estimarPrazo(BigDecimal valorMeta, BigDecimal valorInicial, BigDecimal taxaDecimal,
+                             PeriodoRentabilidade periodo) {
+
+        if (valorInicial.compareTo(valorMeta) >= 0) {
+            return 1;
+        }
+
+        double taxa = taxaDecimal.doubleValue();
+        if (taxa <= 0.0) {
+            return Integer.MAX_VALUE;
+        }
+
+        double razao = Math.log(valorMeta.doubleValue() / valorInicial.doubleValue());
+
+        double meses = switch (periodo) {
+            case AO_DIA -> razao / (30 * Math.log1p(taxa / 365));
+            case AO_MES -> razao / Math.log1p(taxa / 12);
+            case AO_ANO -> 12 * (Math.ceil(razao / Math.log1p(taxa)) - 1) + 1;
+            case PERIODO_TOTAL -> razao <= Math.log1p(taxa) ? 1 : Double.POSITIVE_INFINITY;
+        };
+
+        return meses > PRAZO_MAXIMO_MESES ? Integer.MAX_VALUE : (int) Math.ceil(meses);
+    }
+
+    private int prazoMinimoDoProduto(Produto produto) {
+        Integer minimoDias = produto.getMinimoDiasInvestimento();
+
+        return minimoDias != null ? Math.max(1, (int) Math.ceil(minimoDias / 30.0)) : 1;
+    }
+
+    private record ResolucaoMeta(BigDecimal valorInicial, int prazoMeses, MetodoResolucaoMeta metodo, int iteracoes) {
+    }
+
+    /* PROJETA TODAS AS POSICOES DO CLIENTE ATE dataAlvo COM AS CONDICOES CONTRATADAS DE CADA UMA, EM PARALELO,
+     * E AGREGA POR TIPO DE PRODUTO E NIVEL DE RISCO. A POSICAO DEIXA DE RENDER NO VENCIMENTO. NAO PERSISTE SIMULACAO */
+    public SimulacaoCarteiraResponse projetarCarteira(Long clienteId, LocalDate dataAlvo, Long sementeInformada,
+                                                      boolean incluirPosicoes) {
+
+        validarDataAlvo(dataAlvo);
+
+        List<Investimento> investimentos = investimentoRepository.findByClienteId(clienteId);
+
+        /* GERADORES DERIVADOS NA ORDEM DAS POSICOES, ANTES DO PARALELISMO */
+        long semente = SementeSimulacao.resolver(sementeInformada);
+        SplittableRandom raiz = new SplittableRandom(semente);
+
+        RandomGenerator[] geradores = new RandomGenerator[investimentos.size()];
+        for (int i = 0; i < geradores.length; i++) {
+            geradores[i] = raiz.split();
+        }
+
+        ProjecaoPosicaoCarteira[] projecoes = new ProjecaoPosicaoCarteira[investimentos.size()];
+
+        if (projecoes.length > 0) {
+            TabelaFatoresCapitalizacao.Fatores fatores =
+                    tabelaFatoresCapitalizacao.obterFatores(catalogoProdutos.obterCatalogo());
+
+            calcularEmParalelo(projecoes, i -> projetarPosicao(investimentos.get(i), dataAlvo, geradores[i], fatores),
+                    "projeção da carteira");
+        }
+
+        AcumuladorCarteira total = new AcumuladorCarteira();
+        Map<TipoProduto, AcumuladorCarteira> porTipoProduto = new EnumMap<>(TipoProduto.class);
+        Map<NivelRisco, AcumuladorCarteira> porNivelRisco = new EnumMap<>(NivelRisco.class);
+
+        for (ProjecaoPosicaoCarteira projecao : projecoes) {
+            total.somar(projecao);
+            porTipoProduto.computeIfAbsent(projecao.tipoProduto(), k -> new AcumuladorCarteira()).somar(projecao);
+            porNivelRisco.computeIfAbsent(projecao.nivelRisco(), k -> new AcumuladorCarteira()).somar(projecao);
+        }
+
+        return new SimulacaoCarteiraResponse(
+                clienteId,
+                dataAlvo,
+                projecoes.length,
+                total.valorInvestido,
+                total.valorProjetado,
+                total.valorProjetado.subtract(total.valorInvestido),
+                agregar(porTipoProduto, total.valorProjetado),
+                agregar(porNivelRisco, total.valorProjetado),
+                incluirPosicoes ? List.of(projecoes) : null,
+                LocalDateTime.now(),
+                semente
+        );
+    }
+
+    private void validarDataAlvo(LocalDate dataAlvo) {
+
+        if (dataAlvo == null) {
+            throw new IllegalArgumentException("Data alvo deve ser informada");
+        }
+
+        LocalDate hoje = LocalDate.now();
+
+        if (dataAlvo.isBefore(hoje)) {
+            throw new IllegalArgumentException("Data alvo não pode ser anterior à data atual");
+        }
+
+        if (dataAlvo.isAfter(hoje.plusMonths(prazoMaximoLinhaDoTempo))) {
+            throw new IllegalArgumentException(
+                    "Data alvo não pode ser posterior a " + prazoMaximoLinhaDoTempo + " meses a partir de hoje");
+        }
+    }
+
+    private ProjecaoPosicaoCarteira projetarPosicao(Investimento investimento, LocalDate dataAlvo,
+                                                   RandomGenerator gerador,
+                                                   TabelaFatoresCapitalizacao.Fatores fatores) {
+
+        Produto contratado = investimentoMapper.toProdutoContratado(investimento);
+        BigDecimal valorInvestido = investimento.getValor().setScale(2, RoundingMode.HALF_UP);
+
+        LocalDate fim = dataAlvo;
+        Integer prazoContratadoDias = prazoContratadoEmDias(investimento);
+
+        if (prazoContratadoDias != null && investimento.getData().plusDays(prazoContratadoDias).isBefore(fim)) {
+            fim = investimento.getData().plusDays(prazoContratadoDias);
+        }
+
+        int prazoMeses = (int) Math.max(0, ChronoUnit.MONTHS.between(investimento.getData(), fim));
+        int prazoSorteio = Math.max(1, prazoMeses);
+
+        SimuladorMercado.CenarioMercado cenario =
+                simuladorMercado.gerarCenario(contratado.getTipo(), prazoSorteio, gerador);
+
+        BigDecimal rentabilidadeEfetiva = calcularRentabilidadeEfetiva(contratado, prazoSorteio, cenario, gerador);
+
+        BigDecimal valorProjetado = prazoMeses == 0 ? valorInvestido : calcularValorFinal(
+                valorInvestido, rentabilidadeEfetiva, contratado.getPeriodoRentabilidade(), prazoMeses, fatores);
+
+        return new ProjecaoPosicaoCarteira(
+                investimento.getId(),
+                investimento.getProdutoId(),
+                contratado.getTipo(),
+                contratado.getRisco(),
+                investimento.getData(),
+                prazoMeses,
+                valorInvestido,
+                rentabilidadeEfetiva.setScale(4, RoundingMode.HALF_UP),
+                valorProjetado.setScale(2, RoundingMode.HALF_UP),
                 cenario.getDescricao()
         );
     }
 
-    private BigDecimal calcularRentabilidadeEfetiva(Produto produto, int prazoMeses,
-                                                    SimuladorMercado.CenarioMercado cenario) {
-        BigDecimal rentabilidadeBase = produto.getRentabilidade();
+    /* MESMA PRECEDENCIA DE SimulacaoRequest.getPrazoEmDias; NULL QUANDO A POSICAO NAO TEM PRAZO */
+    private Integer prazoContratadoEmDias(Investimento investimento) {
+        if (investimento.getPrazoDias() != null && investimento.getPrazoDias() > 0) {
+            return investimento.getPrazoDias();
+        }
+        if (investimento.getPrazoMeses() != null && investimento.getPrazoMeses() > 0) {
+            return investimento.getPrazoMeses() * 30;
+        }
+        if (investimento.getPrazoAnos() != null && investimento.getPrazoAnos() > 0) {
+            return investimento.getPrazoAnos() * 365;
+        }
+        return null;
+    }
 
-        if (TipoRentabilidade.POS.equals(produto.getTipoRentabilidade()) &&
-                produto.getIndice() != null && !Indice.NENHUM.equals(produto.getIndice())) {
+    private List<AgregadoCarteira> agregar(Map<? extends Enum<?>, AcumuladorCarteira> grupos,
+                                           BigDecimal valorProjetadoTotal) {
 
-            BigDecimal taxaIndiceSimulada = simuladorIndices.getTaxaSimulada(produto.getIndice(), prazoMeses);
+        List<AgregadoCarteira> agregados = new ArrayList<>(grupos.size());
 
-            BigDecimal taxaAjustada = simuladorMercado.ajustarRentabilidadePorCenario(
-                    taxaIndiceSimulada, cenario, produto.getTipoRentabilidade()
+        grupos.forEach((grupo, acumulador) -> agregados.add(new AgregadoCarteira(
+                grupo.name(),
+                acumulador.quantidade,
+                acumulador.valorInvestido,
+                acumulador.valorProjetado,
+                acumulador.valorProjetado.subtract(acumulador.valorInvestido),
+                valorProjetadoTotal.signum() == 0 ? BigDecimal.ZERO : acumulador.valorProjetado
+                        .multiply(new BigDecimal("100"))
+                        .divide(valorProjetadoTotal, 2, RoundingMode.HALF_UP)
+        )));
+
+        return agregados;
+    }
+
+    private static final class AcumuladorCarteira {
+
+        private int quantidade;
+        private BigDecimal valorInvestido = BigDecimal.ZERO;
+        private BigDecimal valorProjetado = BigDecimal.ZERO;
+
+        void somar(ProjecaoPosicaoCarteira projecao) {
+            quantidade++;
+            valorInvestido = valorInvestido.add(projecao.valorInvestido());
+            valorProjetado = valorProjetado.add(projecao.valorProjetado());
+        }
+    }
+
+    /* SIMULA UM LOTE DE REQUISICOES CARREGANDO CATALOGO E HISTORICOS UMA UNICA VEZ,
+     * CALCULANDO EM PARALELO E PERSISTINDO TODAS AS SIMULACOES NA MESMA TRANSACAO */
+    @Transactional
+    public SimulacaoLoteResponse simularInvestimentoLote(List<SimulacaoRequest> requests) {
+
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Lote de simulações não pode ser vazio");
+        }
+
+        if (requests.size() > tamanhoMaximoLote) {
+            throw new IllegalArgumentException("Lote deve ter no máximo " + tamanhoMaximoLote + " simulações");
+        }
+
+        CatalogoIndexado catalogo = catalogoProdutos.obterCatalogo();
+
+        Map<Long, List<Investimento>> investimentosPorCliente = carregarInvestimentosPorCliente(requests);
+
+        ItemCalculado[] calculados = calcularLoteEmParalelo(requests, catalogo, investimentosPorCliente);
+
+        List<SimulacaoInvestimento> entidades = new ArrayList<>();
+        SimulacaoInvestimento[] entidadesPorItem = new SimulacaoInvestimento[calculados.length];
+
+        for (int i = 0; i < calculados.length; i++) {
+            ItemCalculado calculado = calculados[i];
+
+            if (calculado.erro() != null) {
+                continue;
+            }
+
+            SimulacaoInvestimento simulacao = simulacaoMapper.toEntity(
+                    calculado.request().clienteId(),
+                    calculado.produto().getId(),
+                    calculado.produto().getNome(),
+                    calculado.request().valor(),
+                    calculado.resultado()
             );
 
-            return rentabilidadeBase.multiply(taxaAjustada).divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP);
+            gravacaoAssincronaSimulacao.atribuirId(simulacao);
+            entidades.add(simulacao);
+            entidadesPorItem[i] = simulacao;
         }
 
-        return simuladorMercado.ajustarRentabilidadePorCenario(
-                rentabilidadeBase, cenario, produto.getTipoRentabilidade()
-        );
+        if (!entidades.isEmpty()) {
+            simulacaoRepository.persist(entidades);
+
+            entidades.stream()
+                    .collect(Collectors.groupingBy(SimulacaoInvestimento::getClienteId, LinkedHashMap::new, Collectors.toList()))
+                    .forEach((clienteId, simulacoes) -> historicoAlterado.fire(new HistoricoClienteAlteradoEvent(clienteId, simulacoes)));
+        }
+
+        LocalDateTime dataSimulacao = LocalDateTime.now();
+        List<ItemSimulacaoLote> itens = new ArrayList<>(calculados.length);
+
+        for (int i = 0; i < calculados.length; i++) {
+            ItemCalculado calculado = calculados[i];
+
+            if (calculado.erro() != null) {
+                itens.add(ItemSimulacaoLote.erro(i, calculado.erro()));
+                continue;
+            }
+
+            itens.add(ItemSimulacaoLote.sucesso(i, new SimulacaoResponse(
+                    produtoMapper.toResponse(calculado.produto()),
+                    calculado.resultado(),
+                    dataSimulacao,
+                    calculado.request().clienteId(),
+                    entidadesPorItem[i].getId()
+            )));
+        }
+
+        return SimulacaoLoteResponse.of(itens);
     }
 
-    private BigDecimal calcularValorFinal(BigDecimal valorInicial, BigDecimal rentabilidade,
-                                          PeriodoRentabilidade periodo, int prazoMeses) {
+    private Map<Long, List<Investimento>> carregarInvestimentosPorCliente(List<SimulacaoRequest> requests) {
+
+        Set<Long> clienteIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(SimulacaoRequest::clienteId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, List<Investimento>> investimentosPorCliente = new HashMap<>();
+        List<Long> bloco = new ArrayList<>(TAMANHO_BLOCO_CONSULTA);
+
+        for (Long clienteId : clienteIds) {
+            bloco.add(clienteId);
+
+            if (bloco.size() == TAMANHO_BLOCO_CONSULTA) {
+                agruparInvestimentos(investimentoRepository.findByClienteIds(bloco), investimentosPorCliente);
+                bloco.clear();
+            }
+        }
 
-        BigDecimal taxaDecimal = rentabilidade.divide(new BigDecimal("100"), 6, RoundingMode.HALF_UP);
+        if (!bloco.isEmpty()) {
+            agruparInvestimentos(investimentoRepository.findByClienteIds(bloco), investimentosPorCliente);
+        }
+
+        return investimentosPorCliente;
+    }
+
+    private void agruparInvestimentos(List<Investimento> investimentos, Map<Long, List<Investimento>> destino) {
+        for (Investimento investimento : investimentos) {
+            destino.computeIfAbsent(investimento.getClienteId(), k -> new ArrayList<>()).add(investimento);
+        }
+    }
 
-        switch (periodo) {
-            case AO_DIA:
+    private ItemCalculado[] calcularLoteEmParalelo(List<SimulacaoRequest> requests,
+                                                   CatalogoIndexado catalogo,
+                                                   Map<Long, List<Investimento>> investimentosPorCliente) {
 
-                int dias = prazoMeses * 30;
-                BigDecimal taxaDiaria = taxaDecimal.divide(new BigDecimal("365"), 8, RoundingMode.HALF_UP);
-                return valorInicial.multiply(
-                        BigDecimal.ONE.add(taxaDiaria).pow(dias)
-                );
+        ItemCalculado[] calculados = new ItemCalculado[requests.size()];
 
-            case AO_MES:
+        TabelaFatoresCapitalizacao.Fatores fatores = tabelaFatoresCapitalizacao.obterFatores(catalogo);
 
-                BigDecimal taxaMensal = taxaDecimal.divide(new BigDecimal("12"), 6, RoundingMode.HALF_UP);
-                return valorInicial.multiply(
-                        BigDecimal.ONE.add(taxaMensal).pow(prazoMeses)
-                );
+        calcularEmParalelo(calculados,
+                i -> calcularItemLote(requests.get(i), catalogo, fatores, investimentosPorCliente),
+                "lote de simulações");
 
-            case AO_ANO:
+        return calculados;
+    }
+
+    /* DIVIDE AS POSICOES DE destino EM UM BLOCO CONTIGUO POR THREAD DO EXECUTOR DE LOTE. O CATALOGO E A TABELA DE
+     * FATORES SAO LIDOS ANTES, NA THREAD DA REQUISICAO, E CHEGAM A calculo COMO PARAMETRO: OS BLOCOS NAO CONSULTAM
+     * O CatalogoProdutos E TODOS USAM A MESMA VERSAO */
+    private <T> void calcularEmParalelo(T[] destino, IntFunction<T> calculo, String descricao) {
+
+        int blocos = Math.min(Math.max(1, paralelismoLote), destino.length);
+        int tamanhoBloco = (destino.length + blocos - 1) / blocos;
 
-                double anos = prazoMeses / 12.0;
-                return valorInicial.multiply(
-                        BigDecimal.ONE.add(taxaDecimal).pow((int) Math.ceil(anos))
-                );
+        List<Callable<Void>> tarefas = new ArrayList<>(blocos);
 
-            case PERIODO_TOTAL:
+        for (int inicio = 0; inicio < destino.length; inicio += tamanhoBloco) {
+            int primeiro = inicio;
+            int ultimo = Math.min(inicio + tamanhoBloco, destino.length);
 
-                return valorInicial.multiply(BigDecimal.ONE.add(taxaDecimal));
+            tarefas.add(() -> {
+                for (int i = primeiro; i < ultimo; i++) {
+                    destino[i] = calculo.apply(i);
+                }
+                return null;
+            });
+        }
 
-            default:
-                return valorInicial.multiply(BigDecimal.ONE.add(taxaDecimal));
+        try {
+            for (Future<Void> tarefa : getExecutorLote().invokeAll(tarefas)) {
+                tarefa.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Processamento de " + descricao + " interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro ao processar " + descricao + ": " + e.getCause().getMessage(), e.getCause());
         }
     }
 
-    private boolean filtrarPorNome(Produto produto, String nome) {
-        if (produto == null) return false;
-        return nome == null || produto.getNome().equals(nome);
+    private ItemCalculado calcularItemLote(SimulacaoRequest request,
+                                           CatalogoIndexado catalogo,
+                                           TabelaFatoresCapitalizacao.Fatores fatores,
+                                           Map<Long, List<Investimento>> investimentosPorCliente) {
+
+        if (request == null) {
+            return ItemCalculado.falha(null, "Requisição de simulação não pode ser nula");
+        }
+
+        Set<ConstraintViolation<SimulacaoRequest>> violacoes = validator.validate(request);
+
+        if (!violacoes.isEmpty()) {
+            String mensagem = violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+
+            return ItemCalculado.falha(request, mensagem);
+        }
+
+        try {
+            validarRegrasNegocio(request);
+
+            List<Produto> produtos = encontrarProdutoMaisApropriado(request, catalogo);
+
+            List<Investimento> investimentos = investimentosPorCliente.getOrDefault(request.clienteId(), List.of());
+
+            Produto produto = selecionarProduto(produtos, investimentos, catalogo);
+
+            return new ItemCalculado(request, produto, calcularSimulacao(request, produto, catalogo, fatores), null);
+
+        } catch (RuntimeException e) {
+            return ItemCalculado.falha(request, e.getMessage());
+        }
     }
 
-    private boolean filtrarPorTipo(Produto produto, TipoProduto tipo) {
-        if (produto == null) return false;
-        return tipo == null || produto.getTipo().equals(tipo);
+    private ExecutorService getExecutorLote() {
+        ExecutorService executor = executorLote;
+
+        if (executor == null) {
+            synchronized (this) {
+                executor = executorLote;
+
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(Math.max(1, paralelismoLote),
+                            Thread.ofPlatform().name("simulacao-lote-", 0).daemon(true).factory());
+                    executorLote = executor;
+                }
+            }
+        }
+
+        return executor;
     }
 
-    private boolean filtrarPorTipoRentabilidade(Produto produto, TipoRentabilidade tipo) {
-        if (produto == null) return false;
-        return tipo == null || produto.getTipoRentabilidade().equals(tipo);
+    @PreDestroy
+    void encerrarExecutorLote() {
+        if (executorLote != null) {
+            executorLote.shutdown();
+        }
     }
 
-    private boolean filtrarPorIndice(Produto produto, Indice indice) {
-        if (produto == null) return false;
-        return indice == null || produto.getIndice().equals(indice);
+    private record ItemCalculado(SimulacaoRequest request, Produto produto, ResultadoSimulacao resultado, String erro) {
+
+        static ItemCalculado falha(SimulacaoRequest request, String erro) {
+            return new ItemCalculado(request, null, null, erro != null ? erro : "Erro ao processar simulação");
+        }
     }
 
-    private boolean filtrarPorLiquidez(Produto produto, Integer liquidez) {
-        if (produto == null) return false;
-        return liquidez == null || produto.getLiquidez().equals(liquidez);
+    private Produto selecionarProduto(List<Produto> produtos, List<Investimento> investimentos,
+                                      CatalogoIndexado catalogo) {
+
+        /* SO O PRIMEIRO PRODUTO E USADO, ENTAO O RANKING NAO PRECISA ORDENAR OS DEMAIS */
+        List<Produto> produtos_sugeridos = geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(
+                investimentos, produtos, 1, catalogo);
+
+        if (produtos_sugeridos.isEmpty()) {
+            produtos_sugeridos = produtos;
+        }
+
+        if (produtos_sugeridos.isEmpty()) {
+            throw new NenhumProdutoDisponivelException("Nenhum produto encontrado com os critérios informados");
+        }
+
+        return produtos_sugeridos.getFirst();
+    }
+
+    private List<Produto> encontrarProdutoMaisApropriado(SimulacaoRequest request, CatalogoIndexado catalogo) {
+
+        if (request.produtoId() != null) {
+            Produto produto = catalogo.buscarPorId(request.produtoId());
+
+            if (produto != null) {
+                return List.of(produto);
+            }
+        }
+
+        return filtrarCatalogo(request, catalogo);
     }
 
-    private boolean filtrarPorFgc(Produto produto, Boolean fgc) {
-        if (produto == null) return false;
-        return fgc == null || produto.getFgc().equals(fgc);
+    private List<Produto> filtrarCatalogo(SimulacaoRequest request, CatalogoIndexado catalogo) {
+
+        return catalogo.filtrar(
+                request.nome(),
+                request.tipoProduto(),
+                request.tipoRentabilidade(),
+                request.indice(),
+                request.liquidez(),
+                request.fgc(),
+                request.getPrazoEmDias()
+        );
     }
 
-    private boolean filtrarPorPrazoMinimo(Produto produto, int prazoDias) {
-        if (produto == null) return false;
-        return produto.getMinimoDiasInvestimento() <= prazoDias;
+    /* SO A SEMENTE INFORMADA TORNA O RESULTADO REPETIVEL; SEM ELA CADA CHAMADA SORTEIA DE NOVO */
+    private ResultadoSimulacao calcularSimulacao(SimulacaoRequest request, Produto produto, CatalogoIndexado catalogo,
+                                                 TabelaFatoresCapitalizacao.Fatores fatores) {
+        long semente = SementeSimulacao.resolver(request.semente());
+
+        if (request.semente() == null) {
+            return calcularSimulacao(request, produto, semente, new SplittableRandom(semente), fatores);
+        }
+
+        return cacheResultadoSimulacao.obter(catalogo.getVersao(), produto.getId(), request, semente,
+                () -> calcularSimulacao(request, produto, semente, new SplittableRandom(semente), fatores));
     }
 
-    private int compararProdutos(Produto p1, Produto p2) {
+    private ResultadoSimulacao calcularSimulacao(SimulacaoRequest request, Produto produto, long semente,
+                                                 RandomGenerator gerador, TabelaFatoresCapitalizacao.Fatores fatores) {
+        BigDecimal valorInicial = request.valor();
+        int prazoMeses = request.getPrazoEmMeses();
+
+        SimuladorMercado.CenarioMercado cenario = simuladorMercado.gerarCenario(produto.getTipo(), prazoMeses, gerador);
 
-        int risco1 = p1.getRisco().ordinal();
-        int risco2 = p2.getRisco().ordinal();
+        BigDecimal rentabilidadeEfetiva = calcularRentabilidadeEfetiva(produto, prazoMeses, cenario, gerador);
 
-        if (risco1 != risco2) {
-            return Integer.compare(risco1, risco2);
+        BigDecimal valorFinal = calcularValorFinal(valorInicial, rentabilidadeEfetiva,
+                produto.getPeriodoRentabilidade(), prazoMeses, fatores);
+
+        BigDecimal rendimento = valorFinal.subtract(valorInicial).setScale(2, RoundingMode.HALF_UP);
+
+        return new ResultadoSimulacao(
+                valorFinal.setScale(2, RoundingMode.HALF_UP),
+                rentabilidadeEfetiva.setScale(4, RoundingMode.HALF_UP),
+                request.prazoMeses(),
+                request.prazoDias(),
+                request.prazoAnos(),
+                valorInicial,
+                rendimento,
+                true,
+                cenario.getDescricao(),
+                semente,
+                calcularTributacao(produto, valorInicial, rendimento, request.getPrazoEmDias())
+        );
+    }
+
+    /* ETAPA LIQUIDA: IR E IOF SOBRE O RENDIMENTO BRUTO NO PRAZO EM DIAS DA SIMULACAO */
+    private TributacaoSimulacao calcularTributacao(Produto produto, BigDecimal valorInicial,
+                                                   BigDecimal rendimentoBruto, int prazoDias) {
+
+        if (tributacaoService.isIsento(produto.getTipo())) {
+            return new TributacaoSimulacao(true, prazoDias, rendimentoBruto, BigDecimal.ZERO, BigDecimal.ZERO,
+                    BigDecimal.ZERO, BigDecimal.ZERO, rendimentoBruto, valorInicial.add(rendimentoBruto));
+        }
+
+        TributacaoService.Tributacao tributacao = tributacaoService.calcular(rendimentoBruto, prazoDias);
+
+        return new TributacaoSimulacao(
+                false,
+                prazoDias,
+                rendimentoBruto,
+                tributacao.aliquotaIR(),
+                tributacao.valorIR(),
+                tributacao.aliquotaIOF(),
+                tributacao.valorIOF(),
+                tributacao.rendimentoLiquido(),
+                valorInicial.add(tributacao.rendimentoLiquido())
+        );
+    }
+
+    private BigDecimal calcularRentabilidadeEfetiva(Produto produto, int prazoMeses,
+                                                    SimuladorMercado.CenarioMercado cenario,
+                                                    RandomGenerator gerador) {
+        BigDecimal rentabilidadeBase = produto.getRentabilidade();
+
+        if (TipoRentabilidade.POS.equals(produto.getTipoRentabilidade()) &&
+                produto.getIndice() != null && !Indice.NENHUM.equals(produto.getIndice())) {
+
+            BigDecimal taxaIndiceSimulada = simuladorIndices.getTaxaSimulada(produto.getIndice(), prazoMeses, gerador);
+
+            BigDecimal taxaAjustada = simuladorMercado.ajustarRentabilidadePorCenario(
+                    taxaIndiceSimulada, cenario, produto.getTipoRentabilidade()
+            );
+
+            return rentabilidadeBase.multiply(taxaAjustada).divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP);
+        }
+
+        return simuladorMercado.ajustarRentabilidadePorCenario(
+                rentabilidadeBase, cenario, produto.getTipoRentabilidade()
+        );
+    }
+
+    private BigDecimal calcularValorFinal(BigDecimal valorInicial, BigDecimal rentabilidade,
+                                          PeriodoRentabilidade periodo, int prazoMeses,
+                                          TabelaFatoresCapitalizacao.Fatores fatores) {
+
+        BigDecimal taxaDecimal = paraTaxaDecimal(rentabilidade);
+
+        BigDecimal fator = fatores.buscarFator(taxaDecimal, periodo, prazoMeses);
+
+        if (fator == null) {
+            fator = motorCapitalizacao.calcularFatorNoPrazo(taxaDecimal, periodo, prazoMeses);
         }
 
-        return p2.getRentabilidade().compareTo(p1.getRentabilidade());
+        return valorInicial.multiply(fator);
+    }
+
+    private BigDecimal paraTaxaDecimal(BigDecimal rentabilidade) {
+        return rentabilidade.divide(new BigDecimal("100"), 6, RoundingMode.HALF_UP);
     }
 
     private SimulacaoInvestimento persistirSimulacao(SimulacaoRequest request,
@@ -274,7 +1111,7 @@ public class SimulacaoInvestimentoService {
                 resultado
         );
 
-        simulacaoRepository.persist(simulacao);
+        gravacaoAssincronaSimulacao.gravar(simulacao);
 
         return simulacao;
     }
@@ -307,16 +1144,25 @@ public class SimulacaoInvestimentoService {
     }
 
     private void validarRegrasNegocio(SimulacaoRequest request) {
+        validarRegrasNegocio(request, null);
+    }
+
+    /* prazoMaximoMeses NULO MANTEM O LIMITE PADRAO DE 240 MESES */
+    private void validarRegrasNegocio(SimulacaoRequest request, Integer prazoMaximoMeses) {
 
         if (request.liquidez() != null && request.liquidez() < -1) {
             throw new RuntimeException("Liquidez deve ser -1 (sem liquidos) ou o número de dias desejado.");
         }
 
         int prazoMeses = request.getPrazoEmMeses();
-        if (prazoMeses > 240) {
+        if (prazoMaximoMeses == null && prazoMeses > PRAZO_MAXIMO_MESES) {
             throw new RuntimeException("Prazo muito longo para simulação precisa. Máximo recomendado: 20 anos (240 meses)");
         }
 
+        if (prazoMaximoMeses != null && prazoMeses > prazoMaximoMeses) {
+            throw new RuntimeException("Prazo da linha do tempo não pode ser maior que " + prazoMaximoMeses + " meses");
+        }
+
         if (request.tipoRentabilidade() != null && request.indice() != null) {
             if (request.tipoRentabilidade() == TipoRentabilidade.PRE &&
                     request.indice() != Indice.NENHUM) {
@@ -0,0 +1,181 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.client.SimuladorIndices;
+import br.gov.caixa.api.investimentos.client.SimuladorMercado;
+import br.gov.caixa.api.investimentos.client.SimuladorMercado.CenarioEconomico;
+import br.gov.caixa.api.investimentos.dto.simulacao.ResultadoMonteCarlo;
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/* EXECUTA N CAMINHOS INDEPENDENTES DE CENARIO EM PARALELO (FORK/JOIN)
+ * USANDO APENAS PRIMITIVOS POR CAMINHO; O BIGDECIMAL FICA RESTRITO
+ * AO PREPARO DOS PARAMETROS E AO RESULTADO FINAL */
+@ApplicationScoped
+public class SimulacaoMonteCarloService {
+
+    private static final int CAMINHOS_POR_TAREFA = 1024;
+
+    @Inject
+    SimuladorMercado simuladorMercado;
+
+    @Inject
+    SimuladorIndices simuladorIndices;
+
+    @Inject
+    MotorCapitalizacao motorCapitalizacao;
+
+    /* COM A MESMA SEMENTE O RESULTADO SE REPETE: CADA SUBTAREFA RECEBE SEU GERADOR POR split() NA MESMA
+     * ORDEM, INDEPENDENTE DE QUAL THREAD DO POOL A EXECUTA */
+    public ResultadoMonteCarlo simular(BigDecimal valorInicial, int prazoMeses, Produto produto, int caminhos,
+                                       Long semente) {
+
+        long sementeUsada = SementeSimulacao.resolver(semente);
+
+        ParametrosCaminho parametros = prepararParametros(valorInicial, prazoMeses, produto);
+
+        double[] valoresFinais = new double[caminhos];
+
+        ForkJoinPool.commonPool().invoke(
+                new TarefaCaminhos(parametros, valoresFinais, 0, caminhos, new SplittableRandom(sementeUsada)));
+
+        Arrays.sort(valoresFinais);
+
+        double soma = 0.0;
+        for (double valor : valoresFinais) {
+            soma += valor;
+        }
+
+        return new ResultadoMonteCarlo(
+                valorInicial,
+                prazoMeses,
+                caminhos,
+                paraMoeda(soma / caminhos),
+                paraMoeda(percentil(valoresFinais, 5)),
+                paraMoeda(percentil(valoresFinais, 25)),
+                paraMoeda(percentil(valoresFinais, 50)),
+                paraMoeda(percentil(valoresFinais, 75)),
+                paraMoeda(percentil(valoresFinais, 95)),
+                sementeUsada
+        );
+    }
+
+    private ParametrosCaminho prepararParametros(BigDecimal valorInicial, int prazoMeses, Produto produto) {
+
+        boolean indexado = TipoRentabilidade.POS.equals(produto.getTipoRentabilidade()) &&
+                produto.getIndice() != null && !Indice.NENHUM.equals(produto.getIndice());
+
+        /* PARA PRODUTOS INDEXADOS O AJUSTE DO CENARIO INCIDE SOBRE A TAXA DO INDICE;
+         * PARA OS DEMAIS, A RENTABILIDADE AJUSTADA POR CENARIO JA E O RESULTADO FINAL */
+        BigDecimal baseAjuste = indexado ? BigDecimal.ONE : produto.getRentabilidade();
+
+        CenarioEconomico[] cenarios = CenarioEconomico.values();
+        double[] fatorPorCenario = new double[cenarios.length];
+
+        for (CenarioEconomico cenario : cenarios) {
+            fatorPorCenario[cenario.ordinal()] = simuladorMercado.calcularRentabilidadeNoCenario(
+                    baseAjuste, produto.getTipo(), cenario, produto.getTipoRentabilidade()).doubleValue();
+        }
+
+        return new ParametrosCaminho(
+                valorInicial.doubleValue(),
+                prazoMeses,
+                indexado ? produto.getIndice() : null,
+                produto.getRentabilidade().doubleValue(),
+                fatorPorCenario,
+                produto.getPeriodoRentabilidade()
+        );
+    }
+
+    private double simularCaminho(ParametrosCaminho parametros, SplittableRandom gerador) {
+
+        CenarioEconomico cenario = simuladorMercado.sortearCenarioEconomico(parametros.prazoMeses(), gerador);
+
+        double rentabilidade = parametros.fatorPorCenario()[cenario.ordinal()];
+
+        if (parametros.indice() != null) {
+            double taxaIndice = simuladorIndices.sortearTaxa(parametros.indice(), parametros.prazoMeses(), gerador);
+            rentabilidade = parametros.rentabilidadeBase() * taxaIndice * rentabilidade / 100.0;
+        }
+
+        return parametros.valorInicial() *
+                fatorCapitalizacao(rentabilidade / 100.0, parametros.periodo(), parametros.prazoMeses());
+    }
+
+    private double fatorCapitalizacao(double taxa, PeriodoRentabilidade periodo, int prazoMeses) {
+        return switch (periodo) {
+            case AO_DIA -> motorCapitalizacao.calcularFator(taxa / 365.0, prazoMeses * 30);
+            case AO_MES -> motorCapitalizacao.calcularFator(taxa / 12.0, prazoMeses);
+            case AO_ANO -> motorCapitalizacao.calcularFator(taxa, Math.ceil(prazoMeses / 12.0));
+            case PERIODO_TOTAL -> 1.0 + taxa;
+        };
+    }
+
+    /* INTERPOLACAO LINEAR ENTRE AS POSICOES VIZINHAS DO VETOR ORDENADO */
+    static double percentil(double[] ordenados, double percentual) {
+
+        double posicao = percentual / 100.0 * (ordenados.length - 1);
+        int inferior = (int) Math.floor(posicao);
+        int superior = (int) Math.ceil(posicao);
+
+        return ordenados[inferior] + (ordenados[superior] - ordenados[inferior]) * (posicao - inferior);
+    }
+
+    private BigDecimal paraMoeda(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record ParametrosCaminho(double valorInicial,
+                                     int prazoMeses,
+                                     Indice indice,
+                                     double rentabilidadeBase,
+                                     double[] fatorPorCenario,
+                                     PeriodoRentabilidade periodo) {
+    }
+
+    private final class TarefaCaminhos extends RecursiveAction {
+
+        private final ParametrosCaminho parametros;
+        private final double[] valoresFinais;
+        private final int inicio;
+        private final int fim;
+        private final SplittableRandom gerador;
+
+        TarefaCaminhos(ParametrosCaminho parametros, double[] valoresFinais,
+                       int inicio, int fim, SplittableRandom gerador) {
+            this.parametros = parametros;
+            this.valoresFinais = valoresFinais;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.gerador = gerador;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (fim - inicio <= CAMINHOS_POR_TAREFA) {
+                for (int i = inicio; i < fim; i++) {
+                    valoresFinais[i] = simularCaminho(parametros, gerador);
+                }
+                return;
+            }
+
+            int meio = (inicio + fim) >>> 1;
+
+            invokeAll(
+                    new TarefaCaminhos(parametros, valoresFinais, inicio, meio, gerador.split()),
+                    new TarefaCaminhos(parametros, valoresFinais, meio, fim, gerador)
+            );
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.client.SimuladorMercado;
+import br.gov.caixa.api.investimentos.client.SimuladorMercado.CenarioEconomico;
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoProdutos;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/* FATORES DE CAPITALIZACAO PRE-CALCULADOS PARA OS PRODUTOS DE TAXA FIXA (NAO INDEXADOS),
+ * UM VETOR DE 0 A 600 MESES POR TAXA EFETIVA DE CADA CENARIO ECONOMICO.
+ * A TABELA ACOMPANHA A VERSAO DO CatalogoProdutos: E RECONSTRUIDA POR INTEIRO NO PRIMEIRO ACESSO
+ * APOS UMA ESCRITA NO CATALOGO E SUBSTITUIDA DE UMA VEZ, DE FORMA QUE LEITORES NUNCA VEEM UMA TABELA PARCIAL.
+ * CALCULOS EM PARALELO RECEBEM OS Fatores DE UM CATALOGO JA CARREGADO (obterFatores), SEM CONSULTAR O CATALOGO */
+@ApplicationScoped
+public class TabelaFatoresCapitalizacao {
+
+    static final int PRAZO_MAXIMO_MESES = 600;
+
+    @Inject
+    CatalogoProdutos catalogoProdutos;
+
+    @Inject
+    SimuladorMercado simuladorMercado;
+
+    @Inject
+    MotorCapitalizacao motorCapitalizacao;
+
+    private volatile Fatores tabela;
+
+    /* RETORNA NULL QUANDO O PRAZO OU A TAXA NAO ESTAO NA TABELA */
+    public BigDecimal buscarFator(BigDecimal taxaDecimal, PeriodoRentabilidade periodo, int prazoMeses) {
+        return obterFatores(catalogoProdutos.obterCatalogo()).buscarFator(taxaDecimal, periodo, prazoMeses);
+    }
+
+    int totalTaxas() {
+        return obterFatores(catalogoProdutos.obterCatalogo()).fatores.size();
+    }
+
+    /* SO UMA VERSAO MAIS NOVA QUE A GUARDADA SUBSTITUI A TABELA COMPARTILHADA: UM CATALOGO ANTIGO RECEBIDO POR
+     * PARAMETRO GANHA FATORES PROPRIOS */
+    public Fatores obterFatores(CatalogoIndexado catalogo) {
+        Fatores atual = tabela;
+
+        if (atual != null && atual.versao == catalogo.getVersao()) {
+            return atual;
+        }
+
+        synchronized (this) {
+            atual = tabela;
+
+            if (atual != null && atual.versao == catalogo.getVersao()) {
+                return atual;
+            }
+
+            Fatores novos = new Fatores(catalogo.getVersao(), construirFatores(catalogo));
+
+            if (atual == null || atual.versao < catalogo.getVersao()) {
+                tabela = novos;
+            }
+
+            return novos;
+        }
+    }
+
+    private Map<ChaveFator, BigDecimal[]> construirFatores(CatalogoIndexado catalogo) {
+
+        Map<ChaveFator, BigDecimal[]> fatores = new HashMap<>();
+
+        for (Produto produto : catalogo.listarTodos()) {
+
+            if (!isTaxaFixa(produto)) {
+                continue;
+            }
+
+            for (CenarioEconomico cenario : CenarioEconomico.values()) {
+                BigDecimal rentabilidadeEfetiva = simuladorMercado.calcularRentabilidadeNoCenario(
+                        produto.getRentabilidade(), produto.getTipo(), cenario, produto.getTipoRentabilidade());
+
+                BigDecimal taxaDecimal = rentabilidadeEfetiva.divide(new BigDecimal("100"), 6, RoundingMode.HALF_UP);
+
+                fatores.computeIfAbsent(
+                        new ChaveFator(taxaDecimal.stripTrailingZeros(), produto.getPeriodoRentabilidade()),
+                        chave -> motorCapitalizacao.calcularFatoresPorPrazo(taxaDecimal, chave.periodo(), PRAZO_MAXIMO_MESES)
+                );
+            }
+        }
+
+        return Map.copyOf(fatores);
+    }
+
+    private boolean isTaxaFixa(Produto produto) {
+        if (produto == null || produto.getRentabilidade() == null || produto.getTipo() == null ||
+                produto.getPeriodoRentabilidade() == null ||
+                produto.getPeriodoRentabilidade() == PeriodoRentabilidade.PERIODO_TOTAL) {
+            return false;
+        }
+
+        return !(TipoRentabilidade.POS.equals(produto.getTipoRentabilidade()) &&
+                produto.getIndice() != null && !Indice.NENHUM.equals(produto.getIndice()));
+    }
+
+    private record ChaveFator(BigDecimal taxaDecimal, PeriodoRentabilidade periodo) {
+    }
+
+    /* FATORES DE UMA VERSAO DO CATALOGO, IMUTAVEIS */
+    public static final class Fatores {
+
+        private final long versao;
+        private final Map<ChaveFator, BigDecimal[]> fatores;
+
+        private Fatores(long versao, Map<ChaveFator, BigDecimal[]> fatores) {
+            this.versao = versao;
+            this.fatores = fatores;
+        }
+
+        /* RETORNA NULL QUANDO O PRAZO OU A TAXA NAO ESTAO NA TABELA */
+        public BigDecimal buscarFator(BigDecimal taxaDecimal, PeriodoRentabilidade periodo, int prazoMeses) {
+
+            if (taxaDecimal == null || periodo == null || periodo == PeriodoRentabilidade.PERIODO_TOTAL ||
+                    prazoMeses < 1 || prazoMeses > PRAZO_MAXIMO_MESES) {
+                return null;
+            }
+
+            BigDecimal[] fatoresPorPrazo = fatores.get(new ChaveFator(taxaDecimal.stripTrailingZeros(), periodo));
+
+            return fatoresPorPrazo != null ? fatoresPorPrazo[prazoMeses] : null;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.simulacao.TarefaSimulacaoResponse;
+import br.gov.caixa.api.investimentos.enums.simulacao.StatusTarefaSimulacao;
+import br.gov.caixa.api.investimentos.enums.simulacao.TipoTarefaSimulacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/* ESTADO DE UMA TAREFA ASSINCRONA DE SIMULACAO. SO A THREAD EXECUTORA ESCREVE; AS CONSULTAS LEEM OS CAMPOS
+ * VOLATEIS, E O STATUS E SEMPRE O ULTIMO CAMPO GRAVADO EM CADA TRANSICAO */
+public final class TarefaSimulacao {
+
+    private final String id;
+    private final TipoTarefaSimulacao tipo;
+    private final Set<Long> clienteIds;
+    private final int totalItens;
+    private final LocalDateTime dataCriacao;
+
+    private volatile StatusTarefaSimulacao status = StatusTarefaSimulacao.PENDENTE;
+    private volatile int itensProcessados;
+    private volatile LocalDateTime dataInicio;
+    private volatile LocalDateTime dataConclusao;
+    private volatile Object resultado;
+    private volatile String erro;
+
+    TarefaSimulacao(TipoTarefaSimulacao tipo, Set<Long> clienteIds, int totalItens) {
+        this.id = UUID.randomUUID().toString();
+        this.tipo = tipo;
+        this.clienteIds = Set.copyOf(clienteIds);
+        this.totalItens = totalItens;
+        this.dataCriacao = LocalDateTime.now();
+    }
+
+    void iniciar() {
+        dataInicio = LocalDateTime.now();
+        status = StatusTarefaSimulacao.EXECUTANDO;
+    }
+
+    void avancar(int itens) {
+        itensProcessados += itens;
+    }
+
+    void concluir(Object resultadoFinal) {
+        resultado = resultadoFinal;
+        itensProcessados = totalItens;
+        dataConclusao = LocalDateTime.now();
+        status = StatusTarefaSimulacao.CONCLUIDA;
+    }
+
+    void falhar(String mensagem) {
+        erro = mensagem;
+        dataConclusao = LocalDateTime.now();
+        status = StatusTarefaSimulacao.FALHOU;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public StatusTarefaSimulacao getStatus() {
+        return status;
+    }
+
+    /* CLIENTES DAS REQUISICOES DA TAREFA; QUEM CONSULTA PRECISA TER ACESSO A TODOS ELES */
+    public Set<Long> getClienteIds() {
+        return clienteIds;
+    }
+
+    /* NULL ENQUANTO A TAREFA NAO ESTIVER CONCLUIDA */
+    public Object getResultado() {
+        return status == StatusTarefaSimulacao.CONCLUIDA ? resultado : null;
+    }
+
+    int getTotalItens() {
+        return totalItens;
+    }
+
+    LocalDateTime getDataConclusao() {
+        return dataConclusao;
+    }
+
+    public TarefaSimulacaoResponse getSituacao() {
+        StatusTarefaSimulacao statusAtual = status;
+        int processados = itensProcessados;
+
+        return new TarefaSimulacaoResponse(
+                id,
+                tipo,
+                statusAtual,
+                totalItens,
+                processados,
+                totalItens > 0
+                        ? new BigDecimal(processados * 100L).divide(new BigDecimal(totalItens), 2, RoundingMode.HALF_UP)
+                        : BigDecimal.ZERO,
+                dataCriacao,
+                dataInicio,
+                dataConclusao,
+                erro
+        );
+    }
+}
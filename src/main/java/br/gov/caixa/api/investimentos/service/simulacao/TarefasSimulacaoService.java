@@ -0,0 +1,282 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.simulacao.ItemSimulacaoLote;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoLoteResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMonteCarloResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoRequest;
+import br.gov.caixa.api.investimentos.enums.simulacao.TipoTarefaSimulacao;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/* TAREFAS DE SIMULACAO QUE NAO CABEM NO TEMPO DE UMA REQUISICAO HTTP (LOTES ACIMA DO LIMITE SINCRONO E
+ * MONTE CARLO COM MUITOS CAMINHOS). UM POOL LIMITADO, COM FILA LIMITADA, EXECUTA AS TAREFAS; FILA CHEIA
+ * RESPONDE 503. ESTADO E RESULTADOS FICAM EM MEMORIA ATE O FIM DA RETENCAO APOS A CONCLUSAO E SE PERDEM NUM
+ * REINICIO: A EXECUCAO VIVE NAS THREADS DESTE PROCESSO E NAO E RETOMADA, ENTAO UMA TABELA DE TAREFAS GUARDARIA
+ * SITUACOES PENDENTE/EXECUTANDO QUE NINGUEM CONCLUIRIA; AS SIMULACOES DOS BLOCOS JA CONCLUIDOS FICAM GRAVADAS EM
+ * simulacao_investimento E O RESULTADO E DESCARTAVEL. APOS UM REINICIO A CONSULTA RESPONDE 404 E O CLIENTE SUBMETE
+ * DE NOVO. O TOTAL DE ITENS RETIDOS E LIMITADO E, ACIMA DO LIMITE, A SUBMISSAO TAMBEM RESPONDE 503.
+ * O LOTE E CALCULADO EM BLOCOS PELO SimulacaoInvestimentoService, CADA BLOCO NA PROPRIA TRANSACAO */
+@ApplicationScoped
+public class TarefasSimulacaoService {
+
+    @Inject
+    SimulacaoInvestimentoService simulacaoInvestimentoService;
+
+    @ConfigProperty(name = "simulacao.tarefas.executores", defaultValue = "2")
+    int executores;
+
+    @ConfigProperty(name = "simulacao.tarefas.capacidade-fila", defaultValue = "100")
+    int capacidadeFila;
+
+    @ConfigProperty(name = "simulacao.tarefas.tamanho-bloco", defaultValue = "1000")
+    int tamanhoBloco;
+
+    @ConfigProperty(name = "simulacao.tarefas.lote.tamanho-maximo", defaultValue = "200000")
+    int tamanhoMaximoLote;
+
+    @ConfigProperty(name = "simulacao.tarefas.montecarlo.caminhos-maximo", defaultValue = "1000000")
+    int caminhosMaximoMonteCarlo;
+
+    @ConfigProperty(name = "simulacao.tarefas.retencao-minutos", defaultValue = "60")
+    long retencaoMinutos;
+
+    @ConfigProperty(name = "simulacao.tarefas.itens-retidos-maximo", defaultValue = "400000")
+    long itensRetidosMaximo;
+
+    @ConfigProperty(name = "simulacao.tarefas.tentativas-bloco", defaultValue = "3")
+    int tentativasPorBloco;
+
+    @ConfigProperty(name = "simulacao.tarefas.espera-tentativa-ms", defaultValue = "200")
+    long esperaEntreTentativasMs;
+
+    private final Map<String, TarefaSimulacao> tarefas = new ConcurrentHashMap<>();
+
+    /* SOMA DOS ITENS DAS TAREFAS NO MAPA, DA SUBMISSAO ATE O DESCARTE */
+    private final AtomicLong itensRetidos = new AtomicLong();
+
+    private volatile ExecutorService executor;
+
+    public TarefaSimulacao submeterLote(List<SimulacaoRequest> requests) {
+
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Lote de simulações não pode ser vazio");
+        }
+
+        if (requests.size() > tamanhoMaximoLote) {
+            throw new IllegalArgumentException("Lote deve ter no máximo " + tamanhoMaximoLote + " simulações");
+        }
+
+        List<SimulacaoRequest> copia = new ArrayList<>(requests);
+
+        Set<Long> clienteIds = copia.stream()
+                .filter(Objects::nonNull)
+                .map(SimulacaoRequest::clienteId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (clienteIds.isEmpty()) {
+            throw new IllegalArgumentException("Lote de simulações não pode ser submetido sem clienteId");
+        }
+
+        TarefaSimulacao tarefa = new TarefaSimulacao(TipoTarefaSimulacao.LOTE, clienteIds, copia.size());
+
+        return submeter(tarefa, () -> executarLote(tarefa, copia));
+    }
+
+    public TarefaSimulacao submeterMonteCarlo(SimulacaoRequest request, Integer caminhos) {
+
+        if (caminhos != null && (caminhos < 1 || caminhos > caminhosMaximoMonteCarlo)) {
+            throw new IllegalArgumentException("Número de caminhos deve estar entre 1 e " + caminhosMaximoMonteCarlo);
+        }
+
+        TarefaSimulacao tarefa = new TarefaSimulacao(TipoTarefaSimulacao.MONTECARLO, Set.of(request.clienteId()), 1);
+
+        return submeter(tarefa, () -> tarefa.concluir(calcularMonteCarlo(request, caminhos)));
+    }
+
+    /* A THREAD DO EXECUTOR NAO TEM CONTEXTO DE REQUISICAO: O HISTORICO DO CLIENTE (E A RECARGA DO CATALOGO) SO
+     * PODEM SER LIDOS COM UM CONTEXTO ATIVO. O LOTE NAO PRECISA DISSO PORQUE CADA BLOCO JA RODA EM TRANSACAO */
+    @ActivateRequestContext
+    SimulacaoMonteCarloResponse calcularMonteCarlo(SimulacaoRequest request, Integer caminhos) {
+        return simulacaoInvestimentoService.simularInvestimentoMonteCarlo(request, caminhos, caminhosMaximoMonteCarlo);
+    }
+
+    public TarefaSimulacao buscar(String id) {
+
+        TarefaSimulacao tarefa = id != null ? tarefas.get(id) : null;
+
+        if (tarefa == null || isExpirada(tarefa, LocalDateTime.now().minusMinutes(retencaoMinutos))) {
+            throw new RuntimeException("Tarefa de simulação não encontrada com ID: " + id);
+        }
+
+        return tarefa;
+    }
+
+    private TarefaSimulacao submeter(TarefaSimulacao tarefa, Runnable execucao) {
+
+        removerExpiradas();
+        reservarItens(tarefa);
+
+        tarefas.put(tarefa.getId(), tarefa);
+
+        try {
+            getExecutor().execute(() -> executar(tarefa, execucao));
+        } catch (RejectedExecutionException e) {
+            descartar(tarefa);
+            throw new WebApplicationException("Fila de tarefas de simulação cheia, tente novamente mais tarde",
+                    Response.Status.SERVICE_UNAVAILABLE);
+        }
+
+        return tarefa;
+    }
+
+    /* O RESULTADO DE UM LOTE TEM UM ITEM POR REQUISICAO; A RESERVA E FEITA ANTES DO CALCULO PARA QUE TAREFAS
+     * PENDENTES NAO ULTRAPASSEM O LIMITE QUANDO CONCLUIREM */
+    private void reservarItens(TarefaSimulacao tarefa) {
+        long itens = tarefa.getTotalItens();
+        long atual;
+
+        do {
+            atual = itensRetidos.get();
+
+            if (atual + itens > itensRetidosMaximo) {
+                throw new WebApplicationException(
+                        "Limite de resultados de tarefas de simulação em memória atingido, tente novamente mais tarde",
+                        Response.Status.SERVICE_UNAVAILABLE);
+            }
+        } while (!itensRetidos.compareAndSet(atual, atual + itens));
+    }
+
+    private void descartar(TarefaSimulacao tarefa) {
+        if (tarefas.remove(tarefa.getId(), tarefa)) {
+            itensRetidos.addAndGet(-tarefa.getTotalItens());
+        }
+    }
+
+    private void executar(TarefaSimulacao tarefa, Runnable execucao) {
+
+        tarefa.iniciar();
+
+        try {
+            execucao.run();
+        } catch (RuntimeException e) {
+            tarefa.falhar(mensagemDaCausa(e));
+        }
+    }
+
+    /* OS INTERCEPTADORES EMBRULHAM A FALHA ORIGINAL (EX.: ROLLBACK); A MENSAGEM UTIL E A DA CAUSA MAIS INTERNA */
+    private String mensagemDaCausa(Throwable erro) {
+        Throwable causa = erro;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+    }
+
+    /* OS INDICES DE CADA BLOCO SAO DESLOCADOS PARA A POSICAO DA REQUISICAO NO LOTE ORIGINAL */
+    private void executarLote(TarefaSimulacao tarefa, List<SimulacaoRequest> requests) {
+
+        int tamanho = Math.max(1, tamanhoBloco);
+        List<ItemSimulacaoLote> itens = new ArrayList<>(requests.size());
+
+        for (int inicio = 0; inicio < requests.size(); inicio += tamanho) {
+            List<SimulacaoRequest> bloco = requests.subList(inicio, Math.min(inicio + tamanho, requests.size()));
+
+            SimulacaoLoteResponse parcial = calcularBloco(bloco);
+
+            for (ItemSimulacaoLote item : parcial.itens()) {
+                itens.add(new ItemSimulacaoLote(item.indice() + inicio, item.sucesso(), item.simulacao(), item.erro()));
+            }
+
+            tarefa.avancar(bloco.size());
+        }
+
+        tarefa.concluir(SimulacaoLoteResponse.of(itens));
+    }
+
+    /* ERROS DE VALIDACAO VOLTAM POR ITEM; UMA EXCECAO AQUI E FALHA DE INFRAESTRUTURA (EX.: BANCO OCUPADO PELA
+     * ESCRITA DE OUTRA REQUISICAO), E A TRANSACAO DO BLOCO FOI DESFEITA, ENTAO O BLOCO PODE SER REPETIDO */
+    private SimulacaoLoteResponse calcularBloco(List<SimulacaoRequest> bloco) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return simulacaoInvestimentoService.simularInvestimentoLote(bloco);
+            } catch (RuntimeException e) {
+                if (tentativa >= Math.max(1, tentativasPorBloco)) {
+                    throw e;
+                }
+                aguardarNovaTentativa(tentativa);
+            }
+        }
+    }
+
+    private void aguardarNovaTentativa(int tentativa) {
+        try {
+            Thread.sleep(esperaEntreTentativasMs * tentativa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tarefa de simulação interrompida", e);
+        }
+    }
+
+    private void removerExpiradas() {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(retencaoMinutos);
+
+        for (TarefaSimulacao tarefa : tarefas.values()) {
+            if (isExpirada(tarefa, limite)) {
+                descartar(tarefa);
+            }
+        }
+    }
+
+    private boolean isExpirada(TarefaSimulacao tarefa, LocalDateTime limite) {
+        return tarefa.getStatus().isFinalizada() && tarefa.getDataConclusao().isBefore(limite);
+    }
+
+    private ExecutorService getExecutor() {
+        ExecutorService executorAtual = executor;
+
+        if (executorAtual == null) {
+            synchronized (this) {
+                executorAtual = executor;
+
+                if (executorAtual == null) {
+                    int threads = Math.max(1, executores);
+                    executorAtual = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                            new ArrayBlockingQueue<>(Math.max(1, capacidadeFila)),
+                            Thread.ofPlatform().name("simulacao-tarefa-", 0).daemon(true).factory());
+                    executor = executorAtual;
+                }
+            }
+        }
+
+        return executorAtual;
+    }
+
+    @PreDestroy
+    void encerrarExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
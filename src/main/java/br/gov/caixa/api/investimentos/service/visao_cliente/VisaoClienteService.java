@@ -0,0 +1,79 @@
+package br.gov.caixa.api.investimentos.service.visao_cliente;
+
+import br.gov.caixa.api.investimentos.dto.perfil_risco.PerfilRiscoResponse;
+import br.gov.caixa.api.investimentos.dto.visao_cliente.VisaoClienteResponse;
+import br.gov.caixa.api.investimentos.mapper.ProdutoMapper;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.perfil_risco.PerfilRiscoPrecalculado;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import br.gov.caixa.api.investimentos.repository.perfil_risco.IPerfilRiscoPrecalculadoRepository;
+import br.gov.caixa.api.investimentos.service.cliente.ClienteService;
+import br.gov.caixa.api.investimentos.service.perfil_risco.PerfilRiscoService;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.ProdutoRecomendadoService;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.RecomendacaoClienteService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/* PERFIL DE RISCO E PRODUTOS RECOMENDADOS DO CLIENTE NUMA UNICA CONSULTA, PARA A TELA QUE MOSTRA OS DOIS. O CLIENTE
+ * E VALIDADO E O PRE-CALCULO DO DIA E PROCURADO UMA VEZ; SEM PRE-CALCULO, A MESMA RECOMENDACAO COMPLETA DO CLIENTE
+ * DEFINE O PERFIL E, COMBINADA COM A COOCORRENCIA, OS PRODUTOS. O RESULTADO E O MESMO DAS DUAS CONSULTAS SEPARADAS */
+@ApplicationScoped
+public class VisaoClienteService {
+
+    @Inject
+    ClienteService clienteService;
+
+    @Inject
+    IPerfilRiscoPrecalculadoRepository precalculadoRepository;
+
+    @Inject
+    RecomendacaoClienteService recomendacaoClienteService;
+
+    @Inject
+    PerfilRiscoService perfilRiscoService;
+
+    @Inject
+    ProdutoRecomendadoService produtoRecomendadoService;
+
+    @Inject
+    ProdutoMapper produtoMapper;
+
+    /* limite NULO DEVOLVE TODOS OS PRODUTOS RECOMENDADOS */
+    public VisaoClienteResponse buscarVisao(Long clienteId, Integer limite) {
+        if (clienteId == null) {
+            throw new IllegalArgumentException("Cliente ID não pode ser nulo");
+        }
+        if (limite != null && limite < 1) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
+
+        clienteService.buscarPorId(clienteId);
+
+        int quantidade = limite != null ? limite : Integer.MAX_VALUE;
+        PerfilRiscoPrecalculado precalculado = precalculadoRepository.findByClienteId(clienteId, LocalDate.now());
+
+        if (precalculado != null) {
+            PerfilRiscoResponse perfil = perfilRiscoService.lerPrecalculado(clienteId, precalculado);
+
+            List<Produto> produtos = produtoRecomendadoService.listarPrecalculados(precalculado, quantidade);
+
+            if (produtos != null) {
+                return new VisaoClienteResponse(clienteId, perfil, produtoMapper.toResponseList(produtos));
+            }
+        }
+
+        ResultadoRecomendacao recomendacao = recomendacaoClienteService.recomendar(clienteId);
+
+        /* O PERFIL VEM ANTES DOS PRODUTOS: SEM HISTORICO, determinarPerfil LANCA A EXCECAO DO PERFIL DE RISCO */
+        PerfilRiscoResponse perfil = perfilRiscoService.determinarPerfil(clienteId, recomendacao);
+
+        return new VisaoClienteResponse(
+                clienteId,
+                perfil,
+                produtoMapper.toResponseList(produtoRecomendadoService.listarRecomendados(clienteId, recomendacao, quantidade))
+        );
+    }
+}
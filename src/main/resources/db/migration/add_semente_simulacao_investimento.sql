@@ -0,0 +1,8 @@
+-- Script para inclusão da semente dos sorteios na tabela simulacao_investimento
+-- Compatível com SQLite (banco configurado no projeto); aplicar uma vez, depois de create_simulacao_investimento.sql
+
+ALTER TABLE simulacao_investimento ADD COLUMN semente INTEGER;
+
+-- Comentários sobre a estrutura
+-- semente: Semente dos sorteios de cenário e índices usada na simulação; reenviada na requisição, reproduz o resultado
+-- Nula nas simulações gravadas antes da inclusão da coluna
@@ -0,0 +1,20 @@
+-- Script para criação da tabela de perfis de risco e recomendações pré-calculados
+-- Compatível com SQLite (banco configurado no projeto)
+
+CREATE TABLE IF NOT EXISTS perfil_risco_precalculado (
+    cliente_id INTEGER PRIMARY KEY,
+    perfil VARCHAR(20),
+    pontuacao INTEGER,
+    produto_ids TEXT NOT NULL DEFAULT '',
+    data_referencia DATE NOT NULL,
+    data_calculo TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Comentários sobre a estrutura
+-- cliente_id: ID do cliente (uma linha por cliente)
+-- perfil: CONSERVADOR, MODERADO ou AGRESSIVO; nulo quando o cliente não tem histórico
+-- pontuacao: Pontuação do perfil (0 a 100)
+-- produto_ids: IDs dos produtos recomendados, em ordem, separados por vírgula
+-- data_referencia: Dia em que o decaimento do histórico foi aplicado; a linha só é usada nesse dia
+-- data_calculo: Quando o pré-cálculo gravou a linha
+-- Linhas são removidas quando o histórico do cliente muda e todas quando o catálogo de produtos muda
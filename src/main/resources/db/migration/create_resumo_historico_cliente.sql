@@ -0,0 +1,26 @@
+-- Script para criação da tabela de resumos do histórico dos clientes
+-- Compatível com SQLite (banco configurado no projeto)
+
+CREATE TABLE IF NOT EXISTS resumo_historico_cliente (
+    cliente_id INTEGER PRIMARY KEY,
+    assinatura_catalogo INTEGER NOT NULL,
+    data_referencia DATE NOT NULL,
+    investimentos TEXT NOT NULL DEFAULT '',
+    simulacoes TEXT NOT NULL DEFAULT '',
+    ids_investimentos TEXT NOT NULL DEFAULT '',
+    ids_simulacoes TEXT NOT NULL DEFAULT '',
+    data_atualizacao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Comentários sobre a estrutura
+-- cliente_id: ID do cliente (uma linha por cliente)
+-- assinatura_catalogo: Assinatura das características do catálogo sobre as quais as somas foram feitas
+-- data_referencia: Dia de referência do decaimento das somas
+-- investimentos: Somas por produto dos investimentos, na ordem de aparição ("produtoId:comDecaimento:semDecaimento" separados por ";")
+--   seguidas de "|" e dos investimentos datados, truncados na leitura ("produtoId:pesoBase:dia" separados por ";")
+-- simulacoes: Somas por produto das simulações, no mesmo formato
+-- ids_investimentos: IDs dos investimentos mais recentes já somados, separados por vírgula
+-- ids_simulacoes: IDs das simulações mais recentes já somadas, separados por vírgula
+-- data_atualizacao: Última gravação da linha
+-- A linha é criada na primeira leitura do histórico do cliente e atualizada na mesma transação que grava novas entradas;
+-- todas são removidas quando o catálogo de produtos muda
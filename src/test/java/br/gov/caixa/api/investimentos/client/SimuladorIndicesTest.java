@@ -5,7 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.SplittableRandom;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -34,6 +36,16 @@ class SimuladorIndicesTest {
         assertNotNull(simulador.getTaxaSimulada(Indice.NENHUM, 1).subtract(simulador.getTaxaSimulada(Indice.NENHUM, 1)).add(BigDecimal.ZERO)); // NENHUM base
     }
 
+    @Test
+    void deveRepetirTaxaSimuladaComMesmaSemente() {
+        for (Indice indice : Indice.values()) {
+            BigDecimal primeira = simulador.getTaxaSimulada(indice, 24, new SplittableRandom(42L));
+            BigDecimal segunda = simulador.getTaxaSimulada(indice, 24, new SplittableRandom(42L));
+
+            assertEquals(primeira, segunda);
+        }
+    }
+
     @Test
     void deveRetornarCenarioSimuladoComDescricaoCorreta() {
         BigDecimal taxa = simulador.getTaxaSimulada(Indice.SELIC, 6);
@@ -10,6 +10,7 @@ import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
 import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
 import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
 import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.repository.perfil_risco.IPerfilRiscoPrecalculadoRepository;
 import br.gov.caixa.api.investimentos.service.autenticacao.JwtService;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
@@ -18,10 +19,15 @@ import org.junit.jupiter.api.*;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -30,6 +36,9 @@ public class PerfilRiscoResourceIntegrationTest {
     @Inject
     JwtService jwtService;
 
+    @Inject
+    IPerfilRiscoPrecalculadoRepository precalculadoRepository;
+
     // Tokens para diferentes tipos de usuário
     private String adminToken;
     private String userToken;
@@ -451,4 +460,184 @@ public class PerfilRiscoResourceIntegrationTest {
 
         System.out.println("=== DEBUG: Validação do Content-Type realizada com sucesso");
     }
+
+    // ======================== PRÉ-CÁLCULO ========================
+
+    @Test
+    @Order(17)
+    void devePrecalcularPerfisEUsarNoEndpointOnline() throws InterruptedException {
+        Map<String, Object> perfilOnline = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .when()
+                .get("/perfil-risco/" + clienteIdCriado)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getMap("$");
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .when()
+                .post("/perfil-risco/precalculo")
+                .then()
+                .statusCode(202)
+                .body("id", notNullValue())
+                .body("status", oneOf("PENDENTE", "EXECUTANDO", "CONCLUIDA"));
+
+        String status = "";
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!status.equals("CONCLUIDA") && !status.equals("FALHOU") && System.nanoTime() < limite) {
+            Thread.sleep(50);
+            status = given()
+                    .header("Authorization", "Bearer " + adminToken)
+                    .when()
+                    .get("/perfil-risco/precalculo")
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .path("status");
+        }
+        assertEquals("CONCLUIDA", status);
+
+        List<Map<String, Object>> precalculados = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .queryParam("aposClienteId", clienteIdCriado - 1)
+                .queryParam("limite", 1)
+                .when()
+                .get("/perfil-risco/precalculados")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].clienteId", equalTo(clienteIdCriado.intValue()))
+                .body("[0].produtoIds", not(empty()))
+                .extract()
+                .jsonPath()
+                .getList("$");
+
+        assertEquals(perfilOnline.get("perfil"), precalculados.get(0).get("perfil"));
+        assertEquals(perfilOnline.get("pontuacao"), precalculados.get(0).get("pontuacao"));
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .when()
+                .get("/perfil-risco/" + clienteIdCriado)
+                .then()
+                .statusCode(200)
+                .body("perfil", equalTo(perfilOnline.get("perfil")))
+                .body("pontuacao", equalTo(perfilOnline.get("pontuacao")));
+
+        /* OUTRAS CLASSES DE TESTE GRAVAM DIRETO NOS REPOSITORIOS, SEM OS EVENTOS QUE INVALIDAM O PRE-CALCULO */
+        precalculadoRepository.removerTodos();
+    }
+
+    @Test
+    @Order(18)
+    void deveRetornar403_PrecalculoComTokenUser() {
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .contentType(ContentType.JSON)
+                .when()
+                .post("/perfil-risco/precalculo")
+                .then()
+                .statusCode(403);
+
+        given()
+                .header("Authorization", "Bearer " + userToken)
+                .when()
+                .get("/perfil-risco/precalculados")
+                .then()
+                .statusCode(403);
+    }
+
+    @Test
+    @Order(19)
+    void deveRetornar400_LimiteDeExportacaoInvalido() {
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .queryParam("limite", 0)
+                .when()
+                .get("/perfil-risco/precalculados")
+                .then()
+                .statusCode(400);
+    }
+
+    /* A ESCRITA EM PRODUTOS INVALIDA O CATALOGO, E NENHUMA LEITURA ONLINE O RECARREGA ANTES DO PRE-CALCULO */
+    @Test
+    @Order(20)
+    void devePrecalcularPerfisLogoAposEscritaNoCatalogo() throws InterruptedException {
+        ProdutoRequest produto = new ProdutoRequest(
+                "LCI Pré-cálculo 95% CDI",
+                TipoProduto.LCI,
+                TipoRentabilidade.POS,
+                new BigDecimal("95.0"),
+                PeriodoRentabilidade.AO_ANO,
+                Indice.CDI,
+                90,
+                90,
+                true
+        );
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(produto)
+                .when()
+                .post("/produtos")
+                .then()
+                .statusCode(201);
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .when()
+                .post("/perfil-risco/precalculo")
+                .then()
+                .statusCode(202);
+
+        Map<String, Object> situacao = Map.of();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!"CONCLUIDA".equals(situacao.get("status")) && !"FALHOU".equals(situacao.get("status"))
+                && System.nanoTime() < limite) {
+            Thread.sleep(50);
+            situacao = given()
+                    .header("Authorization", "Bearer " + adminToken)
+                    .when()
+                    .get("/perfil-risco/precalculo")
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .jsonPath()
+                    .getMap("$");
+        }
+        assertEquals("CONCLUIDA", situacao.get("status"));
+        assertTrue((Integer) situacao.get("clientesComPerfil") > 0);
+
+        Map<String, Object> precalculado = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .queryParam("aposClienteId", clienteIdCriado - 1)
+                .queryParam("limite", 1)
+                .when()
+                .get("/perfil-risco/precalculados")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].clienteId", equalTo(clienteIdCriado.intValue()))
+                .extract()
+                .jsonPath()
+                .getMap("[0]");
+
+        /* SEM A LINHA PRE-CALCULADA O ENDPOINT ONLINE CALCULA NA HORA, SOBRE O MESMO CATALOGO */
+        precalculadoRepository.removerTodos();
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .when()
+                .get("/perfil-risco/" + clienteIdCriado)
+                .then()
+                .statusCode(200)
+                .body("perfil", equalTo(precalculado.get("perfil")))
+                .body("pontuacao", equalTo(precalculado.get("pontuacao")));
+    }
 }
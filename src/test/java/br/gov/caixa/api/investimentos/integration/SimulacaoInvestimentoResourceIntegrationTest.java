@@ -4,6 +4,7 @@ import br.gov.caixa.api.investimentos.dto.cliente.ClienteRequest;
 import br.gov.caixa.api.investimentos.dto.cliente.ClienteResponse;
 import br.gov.caixa.api.investimentos.dto.produto.ProdutoRequest;
 import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMetaRequest;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoRequest;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoResponse;
 import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
@@ -23,11 +24,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -575,4 +579,574 @@ public class SimulacaoInvestimentoResourceIntegrationTest {
                 .then()
                 .statusCode(anyOf(equalTo(200), equalTo(403))); // Pode permitir ou negar dependendo da implementação
     }
+
+    @Test
+    @Order(21)
+    void deveSimularLoteComResultadosEErrosPorItem() {
+        SimulacaoRequest valida = new SimulacaoRequest(
+                clienteIdCriado,
+                produtoIdCriado1,
+                new BigDecimal("5000.00"),
+                12,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        SimulacaoRequest valorInvalido = new SimulacaoRequest(
+                clienteIdCriado,
+                produtoIdCriado1,
+                new BigDecimal("0.50"),
+                12,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        SimulacaoRequest prazoMuitoLongo = new SimulacaoRequest(
+                clienteIdCriado,
+                produtoIdCriado1,
+                new BigDecimal("5000.00"),
+                300,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(List.of(valida, valorInvalido, prazoMuitoLongo, valida))
+                .when()
+                .post("/simular-investimento/lote")
+                .then()
+                .statusCode(200)
+                .body("totalItens", equalTo(4))
+                .body("totalSucesso", equalTo(2))
+                .body("totalErros", equalTo(2))
+                .body("itens[0].sucesso", equalTo(true))
+                .body("itens[0].simulacao.simulacaoId", notNullValue())
+                .body("itens[0].simulacao.resultadoSimulacao.valorFinal", greaterThan(5000f))
+                .body("itens[1].sucesso", equalTo(false))
+                .body("itens[1].erro", containsString("Valor mínimo"))
+                .body("itens[2].sucesso", equalTo(false))
+                .body("itens[2].erro", containsString("Prazo muito longo"))
+                .body("itens[3].sucesso", equalTo(true));
+    }
+
+    @Test
+    @Order(22)
+    void deveRetornar400ParaLoteVazio() {
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(List.of())
+                .when()
+                .post("/simular-investimento/lote")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(23)
+    void deveSimularMonteCarloComPercentis() {
+        SimulacaoRequest request = new SimulacaoRequest(
+                clienteIdCriado,
+                produtoIdCriado1,
+                new BigDecimal("5000.00"),
+                24,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .queryParam("modo", "montecarlo")
+                .queryParam("caminhos", 2000)
+                .when()
+                .post("/simular-investimento")
+                .then()
+                .statusCode(200)
+                .body("produtoValidado.id", equalTo(produtoIdCriado1.intValue()))
+                .body("resultadoMonteCarlo.caminhos", equalTo(2000))
+                .body("resultadoMonteCarlo.p5", notNullValue())
+                .body("resultadoMonteCarlo.p50", notNullValue())
+                .body("resultadoMonteCarlo.p95", notNullValue())
+                .body("resultadoMonteCarlo.media", notNullValue());
+    }
+
+    @Test
+    @Order(24)
+    void deveRetornar400ParaModoDeSimulacaoInvalido() {
+        SimulacaoRequest request = new SimulacaoRequest(
+                clienteIdCriado,
+                produtoIdCriado1,
+                new BigDecimal("5000.00"),
+                12,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .queryParam("modo", "quantico")
+                .when()
+                .post("/simular-investimento")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(25)
+    void deveCompararTodosOsProdutosCompativeis() {
+        SimulacaoRequest request = new SimulacaoRequest(
+                clienteIdCriado,
+                null,
+                new BigDecimal("5000.00"),
+                24,
+                null,
+                null,
+                TipoProduto.CDB,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .queryParam("modo", "comparacao")
+                .when()
+                .post("/simular-investimento")
+                .then()
+                .statusCode(201)
+                .body("totalProdutos", greaterThan(1))
+                .body("produtos[0].posicao", equalTo(1))
+                .body("produtos.findAll { it.selecionado }.size()", equalTo(1))
+                .body("simulacaoId", notNullValue());
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .queryParam("modo", "comparacao")
+                .queryParam("persistir", false)
+                .when()
+                .post("/simular-investimento")
+                .then()
+                .statusCode(200)
+                .body("simulacaoId", nullValue());
+    }
+
+    @Test
+    @Order(26)
+    void deveTransmitirLinhaDoTempoComHorizonteDe600Meses() {
+        SimulacaoRequest request = new SimulacaoRequest(
+                clienteIdCriado,
+                produtoIdCriado1,
+                new BigDecimal("5000.00"),
+                600,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        String corpo = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/simular-investimento/linha-do-tempo")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract()
+                .asString();
+
+        String[] linhas = corpo.split("\n");
+
+        assertEquals(601, linhas.length);
+        assertTrue(linhas[0].contains("\"totalPeriodos\":600"));
+        assertTrue(linhas[600].contains("\"periodo\":600"));
+    }
+
+    @Test
+    @Order(27)
+    void deveRetornar400ParaGranularidadeInvalida() {
+        SimulacaoRequest request = new SimulacaoRequest(
+                clienteIdCriado,
+                produtoIdCriado1,
+                new BigDecimal("5000.00"),
+                12,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .queryParam("granularidade", "semanal")
+                .when()
+                .post("/simular-investimento/linha-do-tempo")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(28)
+    void deveResolverPrazoParaAtingirMeta() {
+        SimulacaoMetaRequest request = new SimulacaoMetaRequest(
+                clienteIdCriado,
+                produtoIdCriado1,
+                new BigDecimal("6000.00"),
+                new BigDecimal("5000.00"),
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        Response response = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/simular-investimento/meta")
+                .then()
+                .statusCode(200)
+                .body("incognita", equalTo("PRAZO"))
+                .body("valorInicial", equalTo(5000.00f))
+                .body("prazoMeses", notNullValue())
+                .extract()
+                .response();
+
+        BigDecimal valorFinal = new BigDecimal(response.jsonPath().getString("valorFinal"));
+        assertTrue(valorFinal.compareTo(new BigDecimal("6000.00")) >= 0);
+
+        SimulacaoMetaRequest ambasIncognitasInformadas = new SimulacaoMetaRequest(
+                clienteIdCriado,
+                produtoIdCriado1,
+                new BigDecimal("6000.00"),
+                new BigDecimal("5000.00"),
+                12,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(ambasIncognitasInformadas)
+                .when()
+                .post("/simular-investimento/meta")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(29)
+    void deveRepetirSimulacaoComMesmaSemente() {
+        SimulacaoRequest request = new SimulacaoRequest(
+                clienteIdCriado,
+                produtoIdCriado1,
+                new BigDecimal("5000.00"),
+                24,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                20251115L
+        );
+
+        Response primeira = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/simular-investimento")
+                .then()
+                .statusCode(201)
+                .body("resultadoSimulacao.semente", equalTo(20251115))
+                .extract()
+                .response();
+
+        Response segunda = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/simular-investimento")
+                .then()
+                .statusCode(201)
+                .extract()
+                .response();
+
+        assertEquals(primeira.jsonPath().getString("resultadoSimulacao.valorFinal"),
+                segunda.jsonPath().getString("resultadoSimulacao.valorFinal"));
+        assertEquals(primeira.jsonPath().getString("resultadoSimulacao.rentabilidadeEfetiva"),
+                segunda.jsonPath().getString("resultadoSimulacao.rentabilidadeEfetiva"));
+        assertEquals(primeira.jsonPath().getString("resultadoSimulacao.cenarioSimulacao"),
+                segunda.jsonPath().getString("resultadoSimulacao.cenarioSimulacao"));
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .when()
+                .get("/simular-investimento/" + primeira.jsonPath().getLong("simulacaoId"))
+                .then()
+                .statusCode(200)
+                .body("semente", equalTo(20251115));
+    }
+
+    @Test
+    @Order(30)
+    void deveRetornarTabelaLiquidaPorPrazoEmDias() {
+        SimulacaoRequest request = new SimulacaoRequest(
+                clienteIdCriado,
+                produtoIdCriado1,
+                new BigDecimal("5000.00"),
+                null,
+                1080,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        Response response = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .when()
+                .post("/simular-investimento/tabela-liquida")
+                .then()
+                .statusCode(200)
+                .body("isento", equalTo(false))
+                .body("linhas", hasSize(1080))
+                .body("linhas[0].prazoDias", equalTo(1))
+                .body("linhas[1079].prazoDias", equalTo(1080))
+                .body("semente", notNullValue())
+                .extract()
+                .response();
+
+        BigDecimal rendimentoBruto = new BigDecimal(response.jsonPath().getString("linhas[1079].rendimentoBruto"));
+        BigDecimal valorIR = new BigDecimal(response.jsonPath().getString("linhas[1079].valorIR"));
+
+        assertEquals(0, rendimentoBruto.multiply(new BigDecimal("0.15")).setScale(2, RoundingMode.HALF_UP)
+                .compareTo(valorIR));
+    }
+
+    @Test
+    @Order(31)
+    void deveProjetarCarteiraDoClienteAgregandoPorTipoERisco() {
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(Map.of(
+                        "clienteId", clienteIdCriado,
+                        "produtoId", produtoIdCriado1,
+                        "valor", 8000.00,
+                        "prazoMeses", 24
+                ))
+                .when()
+                .post("/investimentos")
+                .then()
+                .statusCode(201);
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .queryParam("dataAlvo", LocalDate.now().plusMonths(12).toString())
+                .queryParam("semente", 11)
+                .queryParam("posicoes", true)
+                .when()
+                .get("/simular-investimento/carteira/" + clienteIdCriado)
+                .then()
+                .statusCode(200)
+                .body("clienteId", equalTo(clienteIdCriado.intValue()))
+                .body("totalPosicoes", equalTo(1))
+                .body("valorInvestido", equalTo(8000.00f))
+                .body("porTipoProduto[0].grupo", equalTo("CDB"))
+                .body("porTipoProduto[0].participacao", equalTo(100.00f))
+                .body("porNivelRisco.size()", equalTo(1))
+                .body("posicoes[0].prazoMeses", equalTo(12))
+                .body("semente", equalTo(11));
+    }
+
+    @Test
+    @Order(32)
+    void deveRejeitarProjecaoDeCarteiraComDataAlvoNoPassado() {
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .queryParam("dataAlvo", LocalDate.now().minusDays(1).toString())
+                .when()
+                .get("/simular-investimento/carteira/" + clienteIdCriado)
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(33)
+    void deveExecutarTarefaDeLoteEmSegundoPlanoEDisponibilizarResultado() throws InterruptedException {
+        List<SimulacaoRequest> requests = List.of(
+                new SimulacaoRequest(clienteIdCriado, produtoIdCriado1, new BigDecimal("1000.00"), 12,
+                        null, null, null, null, null, null, null, null),
+                new SimulacaoRequest(clienteIdCriado, produtoIdCriado1, new BigDecimal("2000.00"), 24,
+                        null, null, null, null, null, null, null, null)
+        );
+
+        String tarefaId = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(requests)
+                .when()
+                .post("/simular-investimento/tarefas/lote")
+                .then()
+                .statusCode(202)
+                .body("tipo", equalTo("LOTE"))
+                .body("totalItens", equalTo(2))
+                .extract()
+                .path("id");
+
+        String status = null;
+        for (int tentativa = 0; tentativa < 50 && !"CONCLUIDA".equals(status) && !"FALHOU".equals(status); tentativa++) {
+            Thread.sleep(200);
+            status = given()
+                    .header("Authorization", "Bearer " + adminToken)
+                    .when()
+                    .get("/simular-investimento/tarefas/" + tarefaId)
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .path("status");
+        }
+
+        assertEquals("CONCLUIDA", status);
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .when()
+                .get("/simular-investimento/tarefas/" + tarefaId + "/resultado")
+                .then()
+                .statusCode(200)
+                .body("totalItens", equalTo(2))
+                .body("totalSucesso", equalTo(2))
+                .body("itens[1].indice", equalTo(1))
+                .body("itens[1].simulacao.resultadoSimulacao.valorInvestido", equalTo(2000.00f));
+    }
+
+    @Test
+    @Order(34)
+    void deveRetornar404ParaTarefaInexistente() {
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .when()
+                .get("/simular-investimento/tarefas/inexistente")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @Order(35)
+    void deveExecutarTarefaDeMonteCarloEmSegundoPlanoEDisponibilizarResultado() throws InterruptedException {
+        SimulacaoRequest request = new SimulacaoRequest(clienteIdCriado, produtoIdCriado1, new BigDecimal("1000.00"), 12,
+                null, null, null, null, null, null, null, null);
+
+        String tarefaId = given()
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(ContentType.JSON)
+                .body(request)
+                .queryParam("caminhos", 500)
+                .when()
+                .post("/simular-investimento/tarefas/montecarlo")
+                .then()
+                .statusCode(202)
+                .body("tipo", equalTo("MONTECARLO"))
+                .extract()
+                .path("id");
+
+        String status = null;
+        for (int tentativa = 0; tentativa < 50 && !"CONCLUIDA".equals(status) && !"FALHOU".equals(status); tentativa++) {
+            Thread.sleep(200);
+            status = given()
+                    .header("Authorization", "Bearer " + adminToken)
+                    .when()
+                    .get("/simular-investimento/tarefas/" + tarefaId)
+                    .then()
+                    .statusCode(200)
+                    .extract()
+                    .path("status");
+        }
+
+        assertEquals("CONCLUIDA", status);
+
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .when()
+                .get("/simular-investimento/tarefas/" + tarefaId + "/resultado")
+                .then()
+                .statusCode(200)
+                .body("clienteId", equalTo(clienteIdCriado.intValue()))
+                .body("resultadoMonteCarlo.caminhos", equalTo(500));
+    }
 }
@@ -523,4 +523,33 @@ public class TelemetriaResourceIntegrationTest {
 
         System.out.println("=== DEBUG: Content-Type validado para todos os endpoints");
     }
+
+    @Test
+    @Order(29)
+    void deveRetornarMetricasGravacaoSimulacoes() {
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .when()
+                .get("/telemetria/gravacao-simulacoes")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("gravacaoAssincrona", is(false))
+                .body("profundidadeFila", is(0))
+                .body("capacidadeFila", greaterThan(0));
+    }
+
+    @Test
+    @Order(30)
+    void deveRetornarMetricasCacheRecomendacoes() {
+        given()
+                .header("Authorization", "Bearer " + adminToken)
+                .when()
+                .get("/telemetria/cache-recomendacoes")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("acertos", greaterThanOrEqualTo(0))
+                .body("falhas", greaterThanOrEqualTo(0));
+    }
 }
\ No newline at end of file
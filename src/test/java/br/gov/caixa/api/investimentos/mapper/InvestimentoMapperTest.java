@@ -494,4 +494,32 @@ class InvestimentoMapperTest {
         assertNull(investimento.getMinimoDiasInvestimento());
         assertNull(investimento.getFgc());
     }
-}
\ No newline at end of file
+
+    @Test
+    void toProdutoContratado_ShouldCopyContractedTermsWithoutName() {
+        Investimento investimento = new Investimento();
+        investimento.setProdutoId(200L);
+        investimento.setTipo(TipoProduto.CDB);
+        investimento.setTipoRentabilidade(TipoRentabilidade.POS);
+        investimento.setRentabilidade(new BigDecimal("12.5"));
+        investimento.setPeriodoRentabilidade(PeriodoRentabilidade.AO_ANO);
+        investimento.setIndice(Indice.CDI);
+        investimento.setLiquidez(1);
+        investimento.setMinimoDiasInvestimento(90);
+        investimento.setFgc(true);
+
+        Produto produto = investimentoMapper.toProdutoContratado(investimento);
+
+        assertEquals(200L, produto.getId());
+        assertNull(produto.getNome());
+        assertEquals(TipoProduto.CDB, produto.getTipo());
+        assertEquals(TipoRentabilidade.POS, produto.getTipoRentabilidade());
+        assertEquals(new BigDecimal("12.5"), produto.getRentabilidade());
+        assertEquals(PeriodoRentabilidade.AO_ANO, produto.getPeriodoRentabilidade());
+        assertEquals(Indice.CDI, produto.getIndice());
+        assertEquals(1, produto.getLiquidez());
+        assertEquals(90, produto.getMinimoDiasInvestimento());
+        assertTrue(produto.getFgc());
+        assertNull(investimentoMapper.toProdutoContratado(null));
+    }
+}
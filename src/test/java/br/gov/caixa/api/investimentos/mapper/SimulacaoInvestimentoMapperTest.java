@@ -41,6 +41,7 @@ class SimulacaoInvestimentoMapperTest {
         simulacao.setRendimento(new BigDecimal("2500.00"));
         simulacao.setValorSimulado(true);
         simulacao.setCenarioSimulacao("CONSERVADOR");
+        simulacao.setSemente(42L);
 
         // When
         SimulacaoInvestimentoResponse response = simulacaoMapper.toResponse(simulacao);
@@ -61,6 +62,7 @@ class SimulacaoInvestimentoMapperTest {
         assertEquals(new BigDecimal("2500.00"), response.rendimento());
         assertTrue(response.valorSimulado());
         assertEquals("CONSERVADOR", response.cenarioSimulacao());
+        assertEquals(42L, response.semente());
     }
 
     @Test
@@ -192,7 +194,9 @@ class SimulacaoInvestimentoMapperTest {
                 new BigDecimal("20000.00"), // valorInvestido
                 new BigDecimal("5000.00"), // rendimento
                 true, // valorSimulado
-                "MODERADO" // cenarioSimulacao
+                "MODERADO", // cenarioSimulacao
+                42L, // semente
+                null // tributacao
         );
 
         // When
@@ -213,6 +217,7 @@ class SimulacaoInvestimentoMapperTest {
         assertEquals(new BigDecimal("5000.00"), simulacao.getRendimento());
         assertTrue(simulacao.getValorSimulado());
         assertEquals("MODERADO", simulacao.getCenarioSimulacao());
+        assertEquals(42L, simulacao.getSemente());
     }
 
     @Test
@@ -227,7 +232,9 @@ class SimulacaoInvestimentoMapperTest {
                 new BigDecimal("5000.00"), // valorInvestido
                 new BigDecimal("1000.00"), // rendimento
                 true, // valorSimulado
-                "TEST" // cenarioSimulacao
+                "TEST", // cenarioSimulacao
+                null, // semente
+                null // tributacao
         );
 
         // When
@@ -249,7 +256,9 @@ class SimulacaoInvestimentoMapperTest {
                 new BigDecimal("5000.00"), // valorInvestido
                 new BigDecimal("1000.00"), // rendimento
                 true, // valorSimulado
-                "TEST" // cenarioSimulacao
+                "TEST", // cenarioSimulacao
+                null, // semente
+                null // tributacao
         );
 
         // When
@@ -271,7 +280,9 @@ class SimulacaoInvestimentoMapperTest {
                 new BigDecimal("5000.00"), // valorInvestido
                 new BigDecimal("1000.00"), // rendimento
                 true, // valorSimulado
-                "TEST" // cenarioSimulacao
+                "TEST", // cenarioSimulacao
+                null, // semente
+                null // tributacao
         );
 
         // When
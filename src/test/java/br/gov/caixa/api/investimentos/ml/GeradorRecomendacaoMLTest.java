@@ -7,24 +7,36 @@ import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
 import br.gov.caixa.api.investimentos.model.investimento.Investimento;
 import br.gov.caixa.api.investimentos.model.produto.Produto;
 import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoProdutos;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class GeradorRecomendacaoMLTest {
 
     private GeradorRecomendacaoML gerador;
     private List<Produto> todosProdutos;
+    private CatalogoProdutos catalogoProdutos;
 
     @BeforeEach
     void setUp() {
         gerador = new GeradorRecomendacaoML();
 
+        catalogoProdutos = mock(CatalogoProdutos.class);
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(0, List.of()));
+        gerador.catalogoProdutos = catalogoProdutos;
+
         // Criar uma lista diversificada de produtos para teste
         todosProdutos = new ArrayList<>();
 
@@ -76,12 +88,13 @@ class GeradorRecomendacaoMLTest {
         List<Investimento> investimentos = List.of(inv1);
 
         // When
-        List<Produto> recomendados = gerador.encontrarProdutosOrdenadosPorAparicao(investimentos, todosProdutos);
+        ResultadoRecomendacao resultado = gerador.recomendar(investimentos, todosProdutos);
+        List<Produto> recomendados = resultado.getProdutos();
 
         // Then
         assertNotNull(recomendados);
         assertFalse(recomendados.contains(todosProdutos.get(0))); // produto original não deve aparecer
-        assertTrue(recomendados.stream().allMatch(p -> p.getPontuacao() > 0));
+        assertTrue(recomendados.stream().allMatch(p -> resultado.pontuacao(p.getId()) > 0));
     }
 
     @Test
@@ -92,15 +105,15 @@ class GeradorRecomendacaoMLTest {
         List<Investimento> investimentos = List.of(inv1, inv2);
 
         // When
-        List<Produto> recomendados = gerador.encontrarProdutosOrdenadosPorAparicao(investimentos, todosProdutos);
+        ResultadoRecomendacao resultado = gerador.recomendar(investimentos, todosProdutos);
 
         // Then
-        assertNotNull(recomendados);
-        assertFalse(recomendados.isEmpty());
+        assertNotNull(resultado);
+        assertFalse(resultado.isEmpty());
 
         // Verifica ordenação por pontuação (decrescente)
-        for (int i = 0; i < recomendados.size() - 1; i++) {
-            assertTrue(recomendados.get(i).getPontuacao() >= recomendados.get(i + 1).getPontuacao());
+        for (int i = 0; i < resultado.tamanho() - 1; i++) {
+            assertTrue(resultado.pontuacaoNaPosicao(i) >= resultado.pontuacaoNaPosicao(i + 1));
         }
     }
 
@@ -133,12 +146,13 @@ class GeradorRecomendacaoMLTest {
         List<SimulacaoInvestimento> simulacoes = List.of(sim1);
 
         // When
-        List<Produto> recomendados = gerador.encontrarProdutosOrdenadosPorAparicao(simulacoes, todosProdutos);
+        ResultadoRecomendacao resultado = gerador.recomendar(simulacoes, todosProdutos);
+        List<Produto> recomendados = resultado.getProdutos();
 
         // Then
         assertNotNull(recomendados);
         assertFalse(recomendados.contains(todosProdutos.get(0))); // ignora o mesmo produto
-        assertTrue(recomendados.stream().allMatch(p -> p.getPontuacao() > 0));
+        assertTrue(recomendados.stream().allMatch(p -> resultado.pontuacao(p.getId()) > 0));
     }
 
     @Test
@@ -161,15 +175,15 @@ class GeradorRecomendacaoMLTest {
         List<SimulacaoInvestimento> simulacoes = List.of(sim1, sim2);
 
         // When
-        List<Produto> recomendados = gerador.encontrarProdutosOrdenadosPorAparicao(simulacoes, todosProdutos);
+        ResultadoRecomendacao resultado = gerador.recomendar(simulacoes, todosProdutos);
 
         // Then
-        assertNotNull(recomendados);
-        assertFalse(recomendados.isEmpty());
+        assertNotNull(resultado);
+        assertFalse(resultado.isEmpty());
 
         // Verifica ordenação por pontuação (decrescente)
-        for (int i = 0; i < recomendados.size() - 1; i++) {
-            assertTrue(recomendados.get(i).getPontuacao() >= recomendados.get(i + 1).getPontuacao());
+        for (int i = 0; i < resultado.tamanho() - 1; i++) {
+            assertTrue(resultado.pontuacaoNaPosicao(i) >= resultado.pontuacaoNaPosicao(i + 1));
         }
     }
 
@@ -370,8 +384,338 @@ class GeradorRecomendacaoMLTest {
         assertFalse(recomendados.stream().anyMatch(p -> p.getId().equals(1L)));
     }
 
+    @Test
+    void encontrarProdutosOrdenadosPorAparicao_comCatalogo_mesmoResultadoQueSemCatalogo() {
+        todosProdutos.forEach(p -> p.setRentabilidade(BigDecimal.valueOf(10 + p.getId())));
+
+        Investimento inv1 = criarInvestimento(1L, BigDecimal.valueOf(50000), TipoProduto.CDB);
+        Investimento inv2 = criarInvestimento(3L, BigDecimal.valueOf(900000), TipoProduto.FUNDO);
+        inv2.setIndice(Indice.IBOVESPA);
+        SimulacaoInvestimento sim = new SimulacaoInvestimento(100L, 2L, "LCI", BigDecimal.valueOf(30000), BigDecimal.valueOf(35000), 12, 365, 1);
+
+        List<Produto> semCatalogo = gerador.encontrarProdutosOrdenadosPorAparicao(List.of(inv1, inv2, sim), todosProdutos);
+
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, todosProdutos));
+        List<Produto> comCatalogo = gerador.encontrarProdutosOrdenadosPorAparicao(List.of(inv1, inv2, sim), todosProdutos);
+
+        assertEquals(semCatalogo, comCatalogo);
+    }
+
+    @Test
+    void encontrarProdutosOrdenadosPorAparicao_comKernelVetorial_mesmoResultadoQueEscalar() {
+        Investimento inv1 = criarInvestimento(1L, BigDecimal.valueOf(50000), TipoProduto.CDB);
+        Investimento inv2 = criarInvestimento(4L, BigDecimal.valueOf(700000), TipoProduto.TESOURO_DIRETO);
+
+        List<Produto> escalar = gerador.encontrarProdutosOrdenadosPorAparicao(List.of(inv1, inv2), todosProdutos);
+
+        GeradorRecomendacaoML geradorVetorial = new GeradorRecomendacaoML();
+        geradorVetorial.catalogoProdutos = catalogoProdutos;
+        geradorVetorial.kernelVetorialHabilitado = true;
+
+        assertEquals(escalar, geradorVetorial.encontrarProdutosOrdenadosPorAparicao(List.of(inv1, inv2), todosProdutos));
+    }
+
+    @Test
+    void encontrarProdutosOrdenadosPorAparicao_catalogoAlterado_reconstroiMatriz() {
+        Produto produtoCatalogo = criarProduto(5L, "CDB Catalogo", TipoProduto.CDB);
+        produtoCatalogo.setRentabilidade(BigDecimal.valueOf(12));
+
+        SimulacaoInvestimento sim = new SimulacaoInvestimento(100L, 5L, "CDB Catalogo", BigDecimal.valueOf(10000), BigDecimal.valueOf(12000), 12, 365, 1);
+
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, List.of(produtoCatalogo)));
+        assertFalse(gerador.encontrarProdutosOrdenadosPorAparicao(List.of(sim), todosProdutos).isEmpty());
+
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(2, List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> gerador.encontrarProdutosOrdenadosPorAparicao(List.of(sim), todosProdutos));
+    }
+
+    @Test
+    void recomendar_naoAlteraOsProdutos_eSomaPesosPorProduto() {
+        Investimento inv1 = criarInvestimento(1L, BigDecimal.valueOf(50000), TipoProduto.CDB);
+        Investimento inv2 = criarInvestimento(1L, BigDecimal.valueOf(50000), TipoProduto.CDB);
+
+        ResultadoRecomendacao umInvestimento = gerador.recomendar(List.of(inv1), todosProdutos);
+        ResultadoRecomendacao doisInvestimentos = gerador.recomendar(List.of(inv1, inv2), todosProdutos);
+
+        Produto recomendado = doisInvestimentos.getPrimeiro();
+
+        assertEquals(1, doisInvestimentos.tamanho());
+        assertEquals(2 * umInvestimento.pontuacaoNaPosicao(0), doisInvestimentos.pontuacao(recomendado.getId()));
+        assertEquals(0.0, doisInvestimentos.pontuacao(999L));
+        assertTrue(todosProdutos.stream().allMatch(p -> p.getPontuacao() == 0));
+    }
+
+    @Test
+    void acumular_entradaAEntrada_mesmoResultadoQueRecomendar() {
+        todosProdutos.forEach(p -> p.setRentabilidade(BigDecimal.valueOf(10 + p.getId())));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, todosProdutos));
+        List<Produto> catalogo = catalogoProdutos.obterCatalogo().listarTodos();
+
+        List<SimulacaoInvestimento> simulacoes = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            SimulacaoInvestimento sim = new SimulacaoInvestimento(100L, (long) (i % 4) + 1, "Produto",
+                    BigDecimal.valueOf(1000L * (i + 1) * (i + 1)), BigDecimal.valueOf(1), 12, 365, 1);
+            sim.setDataSimulacao(LocalDateTime.now().minusDays(40L * i));
+            simulacoes.add(sim);
+        }
+
+        AcumuladorRecomendacao acumulador = gerador.criarAcumulador();
+        simulacoes.forEach(sim -> gerador.acumular(acumulador, List.of(sim)));
+
+        ResultadoRecomendacao completo = gerador.recomendar(simulacoes, catalogo);
+        ResultadoRecomendacao incremental = acumulador.resultado(LocalDate.now());
+
+        assertEquals(completo.getProdutos(), incremental.getProdutos());
+        for (int i = 0; i < completo.tamanho(); i++) {
+            assertEquals(completo.pontuacaoNaPosicao(i), incremental.pontuacaoNaPosicao(i), 1e-9);
+        }
+    }
+
+    @Test
+    void acumular_investimentos_mesmoTruncamentoQueRecomendar() {
+        todosProdutos.forEach(p -> p.setRentabilidade(BigDecimal.valueOf(10 + p.getId())));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, todosProdutos));
+        List<Produto> catalogo = catalogoProdutos.obterCatalogo().listarTodos();
+
+        List<Investimento> investimentos = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Investimento inv = criarInvestimento((long) (i % 4) + 1, BigDecimal.valueOf(1234L * (i + 1)), TipoProduto.CDB);
+            inv.setData(i == 11 ? null : LocalDate.now().minusDays(40L * i));
+            investimentos.add(inv);
+        }
+
+        AcumuladorRecomendacao acumulador = gerador.criarAcumulador();
+        investimentos.forEach(inv -> gerador.acumular(acumulador, List.of(inv)));
+
+        ResultadoRecomendacao completo = gerador.recomendar(investimentos, catalogo);
+        ResultadoRecomendacao incremental = acumulador.resultado(LocalDate.now());
+
+        assertEquals(completo.getProdutos(), incremental.getProdutos());
+        for (int i = 0; i < completo.tamanho(); i++) {
+            assertEquals(completo.pontuacaoNaPosicao(i), incremental.pontuacaoNaPosicao(i));
+        }
+
+        Investimento unico = investimentos.get(1);
+        int pesoBase = (int) (Math.log10(unico.getValor().doubleValue() + 1) * 1000);
+        assertEquals((int) (pesoBase * Math.exp(-40 / 365.0)),
+                gerador.recomendar(List.of(unico), catalogo).pontuacaoNaPosicao(0));
+    }
+
+    @Test
+    void acumular_decaimentoAplicadoNaLeitura() {
+        todosProdutos.forEach(p -> p.setRentabilidade(BigDecimal.valueOf(10 + p.getId())));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, todosProdutos));
+
+        Investimento comData = criarInvestimento(1L, BigDecimal.valueOf(50000), TipoProduto.CDB);
+        comData.setData(LocalDate.now());
+
+        AcumuladorRecomendacao acumulador = gerador.criarAcumulador();
+        gerador.acumular(acumulador, List.of(comData));
+
+        double hoje = acumulador.resultado(LocalDate.now()).pontuacaoNaPosicao(0);
+        double umAnoDepois = acumulador.resultado(LocalDate.now().plusDays(365)).pontuacaoNaPosicao(0);
+
+        assertEquals(1, acumulador.resultado(LocalDate.now()).tamanho());
+        assertEquals((int) (hoje * Math.exp(-1)), umAnoDepois);
+    }
+
+    @Test
+    void recomendar_comLimite_prefixoDaRecomendacaoCompleta() {
+        todosProdutos.forEach(p -> p.setRentabilidade(BigDecimal.valueOf(10 + p.getId())));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, todosProdutos));
+        List<Produto> catalogo = catalogoProdutos.obterCatalogo().listarTodos();
+        List<SimulacaoInvestimento> simulacoes = criarSimulacoesVariadas();
+
+        ResultadoRecomendacao completo = gerador.recomendar(simulacoes, catalogo);
+
+        for (int limite = 1; limite <= completo.tamanho() + 1; limite++) {
+            ResultadoRecomendacao limitado = gerador.recomendar(simulacoes, catalogo, limite);
+            int esperado = Math.min(limite, completo.tamanho());
+
+            assertEquals(completo.getProdutos().subList(0, esperado), limitado.getProdutos());
+            assertEquals(completo.getProdutos().subList(0, esperado),
+                    gerador.encontrarProdutosOrdenadosPorAparicao(simulacoes, catalogo, limite));
+            for (int i = 0; i < esperado; i++) {
+                assertEquals(completo.pontuacaoNaPosicao(i), limitado.pontuacaoNaPosicao(i));
+            }
+        }
+    }
+
+    @Test
+    void recomendar_limiteMenorQueUm_lancaExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> gerador.recomendar(List.of(), todosProdutos, 0));
+    }
+
+    @Test
+    void acumulador_resultadoComLimite_prefixoDoResultadoCompleto() {
+        todosProdutos.forEach(p -> p.setRentabilidade(BigDecimal.valueOf(10 + p.getId())));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, todosProdutos));
+        List<SimulacaoInvestimento> simulacoes = criarSimulacoesVariadas();
+
+        AcumuladorRecomendacao acumulador = gerador.criarAcumulador();
+        gerador.acumular(acumulador, simulacoes);
+
+        /* O LIMITADO E CALCULADO ANTES E DEPOIS DO RESULTADO COMPLETO FICAR GUARDADO */
+        ResultadoRecomendacao antes = acumulador.resultado(LocalDate.now(), 2);
+        ResultadoRecomendacao completo = acumulador.resultado(LocalDate.now());
+        ResultadoRecomendacao depois = acumulador.resultado(LocalDate.now(), 2);
+
+        assertTrue(completo.tamanho() > 2);
+        assertEquals(completo.getProdutos().subList(0, 2), antes.getProdutos());
+        assertEquals(antes.getProdutos(), depois.getProdutos());
+        assertEquals(completo.pontuacaoNaPosicao(1), antes.pontuacaoNaPosicao(1));
+    }
+
+    @Test
+    void restaurarAcumulador_mesmoResultadoDoExportado() {
+        todosProdutos.forEach(p -> p.setRentabilidade(BigDecimal.valueOf(10 + p.getId())));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, todosProdutos));
+        List<SimulacaoInvestimento> simulacoes = criarSimulacoesVariadas();
+
+        AcumuladorRecomendacao original = gerador.criarAcumulador();
+        gerador.acumular(original, simulacoes);
+
+        EstatisticasAcumuladas estatisticas = EstatisticasAcumuladas.decodificar(original.exportar().codificar());
+        AcumuladorRecomendacao restaurado = gerador.restaurarAcumulador(original.getAssinaturaCatalogo(),
+                original.getDataReferencia(), estatisticas);
+
+        LocalDate daquiUmMes = LocalDate.now().plusDays(30);
+        ResultadoRecomendacao esperado = original.resultado(daquiUmMes);
+        ResultadoRecomendacao obtido = restaurado.resultado(daquiUmMes);
+
+        assertEquals(esperado.getProdutos(), obtido.getProdutos());
+        for (int i = 0; i < esperado.tamanho(); i++) {
+            assertEquals(esperado.pontuacaoNaPosicao(i), obtido.pontuacaoNaPosicao(i));
+        }
+    }
+
+    @Test
+    void restaurarAcumulador_investimentosTruncados_mesmoResultadoDoExportado() {
+        todosProdutos.forEach(p -> p.setRentabilidade(BigDecimal.valueOf(10 + p.getId())));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, todosProdutos));
+
+        List<Investimento> investimentos = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Investimento inv = criarInvestimento((long) (i % 3) + 1, BigDecimal.valueOf(987L * (i + 1)), TipoProduto.CDB);
+            inv.setData(i == 5 ? null : LocalDate.now().minusDays(75L * i));
+            investimentos.add(inv);
+        }
+
+        AcumuladorRecomendacao original = gerador.criarAcumulador();
+        gerador.acumular(original, investimentos);
+
+        EstatisticasAcumuladas estatisticas = EstatisticasAcumuladas.decodificar(original.exportar().codificar());
+        AcumuladorRecomendacao restaurado = gerador.restaurarAcumulador(original.getAssinaturaCatalogo(),
+                original.getDataReferencia(), estatisticas);
+
+        assertEquals(5, estatisticas.quantidadeTruncados());
+
+        LocalDate daquiUmAno = LocalDate.now().plusDays(365);
+        ResultadoRecomendacao esperado = original.resultado(daquiUmAno);
+        ResultadoRecomendacao obtido = restaurado.resultado(daquiUmAno);
+
+        assertEquals(esperado.getProdutos(), obtido.getProdutos());
+        for (int i = 0; i < esperado.tamanho(); i++) {
+            assertEquals(esperado.pontuacaoNaPosicao(i), obtido.pontuacaoNaPosicao(i));
+            assertEquals(Math.rint(obtido.pontuacaoNaPosicao(i)), obtido.pontuacaoNaPosicao(i));
+        }
+    }
+
+    @Test
+    void recomendar_catalogoComProdutosAlterados_mesmoResultadoDeUmaConstrucaoCompleta() {
+        todosProdutos.forEach(p -> p.setRentabilidade(BigDecimal.valueOf(10 + p.getId())));
+        List<Investimento> investimentos = List.of(
+                criarInvestimento(1L, BigDecimal.valueOf(80000), TipoProduto.CDB),
+                criarInvestimento(3L, BigDecimal.valueOf(20000), TipoProduto.FUNDO));
+
+        CatalogoIndexado v1 = CatalogoIndexado.construir(1, todosProdutos);
+        when(catalogoProdutos.obterCatalogo()).thenReturn(v1);
+        gerador.recomendar(investimentos, v1.listarTodos());
+
+        todosProdutos.get(1).setLiquidez(1);
+        todosProdutos.get(1).setFgc(false);
+        CatalogoIndexado v2 = CatalogoIndexado.construir(2, todosProdutos, 1, Set.of(2L));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(v2);
+
+        GeradorRecomendacaoML geradorNovo = new GeradorRecomendacaoML();
+        geradorNovo.catalogoProdutos = catalogoProdutos;
+
+        ResultadoRecomendacao incremental = gerador.recomendar(investimentos, v2.listarTodos());
+        ResultadoRecomendacao completo = geradorNovo.recomendar(investimentos, v2.listarTodos());
+
+        assertFalse(completo.isEmpty());
+        assertEquals(completo.getProdutos(), incremental.getProdutos());
+    }
+
+    @Test
+    void restaurarAcumulador_caracteristicasDoCatalogoAlteradas_retornaNull() {
+        todosProdutos.forEach(p -> p.setRentabilidade(BigDecimal.valueOf(10 + p.getId())));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, todosProdutos));
+
+        AcumuladorRecomendacao original = gerador.criarAcumulador();
+        gerador.acumular(original, criarSimulacoesVariadas());
+        long assinatura = original.getAssinaturaCatalogo();
+
+        /* MESMAS CARACTERISTICAS EM OUTRA VERSAO (EX.: REINICIO DA APLICACAO) MANTEM A ASSINATURA */
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(2, todosProdutos));
+        assertNotNull(gerador.restaurarAcumulador(assinatura, original.getDataReferencia(), original.exportar()));
+
+        todosProdutos.get(0).setRentabilidade(BigDecimal.valueOf(30));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(3, todosProdutos));
+        assertNull(gerador.restaurarAcumulador(assinatura, original.getDataReferencia(), original.exportar()));
+    }
+
+    @Test
+    void estatisticasAcumuladas_textoInvalido_lancaExcecao() {
+        assertEquals(0, EstatisticasAcumuladas.decodificar("").tamanho());
+        assertThrows(IllegalArgumentException.class, () -> EstatisticasAcumuladas.decodificar("1:2.0"));
+        assertThrows(IllegalArgumentException.class, () -> EstatisticasAcumuladas.decodificar("1:2.0:0.0|1:2.0"));
+        assertThrows(IllegalArgumentException.class, () -> EstatisticasAcumuladas.decodificar("1:2.0:0.0|1:2.0:3|1:2.0:3"));
+    }
+
+    @Test
+    void combinar_produtoSoComSinal_entraNaRecomendacao() {
+        todosProdutos.forEach(p -> p.setRentabilidade(BigDecimal.valueOf(10 + p.getId())));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, todosProdutos));
+        ResultadoRecomendacao recomendacao = ResultadoRecomendacao.construir(
+                List.of(todosProdutos.get(0), todosProdutos.get(1)), new double[]{100, 80});
+        SinalCoocorrencia sinal = SinalCoocorrencia.construir(new long[]{4L, 2L, 999L}, new double[]{1.0, 0.5, 1.0});
+
+        ResultadoRecomendacao combinada = gerador.combinar(recomendacao, sinal, 0.5, Integer.MAX_VALUE);
+
+        /* 2: 80 + 0.5 * 100 * 0.5 = 105; 4: 0.5 * 100 * 1 = 50; 999 NAO ESTA NO CATALOGO */
+        assertEquals(List.of(todosProdutos.get(1), todosProdutos.get(0), todosProdutos.get(3)), combinada.getProdutos());
+        assertEquals(105, combinada.pontuacao(2L));
+        assertEquals(50, combinada.pontuacao(4L));
+        assertEquals(List.of(todosProdutos.get(1)), gerador.combinar(recomendacao, sinal, 0.5, 1).getProdutos());
+    }
+
+    @Test
+    void combinar_semSinalOuPesoZero_mantemRecomendacao() {
+        ResultadoRecomendacao recomendacao = ResultadoRecomendacao.construir(
+                List.of(todosProdutos.get(0), todosProdutos.get(1)), new double[]{100, 80});
+        SinalCoocorrencia sinal = SinalCoocorrencia.construir(new long[]{2L}, new double[]{1.0});
+
+        assertSame(recomendacao, gerador.combinar(recomendacao, SinalCoocorrencia.vazio(), 0.5, 5));
+        assertSame(recomendacao, gerador.combinar(recomendacao, sinal, 0, 5));
+    }
+
     // --------------------- Helpers ---------------------
 
+    private List<SimulacaoInvestimento> criarSimulacoesVariadas() {
+        List<SimulacaoInvestimento> simulacoes = new ArrayList<>();
+
+        for (int i = 0; i < 12; i++) {
+            SimulacaoInvestimento sim = new SimulacaoInvestimento(100L, (long) (i % 4) + 1, "Produto",
+                    BigDecimal.valueOf(1000L * (i + 1) * (i + 1)), BigDecimal.valueOf(1), 12, 365, 1);
+            sim.setDataSimulacao(LocalDateTime.now().minusDays(40L * i));
+            simulacoes.add(sim);
+        }
+
+        return simulacoes;
+    }
+
     private Produto criarProduto(Long id, String nome, TipoProduto tipo) {
         Produto p = new Produto();
         p.setId(id);
@@ -383,7 +727,6 @@ class GeradorRecomendacaoMLTest {
         p.setLiquidez(0);
         p.setFgc(true);
         p.setMinimoDiasInvestimento(0);
-        p.setPontuacao(0);
         return p;
     }
 
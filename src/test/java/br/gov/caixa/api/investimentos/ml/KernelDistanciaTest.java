@@ -0,0 +1,63 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static br.gov.caixa.api.investimentos.ml.MatrizCaracteristicas.COLUNAS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class KernelDistanciaTest {
+
+    @Test
+    void selecionar_desabilitado_retornaEscalar() {
+        assertSame(KernelDistancia.ESCALAR, KernelDistancia.selecionar(false));
+    }
+
+    @Test
+    void escalar_calculaDistanciaAoQuadrado() {
+        double[] entrada = {1, 0, 0, 0, 0, 0, 0, 0};
+        double[] colunas = new double[COLUNAS * 2];
+        colunas[1] = 3; // coluna 0 do segundo candidato
+        colunas[COLUNAS * 2 - 1] = 2; // coluna 7 do segundo candidato
+        double[] distancias = new double[2];
+
+        KernelDistancia.ESCALAR.calcularDistancias(entrada, colunas, 2, distancias);
+
+        assertArrayEquals(new double[]{1, 8}, distancias);
+    }
+
+    @Test
+    void vetorial_mesmosValoresQueEscalar() {
+        /* SO NO BUILD COM O PERFIL vetorial, QUE COMPILA O KERNEL E INICIA A JVM DOS TESTES COM O MODULO */
+        assumeTrue(ModuleLayer.boot().findModule(KernelDistancia.MODULO_VETORIAL).isPresent());
+        assumeTrue(KernelDistancia.class.getResource("KernelDistanciaVetorial.class") != null);
+
+        KernelDistancia vetorial = KernelDistancia.selecionar(true);
+        assertNotSame(KernelDistancia.ESCALAR, vetorial);
+
+        Random random = new Random(3);
+
+        /* QUANTIDADES QUE NAO SAO MULTIPLAS DA LARGURA DO VETOR EXERCITAM A CAUDA ESCALAR */
+        for (int quantidade : new int[]{1, 7, 64, 1001}) {
+            double[] entrada = new double[COLUNAS];
+            double[] colunas = new double[COLUNAS * quantidade];
+
+            for (int c = 0; c < COLUNAS; c++) {
+                entrada[c] = random.nextDouble() * 10;
+            }
+            for (int i = 0; i < colunas.length; i++) {
+                colunas[i] = random.nextDouble() * 10;
+            }
+
+            double[] esperado = new double[quantidade];
+            double[] obtido = new double[quantidade];
+
+            KernelDistancia.ESCALAR.calcularDistancias(entrada, colunas, quantidade, esperado);
+            vetorial.calcularDistancias(entrada, colunas, quantidade, obtido);
+
+            assertArrayEquals(esperado, obtido);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static br.gov.caixa.api.investimentos.ml.MatrizCaracteristicas.COLUNAS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatrizCaracteristicasTest {
+
+    @Test
+    void buscarMaisProximo_mesmoResultadoQueForcaBruta() {
+        Random random = new Random(42);
+        List<Produto> produtos = gerarProdutos(random, 600);
+        MatrizCaracteristicas matriz = MatrizCaracteristicas.construir(1, produtos);
+
+        assertMesmoResultadoQueForcaBruta(random, produtos, matriz);
+    }
+
+    @Test
+    void construir_comProdutosAlterados_atualizaSoAsVagasDelesComMesmoResultado() {
+        Random random = new Random(11);
+        List<Produto> produtos = gerarProdutos(random, 600);
+        MatrizCaracteristicas v1 = MatrizCaracteristicas.construir(1, produtos);
+
+        /* 5 ALTERADOS, 3 REMOVIDOS, 4 CRIADOS E A ORDEM DO CATALOGO EMBARALHADA */
+        Set<Long> alterados = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            Produto produto = produtos.get(10 + i);
+            produto.setRentabilidade(produto.getRentabilidade().add(BigDecimal.valueOf(7)));
+            alterados.add(produto.getId());
+        }
+        for (int i = 0; i < 3; i++) {
+            alterados.add(produtos.remove(100).getId());
+        }
+        List<Produto> criados = gerarProdutos(random, 4);
+        for (int i = 0; i < criados.size(); i++) {
+            criados.get(i).setId(1000L + i);
+            alterados.add(1000L + i);
+        }
+        produtos.addAll(criados);
+        Collections.shuffle(produtos, random);
+
+        MatrizCaracteristicas v2 = MatrizCaracteristicas.construir(2, produtos, v1, alterados);
+
+        assertFalse(v2.isMesmoIndice(v1));
+        assertEquals(9, v2.getIndice().quantidadeExtras());
+        assertEquals(8, v2.getIndice().quantidadeVagasMortas());
+        assertMesmoResultadoQueForcaBruta(random, produtos, v2);
+
+        /* UM PRODUTO QUE JA ESTAVA NAS EXTRAS TROCA DE VAGA EXTRA; AS DEMAIS EXTRAS SAO MANTIDAS */
+        Produto criado = criados.get(0);
+        criado.setFgc(!criado.getFgc());
+        MatrizCaracteristicas v3 = MatrizCaracteristicas.construir(3, produtos, v2, Set.of(criado.getId()));
+
+        assertEquals(9, v3.getIndice().quantidadeExtras());
+        assertMesmoResultadoQueForcaBruta(random, produtos, v3);
+    }
+
+    @Test
+    void construir_diferencaQueNaoExplicaOCatalogo_reconstroiIndice() {
+        Random random = new Random(13);
+        List<Produto> produtos = gerarProdutos(random, 200);
+        MatrizCaracteristicas v1 = MatrizCaracteristicas.construir(1, produtos);
+
+        produtos.get(0).setLiquidez(produtos.get(0).getLiquidez() + 5);
+        produtos.get(1).setLiquidez(produtos.get(1).getLiquidez() + 5);
+        MatrizCaracteristicas v2 = MatrizCaracteristicas.construir(2, produtos, v1, Set.of(produtos.get(0).getId()));
+
+        assertEquals(0, v2.getIndice().quantidadeExtras());
+        assertMesmoResultadoQueForcaBruta(random, produtos, v2);
+
+        produtos.get(2).setLiquidez(produtos.get(2).getLiquidez() + 5);
+        produtos.remove(3);
+        MatrizCaracteristicas v3 = MatrizCaracteristicas.construir(3, produtos, v2, Set.of(produtos.get(2).getId()));
+
+        assertEquals(0, v3.getIndice().quantidadeExtras());
+        assertMesmoResultadoQueForcaBruta(random, produtos, v3);
+    }
+
+    @Test
+    void construir_muitosProdutosAlterados_reconstroiIndice() {
+        Random random = new Random(17);
+        List<Produto> produtos = gerarProdutos(random, 100);
+        MatrizCaracteristicas v1 = MatrizCaracteristicas.construir(1, produtos);
+
+        Set<Long> alterados = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            produtos.get(i).setFgc(!produtos.get(i).getFgc());
+            alterados.add(produtos.get(i).getId());
+        }
+
+        MatrizCaracteristicas v2 = MatrizCaracteristicas.construir(2, produtos, v1, alterados);
+
+        assertEquals(0, v2.getIndice().quantidadeExtras());
+        assertEquals(0, v2.getIndice().quantidadeVagasMortas());
+        assertMesmoResultadoQueForcaBruta(random, produtos, v2);
+    }
+
+    private void assertMesmoResultadoQueForcaBruta(Random random, List<Produto> produtos, MatrizCaracteristicas matriz) {
+        double[] caracteristicas = new double[produtos.size() * COLUNAS];
+        for (int i = 0; i < produtos.size(); i++) {
+            MatrizCaracteristicas.preencherProduto(produtos.get(i), caracteristicas, i * COLUNAS);
+        }
+
+        int[] posicaoPorLinha = new int[produtos.size()];
+        for (int i = 0; i < posicaoPorLinha.length; i++) {
+            posicaoPorLinha[i] = i;
+        }
+
+        for (int consulta = 0; consulta < 300; consulta++) {
+            double[] entrada = new double[COLUNAS];
+            Long excluido = random.nextBoolean() ? produtos.get(random.nextInt(produtos.size())).getId() : null;
+
+            /* METADE DAS CONSULTAS COINCIDE COM UM PRODUTO, FORCANDO EMPATES */
+            if (consulta % 2 == 0) {
+                System.arraycopy(caracteristicas, random.nextInt(produtos.size()) * COLUNAS, entrada, 0, COLUNAS);
+            } else {
+                for (int c = 0; c < COLUNAS; c++) {
+                    entrada[c] = random.nextDouble() * (c == 1 ? 10 : 1);
+                }
+            }
+
+            assertEquals(forcaBruta(caracteristicas, produtos, entrada, excluido),
+                    matriz.buscarMaisProximo(entrada, posicaoPorLinha, excluido));
+        }
+    }
+
+    @Test
+    void buscarMaisProximo_todosExcluidos_retornaMenosUm() {
+        Produto produto = criarProduto(7L, TipoProduto.CDB, 10);
+        MatrizCaracteristicas matriz = MatrizCaracteristicas.construir(1, List.of(produto));
+
+        assertEquals(-1, matriz.buscarMaisProximo(new double[COLUNAS], new int[]{0}, 7L));
+        assertEquals(0, matriz.buscarMaisProximo(new double[COLUNAS], new int[]{0}, null));
+    }
+
+    @Test
+    void construir_semMudancaNasCaracteristicas_reaproveitaIndice() {
+        Random random = new Random(7);
+        List<Produto> produtos = gerarProdutos(random, 50);
+
+        MatrizCaracteristicas v1 = MatrizCaracteristicas.construir(1, produtos);
+
+        produtos.get(3).setNome("Nome alterado");
+        MatrizCaracteristicas v2 = MatrizCaracteristicas.construir(2, produtos, v1);
+
+        produtos.get(3).setLiquidez(produtos.get(3).getLiquidez() + 10);
+        MatrizCaracteristicas v3 = MatrizCaracteristicas.construir(3, produtos, v2);
+
+        assertEquals(2, v2.getVersao());
+        assertTrue(v2.isMesmoIndice(v1));
+        assertFalse(v3.isMesmoIndice(v2));
+    }
+
+    @Test
+    void construir_produtoSemId_ficaForaDoMapa() {
+        Produto semId = criarProduto(null, TipoProduto.CDB, 10);
+        MatrizCaracteristicas matriz = MatrizCaracteristicas.construir(1, List.of(semId, criarProduto(1L, TipoProduto.LCI, 8)));
+
+        assertEquals(-1, matriz.linha(null));
+        assertEquals(1, matriz.linha(1L));
+    }
+
+    private int forcaBruta(double[] caracteristicas, List<Produto> produtos, double[] entrada, Long excluido) {
+        int melhor = -1;
+        double menor = Double.MAX_VALUE;
+
+        for (int i = 0; i < produtos.size(); i++) {
+            if (excluido != null && excluido.equals(produtos.get(i).getId())) {
+                continue;
+            }
+
+            double distancia = 0;
+            for (int c = 0; c < COLUNAS; c++) {
+                double diferenca = entrada[c] - caracteristicas[i * COLUNAS + c];
+                distancia += diferenca * diferenca;
+            }
+
+            if (distancia < menor) {
+                menor = distancia;
+                melhor = i;
+            }
+        }
+
+        return melhor;
+    }
+
+    private List<Produto> gerarProdutos(Random random, int quantidade) {
+        List<Produto> produtos = new ArrayList<>();
+        TipoProduto[] tipos = TipoProduto.values();
+
+        for (int i = 0; i < quantidade; i++) {
+            Produto produto = criarProduto((long) i, tipos[random.nextInt(tipos.length)], random.nextInt(30));
+            produto.setTipoRentabilidade(TipoRentabilidade.values()[random.nextInt(TipoRentabilidade.values().length)]);
+            produto.setPeriodoRentabilidade(PeriodoRentabilidade.values()[random.nextInt(PeriodoRentabilidade.values().length)]);
+            produto.setIndice(Indice.values()[random.nextInt(Indice.values().length)]);
+            produto.setLiquidez(random.nextInt(4) == 0 ? -1 : random.nextInt(90));
+            produto.setFgc(random.nextBoolean());
+            produto.setMinimoDiasInvestimento(random.nextInt(5) * 90);
+            produtos.add(produto);
+        }
+
+        return produtos;
+    }
+
+    private Produto criarProduto(Long id, TipoProduto tipo, int rentabilidade) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setRentabilidade(BigDecimal.valueOf(rentabilidade));
+        produto.setTipoRentabilidade(TipoRentabilidade.PRE);
+        produto.setPeriodoRentabilidade(PeriodoRentabilidade.AO_ANO);
+        produto.setIndice(Indice.NENHUM);
+        produto.setLiquidez(0);
+        produto.setFgc(true);
+        produto.setMinimoDiasInvestimento(0);
+        return produto;
+    }
+}
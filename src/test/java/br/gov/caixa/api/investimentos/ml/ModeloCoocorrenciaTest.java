@@ -0,0 +1,85 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModeloCoocorrenciaTest {
+
+    @Test
+    void registrar_contaClientesComOsDoisProdutos() {
+        ModeloCoocorrencia modelo = new ModeloCoocorrencia();
+
+        modelo.registrar(1L, 10L);
+        modelo.registrar(1L, 20L);
+        modelo.registrar(2L, 10L);
+        modelo.registrar(2L, 20L);
+        modelo.registrar(2L, 30L);
+
+        assertEquals(2, modelo.contagem(10L, 20L));
+        assertEquals(2, modelo.contagem(20L, 10L));
+        assertEquals(1, modelo.contagem(10L, 30L));
+        assertEquals(0, modelo.contagem(10L, 99L));
+        assertEquals(2, modelo.quantidadeClientes());
+        assertEquals(3, modelo.quantidadeProdutos());
+    }
+
+    @Test
+    void registrar_parRepetido_naoAlteraContagem() {
+        ModeloCoocorrencia modelo = new ModeloCoocorrencia();
+
+        assertTrue(modelo.registrar(1L, 10L));
+        assertTrue(modelo.registrar(1L, 20L));
+        assertFalse(modelo.registrar(1L, 10L));
+
+        assertEquals(1, modelo.contagem(10L, 20L));
+    }
+
+    @Test
+    void registrar_ordemDiferente_mesmoModelo() {
+        ModeloCoocorrencia emOrdem = new ModeloCoocorrencia();
+        ModeloCoocorrencia foraDeOrdem = new ModeloCoocorrencia();
+        long[][] pares = {{1, 10}, {1, 20}, {2, 20}, {2, 30}, {3, 10}, {3, 30}, {3, 20}};
+
+        for (long[] par : pares) {
+            emOrdem.registrar(par[0], par[1]);
+        }
+        for (int i = pares.length - 1; i >= 0; i--) {
+            foraDeOrdem.registrar(pares[i][0], pares[i][1]);
+            foraDeOrdem.registrar(pares[i][0], pares[i][1]);
+        }
+
+        for (long produto : new long[]{10, 20, 30}) {
+            for (long outro : new long[]{10, 20, 30}) {
+                assertEquals(emOrdem.contagem(produto, outro), foraDeOrdem.contagem(produto, outro));
+            }
+        }
+    }
+
+    @Test
+    void sinal_mediaDaFracaoDosClientesDeCadaProduto() {
+        ModeloCoocorrencia modelo = new ModeloCoocorrencia();
+
+        /* DOIS CLIENTES TEM 10; UM DELES TAMBEM TEM 30. O UNICO CLIENTE DE 20 TAMBEM TEM 30 */
+        modelo.registrar(1L, 10L);
+        modelo.registrar(1L, 30L);
+        modelo.registrar(2L, 10L);
+        modelo.registrar(3L, 20L);
+        modelo.registrar(3L, 30L);
+
+        modelo.registrar(9L, 10L);
+        modelo.registrar(9L, 20L);
+
+        SinalCoocorrencia sinal = modelo.sinal(9L);
+
+        /* 10 -> 30: 1 DE 3 CLIENTES (O 9 TAMBEM CONTA); 20 -> 30: 1 DE 2 */
+        assertEquals(1, sinal.tamanho());
+        assertEquals((1.0 / 3 + 1.0 / 2) / 2, sinal.valor(30L), 1e-12);
+        assertEquals(0.0, sinal.valor(10L));
+    }
+
+    @Test
+    void sinal_clienteSemProdutos_vazio() {
+        assertTrue(new ModeloCoocorrencia().sinal(1L).isEmpty());
+    }
+}
@@ -0,0 +1,45 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankingParcialTest {
+
+    @Test
+    void ordenar_comLimite_prefixoDaOrdenacaoCompleta() {
+        Random random = new Random(42);
+
+        for (int rodada = 0; rodada < 200; rodada++) {
+            int quantidade = 1 + random.nextInt(60);
+            double[] pontuacoes = new double[quantidade];
+
+            /* POUCOS VALORES DISTINTOS PARA FORCAR EMPATES */
+            for (int i = 0; i < quantidade; i++) {
+                pontuacoes[i] = random.nextInt(8);
+            }
+
+            int[] completa = RankingParcial.ordenar(pontuacoes, quantidade, Integer.MAX_VALUE);
+
+            for (int limite = 1; limite <= quantidade; limite++) {
+                assertArrayEquals(Arrays.copyOf(completa, limite), RankingParcial.ordenar(pontuacoes, quantidade, limite));
+            }
+        }
+    }
+
+    @Test
+    void ordenar_empates_ficamNaOrdemDasPosicoes() {
+        double[] pontuacoes = {1, 3, 3, 2, 3};
+
+        assertArrayEquals(new int[]{1, 2, 4, 3, 0}, RankingParcial.ordenar(pontuacoes, 5, Integer.MAX_VALUE));
+        assertArrayEquals(new int[]{1, 2}, RankingParcial.ordenar(pontuacoes, 5, 2));
+    }
+
+    @Test
+    void ordenar_semPosicoes_retornaVazio() {
+        assertEquals(0, RankingParcial.ordenar(new double[0], 0, 5).length);
+    }
+}
@@ -0,0 +1,87 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultadoRecomendacaoTest {
+
+    @Test
+    void pontuacao_buscaPorIdEmMuitosProdutos() {
+        List<Produto> produtos = new ArrayList<>();
+        double[] pontuacoes = new double[1000];
+
+        for (int i = 0; i < pontuacoes.length; i++) {
+            produtos.add(criarProduto((long) i * 1024));
+            pontuacoes[i] = pontuacoes.length - i;
+        }
+
+        ResultadoRecomendacao resultado = ResultadoRecomendacao.construir(produtos, pontuacoes);
+
+        for (int i = 0; i < pontuacoes.length; i++) {
+            assertEquals(pontuacoes[i], resultado.pontuacao((long) i * 1024));
+            assertEquals(pontuacoes[i], resultado.pontuacaoNaPosicao(i));
+        }
+        assertEquals(0.0, resultado.pontuacao(1L));
+        assertEquals(1000, resultado.tamanho());
+        assertSame(produtos.getFirst(), resultado.getPrimeiro());
+    }
+
+    @Test
+    void construir_copiaAsEntradas() {
+        List<Produto> produtos = new ArrayList<>(List.of(criarProduto(1L)));
+        double[] pontuacoes = {5};
+
+        ResultadoRecomendacao resultado = ResultadoRecomendacao.construir(produtos, pontuacoes);
+        produtos.clear();
+        pontuacoes[0] = 9;
+
+        assertEquals(1, resultado.tamanho());
+        assertEquals(5, resultado.pontuacaoNaPosicao(0));
+        assertThrows(UnsupportedOperationException.class, () -> resultado.getProdutos().add(criarProduto(2L)));
+    }
+
+    @Test
+    void construir_produtoSemId_ficaSoNaPosicao() {
+        ResultadoRecomendacao resultado = ResultadoRecomendacao.construir(List.of(criarProduto(null)), new double[]{3});
+
+        assertEquals(3, resultado.pontuacaoNaPosicao(0));
+        assertEquals(0.0, resultado.pontuacao(0L));
+    }
+
+    @Test
+    void construir_tamanhosDiferentes_lancaExcecao() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ResultadoRecomendacao.construir(List.of(criarProduto(1L)), new double[0]));
+    }
+
+    @Test
+    void limitar_mantemOsPrimeirosEZeraOsDemais() {
+        ResultadoRecomendacao resultado = ResultadoRecomendacao.construir(
+                List.of(criarProduto(1L), criarProduto(2L), criarProduto(3L)), new double[]{9, 5, 1});
+
+        ResultadoRecomendacao limitado = resultado.limitar(2);
+
+        assertEquals(2, limitado.tamanho());
+        assertEquals(resultado.getProdutos().subList(0, 2), limitado.getProdutos());
+        assertEquals(5, limitado.pontuacao(2L));
+        assertEquals(0.0, limitado.pontuacao(3L));
+        assertSame(resultado, resultado.limitar(3));
+    }
+
+    @Test
+    void vazio_naoTemProdutos() {
+        assertTrue(ResultadoRecomendacao.vazio().isEmpty());
+        assertEquals(0.0, ResultadoRecomendacao.vazio().pontuacao(1L));
+    }
+
+    private Produto criarProduto(Long id) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        return produto;
+    }
+}
@@ -29,7 +29,9 @@ class SimulacaoInvestimentoTest {
                 BigDecimal.valueOf(0.05),
                 BigDecimal.valueOf(200.0),
                 true,
-                "cenário teste"
+                "cenário teste",
+                null,
+                null
         );
 
         simulacao = new SimulacaoInvestimento(
@@ -58,17 +58,38 @@ class ProdutoRecomendadoResourceTest {
         );
 
         doNothing().when(authHelper).validarAcessoAoCliente(jwt, CLIENTE_ID_TESTE);
-        when(produtoRecomendadoService.buscarProdutosPorCliente(CLIENTE_ID_TESTE))
+        when(produtoRecomendadoService.buscarProdutosPorCliente(CLIENTE_ID_TESTE, null))
                 .thenReturn(produtosEsperados);
 
         // When
-        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE);
+        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE, null);
 
         // Then
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
         assertEquals(produtosEsperados, response.getEntity());
         verify(authHelper).validarAcessoAoCliente(jwt, CLIENTE_ID_TESTE);
-        verify(produtoRecomendadoService).buscarProdutosPorCliente(CLIENTE_ID_TESTE);
+        verify(produtoRecomendadoService).buscarProdutosPorCliente(CLIENTE_ID_TESTE, null);
+    }
+
+    @Test
+    @DisplayName("Deve repassar o limite de produtos recomendados ao serviço")
+    void deveRepassarLimiteDeProdutosRecomendados() {
+        // Given
+        List<ProdutoResponse> produtosEsperados = List.of(
+                createProdutoResponse(1L, "CDB Test", TipoProduto.CDB, NivelRisco.BAIXO)
+        );
+
+        doNothing().when(authHelper).validarAcessoAoCliente(jwt, CLIENTE_ID_TESTE);
+        when(produtoRecomendadoService.buscarProdutosPorCliente(CLIENTE_ID_TESTE, 1))
+                .thenReturn(produtosEsperados);
+
+        // When
+        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE, 1);
+
+        // Then
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(produtosEsperados, response.getEntity());
+        verify(produtoRecomendadoService).buscarProdutosPorCliente(CLIENTE_ID_TESTE, 1);
     }
 
     @Test
@@ -77,11 +98,11 @@ class ProdutoRecomendadoResourceTest {
         // Given
         String mensagemErro = "Cliente ID não pode ser negativo";
         doNothing().when(authHelper).validarAcessoAoCliente(jwt, CLIENTE_ID_TESTE);
-        when(produtoRecomendadoService.buscarProdutosPorCliente(CLIENTE_ID_TESTE))
+        when(produtoRecomendadoService.buscarProdutosPorCliente(CLIENTE_ID_TESTE, null))
                 .thenThrow(new IllegalArgumentException(mensagemErro));
 
         // When
-        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE);
+        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE, null);
 
         // Then
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
@@ -95,11 +116,11 @@ class ProdutoRecomendadoResourceTest {
         // Given
         String mensagemErro = "Estado inválido para recomendação";
         doNothing().when(authHelper).validarAcessoAoCliente(jwt, CLIENTE_ID_TESTE);
-        when(produtoRecomendadoService.buscarProdutosPorCliente(CLIENTE_ID_TESTE))
+        when(produtoRecomendadoService.buscarProdutosPorCliente(CLIENTE_ID_TESTE, null))
                 .thenThrow(new IllegalStateException(mensagemErro));
 
         // When
-        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE);
+        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE, null);
 
         // Then
         assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
@@ -114,11 +135,11 @@ class ProdutoRecomendadoResourceTest {
         // Given
         String mensagemErro = "Cliente não encontrado";
         doNothing().when(authHelper).validarAcessoAoCliente(jwt, CLIENTE_ID_TESTE);
-        when(produtoRecomendadoService.buscarProdutosPorCliente(CLIENTE_ID_TESTE))
+        when(produtoRecomendadoService.buscarProdutosPorCliente(CLIENTE_ID_TESTE, null))
                 .thenThrow(new ClienteNotFoundException(mensagemErro));
 
         // When
-        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE);
+        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE, null);
 
         // Then
         assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
@@ -132,11 +153,11 @@ class ProdutoRecomendadoResourceTest {
     void deveRetornar500QuandoOcorreErroGenericoEmBuscarPorCliente() {
         // Given
         doNothing().when(authHelper).validarAcessoAoCliente(jwt, CLIENTE_ID_TESTE);
-        when(produtoRecomendadoService.buscarProdutosPorCliente(CLIENTE_ID_TESTE))
+        when(produtoRecomendadoService.buscarProdutosPorCliente(CLIENTE_ID_TESTE, null))
                 .thenThrow(new RuntimeException("Erro inesperado"));
 
         // When
-        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE);
+        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE, null);
 
         // Then
         assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
@@ -153,7 +174,7 @@ class ProdutoRecomendadoResourceTest {
                 .when(authHelper).validarAcessoAoCliente(jwt, CLIENTE_ID_TESTE);
 
         // When
-        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE);
+        Response response = resource.buscarProdutosPorCliente(CLIENTE_ID_TESTE, null);
 
         // Then - AccessDeniedException é capturada pelo catch genérico
         assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
@@ -162,7 +183,7 @@ class ProdutoRecomendadoResourceTest {
         assertEquals("Erro interno no servidor", errorResponse.message());
 
         verify(authHelper).validarAcessoAoCliente(jwt, CLIENTE_ID_TESTE);
-        verify(produtoRecomendadoService, never()).buscarProdutosPorCliente(any());
+        verify(produtoRecomendadoService, never()).buscarProdutosPorCliente(any(), any());
     }
 
     @Test
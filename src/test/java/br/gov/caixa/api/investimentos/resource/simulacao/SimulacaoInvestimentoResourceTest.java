@@ -1,29 +1,60 @@
 package br.gov.caixa.api.investimentos.resource.simulacao;
 
 import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.CabecalhoLinhaDoTempo;
+import br.gov.caixa.api.investimentos.dto.simulacao.PontoLinhaDoTempo;
 import br.gov.caixa.api.investimentos.dto.simulacao.ResultadoSimulacao;
+import br.gov.caixa.api.investimentos.dto.simulacao.ItemSimulacaoLote;
+import br.gov.caixa.api.investimentos.dto.simulacao.LinhaTabelaLiquida;
+import br.gov.caixa.api.investimentos.dto.simulacao.ResultadoMonteCarlo;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoCarteiraResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoComparacaoResponse;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoInvestimentoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoLoteResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMetaRequest;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMetaResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMonteCarloResponse;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoRequest;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.TabelaLiquidaResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.TarefaSimulacaoResponse;
 import br.gov.caixa.api.investimentos.enums.produto.NivelRisco;
+import br.gov.caixa.api.investimentos.enums.simulacao.GranularidadeLinhaDoTempo;
+import br.gov.caixa.api.investimentos.enums.simulacao.IncognitaMeta;
+import br.gov.caixa.api.investimentos.enums.simulacao.MetodoResolucaoMeta;
+import br.gov.caixa.api.investimentos.enums.simulacao.StatusTarefaSimulacao;
+import br.gov.caixa.api.investimentos.enums.simulacao.TipoTarefaSimulacao;
+import br.gov.caixa.api.investimentos.exception.auth.AccessDeniedException;
 import br.gov.caixa.api.investimentos.helper.auth.JwtAuthorizationHelper;
 import br.gov.caixa.api.investimentos.mapper.SimulacaoInvestimentoMapper;
 import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+import br.gov.caixa.api.investimentos.service.simulacao.LinhaDoTempoSimulacao;
 import br.gov.caixa.api.investimentos.service.simulacao.SimulacaoInvestimentoService;
+import br.gov.caixa.api.investimentos.service.simulacao.TarefaSimulacao;
+import br.gov.caixa.api.investimentos.service.simulacao.TarefasSimulacaoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.jwt.JsonWebToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class SimulacaoInvestimentoResourceTest {
@@ -43,6 +74,12 @@ class SimulacaoInvestimentoResourceTest {
     @Mock
     private SimulacaoInvestimentoMapper simulacaoMapper;
 
+    @Mock
+    private TarefasSimulacaoService tarefasSimulacaoService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -60,7 +97,7 @@ class SimulacaoInvestimentoResourceTest {
                 1L, "ProdutoX", null, null, null, null, null, null, null, null, NivelRisco.BAIXO
         );
         ResultadoSimulacao resultadoSimulacao = new ResultadoSimulacao(
-                new BigDecimal("1100"), new BigDecimal(12), 0, null, null, new BigDecimal("0.10"), new BigDecimal("100"), true, "Cenário Teste"
+                new BigDecimal("1100"), new BigDecimal(12), 0, null, null, new BigDecimal("0.10"), new BigDecimal("100"), true, "Cenário Teste", 42L, null
         );
 
         SimulacaoResponse responseMock = new SimulacaoResponse(
@@ -73,12 +110,148 @@ class SimulacaoInvestimentoResourceTest {
 
         when(service.simularInvestimento(request)).thenReturn(responseMock);
 
-        var response = resource.simularInvestimento(request);
+        var response = resource.simularInvestimento(request, null, null, true);
 
         assertEquals(201, response.getStatus());
         assertEquals(responseMock, response.getEntity());
     }
 
+    @Test
+    void testSimularInvestimentoMonteCarlo() {
+        SimulacaoRequest request = mock(SimulacaoRequest.class);
+        when(request.clienteId()).thenReturn(10L);
+
+        ResultadoMonteCarlo resultado = new ResultadoMonteCarlo(
+                new BigDecimal("1000"), 12, 500, new BigDecimal("1100.00"), new BigDecimal("1050.00"),
+                new BigDecimal("1080.00"), new BigDecimal("1100.00"), new BigDecimal("1120.00"), new BigDecimal("1150.00"), 42L
+        );
+        SimulacaoMonteCarloResponse responseMock = new SimulacaoMonteCarloResponse(
+                null, resultado, LocalDateTime.now(), 10L
+        );
+
+        when(service.simularInvestimentoMonteCarlo(request, 500)).thenReturn(responseMock);
+
+        var response = resource.simularInvestimento(request, "montecarlo", 500, true);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(responseMock, response.getEntity());
+        verify(service, never()).simularInvestimento(request);
+    }
+
+    @Test
+    void testSimularInvestimentoComparacao() {
+        SimulacaoRequest request = mock(SimulacaoRequest.class);
+        when(request.clienteId()).thenReturn(10L);
+
+        SimulacaoComparacaoResponse persistida = new SimulacaoComparacaoResponse(
+                List.of(), 0, LocalDateTime.now(), 10L, 5L);
+        SimulacaoComparacaoResponse naoPersistida = new SimulacaoComparacaoResponse(
+                List.of(), 0, LocalDateTime.now(), 10L, null);
+
+        when(service.simularInvestimentoComparacao(request, true)).thenReturn(persistida);
+        when(service.simularInvestimentoComparacao(request, false)).thenReturn(naoPersistida);
+
+        var responsePersistida = resource.simularInvestimento(request, "comparacao", null, true);
+        var responseNaoPersistida = resource.simularInvestimento(request, "comparacao", null, false);
+
+        assertEquals(201, responsePersistida.getStatus());
+        assertEquals(persistida, responsePersistida.getEntity());
+        assertEquals(200, responseNaoPersistida.getStatus());
+        assertEquals(naoPersistida, responseNaoPersistida.getEntity());
+        verify(service, never()).simularInvestimento(request);
+    }
+
+    @Test
+    void testSimularLinhaDoTempo() throws Exception {
+        SimulacaoRequest request = mock(SimulacaoRequest.class);
+        when(request.clienteId()).thenReturn(10L);
+
+        LinhaDoTempoSimulacao linhaDoTempo = mock(LinhaDoTempoSimulacao.class);
+        CabecalhoLinhaDoTempo cabecalho = new CabecalhoLinhaDoTempo(null, new BigDecimal("1000"),
+                new BigDecimal("12.0000"), "Cenário Teste", GranularidadeLinhaDoTempo.MENSAL, 2, null, 10L, 42L);
+        when(linhaDoTempo.getCabecalho()).thenReturn(cabecalho);
+        when(linhaDoTempo.hasNext()).thenReturn(true, true, false);
+        when(linhaDoTempo.next()).thenReturn(
+                new PontoLinhaDoTempo(1, new BigDecimal("1010.00"), new BigDecimal("10.00")),
+                new PontoLinhaDoTempo(2, new BigDecimal("1020.10"), new BigDecimal("20.10")));
+        when(service.simularLinhaDoTempo(request, GranularidadeLinhaDoTempo.MENSAL)).thenReturn(linhaDoTempo);
+
+        var response = resource.simularLinhaDoTempo(request, null);
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(saida);
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/x-ndjson", response.getMediaType().toString());
+        assertEquals(3, linhas.length);
+        assertTrue(linhas[0].contains("\"granularidade\":\"MENSAL\""));
+        assertTrue(linhas[2].contains("\"periodo\":2"));
+        assertTrue(linhas[2].contains("\"saldo\":1020.10"));
+        verify(authHelper).validarAcessoAoCliente(jwt, 10L);
+    }
+
+    @Test
+    void testSimularLinhaDoTempoComGranularidadeInvalida() {
+        SimulacaoRequest request = mock(SimulacaoRequest.class);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> resource.simularLinhaDoTempo(request, "semanal"));
+
+        assertTrue(exception.getMessage().contains("granularidade inválido"));
+    }
+
+    @Test
+    void testSimularMeta() {
+        SimulacaoMetaRequest request = mock(SimulacaoMetaRequest.class);
+        when(request.clienteId()).thenReturn(10L);
+
+        SimulacaoMetaResponse responseMock = new SimulacaoMetaResponse(
+                null, IncognitaMeta.PRAZO, MetodoResolucaoMeta.FORMA_FECHADA, 0, new BigDecimal("1200.00"),
+                new BigDecimal("1000.00"), 19, new BigDecimal("1210.00"), new BigDecimal("12.0000"),
+                "Cenário Teste", LocalDateTime.now(), 10L, 42L
+        );
+
+        when(service.simularMeta(request)).thenReturn(responseMock);
+
+        var response = resource.simularMeta(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(responseMock, response.getEntity());
+        verify(authHelper).validarAcessoAoCliente(jwt, 10L);
+    }
+
+    @Test
+    void testSimularTabelaLiquida() {
+        SimulacaoRequest request = mock(SimulacaoRequest.class);
+        when(request.clienteId()).thenReturn(10L);
+
+        TabelaLiquidaResponse responseMock = new TabelaLiquidaResponse(
+                null, new BigDecimal("1000"), new BigDecimal("12.0000"), "Cenário Teste", false,
+                List.of(new LinhaTabelaLiquida(1, new BigDecimal("1000.33"), new BigDecimal("0.33"),
+                        new BigDecimal("0.07"), new BigDecimal("0.32"), new BigDecimal("-0.06"), new BigDecimal("999.94"))),
+                LocalDateTime.now(), 10L, 42L
+        );
+
+        when(service.simularTabelaLiquida(request)).thenReturn(responseMock);
+
+        var response = resource.simularTabelaLiquida(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(responseMock, response.getEntity());
+        verify(authHelper).validarAcessoAoCliente(jwt, 10L);
+    }
+
+    @Test
+    void testSimularInvestimentoComModoInvalido() {
+        SimulacaoRequest request = mock(SimulacaoRequest.class);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> resource.simularInvestimento(request, "quantico", null, true));
+
+        assertTrue(exception.getMessage().contains("Modo de simulação inválido"));
+    }
+
     @Test
     void testBuscarHistoricoSimulacoes() {
         SimulacaoInvestimento simulacao1 = new SimulacaoInvestimento(
@@ -92,11 +265,11 @@ class SimulacaoInvestimentoResourceTest {
 
         SimulacaoInvestimentoResponse response1 = new SimulacaoInvestimentoResponse(
                 1L, 100L, 10L, "ProdutoA", new BigDecimal("1000"), new BigDecimal("1100"),
-                12, 0, 1, LocalDateTime.now(), new BigDecimal("0.1"), new BigDecimal("100"), true, "Cenário A"
+                12, 0, 1, LocalDateTime.now(), new BigDecimal("0.1"), new BigDecimal("100"), true, "Cenário A", 42L
         );
         SimulacaoInvestimentoResponse response2 = new SimulacaoInvestimentoResponse(
                 2L, 101L, 10L, "ProdutoB", new BigDecimal("2000"), new BigDecimal("2200"),
-                6, 0, 0, LocalDateTime.now(), new BigDecimal("0.05"), new BigDecimal("100"), false, "Cenário B"
+                6, 0, 0, LocalDateTime.now(), new BigDecimal("0.05"), new BigDecimal("100"), false, "Cenário B", 7L
         );
 
         when(service.buscarSimulacoesPorCliente(10L)).thenReturn(List.of(simulacao1, simulacao2));
@@ -119,7 +292,7 @@ class SimulacaoInvestimentoResourceTest {
         );
         SimulacaoInvestimentoResponse responseExpected = new SimulacaoInvestimentoResponse(
                 1L, 100L, 10L, "ProdutoA", new BigDecimal("1000"), new BigDecimal("1100"),
-                12, 0, 1, LocalDateTime.now(), new BigDecimal("0.1"), new BigDecimal("100"), true, "Cenário A"
+                12, 0, 1, LocalDateTime.now(), new BigDecimal("0.1"), new BigDecimal("100"), true, "Cenário A", 42L
         );
 
         when(service.buscarSimulacaoPorId(1L)).thenReturn(simulacao);
@@ -147,4 +320,127 @@ class SimulacaoInvestimentoResourceTest {
         assertEquals(200, response.getStatus());
         assertEquals(estatisticas, response.getEntity());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testProjetarCarteira() {
+        LocalDate dataAlvo = LocalDate.now().plusMonths(12);
+        SimulacaoCarteiraResponse carteira = new SimulacaoCarteiraResponse(
+                10L, dataAlvo, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                List.of(), List.of(), null, LocalDateTime.now(), 42L
+        );
+        when(service.projetarCarteira(10L, dataAlvo, 42L, false)).thenReturn(carteira);
+
+        var response = resource.projetarCarteira(10L, dataAlvo, 42L, false);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(carteira, response.getEntity());
+        verify(authHelper).validarAcessoAoCliente(jwt, 10L);
+    }
+
+    @Test
+    void testSubmeterTarefaLote() {
+        SimulacaoRequest request = mock(SimulacaoRequest.class);
+        when(request.clienteId()).thenReturn(10L);
+
+        TarefaSimulacao tarefa = mock(TarefaSimulacao.class);
+        TarefaSimulacaoResponse situacao = situacaoTarefa(StatusTarefaSimulacao.PENDENTE);
+        when(tarefa.getSituacao()).thenReturn(situacao);
+        when(tarefasSimulacaoService.submeterLote(List.of(request))).thenReturn(tarefa);
+
+        var response = resource.submeterTarefaLote(List.of(request));
+
+        assertEquals(202, response.getStatus());
+        assertEquals(situacao, response.getEntity());
+        verify(authHelper).validarAcessoAoCliente(jwt, 10L);
+    }
+
+    @Test
+    void testSubmeterTarefaMonteCarlo() {
+        SimulacaoRequest request = mock(SimulacaoRequest.class);
+        when(request.clienteId()).thenReturn(10L);
+
+        TarefaSimulacao tarefa = mock(TarefaSimulacao.class);
+        TarefaSimulacaoResponse situacao = situacaoTarefa(StatusTarefaSimulacao.PENDENTE);
+        when(tarefa.getSituacao()).thenReturn(situacao);
+        when(tarefasSimulacaoService.submeterMonteCarlo(request, 500000)).thenReturn(tarefa);
+
+        var response = resource.submeterTarefaMonteCarlo(request, 500000);
+
+        assertEquals(202, response.getStatus());
+        assertEquals(situacao, response.getEntity());
+        verify(authHelper).validarAcessoAoCliente(jwt, 10L);
+    }
+
+    @Test
+    void testConsultarTarefaValidaAcessoAosClientesDaTarefa() {
+        TarefaSimulacao tarefa = mock(TarefaSimulacao.class);
+        TarefaSimulacaoResponse situacao = situacaoTarefa(StatusTarefaSimulacao.EXECUTANDO);
+        when(tarefa.getClienteIds()).thenReturn(Set.of(10L));
+        when(tarefa.getSituacao()).thenReturn(situacao);
+        when(tarefasSimulacaoService.buscar("t1")).thenReturn(tarefa);
+
+        var response = resource.consultarTarefa("t1");
+
+        assertEquals(200, response.getStatus());
+        assertEquals(situacao, response.getEntity());
+        verify(authHelper).validarAcessoAoCliente(jwt, 10L);
+    }
+
+    @Test
+    void testBaixarResultadoTarefaPorStatus() {
+        TarefaSimulacao tarefa = mock(TarefaSimulacao.class);
+        SimulacaoLoteResponse resultado = SimulacaoLoteResponse.of(List.of(ItemSimulacaoLote.erro(0, "erro")));
+        when(tarefa.getClienteIds()).thenReturn(Set.of(10L));
+        when(tarefa.getResultado()).thenReturn(resultado);
+        when(tarefasSimulacaoService.buscar("t1")).thenReturn(tarefa);
+
+        when(tarefa.getStatus()).thenReturn(StatusTarefaSimulacao.CONCLUIDA);
+        var concluida = resource.baixarResultadoTarefa("t1");
+        assertEquals(200, concluida.getStatus());
+        assertEquals(resultado, concluida.getEntity());
+
+        when(tarefa.getStatus()).thenReturn(StatusTarefaSimulacao.EXECUTANDO);
+        assertEquals(202, resource.baixarResultadoTarefa("t1").getStatus());
+
+        when(tarefa.getStatus()).thenReturn(StatusTarefaSimulacao.FALHOU);
+        assertEquals(409, resource.baixarResultadoTarefa("t1").getStatus());
+    }
+
+    @Test
+    void testTarefaSemClienteNaoPodeSerConsultada() {
+        TarefaSimulacao tarefa = mock(TarefaSimulacao.class);
+        when(tarefa.getClienteIds()).thenReturn(Set.of());
+        when(tarefasSimulacaoService.buscar("t1")).thenReturn(tarefa);
+
+        assertThrows(AccessDeniedException.class, () -> resource.consultarTarefa("t1"));
+        assertThrows(AccessDeniedException.class, () -> resource.baixarResultadoTarefa("t1"));
+        verify(tarefa, never()).getSituacao();
+        verify(tarefa, never()).getResultado();
+    }
+
+    private TarefaSimulacaoResponse situacaoTarefa(StatusTarefaSimulacao status) {
+        return new TarefaSimulacaoResponse("t1", TipoTarefaSimulacao.LOTE, status, 1, 0, BigDecimal.ZERO,
+                LocalDateTime.now(), null, null, null);
+    }
+
+    @Test
+    void testSimularInvestimentoLote() {
+        SimulacaoRequest request1 = mock(SimulacaoRequest.class);
+        SimulacaoRequest request2 = mock(SimulacaoRequest.class);
+        when(request1.clienteId()).thenReturn(10L);
+        when(request2.clienteId()).thenReturn(10L);
+
+        SimulacaoLoteResponse loteMock = SimulacaoLoteResponse.of(List.of(
+                ItemSimulacaoLote.erro(0, "Prazo muito longo"),
+                ItemSimulacaoLote.erro(1, "Prazo muito longo")
+        ));
+
+        when(service.simularInvestimentoLote(List.of(request1, request2))).thenReturn(loteMock);
+
+        var response = resource.simularInvestimentoLote(List.of(request1, request2));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(loteMock, response.getEntity());
+        verify(authHelper, times(1)).validarAcessoAoCliente(jwt, 10L);
+    }
+}
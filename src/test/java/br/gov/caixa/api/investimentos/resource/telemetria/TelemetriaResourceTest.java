@@ -2,9 +2,13 @@ package br.gov.caixa.api.investimentos.resource.telemetria;
 
 import br.gov.caixa.api.investimentos.dto.telemetria.AcessoLogDTO;
 import br.gov.caixa.api.investimentos.dto.telemetria.EstatisticasAcessoDTO;
+import br.gov.caixa.api.investimentos.dto.telemetria.MetricasCacheRecomendacaoDTO;
+import br.gov.caixa.api.investimentos.dto.telemetria.MetricasGravacaoSimulacaoDTO;
 import br.gov.caixa.api.investimentos.dto.telemetria.TelemetriaResponse;
 import br.gov.caixa.api.investimentos.model.telemetria.TelemetriaMetrica;
 import br.gov.caixa.api.investimentos.repository.telemetria.TelemetriaMetricaRepository;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.RecomendacaoClienteService;
+import br.gov.caixa.api.investimentos.service.simulacao.GravacaoAssincronaSimulacao;
 import br.gov.caixa.api.investimentos.service.telemetria.AcessoLogService;
 import br.gov.caixa.api.investimentos.service.telemetria.TelemetriaService;
 import jakarta.ws.rs.core.Response;
@@ -23,6 +27,8 @@ class TelemetriaResourceTest {
     private TelemetriaService telemetriaService;
     private TelemetriaMetricaRepository telemetriaRepository;
     private AcessoLogService acessoLogService;
+    private GravacaoAssincronaSimulacao gravacaoAssincronaSimulacao;
+    private RecomendacaoClienteService recomendacaoClienteService;
     private TelemetriaResource resource;
 
     @BeforeEach
@@ -30,7 +36,11 @@ class TelemetriaResourceTest {
         telemetriaService = mock(TelemetriaService.class);
         telemetriaRepository = mock(TelemetriaMetricaRepository.class);
         acessoLogService = mock(AcessoLogService.class);
+        gravacaoAssincronaSimulacao = mock(GravacaoAssincronaSimulacao.class);
+        recomendacaoClienteService = mock(RecomendacaoClienteService.class);
         resource = new TelemetriaResource();
+        resource.gravacaoAssincronaSimulacao = gravacaoAssincronaSimulacao;
+        resource.recomendacaoClienteService = recomendacaoClienteService;
         resource.telemetriaService = telemetriaService;
         resource.telemetriaRepository = telemetriaRepository;
         resource.acessoLogService = acessoLogService;
@@ -270,4 +280,47 @@ class TelemetriaResourceTest {
         assertEquals(500, response.getStatus());
         assertTrue(((String) response.getEntity()).contains("Erro ao limpar logs antigos"));
     }
+
+    @Test
+    void obterMetricasGravacaoSimulacoes_deveRetornar200() {
+        MetricasGravacaoSimulacaoDTO metricas = new MetricasGravacaoSimulacaoDTO(
+                true, 3, 100, 50L, 2L, 1L, 0L, 4.5, 7.0);
+        when(gravacaoAssincronaSimulacao.obterMetricas()).thenReturn(metricas);
+
+        Response response = resource.obterMetricasGravacaoSimulacoes();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(metricas, response.getEntity());
+    }
+
+    @Test
+    void obterMetricasGravacaoSimulacoes_quandoErro_deveRetornar500() {
+        when(gravacaoAssincronaSimulacao.obterMetricas()).thenThrow(new RuntimeException("Erro"));
+
+        Response response = resource.obterMetricasGravacaoSimulacoes();
+
+        assertEquals(500, response.getStatus());
+        assertTrue(((String) response.getEntity()).contains("Erro ao obter métricas de gravação"));
+    }
+
+    @Test
+    void obterMetricasCacheRecomendacoes_deveRetornar200() {
+        MetricasCacheRecomendacaoDTO metricas = new MetricasCacheRecomendacaoDTO(8L, 2L, 1L, 0.8);
+        when(recomendacaoClienteService.obterMetricas()).thenReturn(metricas);
+
+        Response response = resource.obterMetricasCacheRecomendacoes();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(metricas, response.getEntity());
+    }
+
+    @Test
+    void obterMetricasCacheRecomendacoes_quandoErro_deveRetornar500() {
+        when(recomendacaoClienteService.obterMetricas()).thenThrow(new RuntimeException("Erro"));
+
+        Response response = resource.obterMetricasCacheRecomendacoes();
+
+        assertEquals(500, response.getStatus());
+        assertTrue(((String) response.getEntity()).contains("Erro ao obter métricas do cache de recomendações"));
+    }
 }
\ No newline at end of file
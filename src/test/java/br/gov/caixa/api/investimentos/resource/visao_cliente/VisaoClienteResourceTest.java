@@ -0,0 +1,75 @@
+package br.gov.caixa.api.investimentos.resource.visao_cliente;
+
+import br.gov.caixa.api.investimentos.dto.common.ErrorResponse;
+import br.gov.caixa.api.investimentos.dto.perfil_risco.PerfilRiscoResponse;
+import br.gov.caixa.api.investimentos.dto.visao_cliente.VisaoClienteResponse;
+import br.gov.caixa.api.investimentos.exception.cliente.ClienteNotFoundException;
+import br.gov.caixa.api.investimentos.helper.auth.JwtAuthorizationHelper;
+import br.gov.caixa.api.investimentos.service.visao_cliente.VisaoClienteService;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.jwt.JsonWebToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VisaoClienteResourceTest {
+
+    private VisaoClienteService service;
+    private VisaoClienteResource resource;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(VisaoClienteService.class);
+        resource = new VisaoClienteResource();
+        resource.visaoClienteService = service;
+        resource.jwt = mock(JsonWebToken.class);
+        resource.authHelper = mock(JwtAuthorizationHelper.class);
+    }
+
+    @Test
+    void buscarVisao_deveRetornarPerfilEProdutos() {
+        VisaoClienteResponse visao = new VisaoClienteResponse(1L,
+                PerfilRiscoResponse.moderado(1L, 50), List.of());
+        when(service.buscarVisao(1L, 3)).thenReturn(visao);
+
+        Response response = resource.buscarVisao(1L, 3);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(visao, response.getEntity());
+    }
+
+    @Test
+    void buscarVisao_quandoClienteNaoEncontrado_deveRetornar404() {
+        when(service.buscarVisao(2L, null)).thenThrow(new ClienteNotFoundException("Cliente não encontrado com ID: 2"));
+
+        Response response = resource.buscarVisao(2L, null);
+
+        assertEquals(404, response.getStatus());
+        assertEquals("Cliente não encontrado com ID: 2", ((ErrorResponse) response.getEntity()).message());
+    }
+
+    @Test
+    void buscarVisao_quandoSemHistorico_deveRetornar400() {
+        String mensagem = "Cliente não possui histórico de investimentos nem simulações para calcular perfil de risco";
+        when(service.buscarVisao(3L, null)).thenThrow(new IllegalStateException(mensagem));
+
+        Response response = resource.buscarVisao(3L, null);
+
+        assertEquals(400, response.getStatus());
+        assertEquals(mensagem, ((ErrorResponse) response.getEntity()).message());
+    }
+
+    @Test
+    void buscarVisao_quandoErroGenerico_deveRetornar500() {
+        when(service.buscarVisao(4L, null)).thenThrow(new RuntimeException("Erro inesperado"));
+
+        Response response = resource.buscarVisao(4L, null);
+
+        assertEquals(500, response.getStatus());
+    }
+}
@@ -1,10 +1,12 @@
 package br.gov.caixa.api.investimentos.service.compliance;
 
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -225,4 +227,60 @@ class TributacaoServiceTest {
         BigDecimal irEsperado = new BigDecimal("21.60"); // 17,5% de 123.45
         assertEquals(0, irEsperado.compareTo(ir));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve calcular a tabela por prazo igual ao cálculo de cada prazo isolado")
+    void deveCalcularTabelaIgualAoCalculoPorPrazo() {
+        // Given
+        BigDecimal[] rendimentos = new BigDecimal[800];
+        for (int i = 0; i < rendimentos.length; i++) {
+            rendimentos[i] = new BigDecimal("1.37").multiply(new BigDecimal(i + 1));
+        }
+
+        // When
+        TributacaoService.Tributacao[] tabela = tributacaoService.calcularTabela(rendimentos);
+
+        // Then
+        assertEquals(800, tabela.length);
+        for (int i = 0; i < rendimentos.length; i++) {
+            int prazoDias = i + 1;
+
+            assertEquals(0, tributacaoService.calcularIR(rendimentos[i], prazoDias).compareTo(tabela[i].valorIR()));
+            assertEquals(0, tributacaoService.calcularIOF(rendimentos[i], prazoDias).compareTo(tabela[i].valorIOF()));
+            assertEquals(0, tributacaoService.calcularRendimentoLiquido(rendimentos[i], prazoDias)
+                    .compareTo(tabela[i].rendimentoLiquido()));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve trocar de faixa de IR nos limites de 180, 360 e 720 dias")
+    void deveTrocarFaixaDeIRNosLimites() {
+        // Given
+        BigDecimal[] rendimentos = new BigDecimal[721];
+        Arrays.fill(rendimentos, new BigDecimal("1000.00"));
+
+        // When
+        TributacaoService.Tributacao[] tabela = tributacaoService.calcularTabela(rendimentos);
+
+        // Then
+        assertEquals(new BigDecimal("0.225"), tabela[179].aliquotaIR());
+        assertEquals(new BigDecimal("0.20"), tabela[180].aliquotaIR());
+        assertEquals(new BigDecimal("0.20"), tabela[359].aliquotaIR());
+        assertEquals(new BigDecimal("0.175"), tabela[360].aliquotaIR());
+        assertEquals(new BigDecimal("0.175"), tabela[719].aliquotaIR());
+        assertEquals(new BigDecimal("0.15"), tabela[720].aliquotaIR());
+        assertEquals(0, new BigDecimal("960.00").compareTo(tabela[0].valorIOF()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(tabela[29].valorIOF()));
+    }
+
+    @Test
+    @DisplayName("Deve considerar isentos poupança, LCI, LCA e CRI")
+    void deveConsiderarProdutosIsentos() {
+        assertTrue(tributacaoService.isIsento(TipoProduto.POUPANCA));
+        assertTrue(tributacaoService.isIsento(TipoProduto.LCI));
+        assertTrue(tributacaoService.isIsento(TipoProduto.LCA));
+        assertTrue(tributacaoService.isIsento(TipoProduto.CRI));
+        assertFalse(tributacaoService.isIsento(TipoProduto.CDB));
+        assertFalse(tributacaoService.isIsento(TipoProduto.TESOURO_DIRETO));
+    }
+}
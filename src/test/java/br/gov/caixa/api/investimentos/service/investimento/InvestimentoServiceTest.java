@@ -6,6 +6,7 @@ import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
 import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
 import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
 import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
 import br.gov.caixa.api.investimentos.exception.cliente.ClienteNotFoundException;
 import br.gov.caixa.api.investimentos.exception.produto.ProdutoNotFoundException;
 import br.gov.caixa.api.investimentos.mapper.InvestimentoMapper;
@@ -15,6 +16,7 @@ import br.gov.caixa.api.investimentos.model.produto.Produto;
 import br.gov.caixa.api.investimentos.repository.cliente.IPessoaRepository;
 import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
 import br.gov.caixa.api.investimentos.repository.produto.IProdutoRepository;
+import jakarta.enterprise.event.Event;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -43,6 +45,9 @@ class InvestimentoServiceTest {
     @Mock
     private IInvestimentoRepository investimentoRepository;
 
+    @Mock
+    private Event<HistoricoClienteAlteradoEvent> historicoAlterado;
+
     @InjectMocks
     private InvestimentoService investimentoService;
 
@@ -122,6 +127,7 @@ class InvestimentoServiceTest {
         verify(investimentoRepository).persist(validInvestimento);
         verify(investimentoMapper).toEntity(validRequest, validProduto);
         verify(investimentoMapper).toResponse(validInvestimento);
+        verify(historicoAlterado).fire(new HistoricoClienteAlteradoEvent(1L, List.of(validInvestimento)));
     }
 
     @Test
@@ -3,19 +3,19 @@ package br.gov.caixa.api.investimentos.service.perfil_risco;
 import br.gov.caixa.api.investimentos.dto.perfil_risco.PerfilRiscoResponse;
 import br.gov.caixa.api.investimentos.enums.produto.NivelRisco;
 import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
-import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.perfil_risco.PerfilRiscoPrecalculado;
 import br.gov.caixa.api.investimentos.model.produto.Produto;
-import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
-import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
-import br.gov.caixa.api.investimentos.repository.produto.IProdutoRepository;
-import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import br.gov.caixa.api.investimentos.repository.perfil_risco.IPerfilRiscoPrecalculadoRepository;
 import br.gov.caixa.api.investimentos.service.cliente.ClienteService;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.RecomendacaoClienteService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,16 +30,10 @@ class PerfilRiscoServiceTest {
     ClienteService clienteService;
 
     @Mock
-    IInvestimentoRepository investimentoRepository;
+    RecomendacaoClienteService recomendacaoClienteService;
 
     @Mock
-    ISimulacaoInvestimentoRepository simulacaoRepository;
-
-    @Mock
-    IProdutoRepository produtoRepository;
-
-    @Mock
-    GeradorRecomendacaoML geradorRecomendacaoML;
+    IPerfilRiscoPrecalculadoRepository precalculadoRepository;
 
     @BeforeEach
     void setUp() {
@@ -60,15 +54,8 @@ class PerfilRiscoServiceTest {
         Long clienteId = 1L;
 
         when(clienteService.buscarPorId(clienteId)).thenReturn(null); // Apenas não lança exceção
-        when(produtoRepository.listAll()).thenReturn(List.of(
-                criarProduto("Produto A", NivelRisco.BAIXO, 10)
-        ));
-        when(investimentoRepository.findByClienteId(clienteId)).thenReturn(List.of());
-        when(simulacaoRepository.findByClienteId(clienteId)).thenReturn(List.of(
-                mock(SimulacaoInvestimento.class)
-        ));
-        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(anyList(), anyList()))
-                .thenReturn(List.of(criarProduto("Produto A", NivelRisco.BAIXO, 100)));
+        when(recomendacaoClienteService.recomendar(clienteId))
+                .thenReturn(ResultadoRecomendacao.construir(List.of(criarProduto("Produto A", TipoProduto.POUPANCA)), new double[]{100}));
 
         PerfilRiscoResponse response = perfilRiscoService.calcularPerfilRisco(clienteId);
         assertNotNull(response);
@@ -76,11 +63,59 @@ class PerfilRiscoServiceTest {
         assertEquals(100, response.pontuacao());
     }
 
-    private Produto criarProduto(String nome, NivelRisco risco, int pontuacao) {
+    @Test
+    void calcularPerfilRisco_usaPontuacoesDoResultado() {
+        Long clienteId = 1L;
+
+        when(recomendacaoClienteService.recomendar(clienteId))
+                .thenReturn(ResultadoRecomendacao.construir(
+                        List.of(criarProduto("Produto A", TipoProduto.POUPANCA), criarProduto("Produto B", TipoProduto.ACAO)),
+                        new double[]{75, 25}));
+
+        PerfilRiscoResponse response = perfilRiscoService.calcularPerfilRisco(clienteId);
+
+        assertEquals("CONSERVADOR", response.perfil());
+        assertEquals(75, response.pontuacao());
+    }
+
+    @Test
+    void calcularPerfilRisco_semHistorico_throwsException() {
+        Long clienteId = 1L;
+
+        when(recomendacaoClienteService.recomendar(clienteId)).thenReturn(ResultadoRecomendacao.vazio());
+
+        assertThrows(IllegalStateException.class, () -> perfilRiscoService.calcularPerfilRisco(clienteId));
+    }
+
+    @Test
+    void calcularPerfilRisco_comPrecalculoDoDia_naoRecalcula() {
+        Long clienteId = 1L;
+
+        when(precalculadoRepository.findByClienteId(clienteId, LocalDate.now()))
+                .thenReturn(new PerfilRiscoPrecalculado(clienteId, "AGRESSIVO", 80, List.of(3L, 1L), LocalDate.now()));
+
+        PerfilRiscoResponse response = perfilRiscoService.calcularPerfilRisco(clienteId);
+
+        assertEquals(PerfilRiscoResponse.agressivo(clienteId, 80), response);
+        verify(recomendacaoClienteService, never()).recomendar(clienteId);
+    }
+
+    @Test
+    void calcularPerfilRisco_precalculoSemHistorico_throwsException() {
+        Long clienteId = 1L;
+
+        when(precalculadoRepository.findByClienteId(clienteId, LocalDate.now()))
+                .thenReturn(new PerfilRiscoPrecalculado(clienteId, null, null, List.of(), LocalDate.now()));
+
+        assertThrows(IllegalStateException.class, () -> perfilRiscoService.calcularPerfilRisco(clienteId));
+        verify(recomendacaoClienteService, never()).recomendar(clienteId);
+    }
+
+    private Produto criarProduto(String nome, TipoProduto tipo) {
         Produto produto = new Produto();
-        produto.setTipo(TipoProduto.POUPANCA);
+        produto.setNome(nome);
+        produto.setTipo(tipo);
         produto.setFgc(true);
-        produto.setPontuacao(pontuacao);
         return produto;
     }
 }
\ No newline at end of file
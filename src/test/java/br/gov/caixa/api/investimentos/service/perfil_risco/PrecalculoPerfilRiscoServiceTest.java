@@ -0,0 +1,314 @@
+package br.gov.caixa.api.investimentos.service.perfil_risco;
+
+import br.gov.caixa.api.investimentos.dto.perfil_risco.PerfilRiscoPrecalculadoResponse;
+import br.gov.caixa.api.investimentos.dto.perfil_risco.PrecalculoPerfilRiscoResponse;
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.enums.simulacao.StatusTarefaSimulacao;
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
+import br.gov.caixa.api.investimentos.event.produto.CatalogoProdutoAlteradoEvent;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.investimento.Investimento;
+import br.gov.caixa.api.investimentos.model.perfil_risco.PerfilRiscoPrecalculado;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import br.gov.caixa.api.investimentos.repository.cliente.IPessoaRepository;
+import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
+import br.gov.caixa.api.investimentos.repository.perfil_risco.IPerfilRiscoPrecalculadoRepository;
+import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.CoocorrenciaProdutosService;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.RecomendacaoClienteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PrecalculoPerfilRiscoServiceTest {
+
+    /* CLIENTE -> PRODUTO DO HISTORICO; O CLIENTE 3 NAO TEM HISTORICO E O 5 TEM UM PRODUTO QUE FALHA NO CALCULO */
+    private static final Map<Long, Long> PRODUTO_POR_CLIENTE = Map.of(1L, 10L, 2L, 20L, 5L, 99L, 8L, 10L);
+    private static final List<Long> CLIENTES = List.of(1L, 2L, 3L, 5L, 8L);
+
+    private final CatalogoIndexado catalogo = CatalogoIndexado.construir(1, List.of());
+
+    @Mock
+    private IPessoaRepository pessoaRepository;
+
+    @Mock
+    private IInvestimentoRepository investimentoRepository;
+
+    @Mock
+    private ISimulacaoInvestimentoRepository simulacaoRepository;
+
+    @Mock
+    private IPerfilRiscoPrecalculadoRepository precalculadoRepository;
+
+    @Mock
+    private RecomendacaoClienteService recomendacaoClienteService;
+
+    @Mock
+    private CoocorrenciaProdutosService coocorrenciaProdutosService;
+
+    @InjectMocks
+    private PrecalculoPerfilRiscoService precalculoService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        precalculoService.perfilRiscoService = new PerfilRiscoService();
+        precalculoService.tamanhoBloco = 2;
+        precalculoService.paralelismo = 2;
+
+        when(pessoaRepository.listarIdsAposId(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long aposId = invocation.getArgument(0);
+            int limite = invocation.getArgument(1);
+            return CLIENTES.stream().filter(id -> id > aposId).limit(limite).toList();
+        });
+        when(investimentoRepository.findByClienteIds(anyCollection())).thenAnswer(invocation ->
+                ((Collection<Long>) invocation.getArgument(0)).stream()
+                        .filter(PRODUTO_POR_CLIENTE::containsKey)
+                        .map(clienteId -> investimento(clienteId, PRODUTO_POR_CLIENTE.get(clienteId)))
+                        .toList());
+        when(simulacaoRepository.findByClienteIds(anyCollection())).thenReturn(List.of());
+
+        when(recomendacaoClienteService.prepararCatalogo()).thenReturn(catalogo);
+        when(recomendacaoClienteService.recomendar(any(), anyList(), anyList(), any())).thenAnswer(invocation -> {
+            List<Investimento> investimentos = invocation.getArgument(1);
+
+            if (investimentos.isEmpty()) {
+                return ResultadoRecomendacao.vazio();
+            }
+
+            long produtoId = investimentos.getFirst().getProdutoId();
+
+            if (produtoId == 99L) {
+                throw new IllegalArgumentException("Produto não encontrado com ID: 99");
+            }
+
+            return ResultadoRecomendacao.construir(
+                    List.of(produto(produtoId, produtoId == 10L ? TipoProduto.POUPANCA : TipoProduto.ACAO)),
+                    new double[]{10});
+        });
+        when(coocorrenciaProdutosService.combinar(anyLong(), any(), anyInt(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        when(precalculadoRepository.existeTabela()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        precalculoService.encerrarExecutor();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveGravarCadaBlocoNaSuaFaixaDeIds() throws InterruptedException {
+        ExecucaoPrecalculo execucao = precalculoService.iniciar();
+        aguardarFinalizacao(execucao);
+
+        ArgumentCaptor<List<PerfilRiscoPrecalculado>> linhas = ArgumentCaptor.forClass(List.class);
+
+        verify(precalculadoRepository).substituirFaixa(eq(0L), eq(2L), linhas.capture());
+        verify(precalculadoRepository).substituirFaixa(eq(2L), eq(5L), linhas.capture());
+        verify(precalculadoRepository).substituirFaixa(eq(5L), eq(8L), linhas.capture());
+        verify(precalculadoRepository).removerAposCliente(8L);
+
+        List<PerfilRiscoPrecalculado> primeiro = linhas.getAllValues().get(0);
+        assertEquals("CONSERVADOR", primeiro.get(0).getPerfil());
+        assertEquals(List.of(10L), primeiro.get(0).listarProdutoIds());
+        assertEquals("AGRESSIVO", primeiro.get(1).getPerfil());
+        assertEquals(LocalDate.now(), primeiro.get(1).getDataReferencia());
+
+        /* O CLIENTE 5 FALHOU E FICA SEM LINHA; O 3 GANHA UMA LINHA SEM PERFIL */
+        List<PerfilRiscoPrecalculado> segundo = linhas.getAllValues().get(1);
+        assertEquals(1, segundo.size());
+        assertEquals(3L, segundo.get(0).getClienteId());
+        assertTrue(segundo.get(0).isSemHistorico());
+
+        PrecalculoPerfilRiscoResponse situacao = execucao.getSituacao();
+        assertEquals(StatusTarefaSimulacao.CONCLUIDA, situacao.status());
+        assertEquals(5, situacao.clientesProcessados());
+        assertEquals(3, situacao.clientesComPerfil());
+        assertEquals(1, situacao.clientesSemHistorico());
+        assertEquals(1, situacao.clientesComFalha());
+        verify(investimentoRepository, times(3)).findByClienteIds(anyCollection());
+    }
+
+    @Test
+    void catalogoResolvidoNaLeituraDoBloco_eEntregueAosCalculos() throws InterruptedException {
+        ExecucaoPrecalculo execucao = precalculoService.iniciar();
+        aguardarFinalizacao(execucao);
+
+        verify(recomendacaoClienteService, times(3)).prepararCatalogo();
+        verify(recomendacaoClienteService, times(CLIENTES.size())).recomendar(same(catalogo), anyList(), anyList(), any());
+        verify(coocorrenciaProdutosService, times(3)).combinar(anyLong(), any(), anyInt(), same(catalogo));
+    }
+
+    @Test
+    void todosOsClientesDoBlocoFalham_falhaAExecucaoSemGravarOBloco() throws InterruptedException {
+        when(recomendacaoClienteService.recomendar(any(), anyList(), anyList(), any()))
+                .thenThrow(new IllegalStateException("Banco indisponível"));
+
+        ExecucaoPrecalculo execucao = precalculoService.iniciar();
+        aguardarFinalizacao(execucao);
+
+        assertEquals(StatusTarefaSimulacao.FALHOU, execucao.getStatus());
+        assertTrue(execucao.getSituacao().erro().contains("todos os clientes com ID de 1 a 2"));
+        verify(precalculadoRepository, never()).substituirFaixa(anyLong(), anyLong(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void clienteAlteradoDuranteAExecucao_naoFicaComLinhaDesatualizada() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch iniciou = new CountDownLatch(1);
+
+        when(pessoaRepository.listarIdsAposId(anyLong(), anyInt())).thenAnswer(invocation -> {
+            iniciou.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            long aposId = invocation.getArgument(0);
+            return aposId == 0L ? List.of(1L, 2L) : List.of();
+        });
+
+        ExecucaoPrecalculo execucao = precalculoService.iniciar();
+        assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+
+        precalculoService.onHistoricoAlterado(new HistoricoClienteAlteradoEvent(2L, List.of()));
+        liberar.countDown();
+        aguardarFinalizacao(execucao);
+
+        ArgumentCaptor<List<PerfilRiscoPrecalculado>> linhas = ArgumentCaptor.forClass(List.class);
+        verify(precalculadoRepository).substituirFaixa(eq(0L), eq(2L), linhas.capture());
+        assertEquals(List.of(1L), linhas.getValue().stream().map(PerfilRiscoPrecalculado::getClienteId).toList());
+
+        verify(precalculadoRepository).removerPorCliente(2L);
+        verify(precalculadoRepository).removerPorClientes(List.of(2L));
+        assertEquals(StatusTarefaSimulacao.CONCLUIDA, execucao.getStatus());
+    }
+
+    @Test
+    void tabelaAusente_invalidacoesNaoTocamATabela() {
+        when(precalculadoRepository.existeTabela()).thenReturn(false);
+
+        precalculoService.onHistoricoAlterado(new HistoricoClienteAlteradoEvent(2L, List.of()));
+        precalculoService.onCatalogoAlterado(
+                new CatalogoProdutoAlteradoEvent(10L, CatalogoProdutoAlteradoEvent.TipoAlteracao.ATUALIZACAO));
+
+        verify(precalculadoRepository, never()).removerPorCliente(anyLong());
+        verify(precalculadoRepository, never()).removerTodos();
+
+        when(precalculadoRepository.existeTabela()).thenReturn(true);
+        precalculoService.onHistoricoAlterado(new HistoricoClienteAlteradoEvent(2L, List.of()));
+
+        verify(precalculadoRepository).removerPorCliente(2L);
+    }
+
+    @Test
+    void catalogoAlteradoDuranteAExecucao_descartaOPrecalculo() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch iniciou = new CountDownLatch(1);
+
+        when(pessoaRepository.listarIdsAposId(eq(0L), anyInt())).thenAnswer(invocation -> {
+            iniciou.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return List.of(1L, 2L);
+        });
+
+        ExecucaoPrecalculo execucao = precalculoService.iniciar();
+        assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+
+        precalculoService.onCatalogoAlterado(
+                new CatalogoProdutoAlteradoEvent(10L, CatalogoProdutoAlteradoEvent.TipoAlteracao.ATUALIZACAO));
+        liberar.countDown();
+        aguardarFinalizacao(execucao);
+
+        assertEquals(StatusTarefaSimulacao.FALHOU, execucao.getStatus());
+        assertTrue(execucao.getSituacao().erro().contains("Catálogo de produtos alterado"));
+        verify(precalculadoRepository, times(2)).removerTodos();
+    }
+
+    @Test
+    void iniciar_comExecucaoEmAndamento_devolveAMesma() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        when(pessoaRepository.listarIdsAposId(anyLong(), anyInt())).thenAnswer(invocation -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        ExecucaoPrecalculo primeira = precalculoService.iniciar();
+        ExecucaoPrecalculo segunda = precalculoService.iniciar();
+
+        assertSame(primeira, segunda);
+
+        liberar.countDown();
+        aguardarFinalizacao(primeira);
+
+        assertNotSame(primeira, precalculoService.iniciar());
+        assertSame(precalculoService.buscarUltimaExecucao(), precalculoService.buscarUltimaExecucao());
+    }
+
+    @Test
+    void buscarUltimaExecucao_semExecucao_lancaNaoEncontrada() {
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> precalculoService.buscarUltimaExecucao());
+        assertTrue(erro.getMessage().contains("não encontrada"));
+    }
+
+    @Test
+    void listar_devolvePerfisComDescricaoEProdutos() {
+        when(precalculadoRepository.listarComPerfilAposCliente(4L, 2)).thenReturn(List.of(
+                new PerfilRiscoPrecalculado(5L, "MODERADO", 60, List.of(20L, 10L), LocalDate.now())));
+
+        List<PerfilRiscoPrecalculadoResponse> pagina = precalculoService.listar(4L, 2);
+
+        assertEquals(1, pagina.size());
+        assertEquals(5L, pagina.get(0).clienteId());
+        assertEquals("MODERADO", pagina.get(0).perfil());
+        assertEquals("Perfil equilibrado entre segurança e rentabilidade.", pagina.get(0).descricao());
+        assertEquals(List.of(20L, 10L), pagina.get(0).produtoIds());
+    }
+
+    @Test
+    void listar_limiteForaDoIntervalo_lancaExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> precalculoService.listar(0L, 0));
+        assertThrows(IllegalArgumentException.class, () -> precalculoService.listar(0L, 10001));
+        verifyNoInteractions(precalculadoRepository);
+    }
+
+    private void aguardarFinalizacao(ExecucaoPrecalculo execucao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!execucao.getStatus().isFinalizada() && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertTrue(execucao.getStatus().isFinalizada(), "Pré-cálculo não finalizou a tempo");
+    }
+
+    private Investimento investimento(Long clienteId, Long produtoId) {
+        Investimento investimento = new Investimento();
+        investimento.setClienteId(clienteId);
+        investimento.setProdutoId(produtoId);
+        return investimento;
+    }
+
+    private Produto produto(Long id, TipoProduto tipo) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setFgc(true);
+        return produto;
+    }
+}
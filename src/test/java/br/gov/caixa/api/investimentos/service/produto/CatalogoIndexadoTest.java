@@ -0,0 +1,83 @@
+package br.gov.caixa.api.investimentos.service.produto;
+
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogoIndexadoTest {
+
+    private Produto cdbPre;
+    private Produto cdbPos;
+    private Produto lciPre;
+    private Produto acao;
+    private CatalogoIndexado catalogo;
+
+    @BeforeEach
+    void setUp() {
+        cdbPre = produto(1L, "CDB Pré", TipoProduto.CDB, TipoRentabilidade.PRE, "12.0", Indice.NENHUM, 30, 30, true);
+        cdbPos = produto(2L, "CDB Pós", TipoProduto.CDB, TipoRentabilidade.POS, "110.0", Indice.CDI, 0, 1, true);
+        lciPre = produto(3L, "LCI Pré", TipoProduto.LCI, TipoRentabilidade.PRE, "9.0", Indice.NENHUM, 90, 90, true);
+        acao = produto(4L, "Ação XYZ", TipoProduto.ACAO, TipoRentabilidade.PRE, "20.0", Indice.NENHUM, 2, 1, false);
+
+        List<Produto> produtos = new ArrayList<>(List.of(acao, lciPre, cdbPre, cdbPos));
+        produtos.add(null);
+
+        catalogo = CatalogoIndexado.construir(3, produtos);
+    }
+
+    @Test
+    void deveOrdenarPorRiscoERentabilidadeIgnorandoNulos() {
+        List<Produto> todos = catalogo.listarTodos();
+
+        assertEquals(4, todos.size());
+        assertEquals(List.of(cdbPos, cdbPre, lciPre, acao), todos);
+        assertEquals(3, catalogo.getVersao());
+    }
+
+    @Test
+    void deveFiltrarPorCriteriosCombinados() {
+        assertEquals(List.of(cdbPos, cdbPre),
+                catalogo.filtrar(null, TipoProduto.CDB, null, null, null, null, 360));
+        assertEquals(List.of(cdbPre),
+                catalogo.filtrar(null, TipoProduto.CDB, TipoRentabilidade.PRE, Indice.NENHUM, 30, true, 360));
+        assertEquals(List.of(acao),
+                catalogo.filtrar(null, null, null, null, null, false, 360));
+        assertEquals(List.of(lciPre),
+                catalogo.filtrar("LCI Pré", null, null, null, null, null, 360));
+        assertTrue(catalogo.filtrar("Inexistente", null, null, null, null, null, 360).isEmpty());
+        assertTrue(catalogo.filtrar(null, null, null, null, 45, null, 360).isEmpty());
+    }
+
+    @Test
+    void deveRespeitarPrazoMinimoDoProduto() {
+        assertEquals(List.of(cdbPos, acao), catalogo.filtrar(null, null, null, null, null, null, 1));
+        assertEquals(List.of(cdbPos, cdbPre, acao), catalogo.filtrar(null, null, null, null, null, null, 30));
+        assertEquals(List.of(cdbPos, cdbPre, lciPre, acao), catalogo.filtrar(null, null, null, null, null, null, 90));
+        assertTrue(catalogo.filtrar(null, null, null, null, null, null, 0).isEmpty());
+    }
+
+    @Test
+    void deveBuscarPorId() {
+        assertSame(lciPre, catalogo.buscarPorId(3L));
+        assertNull(catalogo.buscarPorId(99L));
+        assertNull(catalogo.buscarPorId(null));
+    }
+
+    private Produto produto(Long id, String nome, TipoProduto tipo, TipoRentabilidade tipoRentabilidade,
+                            String rentabilidade, Indice indice, int liquidez, int minimoDias, boolean fgc) {
+        Produto produto = new Produto(nome, tipo, tipoRentabilidade, new BigDecimal(rentabilidade),
+                PeriodoRentabilidade.AO_ANO, indice, liquidez, minimoDias, fgc);
+        produto.setId(id);
+        return produto;
+    }
+}
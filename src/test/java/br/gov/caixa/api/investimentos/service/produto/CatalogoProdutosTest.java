@@ -0,0 +1,107 @@
+package br.gov.caixa.api.investimentos.service.produto;
+
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.event.produto.CatalogoProdutoAlteradoEvent;
+import br.gov.caixa.api.investimentos.event.produto.CatalogoProdutoAlteradoEvent.TipoAlteracao;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import br.gov.caixa.api.investimentos.repository.produto.IProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogoProdutosTest {
+
+    @Mock
+    private IProdutoRepository produtoRepository;
+
+    @InjectMocks
+    private CatalogoProdutos catalogoProdutos;
+
+    private Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        produto = new Produto("CDB Pré", TipoProduto.CDB, TipoRentabilidade.PRE, new BigDecimal("12.0"),
+                PeriodoRentabilidade.AO_ANO, Indice.NENHUM, 30, 30, true);
+        produto.setId(1L);
+    }
+
+    @Test
+    void deveCarregarCatalogoUmaUnicaVezEnquantoNaoHouverAlteracao() {
+        when(produtoRepository.listAll()).thenReturn(List.of(produto));
+
+        CatalogoIndexado primeiro = catalogoProdutos.obterCatalogo();
+        CatalogoIndexado segundo = catalogoProdutos.obterCatalogo();
+
+        assertSame(primeiro, segundo);
+        assertEquals(List.of(produto), primeiro.listarTodos());
+        verify(produtoRepository, times(1)).listAll();
+    }
+
+    @Test
+    void deveRecarregarCatalogoAposAlteracao() {
+        when(produtoRepository.listAll()).thenReturn(List.of(produto)).thenReturn(List.of());
+
+        CatalogoIndexado antes = catalogoProdutos.obterCatalogo();
+
+        catalogoProdutos.onCatalogoAlterado(new CatalogoProdutoAlteradoEvent(1L, TipoAlteracao.REMOCAO));
+
+        CatalogoIndexado depois = catalogoProdutos.obterCatalogo();
+
+        assertEquals(1, antes.listarTodos().size());
+        assertTrue(depois.listarTodos().isEmpty());
+        assertTrue(depois.getVersao() > antes.getVersao());
+        verify(produtoRepository, times(2)).listAll();
+    }
+
+    @Test
+    void deveLevarNaNovaFotografiaOsProdutosAlteradosDesdeAAnterior() {
+        when(produtoRepository.listAll()).thenReturn(List.of(produto));
+
+        CatalogoIndexado primeiro = catalogoProdutos.obterCatalogo();
+
+        catalogoProdutos.onCatalogoAlterado(new CatalogoProdutoAlteradoEvent(1L, TipoAlteracao.ATUALIZACAO));
+        catalogoProdutos.onCatalogoAlterado(new CatalogoProdutoAlteradoEvent(2L, TipoAlteracao.CRIACAO));
+
+        CatalogoIndexado segundo = catalogoProdutos.obterCatalogo();
+
+        catalogoProdutos.onCatalogoAlterado(new CatalogoProdutoAlteradoEvent(null, TipoAlteracao.LIMPEZA));
+        catalogoProdutos.onCatalogoAlterado(new CatalogoProdutoAlteradoEvent(3L, TipoAlteracao.CRIACAO));
+
+        CatalogoIndexado terceiro = catalogoProdutos.obterCatalogo();
+
+        assertNull(primeiro.getProdutosAlterados());
+        assertEquals(primeiro.getVersao(), segundo.getVersaoAnterior());
+        assertEquals(Set.of(1L, 2L), segundo.getProdutosAlterados());
+        assertEquals(segundo.getVersao(), terceiro.getVersaoAnterior());
+        assertNull(terceiro.getProdutosAlterados());
+    }
+
+    @Test
+    void falhaNaRecargaDeixaADiferencaDesconhecida() {
+        when(produtoRepository.listAll()).thenReturn(List.of(produto))
+                .thenThrow(new RuntimeException("banco indisponível"))
+                .thenReturn(List.of(produto));
+
+        catalogoProdutos.obterCatalogo();
+        catalogoProdutos.onCatalogoAlterado(new CatalogoProdutoAlteradoEvent(1L, TipoAlteracao.ATUALIZACAO));
+
+        assertThrows(RuntimeException.class, () -> catalogoProdutos.obterCatalogo());
+
+        assertNull(catalogoProdutos.obterCatalogo().getProdutosAlterados());
+    }
+}
@@ -7,10 +7,13 @@ import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
 import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
 import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
 import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.event.produto.CatalogoProdutoAlteradoEvent;
+import br.gov.caixa.api.investimentos.event.produto.CatalogoProdutoAlteradoEvent.TipoAlteracao;
 import br.gov.caixa.api.investimentos.exception.produto.ProdutoNotFoundException;
 import br.gov.caixa.api.investimentos.mapper.ProdutoMapper;
 import br.gov.caixa.api.investimentos.model.produto.Produto;
 import br.gov.caixa.api.investimentos.repository.produto.IProdutoRepository;
+import jakarta.enterprise.event.Event;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -35,6 +38,9 @@ class ProdutoServiceTest {
     @Mock
     private IProdutoRepository produtoRepository;
 
+    @Mock
+    private Event<CatalogoProdutoAlteradoEvent> catalogoAlterado;
+
     private ProdutoRequest produtoRequestValido;
     private Produto produto;
     private ProdutoResponse produtoResponse;
@@ -45,6 +51,7 @@ class ProdutoServiceTest {
         produtoService = new ProdutoService();
         produtoService.produtoMapper = produtoMapper;
         produtoService.produtoRepository = produtoRepository;
+        produtoService.catalogoAlterado = catalogoAlterado;
 
         // Setup de dados de teste
         produtoRequestValido = new ProdutoRequest(
@@ -445,6 +452,33 @@ class ProdutoServiceTest {
 
         // Then
         verify(produtoRepository).deleteById(id);
+        verify(catalogoAlterado).fire(new CatalogoProdutoAlteradoEvent(id, TipoAlteracao.REMOCAO));
+    }
+
+    @Test
+    @DisplayName("Deve notificar alteração do catálogo ao criar produto")
+    void deveNotificarAlteracaoDoCatalogoAoCriarProduto() {
+        // Given
+        produto.setId(7L);
+        when(produtoMapper.toEntity(produtoRequestValido)).thenReturn(produto);
+        when(produtoMapper.toResponse(produto)).thenReturn(produtoResponse);
+
+        // When
+        produtoService.criar(produtoRequestValido);
+
+        // Then
+        verify(catalogoAlterado).fire(new CatalogoProdutoAlteradoEvent(7L, TipoAlteracao.CRIACAO));
+    }
+
+    @Test
+    @DisplayName("Não deve notificar alteração do catálogo quando a remoção falha")
+    void naoDeveNotificarAlteracaoDoCatalogoQuandoRemocaoFalha() {
+        // Given
+        when(produtoRepository.deleteById(999L)).thenReturn(false);
+
+        // When & Then
+        assertThrows(ProdutoNotFoundException.class, () -> produtoService.remover(999L));
+        verify(catalogoAlterado, never()).fire(any());
     }
 
     @Test
@@ -0,0 +1,113 @@
+package br.gov.caixa.api.investimentos.service.produto_recomendado;
+
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
+import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.investimento.Investimento;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoProdutos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CoocorrenciaProdutosServiceTest {
+
+    @Mock
+    private CatalogoProdutos catalogoProdutos;
+
+    @InjectMocks
+    private GeradorRecomendacaoML geradorRecomendacaoML;
+
+    private IInvestimentoRepository investimentoRepository;
+    private CoocorrenciaProdutosService coocorrenciaService;
+
+    private List<Produto> produtos;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        produtos = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Produto produto = new Produto();
+            produto.setId(id);
+            produto.setRentabilidade(BigDecimal.valueOf(10 + id));
+            produtos.add(produto);
+        }
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, produtos));
+
+        /* O CLIENTE 2 TEM OS PRODUTOS 1 E 3 */
+        investimentoRepository = mock(IInvestimentoRepository.class);
+        when(investimentoRepository.listarParesClienteProduto())
+                .thenReturn(List.of(new Object[]{2L, 1L}, new Object[]{2L, 3L}, new Object[]{1L, 1L}));
+
+        coocorrenciaService = new CoocorrenciaProdutosService();
+        coocorrenciaService.investimentoRepository = investimentoRepository;
+        coocorrenciaService.geradorRecomendacaoML = geradorRecomendacaoML;
+        coocorrenciaService.peso = 0.5;
+    }
+
+    @Test
+    void combinar_somaProdutoDeOutrosClientes() {
+        ResultadoRecomendacao recomendacao = ResultadoRecomendacao.construir(List.of(produtos.get(1)), new double[]{100});
+
+        ResultadoRecomendacao combinada = coocorrenciaService.combinar(1L, recomendacao, 10);
+
+        /* METADE DOS CLIENTES DO PRODUTO 1 TEM O 3: 0.5 * 100 * 0.5 */
+        assertEquals(List.of(produtos.get(1), produtos.get(2)), combinada.getProdutos());
+        assertEquals(25, combinada.pontuacao(3L));
+    }
+
+    @Test
+    void combinar_carregaOsParesUmaVez() {
+        ResultadoRecomendacao recomendacao = ResultadoRecomendacao.construir(List.of(produtos.get(1)), new double[]{100});
+
+        coocorrenciaService.combinar(1L, recomendacao, 10);
+        coocorrenciaService.combinar(2L, recomendacao, 10);
+
+        verify(investimentoRepository, times(1)).listarParesClienteProduto();
+    }
+
+    @Test
+    void historicoAlterado_registraNovoInvestimentoSemReler() {
+        ResultadoRecomendacao recomendacao = ResultadoRecomendacao.construir(List.of(produtos.get(1)), new double[]{100});
+        assertFalse(coocorrenciaService.combinar(1L, recomendacao, 10).contem(1L));
+
+        /* O CLIENTE 2 PASSA A TER TAMBEM O PRODUTO 2; A SIMULACAO NAO ENTRA NO MODELO */
+        Investimento investimento = new Investimento();
+        investimento.setClienteId(2L);
+        investimento.setProdutoId(2L);
+        coocorrenciaService.onHistoricoAlterado(new HistoricoClienteAlteradoEvent(2L,
+                List.of(investimento, new SimulacaoInvestimento())));
+
+        ResultadoRecomendacao combinada = coocorrenciaService.combinar(1L, recomendacao, 10);
+
+        /* O PRODUTO 2 JA ESTAVA NA RECOMENDACAO: 100 + 0.5 * 100 * 0.5 */
+        assertEquals(125, combinada.pontuacao(2L));
+        assertEquals(1, coocorrenciaService.obterModelo().contagem(1L, 2L));
+        verify(investimentoRepository, times(1)).listarParesClienteProduto();
+    }
+
+    @Test
+    void combinar_pesoZero_naoCarregaOModelo() {
+        coocorrenciaService.peso = 0;
+        ResultadoRecomendacao recomendacao = ResultadoRecomendacao.construir(
+                List.of(produtos.get(0), produtos.get(1)), new double[]{100, 50});
+
+        assertFalse(coocorrenciaService.isAtivo());
+        assertEquals(List.of(produtos.get(0)), coocorrenciaService.combinar(1L, recomendacao, 1).getProdutos());
+        verifyNoInteractions(investimentoRepository);
+    }
+}
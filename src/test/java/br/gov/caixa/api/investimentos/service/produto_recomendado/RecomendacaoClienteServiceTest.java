@@ -0,0 +1,239 @@
+package br.gov.caixa.api.investimentos.service.produto_recomendado;
+
+import br.gov.caixa.api.investimentos.dto.telemetria.MetricasCacheRecomendacaoDTO;
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
+import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.investimento.Investimento;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
+import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoProdutos;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CaffeineCache;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RecomendacaoClienteServiceTest {
+
+    private final Map<Object, Object> entradas = new HashMap<>();
+
+    @Mock
+    private CatalogoProdutos catalogoProdutos;
+
+    @InjectMocks
+    private GeradorRecomendacaoML geradorRecomendacaoML;
+
+    private IInvestimentoRepository investimentoRepository;
+    private ISimulacaoInvestimentoRepository simulacaoRepository;
+    private RecomendacaoClienteService recomendacaoClienteService;
+
+    private List<Produto> produtos;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        produtos = new ArrayList<>();
+        produtos.add(criarProduto(1L, TipoProduto.CDB, "10.0", Indice.SELIC));
+        produtos.add(criarProduto(2L, TipoProduto.LCI, "9.0", Indice.CDI));
+        produtos.add(criarProduto(3L, TipoProduto.FUNDO, "14.0", Indice.IBOVESPA));
+
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, produtos));
+
+        investimentoRepository = mock(IInvestimentoRepository.class);
+        simulacaoRepository = mock(ISimulacaoInvestimentoRepository.class);
+        when(investimentoRepository.findByClienteId(any())).thenReturn(List.of());
+        when(simulacaoRepository.findByClienteId(any())).thenReturn(List.of());
+
+
+        Cache cache = mock(Cache.class);
+        CaffeineCache caffeineCache = mock(CaffeineCache.class);
+
+        when(cache.get(any(), any())).thenAnswer(invocation -> {
+            Function<Object, Object> carregador = invocation.getArgument(1);
+            return Uni.createFrom().item(entradas.computeIfAbsent(invocation.getArgument(0), carregador));
+        });
+        when(cache.as(CaffeineCache.class)).thenReturn(caffeineCache);
+        when(caffeineCache.getIfPresent(any())).thenAnswer(invocation -> {
+            Object valor = entradas.get(invocation.getArgument(0));
+            return valor != null ? CompletableFuture.completedFuture(valor) : null;
+        });
+
+        ResumoHistoricoClienteService resumoHistoricoClienteService = new ResumoHistoricoClienteService();
+        resumoHistoricoClienteService.investimentoRepository = investimentoRepository;
+        resumoHistoricoClienteService.simulacaoRepository = simulacaoRepository;
+        resumoHistoricoClienteService.geradorRecomendacaoML = geradorRecomendacaoML;
+
+        recomendacaoClienteService = new RecomendacaoClienteService();
+        recomendacaoClienteService.cache = cache;
+        recomendacaoClienteService.catalogoProdutos = catalogoProdutos;
+        recomendacaoClienteService.resumoHistoricoClienteService = resumoHistoricoClienteService;
+        recomendacaoClienteService.geradorRecomendacaoML = geradorRecomendacaoML;
+    }
+
+    @Test
+    void recomendar_segundaConsulta_usaCache() {
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of(criarInvestimento(10L, 1L, "50000")));
+
+        ResultadoRecomendacao primeiro = recomendacaoClienteService.recomendar(1L);
+        ResultadoRecomendacao segundo = recomendacaoClienteService.recomendar(1L);
+
+        assertFalse(primeiro.isEmpty());
+        assertEquals(primeiro.getProdutos(), segundo.getProdutos());
+        verify(investimentoRepository, times(1)).findByClienteId(1L);
+
+        MetricasCacheRecomendacaoDTO metricas = recomendacaoClienteService.obterMetricas();
+        assertEquals(1, metricas.acertos());
+        assertEquals(1, metricas.falhas());
+        assertEquals(0.5, metricas.taxaAcerto());
+    }
+
+    @Test
+    void recomendar_semInvestimentos_usaSimulacoes() {
+        List<SimulacaoInvestimento> simulacoes = List.of(criarSimulacao(20L, 2L, "30000"));
+        when(simulacaoRepository.findByClienteId(1L)).thenReturn(simulacoes);
+
+        ResultadoRecomendacao esperado = geradorRecomendacaoML.recomendar(simulacoes, produtosDoCatalogo());
+
+        assertEquals(esperado.getProdutos(), recomendacaoClienteService.recomendar(1L).getProdutos());
+    }
+
+    @Test
+    void recomendar_comLimite_usaOMesmoCacheEDevolveOsPrimeiros() {
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of(
+                criarInvestimento(10L, 1L, "50000"), criarInvestimento(11L, 3L, "900000")));
+
+        ResultadoRecomendacao completo = recomendacaoClienteService.recomendar(1L);
+        ResultadoRecomendacao primeiro = recomendacaoClienteService.recomendar(1L, 1);
+
+        assertTrue(completo.tamanho() > 1);
+        assertEquals(completo.getProdutos().subList(0, 1), primeiro.getProdutos());
+        verify(investimentoRepository, times(1)).findByClienteId(1L);
+    }
+
+    @Test
+    void historicoAlterado_somaNovaEntradaSemRelerOHistorico() {
+        Investimento primeiro = criarInvestimento(10L, 1L, "50000");
+        Investimento segundo = criarInvestimento(11L, 3L, "900000");
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of(primeiro));
+
+        recomendacaoClienteService.recomendar(1L);
+        recomendacaoClienteService.onHistoricoAlterado(new HistoricoClienteAlteradoEvent(1L, List.of(segundo)));
+
+        ResultadoRecomendacao esperado = geradorRecomendacaoML.recomendar(List.of(primeiro, segundo), produtosDoCatalogo());
+        ResultadoRecomendacao atualizado = recomendacaoClienteService.recomendar(1L);
+
+        assertEquals(esperado.getProdutos(), atualizado.getProdutos());
+        verify(investimentoRepository, times(1)).findByClienteId(1L);
+        assertEquals(1, recomendacaoClienteService.obterMetricas().atualizacoes());
+    }
+
+    @Test
+    void historicoAlterado_entradaJaCarregada_naoSomaDuasVezes() {
+        Investimento investimento = criarInvestimento(10L, 1L, "50000");
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of(investimento));
+
+        double antes = recomendacaoClienteService.recomendar(1L).pontuacaoNaPosicao(0);
+        recomendacaoClienteService.onHistoricoAlterado(new HistoricoClienteAlteradoEvent(1L, List.of(investimento)));
+
+        assertEquals(antes, recomendacaoClienteService.recomendar(1L).pontuacaoNaPosicao(0));
+    }
+
+    @Test
+    void historicoAlterado_clienteForaDoCache_naoCarrega() {
+        recomendacaoClienteService.onHistoricoAlterado(
+                new HistoricoClienteAlteradoEvent(1L, List.of(criarInvestimento(10L, 1L, "50000"))));
+
+        assertTrue(entradas.isEmpty());
+        verify(investimentoRepository, never()).findByClienteId(any());
+    }
+
+    @Test
+    void catalogoAlterado_recarregaHistorico() {
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of(criarInvestimento(10L, 1L, "50000")));
+
+        recomendacaoClienteService.recomendar(1L);
+
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(2, produtos));
+        recomendacaoClienteService.recomendar(1L);
+
+        verify(investimentoRepository, times(2)).findByClienteId(1L);
+    }
+
+    @Test
+    void simulacaoForaDoCatalogo_soFalhaQuandoSimulacoesSaoUsadas() {
+        when(simulacaoRepository.findByClienteId(any())).thenReturn(List.of(criarSimulacao(20L, 99L, "30000")));
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of(criarInvestimento(10L, 1L, "50000")));
+
+        assertFalse(recomendacaoClienteService.recomendar(1L).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> recomendacaoClienteService.recomendar(2L));
+    }
+
+    private List<Produto> produtosDoCatalogo() {
+        return catalogoProdutos.obterCatalogo().listarTodos();
+    }
+
+    private Produto criarProduto(Long id, TipoProduto tipo, String rentabilidade, Indice indice) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setRentabilidade(new BigDecimal(rentabilidade));
+        produto.setTipoRentabilidade(TipoRentabilidade.POS);
+        produto.setPeriodoRentabilidade(PeriodoRentabilidade.AO_ANO);
+        produto.setIndice(indice);
+        produto.setLiquidez(30);
+        produto.setFgc(true);
+        produto.setMinimoDiasInvestimento(0);
+        return produto;
+    }
+
+    private Investimento criarInvestimento(Long id, Long produtoId, String valor) {
+        Investimento investimento = new Investimento();
+        investimento.setId(id);
+        investimento.setClienteId(1L);
+        investimento.setProdutoId(produtoId);
+        investimento.setValor(new BigDecimal(valor));
+        investimento.setData(LocalDate.now().minusDays(30));
+        investimento.setTipo(TipoProduto.CDB);
+        investimento.setTipoRentabilidade(TipoRentabilidade.PRE);
+        investimento.setPeriodoRentabilidade(PeriodoRentabilidade.AO_ANO);
+        investimento.setIndice(Indice.SELIC);
+        investimento.setLiquidez(0);
+        investimento.setFgc(true);
+        investimento.setMinimoDiasInvestimento(0);
+        return investimento;
+    }
+
+    private SimulacaoInvestimento criarSimulacao(Long id, Long produtoId, String valor) {
+        SimulacaoInvestimento simulacao = new SimulacaoInvestimento(1L, produtoId, "Produto " + produtoId,
+                new BigDecimal(valor), new BigDecimal(valor), 12, 365, 1);
+        simulacao.setId(id);
+        return simulacao;
+    }
+}
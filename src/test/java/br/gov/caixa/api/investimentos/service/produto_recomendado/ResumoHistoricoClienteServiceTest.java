@@ -0,0 +1,209 @@
+package br.gov.caixa.api.investimentos.service.produto_recomendado;
+
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
+import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.cliente.ResumoHistoricoCliente;
+import br.gov.caixa.api.investimentos.model.investimento.Investimento;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+import br.gov.caixa.api.investimentos.repository.cliente.IResumoHistoricoClienteRepository;
+import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
+import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoProdutos;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ResumoHistoricoClienteServiceTest {
+
+    private final Map<Long, ResumoHistoricoCliente> resumos = new HashMap<>();
+    private final List<Synchronization> sincronizacoes = new ArrayList<>();
+
+    @Mock
+    private CatalogoProdutos catalogoProdutos;
+
+    @InjectMocks
+    private GeradorRecomendacaoML geradorRecomendacaoML;
+
+    private IInvestimentoRepository investimentoRepository;
+    private ISimulacaoInvestimentoRepository simulacaoRepository;
+    private ResumoHistoricoClienteService resumoHistoricoClienteService;
+
+    private List<Produto> produtos;
+    private int statusTransacao = Status.STATUS_NO_TRANSACTION;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        produtos = new ArrayList<>();
+        produtos.add(criarProduto(1L, TipoProduto.CDB, "10.0", Indice.SELIC));
+        produtos.add(criarProduto(2L, TipoProduto.LCI, "9.0", Indice.CDI));
+        produtos.add(criarProduto(3L, TipoProduto.FUNDO, "14.0", Indice.IBOVESPA));
+
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, produtos));
+
+        investimentoRepository = mock(IInvestimentoRepository.class);
+        simulacaoRepository = mock(ISimulacaoInvestimentoRepository.class);
+        when(investimentoRepository.findByClienteId(any())).thenReturn(List.of());
+        when(simulacaoRepository.findByClienteId(any())).thenReturn(List.of());
+
+        IResumoHistoricoClienteRepository resumoRepository = mock(IResumoHistoricoClienteRepository.class);
+        when(resumoRepository.findById(any())).thenAnswer(invocation -> resumos.get(invocation.<Long>getArgument(0)));
+        when(resumoRepository.inserirSeAusente(any())).thenAnswer(invocation -> {
+            ResumoHistoricoCliente resumo = invocation.getArgument(0);
+            return resumos.putIfAbsent(resumo.getClienteId(), resumo) == null;
+        });
+        doAnswer(invocation -> resumos.remove(invocation.<Long>getArgument(0)))
+                .when(resumoRepository).removerPorCliente(any());
+        doAnswer(invocation -> resumos.remove(invocation.<ResumoHistoricoCliente>getArgument(0).getClienteId()))
+                .when(resumoRepository).delete(any(ResumoHistoricoCliente.class));
+
+        TransactionSynchronizationRegistry transacoes = mock(TransactionSynchronizationRegistry.class);
+        when(transacoes.getTransactionStatus()).thenAnswer(invocation -> statusTransacao);
+        doAnswer(invocation -> sincronizacoes.add(invocation.getArgument(0)))
+                .when(transacoes).registerInterposedSynchronization(any());
+
+        resumoHistoricoClienteService = new ResumoHistoricoClienteService();
+        resumoHistoricoClienteService.resumoRepository = resumoRepository;
+        resumoHistoricoClienteService.investimentoRepository = investimentoRepository;
+        resumoHistoricoClienteService.simulacaoRepository = simulacaoRepository;
+        resumoHistoricoClienteService.geradorRecomendacaoML = geradorRecomendacaoML;
+        resumoHistoricoClienteService.transacoes = transacoes;
+        resumoHistoricoClienteService.habilitado = true;
+    }
+
+    @Test
+    void carregar_segundaCarga_usaResumoSemLerHistorico() {
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of(
+                criarInvestimento(10L, 1L, "50000"), criarInvestimento(11L, 3L, "900000")));
+
+        ResultadoRecomendacao primeiro = resumoHistoricoClienteService.carregar(1L).resultado(LocalDate.now());
+        ResultadoRecomendacao segundo = resumoHistoricoClienteService.carregar(1L).resultado(LocalDate.now());
+
+        assertTrue(resumos.containsKey(1L));
+        assertEquals(List.of(11L, 10L), resumos.get(1L).listarIdsInvestimentos());
+        assertEquals(primeiro.getProdutos(), segundo.getProdutos());
+        assertEquals(primeiro.pontuacaoNaPosicao(0), segundo.pontuacaoNaPosicao(0));
+        verify(investimentoRepository, times(1)).findByClienteId(1L);
+    }
+
+    @Test
+    void historicoAlterado_atualizaResumoExistente() {
+        Investimento primeiro = criarInvestimento(10L, 1L, "50000");
+        Investimento segundo = criarInvestimento(11L, 3L, "900000");
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of(primeiro));
+
+        resumoHistoricoClienteService.carregar(1L);
+        resumoHistoricoClienteService.onHistoricoAlterado(new HistoricoClienteAlteradoEvent(1L, List.of(segundo)));
+
+        ResultadoRecomendacao esperado = geradorRecomendacaoML.recomendar(List.of(primeiro, segundo),
+                catalogoProdutos.obterCatalogo().listarTodos());
+        ResultadoRecomendacao obtido = resumoHistoricoClienteService.carregar(1L).resultado(LocalDate.now());
+
+        assertEquals(esperado.getProdutos(), obtido.getProdutos());
+        verify(investimentoRepository, times(1)).findByClienteId(1L);
+    }
+
+    @Test
+    void carregar_gravacaoEmAndamento_naoGravaResumoAteOFimDaTransacao() {
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of(criarInvestimento(10L, 1L, "50000")));
+
+        statusTransacao = Status.STATUS_ACTIVE;
+        resumoHistoricoClienteService.onHistoricoAlterado(
+                new HistoricoClienteAlteradoEvent(1L, List.of(criarInvestimento(11L, 2L, "1000"))));
+        statusTransacao = Status.STATUS_NO_TRANSACTION;
+
+        resumoHistoricoClienteService.carregar(1L);
+        assertFalse(resumos.containsKey(1L));
+
+        sincronizacoes.forEach(s -> s.afterCompletion(Status.STATUS_COMMITTED));
+        resumoHistoricoClienteService.carregar(1L);
+        assertTrue(resumos.containsKey(1L));
+    }
+
+    @Test
+    void carregar_caracteristicasDoCatalogoAlteradas_refazResumo() {
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of(criarInvestimento(10L, 1L, "50000")));
+        resumoHistoricoClienteService.carregar(1L);
+        long assinaturaAnterior = resumos.get(1L).getAssinaturaCatalogo();
+
+        produtos.get(0).setRentabilidade(new BigDecimal("12.0"));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(2, produtos));
+        resumoHistoricoClienteService.carregar(1L);
+
+        verify(investimentoRepository, times(2)).findByClienteId(1L);
+        assertNotEquals(assinaturaAnterior, resumos.get(1L).getAssinaturaCatalogo());
+    }
+
+    @Test
+    void carregar_simulacaoForaDoCatalogo_naoGravaResumo() {
+        when(simulacaoRepository.findByClienteId(1L)).thenReturn(List.of(criarSimulacao(20L, 99L, "30000")));
+
+        PontuacaoCliente pontuacao = resumoHistoricoClienteService.carregar(1L);
+
+        assertThrows(IllegalArgumentException.class, () -> pontuacao.resultado(LocalDate.now()));
+        assertFalse(resumos.containsKey(1L));
+    }
+
+    private Produto criarProduto(Long id, TipoProduto tipo, String rentabilidade, Indice indice) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Produto " + id);
+        produto.setTipo(tipo);
+        produto.setRentabilidade(new BigDecimal(rentabilidade));
+        produto.setTipoRentabilidade(TipoRentabilidade.POS);
+        produto.setPeriodoRentabilidade(PeriodoRentabilidade.AO_ANO);
+        produto.setIndice(indice);
+        produto.setLiquidez(30);
+        produto.setFgc(true);
+        produto.setMinimoDiasInvestimento(0);
+        return produto;
+    }
+
+    private Investimento criarInvestimento(Long id, Long produtoId, String valor) {
+        Investimento investimento = new Investimento();
+        investimento.setId(id);
+        investimento.setClienteId(1L);
+        investimento.setProdutoId(produtoId);
+        investimento.setValor(new BigDecimal(valor));
+        investimento.setData(LocalDate.now().minusDays(30));
+        investimento.setTipo(TipoProduto.CDB);
+        investimento.setTipoRentabilidade(TipoRentabilidade.PRE);
+        investimento.setPeriodoRentabilidade(PeriodoRentabilidade.AO_ANO);
+        investimento.setIndice(Indice.SELIC);
+        investimento.setLiquidez(0);
+        investimento.setFgc(true);
+        investimento.setMinimoDiasInvestimento(0);
+        return investimento;
+    }
+
+    private SimulacaoInvestimento criarSimulacao(Long id, Long produtoId, String valor) {
+        SimulacaoInvestimento simulacao = new SimulacaoInvestimento(1L, produtoId, "Produto " + produtoId,
+                new BigDecimal(valor), new BigDecimal(valor), 12, 365, 1);
+        simulacao.setId(id);
+        return simulacao;
+    }
+}
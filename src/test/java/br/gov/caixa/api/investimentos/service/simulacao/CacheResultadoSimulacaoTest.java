@@ -0,0 +1,85 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.simulacao.ResultadoSimulacao;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoRequest;
+import io.quarkus.cache.Cache;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CacheResultadoSimulacaoTest {
+
+    @Mock
+    private Cache cache;
+
+    @InjectMocks
+    private CacheResultadoSimulacao cacheResultadoSimulacao;
+
+    private final Map<Object, Object> entradas = new HashMap<>();
+
+    private final AtomicInteger calculos = new AtomicInteger();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(cache.get(any(), any())).thenAnswer(invocation -> {
+            Function<Object, Object> carregador = invocation.getArgument(1);
+            return Uni.createFrom().item(entradas.computeIfAbsent(invocation.getArgument(0), carregador));
+        });
+    }
+
+    @Test
+    void deveReaproveitarResultadoParaMesmoValorPrazoESemente() {
+        ResultadoSimulacao primeiro = cacheResultadoSimulacao.obter(3L, 2L, request(1L, "10000.00", 12), 42L, this::calcular);
+        ResultadoSimulacao segundo = cacheResultadoSimulacao.obter(3L, 2L, request(9L, "10000.00", 12), 42L, this::calcular);
+
+        assertSame(primeiro, segundo);
+        assertEquals(1, calculos.get());
+    }
+
+    @Test
+    void deveSepararChavesPorVersaoDoCatalogoSementeEEscalaDoValor() {
+        cacheResultadoSimulacao.obter(3L, 2L, request(1L, "10000.00", 12), 42L, this::calcular);
+        cacheResultadoSimulacao.obter(4L, 2L, request(1L, "10000.00", 12), 42L, this::calcular);
+        cacheResultadoSimulacao.obter(3L, 2L, request(1L, "10000.00", 12), 43L, this::calcular);
+        cacheResultadoSimulacao.obter(3L, 2L, request(1L, "10000", 12), 42L, this::calcular);
+        cacheResultadoSimulacao.obter(3L, 2L, request(1L, "10000.00", 24), 42L, this::calcular);
+
+        ArgumentCaptor<Object> chaves = ArgumentCaptor.forClass(Object.class);
+        verify(cache, times(5)).get(chaves.capture(), any());
+
+        List<Object> capturadas = chaves.getAllValues();
+        assertEquals(5, capturadas.stream().distinct().count());
+        assertEquals(5, calculos.get());
+    }
+
+    private ResultadoSimulacao calcular() {
+        calculos.incrementAndGet();
+        return new ResultadoSimulacao(new BigDecimal("11000.00"), new BigDecimal("10.0000"), 12, null, null,
+                new BigDecimal("10000.00"), new BigDecimal("1000.00"), true, "Cenário Teste", 42L, null);
+    }
+
+    private SimulacaoRequest request(Long clienteId, String valor, int prazoMeses) {
+        return new SimulacaoRequest(clienteId, 2L, new BigDecimal(valor), prazoMeses, null, null,
+                null, null, null, null, null, null, 42L);
+    }
+}
@@ -0,0 +1,247 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.telemetria.MetricasGravacaoSimulacaoDTO;
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
+import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
+import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.enterprise.event.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class GravacaoAssincronaSimulacaoTest {
+
+    @Mock
+    private ISimulacaoInvestimentoRepository simulacaoRepository;
+
+    @Mock
+    private SequenciaIdSimulacao sequenciaIdSimulacao;
+
+    @Mock
+    private Event<HistoricoClienteAlteradoEvent> historicoAlterado;
+
+    @InjectMocks
+    private GravacaoAssincronaSimulacao gravacao;
+
+    @TempDir
+    Path diretorio;
+
+    private final List<Long> idsGravados = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        gravacao.habilitada = true;
+        gravacao.capacidadeFila = 100;
+        gravacao.tamanhoLote = 10;
+        gravacao.intervaloMs = 10;
+        gravacao.tentativasPorLote = 3;
+        gravacao.esperaEntreTentativasMs = 1;
+        gravacao.arquivoNaoGravadas = diretorio.resolve("nao-gravadas.ndjson").toString();
+        gravacao.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        doAnswer(invocation -> {
+            List<SimulacaoInvestimento> lote = invocation.getArgument(0);
+            lote.forEach(simulacao -> idsGravados.add(simulacao.getId()));
+            return null;
+        }).when(simulacaoRepository).persistBatch(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        gravacao.encerrar();
+    }
+
+    @Test
+    void deveGravarEmLotesForaDoChamador() {
+        for (long id = 1; id <= 25; id++) {
+            gravacao.gravar(simulacao(id));
+        }
+
+        gravacao.encerrar();
+
+        assertEquals(25, idsGravados.size());
+        assertTrue(idsGravados.containsAll(List.of(1L, 13L, 25L)));
+        verify(simulacaoRepository, never()).persist(any(SimulacaoInvestimento.class));
+
+        MetricasGravacaoSimulacaoDTO metricas = gravacao.obterMetricas();
+        assertEquals(25, metricas.simulacoesGravadas());
+        assertTrue(metricas.lotesGravados() >= 3);
+        assertEquals(0, metricas.profundidadeFila());
+        assertEquals(0, metricas.simulacoesGravadasSincronamente());
+        verify(historicoAlterado, atLeastOnce()).fire(argThat(evento -> evento.clienteId().equals(1L)));
+    }
+
+    @Test
+    void deveGravarSincronamenteQuandoDesabilitada() {
+        gravacao.habilitada = false;
+        SimulacaoInvestimento simulacao = simulacao(1L);
+
+        gravacao.gravar(simulacao);
+
+        verify(simulacaoRepository).persist(simulacao);
+        verify(simulacaoRepository, never()).persistBatch(anyList());
+        verify(historicoAlterado).fire(new HistoricoClienteAlteradoEvent(1L, List.of(simulacao)));
+        assertEquals(1, gravacao.obterMetricas().simulacoesGravadasSincronamente());
+    }
+
+    @Test
+    void deveAtribuirIdDaSequenciaSoComGravacaoAssincrona() {
+        when(sequenciaIdSimulacao.proximoId()).thenReturn(7L);
+        SimulacaoInvestimento assincrona = simulacao(null);
+        SimulacaoInvestimento sincrona = simulacao(null);
+
+        gravacao.atribuirId(assincrona);
+        gravacao.habilitada = false;
+        gravacao.atribuirId(sincrona);
+
+        assertEquals(7L, assincrona.getId());
+        assertNull(sincrona.getId());
+        verify(sequenciaIdSimulacao, times(1)).proximoId();
+    }
+
+    @Test
+    void deveGravarSincronamenteQuandoFilaCheia() throws InterruptedException {
+        gravacao.capacidadeFila = 1;
+        gravacao.tamanhoLote = 1;
+
+        CountDownLatch loteEmGravacao = new CountDownLatch(1);
+        CountDownLatch liberarGravacao = new CountDownLatch(1);
+
+        doAnswer(invocation -> {
+            loteEmGravacao.countDown();
+            liberarGravacao.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(simulacaoRepository).persistBatch(anyList());
+
+        gravacao.gravar(simulacao(1L));
+        assertTrue(loteEmGravacao.await(5, TimeUnit.SECONDS));
+
+        gravacao.gravar(simulacao(2L));
+        SimulacaoInvestimento excedente = simulacao(3L);
+        gravacao.gravar(excedente);
+
+        verify(simulacaoRepository).persist(excedente);
+        assertEquals(1, gravacao.obterMetricas().profundidadeFila());
+
+        liberarGravacao.countDown();
+        gravacao.encerrar();
+
+        assertEquals(2, gravacao.obterMetricas().simulacoesGravadas());
+        assertEquals(1, gravacao.obterMetricas().simulacoesGravadasSincronamente());
+    }
+
+    @Test
+    void deveGuardarNoArquivoSimulacaoQueNaoPodeSerGravada() throws IOException {
+        doThrow(new RuntimeException("Falha no banco")).when(simulacaoRepository).persistBatch(anyList());
+
+        gravacao.gravar(simulacao(1L));
+        gravacao.encerrar();
+
+        MetricasGravacaoSimulacaoDTO metricas = gravacao.obterMetricas();
+        assertEquals(1, metricas.simulacoesComFalha());
+        assertEquals(0, metricas.simulacoesGravadas());
+        verify(historicoAlterado, never()).fire(any());
+
+        List<String> linhas = Files.readAllLines(diretorio.resolve("nao-gravadas.ndjson"));
+        assertEquals(1, linhas.size());
+        assertTrue(linhas.get(0).contains("\"id\":1"));
+        assertTrue(linhas.get(0).contains("\"erro\":\"Falha no banco\""));
+    }
+
+    @Test
+    void deveRepetirLoteQueFalhaAntesDeGravarUmaPorVez() {
+        doThrow(new RuntimeException("Banco ocupado"))
+                .doAnswer(invocation -> {
+                    List<SimulacaoInvestimento> lote = invocation.getArgument(0);
+                    lote.forEach(simulacao -> idsGravados.add(simulacao.getId()));
+                    return null;
+                })
+                .when(simulacaoRepository).persistBatch(anyList());
+
+        gravacao.gravarLote(List.of(simulacao(1L), simulacao(2L)));
+
+        assertEquals(List.of(1L, 2L), idsGravados);
+        verify(simulacaoRepository, times(2)).persistBatch(anyList());
+        assertEquals(1, gravacao.obterMetricas().lotesGravados());
+        assertEquals(0, gravacao.obterMetricas().simulacoesComFalha());
+    }
+
+    @Test
+    void deveGravarUmaPorVezQuandoLoteContinuaFalhando() throws IOException {
+        doAnswer(invocation -> {
+            List<SimulacaoInvestimento> lote = invocation.getArgument(0);
+            if (lote.size() > 1 || lote.get(0).getId() == 2L) {
+                throw new RuntimeException("UNIQUE constraint failed");
+            }
+            idsGravados.add(lote.get(0).getId());
+            return null;
+        }).when(simulacaoRepository).persistBatch(anyList());
+
+        gravacao.gravarLote(List.of(simulacao(1L), simulacao(2L), simulacao(3L)));
+
+        assertEquals(List.of(1L, 3L), idsGravados);
+        MetricasGravacaoSimulacaoDTO metricas = gravacao.obterMetricas();
+        assertEquals(2, metricas.simulacoesGravadas());
+        assertEquals(1, metricas.simulacoesComFalha());
+        assertEquals(0, metricas.lotesGravados());
+        verify(historicoAlterado).fire(argThat(evento -> evento.entradas().size() == 2));
+
+        List<String> linhas = Files.readAllLines(diretorio.resolve("nao-gravadas.ndjson"));
+        assertEquals(1, linhas.size());
+        assertTrue(linhas.get(0).contains("\"id\":2"));
+    }
+
+    @Test
+    void deveContinuarEsvaziandoAFilaQuandoObservadorDoHistoricoFalha() {
+        doThrow(new IllegalStateException("Contexto de requisição inativo")).when(historicoAlterado).fire(any());
+        SimulacaoInvestimento primeira = simulacao(1L);
+        SimulacaoInvestimento segunda = simulacao(2L);
+
+        gravacao.gravar(primeira);
+        verify(simulacaoRepository, timeout(2000)).persistBatch(List.of(primeira));
+
+        gravacao.gravar(segunda);
+        verify(simulacaoRepository, timeout(2000)).persistBatch(List.of(segunda));
+
+        verify(historicoAlterado, timeout(2000).times(2 * gravacao.tentativasPorLote)).fire(any());
+        assertEquals(2, gravacao.obterMetricas().simulacoesGravadas());
+    }
+
+    @Test
+    void deveGravarSincronamenteAposEncerramento() {
+        gravacao.encerrar();
+        SimulacaoInvestimento simulacao = simulacao(1L);
+
+        gravacao.gravar(simulacao);
+
+        verify(simulacaoRepository).persist(simulacao);
+    }
+
+    private SimulacaoInvestimento simulacao(Long id) {
+        SimulacaoInvestimento simulacao = new SimulacaoInvestimento();
+        simulacao.setId(id);
+        simulacao.setClienteId(1L);
+        return simulacao;
+    }
+}
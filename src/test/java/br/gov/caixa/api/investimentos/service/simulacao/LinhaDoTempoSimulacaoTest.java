@@ -0,0 +1,110 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.simulacao.CabecalhoLinhaDoTempo;
+import br.gov.caixa.api.investimentos.dto.simulacao.PontoLinhaDoTempo;
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.GranularidadeLinhaDoTempo;
+import br.gov.caixa.api.investimentos.enums.simulacao.ModoCapitalizacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinhaDoTempoSimulacaoTest {
+
+    private static final BigDecimal VALOR_INICIAL = new BigDecimal("10000.00");
+    private static final BigDecimal TAXA = new BigDecimal("0.120000");
+
+    private MotorCapitalizacao motorCapitalizacao;
+
+    @BeforeEach
+    void setUp() {
+        motorCapitalizacao = new MotorCapitalizacao();
+        motorCapitalizacao.modo = ModoCapitalizacao.EXATO_LIMITADO;
+    }
+
+    @Test
+    void cadaMesDeveCoincidirComOValorFinalNoPrazo() {
+        for (PeriodoRentabilidade periodo : PeriodoRentabilidade.values()) {
+            LinhaDoTempoSimulacao linha = iniciar(periodo, GranularidadeLinhaDoTempo.MENSAL, 600);
+
+            while (linha.hasNext()) {
+                PontoLinhaDoTempo ponto = linha.next();
+                BigDecimal esperado = VALOR_INICIAL
+                        .multiply(motorCapitalizacao.calcularFatorNoPrazo(TAXA, periodo, ponto.periodo()))
+                        .setScale(2, RoundingMode.HALF_UP);
+
+                assertEquals(esperado, ponto.saldo(), periodo + " mês " + ponto.periodo());
+                assertEquals(ponto.saldo().subtract(VALOR_INICIAL), ponto.rendimentoAcumulado());
+            }
+        }
+    }
+
+    @Test
+    void granularidadeDiariaDeveFecharNoMesmoSaldoDaMensal() {
+        for (PeriodoRentabilidade periodo : PeriodoRentabilidade.values()) {
+            PontoLinhaDoTempo ultimoMensal = ultimoPonto(iniciar(periodo, GranularidadeLinhaDoTempo.MENSAL, 24));
+            PontoLinhaDoTempo ultimoDiario = ultimoPonto(iniciar(periodo, GranularidadeLinhaDoTempo.DIARIA, 24));
+
+            assertEquals(24, ultimoMensal.periodo());
+            assertEquals(720, ultimoDiario.periodo());
+            assertEquals(ultimoMensal.saldo(), ultimoDiario.saldo(), periodo.name());
+        }
+    }
+
+    @Test
+    void capitalizacaoMensalNaGranularidadeDiariaSoOcorreAoFimDoMes() {
+        LinhaDoTempoSimulacao linha = iniciar(PeriodoRentabilidade.AO_MES, GranularidadeLinhaDoTempo.DIARIA, 1);
+
+        for (int dia = 1; dia < 30; dia++) {
+            assertEquals(VALOR_INICIAL, linha.next().saldo());
+        }
+
+        assertEquals(new BigDecimal("10100.00"), linha.next().saldo());
+        assertFalse(linha.hasNext());
+    }
+
+    @Test
+    void capitalizacaoAnualDeveOcorrerNoInicioDeCadaAno() {
+        LinhaDoTempoSimulacao linha = iniciar(PeriodoRentabilidade.AO_ANO, GranularidadeLinhaDoTempo.MENSAL, 13);
+
+        assertEquals(new BigDecimal("11200.00"), linha.next().saldo());
+        for (int mes = 2; mes <= 12; mes++) {
+            assertEquals(new BigDecimal("11200.00"), linha.next().saldo());
+        }
+        assertEquals(new BigDecimal("12544.00"), linha.next().saldo());
+    }
+
+    @Test
+    void deveLancarExcecaoAposOUltimoPonto() {
+        LinhaDoTempoSimulacao linha = iniciar(PeriodoRentabilidade.AO_MES, GranularidadeLinhaDoTempo.MENSAL, 1);
+
+        linha.next();
+
+        assertFalse(linha.hasNext());
+        assertThrows(NoSuchElementException.class, linha::next);
+    }
+
+    private LinhaDoTempoSimulacao iniciar(PeriodoRentabilidade periodo,
+                                          GranularidadeLinhaDoTempo granularidade,
+                                          int prazoMeses) {
+        CabecalhoLinhaDoTempo cabecalho = new CabecalhoLinhaDoTempo(
+                null, VALOR_INICIAL, new BigDecimal("12.0000"), "Cenário Teste", granularidade,
+                prazoMeses * granularidade.getPassosPorMes(), LocalDateTime.now(), 1L, 42L);
+
+        return LinhaDoTempoSimulacao.iniciar(cabecalho, TAXA, periodo, motorCapitalizacao);
+    }
+
+    private PontoLinhaDoTempo ultimoPonto(LinhaDoTempoSimulacao linha) {
+        PontoLinhaDoTempo ponto = null;
+        while (linha.hasNext()) {
+            ponto = linha.next();
+        }
+        return ponto;
+    }
+}
@@ -0,0 +1,101 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.ModoCapitalizacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorCapitalizacaoTest {
+
+    private static final BigDecimal VALOR_MAXIMO = new BigDecimal("999999999.99");
+
+    private MotorCapitalizacao motor;
+
+    @BeforeEach
+    void setUp() {
+        motor = new MotorCapitalizacao();
+        motor.modo = ModoCapitalizacao.EXATO_LIMITADO;
+    }
+
+    @Test
+    void deveRetornarUmParaZeroPeriodos() {
+        assertEquals(BigDecimal.ONE, motor.calcularFator(new BigDecimal("0.01"), 0));
+        assertEquals(BigDecimal.ONE, motor.calcularFator(new BigDecimal("0.01"), 0, ModoCapitalizacao.LOG_EXP));
+    }
+
+    @Test
+    void modoExatoLimitadoDeveCoincidirComPowSemMathContextEmCentavos() {
+        BigDecimal taxaDiaria = new BigDecimal("0.15").divide(new BigDecimal("365"), 8, RoundingMode.HALF_UP);
+
+        for (int dias : new int[]{1, 30, 360, 1800, 7200}) {
+            BigDecimal referencia = VALOR_MAXIMO.multiply(BigDecimal.ONE.add(taxaDiaria).pow(dias))
+                    .setScale(2, RoundingMode.HALF_UP);
+            BigDecimal calculado = VALOR_MAXIMO.multiply(motor.calcularFator(taxaDiaria, dias))
+                    .setScale(2, RoundingMode.HALF_UP);
+
+            assertEquals(referencia, calculado, "dias=" + dias);
+        }
+    }
+
+    @Test
+    void modoLogExpDeveFicarDentroDeUmCentavoDaReferencia() {
+        BigDecimal taxaDiaria = new BigDecimal("0.15").divide(new BigDecimal("365"), 8, RoundingMode.HALF_UP);
+        BigDecimal taxaMensal = new BigDecimal("0.12").divide(new BigDecimal("12"), 6, RoundingMode.HALF_UP);
+
+        for (int dias : new int[]{1, 30, 360, 1800, 7200}) {
+            assertDentroDeUmCentavo(taxaDiaria, dias);
+        }
+
+        for (int meses : new int[]{1, 12, 120, 240, 600}) {
+            assertDentroDeUmCentavo(taxaMensal, meses);
+        }
+    }
+
+    @Test
+    void versaoPrimitivaDeveAcompanharModoExato() {
+        double fator = motor.calcularFator(0.01, 240.0);
+        BigDecimal exato = motor.calcularFator(new BigDecimal("0.01"), 240);
+
+        assertEquals(exato.doubleValue(), fator, exato.doubleValue() * 1e-14);
+    }
+
+    @Test
+    void deveUsarModoConfigurado() {
+        motor.modo = ModoCapitalizacao.LOG_EXP;
+
+        assertEquals(ModoCapitalizacao.LOG_EXP, motor.getModo());
+        assertEquals(BigDecimal.valueOf(Math.exp(12 * Math.log1p(0.01))),
+                motor.calcularFator(new BigDecimal("0.01"), 12));
+    }
+
+    @Test
+    void fatoresPorPrazoDevemCoincidirComCalculoDiretoEmCentavos() {
+        BigDecimal taxaDecimal = new BigDecimal("0.132000");
+
+        for (PeriodoRentabilidade periodo : PeriodoRentabilidade.values()) {
+            BigDecimal[] fatores = motor.calcularFatoresPorPrazo(taxaDecimal, periodo, 600);
+
+            assertEquals(601, fatores.length);
+            for (int prazo : new int[]{0, 1, 11, 12, 13, 240, 600}) {
+                BigDecimal direto = VALOR_MAXIMO.multiply(motor.calcularFatorNoPrazo(taxaDecimal, periodo, prazo))
+                        .setScale(2, RoundingMode.HALF_UP);
+                BigDecimal tabelado = VALOR_MAXIMO.multiply(fatores[prazo]).setScale(2, RoundingMode.HALF_UP);
+
+                assertEquals(direto, tabelado, periodo + " prazo=" + prazo);
+            }
+        }
+    }
+
+    private void assertDentroDeUmCentavo(BigDecimal taxa, int periodos) {
+        BigDecimal referencia = VALOR_MAXIMO.multiply(BigDecimal.ONE.add(taxa).pow(periodos));
+        BigDecimal calculado = VALOR_MAXIMO.multiply(motor.calcularFator(taxa, periodos, ModoCapitalizacao.LOG_EXP));
+
+        assertTrue(referencia.subtract(calculado).abs().compareTo(new BigDecimal("0.01")) < 0,
+                "periodos=" + periodos + " diferenca=" + referencia.subtract(calculado));
+    }
+}
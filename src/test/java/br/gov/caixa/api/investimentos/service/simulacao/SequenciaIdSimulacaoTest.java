@@ -0,0 +1,41 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class SequenciaIdSimulacaoTest {
+
+    @Mock
+    private ISimulacaoInvestimentoRepository simulacaoRepository;
+
+    @InjectMocks
+    private SequenciaIdSimulacao sequencia;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void deveContinuarAPartirDoMaiorIdGravado() {
+        when(simulacaoRepository.findMaxId()).thenReturn(41L);
+
+        assertEquals(42L, sequencia.proximoId());
+        assertEquals(43L, sequencia.proximoId());
+        verify(simulacaoRepository, times(1)).findMaxId();
+    }
+
+    @Test
+    void deveIniciarEmUmComTabelaVazia() {
+        when(simulacaoRepository.findMaxId()).thenReturn(0L);
+
+        assertEquals(1L, sequencia.proximoId());
+    }
+}
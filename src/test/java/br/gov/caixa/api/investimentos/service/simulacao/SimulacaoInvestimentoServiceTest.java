@@ -3,14 +3,33 @@ package br.gov.caixa.api.investimentos.service.simulacao;
 import br.gov.caixa.api.investimentos.client.SimuladorIndices;
 import br.gov.caixa.api.investimentos.client.SimuladorMercado;
 import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.AgregadoCarteira;
+import br.gov.caixa.api.investimentos.dto.simulacao.LinhaTabelaLiquida;
+import br.gov.caixa.api.investimentos.dto.simulacao.PontoLinhaDoTempo;
+import br.gov.caixa.api.investimentos.dto.simulacao.ProjecaoPosicaoCarteira;
+import br.gov.caixa.api.investimentos.dto.simulacao.ResultadoMonteCarlo;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoCarteiraResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoComparacaoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoLoteResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMetaRequest;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMetaResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMonteCarloResponse;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoRequest;
 import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.TabelaLiquidaResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.TributacaoSimulacao;
 import br.gov.caixa.api.investimentos.enums.produto.NivelRisco;
 import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
 import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
 import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.GranularidadeLinhaDoTempo;
+import br.gov.caixa.api.investimentos.enums.simulacao.IncognitaMeta;
 import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.enums.simulacao.MetodoResolucaoMeta;
+import br.gov.caixa.api.investimentos.enums.simulacao.ModoCapitalizacao;
+import br.gov.caixa.api.investimentos.event.cliente.HistoricoClienteAlteradoEvent;
 import br.gov.caixa.api.investimentos.exception.produto.NenhumProdutoDisponivelException;
+import br.gov.caixa.api.investimentos.mapper.InvestimentoMapper;
 import br.gov.caixa.api.investimentos.mapper.ProdutoMapper;
 import br.gov.caixa.api.investimentos.mapper.SimulacaoInvestimentoMapper;
 import br.gov.caixa.api.investimentos.ml.GeradorRecomendacaoML;
@@ -20,18 +39,28 @@ import br.gov.caixa.api.investimentos.model.simulacao.SimulacaoInvestimento;
 import br.gov.caixa.api.investimentos.repository.investimento.IInvestimentoRepository;
 import br.gov.caixa.api.investimentos.repository.produto.IProdutoRepository;
 import br.gov.caixa.api.investimentos.repository.simulacao.ISimulacaoInvestimentoRepository;
+import br.gov.caixa.api.investimentos.service.compliance.TributacaoService;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoProdutos;
 import br.gov.caixa.api.investimentos.service.produto.ProdutoService;
 import br.gov.caixa.api.investimentos.service.simulacao.SimulacaoInvestimentoService.EstatisticasCliente;
+import jakarta.enterprise.event.Event;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -64,9 +93,43 @@ class SimulacaoInvestimentoServiceTest {
     @Mock
     private IProdutoRepository produtoRepository;
 
+    @Mock
+    private CatalogoProdutos catalogoProdutos;
+
     @Mock
     private GeradorRecomendacaoML geradorRecomendacaoML;
 
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private SimulacaoMonteCarloService simulacaoMonteCarloService;
+
+    @Spy
+    private MotorCapitalizacao motorCapitalizacao = new MotorCapitalizacao();
+
+    @Mock
+    private TabelaFatoresCapitalizacao tabelaFatoresCapitalizacao;
+
+    @Mock
+    private TabelaFatoresCapitalizacao.Fatores fatores;
+
+
+    @Mock
+    private GravacaoAssincronaSimulacao gravacaoAssincronaSimulacao;
+
+    @Mock
+    private CacheResultadoSimulacao cacheResultadoSimulacao;
+
+    @Mock
+    private Event<HistoricoClienteAlteradoEvent> historicoAlterado;
+
+    @Spy
+    private TributacaoService tributacaoService = new TributacaoService();
+
+    @Spy
+    private InvestimentoMapper investimentoMapper = new InvestimentoMapper();
+
     @InjectMocks
     private SimulacaoInvestimentoService simulacaoService;
 
@@ -80,6 +143,13 @@ class SimulacaoInvestimentoServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        motorCapitalizacao.modo = ModoCapitalizacao.EXATO_LIMITADO;
+        when(catalogoProdutos.obterCatalogo())
+                .thenAnswer(invocation -> CatalogoIndexado.construir(0, produtoRepository.listAll()));
+        when(tabelaFatoresCapitalizacao.obterFatores(any())).thenReturn(fatores);
+
+        when(cacheResultadoSimulacao.obter(anyLong(), any(), any(), anyLong(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(4)).get());
 
         // Setup valid request
         validRequest = new SimulacaoRequest(
@@ -139,10 +209,10 @@ class SimulacaoInvestimentoServiceTest {
     @Test
     void simularInvestimento_WithValidRequestAndProdutoId_ShouldReturnSimulacaoResponse() {
         // Given
-        when(produtoRepository.findById(2L)).thenReturn(validProduto);
+        when(produtoRepository.listAll()).thenReturn(produtos);
         when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
-        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any())).thenReturn(produtos);
-        when(simuladorMercado.gerarCenario(TipoProduto.CDB, 12)).thenReturn(cenarioMercado);
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
         when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
         when(simulacaoMapper.toEntity(eq(1L), eq(2L), eq("CDB Teste"), eq(new BigDecimal("10000.00")), any()))
                 .thenReturn(simulacaoInvestimento);
@@ -158,11 +228,199 @@ class SimulacaoInvestimentoServiceTest {
         assertEquals(1L, response.simulacaoId());
         assertNotNull(response.resultadoSimulacao());
 
-        verify(produtoRepository).findById(2L);
-        verify(simulacaoRepository).persist(simulacaoInvestimento);
+        verify(produtoRepository).listAll();
+        verify(produtoRepository, never()).findById(any());
+        verify(gravacaoAssincronaSimulacao).gravar(simulacaoInvestimento);
         verify(produtoMapper).toResponse(validProduto);
     }
 
+    @Test
+    void simularInvestimento_WithSameSeed_ShouldReplayTheSameDraws() {
+        SimulacaoRequest requestComSemente = new SimulacaoRequest(
+                1L, 2L, new BigDecimal("10000.00"), 12, null, null,
+                TipoProduto.CDB, "CDB Teste", TipoRentabilidade.PRE, null, 30, true, 42L
+        );
+
+        when(produtoRepository.listAll()).thenReturn(produtos);
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
+        when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
+        when(simulacaoMapper.toEntity(any(), any(), any(), any(), any())).thenReturn(simulacaoInvestimento);
+
+        SimulacaoResponse primeira = simulacaoService.simularInvestimento(requestComSemente);
+        SimulacaoResponse segunda = simulacaoService.simularInvestimento(requestComSemente);
+
+        ArgumentCaptor<RandomGenerator> geradores = ArgumentCaptor.forClass(RandomGenerator.class);
+        verify(simuladorMercado, times(2)).gerarCenario(eq(TipoProduto.CDB), eq(12), geradores.capture());
+
+        assertEquals(42L, primeira.resultadoSimulacao().semente());
+        assertEquals(42L, segunda.resultadoSimulacao().semente());
+        assertNotSame(geradores.getAllValues().get(0), geradores.getAllValues().get(1));
+        assertEquals(geradores.getAllValues().get(0).nextLong(), geradores.getAllValues().get(1).nextLong());
+        verify(cacheResultadoSimulacao, times(2)).obter(eq(0L), eq(2L), eq(requestComSemente), eq(42L), any());
+    }
+
+    @Test
+    void simularInvestimento_WithoutSeed_ShouldReturnGeneratedSeed() {
+        when(produtoRepository.listAll()).thenReturn(produtos);
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
+        when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
+        when(simulacaoMapper.toEntity(any(), any(), any(), any(), any())).thenReturn(simulacaoInvestimento);
+
+        SimulacaoResponse response = simulacaoService.simularInvestimento(validRequest);
+
+        assertNotNull(response.resultadoSimulacao().semente());
+        verifyNoInteractions(cacheResultadoSimulacao);
+    }
+
+    @Test
+    void simularInvestimento_ShouldReportNetOfTaxResult() {
+        when(produtoRepository.listAll()).thenReturn(produtos);
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
+        when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
+        when(simulacaoMapper.toEntity(any(), any(), any(), any(), any())).thenReturn(simulacaoInvestimento);
+
+        TributacaoSimulacao tributacao = simulacaoService.simularInvestimento(validRequest)
+                .resultadoSimulacao().tributacao();
+
+        assertFalse(tributacao.isento());
+        assertEquals(360, tributacao.prazoDias());
+        assertEquals(new BigDecimal("1000.00"), tributacao.rendimentoBruto());
+        assertEquals(new BigDecimal("200.00"), tributacao.valorIR());
+        assertEquals(0, BigDecimal.ZERO.compareTo(tributacao.valorIOF()));
+        assertEquals(new BigDecimal("800.00"), tributacao.rendimentoLiquido());
+        assertEquals(new BigDecimal("10800.00"), tributacao.valorFinalLiquido());
+    }
+
+    @Test
+    void simularTabelaLiquida_ShouldTaxEveryTermInDays() {
+        simulacaoService.prazoMaximoTabelaLiquida = 1095;
+        when(produtoRepository.listAll()).thenReturn(produtos);
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
+        when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
+        when(produtoMapper.toResponse(validProduto)).thenReturn(produtoResponse);
+
+        TabelaLiquidaResponse tabela = simulacaoService.simularTabelaLiquida(validRequest);
+
+        List<LinhaTabelaLiquida> linhas = tabela.linhas();
+        assertEquals(360, linhas.size());
+        assertFalse(tabela.isento());
+
+        // AO_ANO capitaliza no início: o rendimento bruto é o mesmo em todos os prazos do primeiro ano
+        assertEquals(new BigDecimal("27.60"), linhas.get(28).valorIOF());
+        assertEquals(0, BigDecimal.ZERO.compareTo(linhas.get(29).valorIOF()));
+        assertEquals(new BigDecimal("225.00"), linhas.get(179).valorIR());
+        assertEquals(new BigDecimal("200.00"), linhas.get(180).valorIR());
+
+        LinhaTabelaLiquida ultima = linhas.get(359);
+        assertEquals(360, ultima.prazoDias());
+        assertEquals(new BigDecimal("11000.00"), ultima.valorBruto());
+        assertEquals(new BigDecimal("800.00"), ultima.rendimentoLiquido());
+        assertEquals(new BigDecimal("10800.00"), ultima.valorLiquido());
+        verify(tributacaoService).calcularTabela(any());
+        verifyNoInteractions(simulacaoRepository, gravacaoAssincronaSimulacao);
+    }
+
+    @Test
+    void simularTabelaLiquida_AboveMaximumTerm_ShouldThrowOwnMessage() {
+        simulacaoService.prazoMaximoLinhaDoTempo = 600;
+        simulacaoService.prazoMaximoTabelaLiquida = 300;
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> simulacaoService.simularTabelaLiquida(validRequest));
+
+        assertEquals("Prazo da tabela líquida não pode ser maior que 300 dias", exception.getMessage());
+        verifyNoInteractions(simuladorMercado, tributacaoService);
+    }
+
+    @Test
+    void projetarCarteira_ShouldProjectEveryPositionAndAggregateByTypeAndRisk() {
+        simulacaoService.prazoMaximoLinhaDoTempo = 600;
+        LocalDate hoje = LocalDate.now();
+
+        Investimento cdb = novaPosicao(1L, TipoProduto.CDB, new BigDecimal("10000.00"), hoje, 24);
+        Investimento acao = novaPosicao(2L, TipoProduto.ACAO, new BigDecimal("5000.00"), hoje.minusMonths(6), 12);
+
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of(cdb, acao));
+        when(simuladorMercado.gerarCenario(any(), anyInt(), any())).thenReturn(cenarioMercado);
+        when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        SimulacaoCarteiraResponse carteira = simulacaoService.projetarCarteira(1L, hoje.plusMonths(12), 7L, true);
+
+        assertEquals(2, carteira.totalPosicoes());
+        assertEquals(new BigDecimal("15000.00"), carteira.valorInvestido());
+        assertEquals(new BigDecimal("16500.00"), carteira.valorProjetado());
+        assertEquals(new BigDecimal("1500.00"), carteira.rendimento());
+        assertEquals(7L, carteira.semente());
+
+        // A ação vence em 360 dias (11 meses completos) e deixa de render antes da data alvo
+        ProjecaoPosicaoCarteira posicaoAcao = carteira.posicoes().get(1);
+        assertEquals(11, posicaoAcao.prazoMeses());
+        assertEquals(new BigDecimal("5500.00"), posicaoAcao.valorProjetado());
+
+        assertEquals(List.of("CDB", "ACAO"), carteira.porTipoProduto().stream().map(AgregadoCarteira::grupo).toList());
+        assertEquals(new BigDecimal("66.67"), carteira.porTipoProduto().get(0).participacao());
+        assertEquals(new BigDecimal("33.33"), carteira.porTipoProduto().get(1).participacao());
+
+        assertEquals(List.of("BAIXO", "ALTO"), carteira.porNivelRisco().stream().map(AgregadoCarteira::grupo).toList());
+        assertEquals(new BigDecimal("1000.00"), carteira.porNivelRisco().get(0).rendimento());
+        verifyNoInteractions(simulacaoRepository, gravacaoAssincronaSimulacao);
+    }
+
+    @Test
+    void projetarCarteira_WithoutPositions_ShouldReturnEmptyAggregates() {
+        simulacaoService.prazoMaximoLinhaDoTempo = 600;
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(List.of());
+
+        SimulacaoCarteiraResponse carteira =
+                simulacaoService.projetarCarteira(1L, LocalDate.now().plusMonths(1), null, false);
+
+        assertEquals(0, carteira.totalPosicoes());
+        assertEquals(0, BigDecimal.ZERO.compareTo(carteira.valorProjetado()));
+        assertTrue(carteira.porTipoProduto().isEmpty());
+        assertNull(carteira.posicoes());
+        assertNotNull(carteira.semente());
+    }
+
+    @Test
+    void projetarCarteira_WithTargetDateOutOfRange_ShouldThrowException() {
+        simulacaoService.prazoMaximoLinhaDoTempo = 12;
+
+        assertThrows(IllegalArgumentException.class,
+                () -> simulacaoService.projetarCarteira(1L, null, null, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> simulacaoService.projetarCarteira(1L, LocalDate.now().minusDays(1), null, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> simulacaoService.projetarCarteira(1L, LocalDate.now().plusMonths(13), null, false));
+        verifyNoInteractions(investimentoRepository);
+    }
+
+    private Investimento novaPosicao(Long id, TipoProduto tipo, BigDecimal valor, LocalDate data, int prazoMeses) {
+        Investimento investimento = new Investimento();
+        investimento.setId(id);
+        investimento.setClienteId(1L);
+        investimento.setProdutoId(id);
+        investimento.setValor(valor);
+        investimento.setPrazoMeses(prazoMeses);
+        investimento.setData(data);
+        investimento.setTipo(tipo);
+        investimento.setTipoRentabilidade(TipoRentabilidade.PRE);
+        investimento.setRentabilidade(new BigDecimal("10.0"));
+        investimento.setPeriodoRentabilidade(PeriodoRentabilidade.AO_ANO);
+        investimento.setLiquidez(0);
+        investimento.setMinimoDiasInvestimento(0);
+        investimento.setFgc(true);
+        return investimento;
+    }
+
     @Test
     void simularInvestimento_WithoutProdutoId_ShouldUseFiltersToFindProduct() {
         // Given
@@ -175,8 +433,8 @@ class SimulacaoInvestimentoServiceTest {
 
         when(produtoRepository.listAll()).thenReturn(produtos);
         when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
-        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any())).thenReturn(produtos);
-        when(simuladorMercado.gerarCenario(TipoProduto.CDB, 12)).thenReturn(cenarioMercado);
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
         when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
         when(simulacaoMapper.toEntity(eq(1L), eq(2L), eq("CDB Teste"), eq(new BigDecimal("10000.00")), any()))
                 .thenReturn(simulacaoInvestimento);
@@ -189,19 +447,19 @@ class SimulacaoInvestimentoServiceTest {
         assertNotNull(response);
         assertEquals(produtoResponse, response.produtoValidado());
         verify(produtoRepository).listAll();
-        verify(simulacaoRepository).persist(simulacaoInvestimento);
+        verify(gravacaoAssincronaSimulacao).gravar(simulacaoInvestimento);
     }
 
     @Test
     void simularInvestimento_WithNonExistentProdutoId_ShouldUseFilters() {
         // Given
-        when(produtoRepository.findById(2L)).thenReturn(null);
+        validProduto.setId(5L);
         when(produtoRepository.listAll()).thenReturn(produtos);
         when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
-        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any())).thenReturn(produtos);
-        when(simuladorMercado.gerarCenario(TipoProduto.CDB, 12)).thenReturn(cenarioMercado);
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
         when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
-        when(simulacaoMapper.toEntity(eq(1L), eq(2L), eq("CDB Teste"), eq(new BigDecimal("10000.00")), any()))
+        when(simulacaoMapper.toEntity(eq(1L), eq(5L), eq("CDB Teste"), eq(new BigDecimal("10000.00")), any()))
                 .thenReturn(simulacaoInvestimento);
         when(produtoMapper.toResponse(validProduto)).thenReturn(produtoResponse);
 
@@ -210,7 +468,7 @@ class SimulacaoInvestimentoServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(produtoRepository).findById(2L);
+        assertEquals(produtoResponse, response.produtoValidado());
         verify(produtoRepository).listAll();
     }
 
@@ -224,11 +482,11 @@ class SimulacaoInvestimentoServiceTest {
 
         List<Investimento> investimentosExistentes = List.of(investimentoExistente);
 
-        when(produtoRepository.findById(2L)).thenReturn(validProduto);
+        when(produtoRepository.listAll()).thenReturn(produtos);
         when(investimentoRepository.findByClienteId(1L)).thenReturn(investimentosExistentes);
-        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(investimentosExistentes, List.of(validProduto)))
-                .thenReturn(produtos);
-        when(simuladorMercado.gerarCenario(TipoProduto.CDB, 12)).thenReturn(cenarioMercado);
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(
+                eq(investimentosExistentes), eq(List.of(validProduto)), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
         when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
         when(simulacaoMapper.toEntity(eq(1L), eq(2L), eq("CDB Teste"), eq(new BigDecimal("10000.00")), any()))
                 .thenReturn(simulacaoInvestimento);
@@ -240,16 +498,16 @@ class SimulacaoInvestimentoServiceTest {
         // Then
         assertNotNull(response);
         verify(investimentoRepository).findByClienteId(1L);
-        verify(geradorRecomendacaoML).encontrarProdutosOrdenadosPorAparicao(investimentosExistentes, List.of(validProduto));
+        verify(geradorRecomendacaoML).encontrarProdutosOrdenadosPorAparicao(
+                eq(investimentosExistentes), eq(List.of(validProduto)), eq(1), any());
     }
 
     @Test
     void simularInvestimento_WithNoMatchingProducts_ShouldThrowException() {
         // Given
-        when(produtoRepository.findById(2L)).thenReturn(null);
         when(produtoRepository.listAll()).thenReturn(new ArrayList<>());
         when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
-        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any())).thenReturn(new ArrayList<>());
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(new ArrayList<>());
 
         // When & Then
         NenhumProdutoDisponivelException exception = assertThrows(NenhumProdutoDisponivelException.class, () -> {
@@ -274,15 +532,15 @@ class SimulacaoInvestimentoServiceTest {
                 90,
                 true
         );
-        produtoPos.setId(3L);
+        produtoPos.setId(2L);
 
-        when(produtoRepository.findById(2L)).thenReturn(produtoPos);
+        when(produtoRepository.listAll()).thenReturn(List.of(produtoPos));
         when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
-        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any())).thenReturn(List.of(produtoPos));
-        when(simuladorMercado.gerarCenario(TipoProduto.CDB, 12)).thenReturn(cenarioMercado);
-        when(simuladorIndices.getTaxaSimulada(Indice.CDI, 12)).thenReturn(new BigDecimal("12.0"));
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(List.of(produtoPos));
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
+        when(simuladorIndices.getTaxaSimulada(eq(Indice.CDI), eq(12), any())).thenReturn(new BigDecimal("12.0"));
         when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("12.0"));
-        when(simulacaoMapper.toEntity(eq(1L), eq(3L), eq("CDB Pós"), eq(new BigDecimal("10000.00")), any()))
+        when(simulacaoMapper.toEntity(eq(1L), eq(2L), eq("CDB Pós"), eq(new BigDecimal("10000.00")), any()))
                 .thenReturn(simulacaoInvestimento);
         when(produtoMapper.toResponse(produtoPos)).thenReturn(produtoResponse);
 
@@ -291,7 +549,7 @@ class SimulacaoInvestimentoServiceTest {
 
         // Then
         assertNotNull(response);
-        verify(simuladorIndices).getTaxaSimulada(Indice.CDI, 12);
+        verify(simuladorIndices).getTaxaSimulada(eq(Indice.CDI), eq(12), any());
         verify(simuladorMercado).ajustarRentabilidadePorCenario(any(), any(), eq(TipoRentabilidade.POS));
     }
 
@@ -425,8 +683,8 @@ class SimulacaoInvestimentoServiceTest {
 
         when(produtoRepository.listAll()).thenReturn(produtosMixtos);
         when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
-        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any())).thenReturn(List.of(validProduto));
-        when(simuladorMercado.gerarCenario(TipoProduto.CDB, 12)).thenReturn(cenarioMercado);
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(List.of(validProduto));
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
         when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
         when(simulacaoMapper.toEntity(eq(1L), eq(2L), eq("CDB Teste"), eq(new BigDecimal("10000.00")), any()))
                 .thenReturn(simulacaoInvestimento);
@@ -457,8 +715,8 @@ class SimulacaoInvestimentoServiceTest {
 
         when(produtoRepository.listAll()).thenReturn(produtosComNull);
         when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
-        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any())).thenReturn(List.of(validProduto));
-        when(simuladorMercado.gerarCenario(TipoProduto.CDB, 12)).thenReturn(cenarioMercado);
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(List.of(validProduto));
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
         when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
         when(simulacaoMapper.toEntity(eq(1L), eq(2L), eq("CDB Teste"), eq(new BigDecimal("10000.00")), any()))
                 .thenReturn(simulacaoInvestimento);
@@ -478,4 +736,281 @@ class SimulacaoInvestimentoServiceTest {
         // Deve ignorar o produto null e usar o válido
         assertEquals(produtoResponse, response.produtoValidado());
     }
-}
\ No newline at end of file
+
+    @Test
+    void simularInvestimentoLote_ShouldLoadCatalogOnceAndPersistAllInOneCall() {
+        // Given
+        simulacaoService.paralelismoLote = 2;
+        simulacaoService.tamanhoMaximoLote = 100;
+
+        SimulacaoRequest requestPrazoInvalido = new SimulacaoRequest(
+                1L, 2L, new BigDecimal("10000.00"),
+                300, null, null,
+                null, null, null, null, null, null
+        );
+
+        when(produtoRepository.listAll()).thenReturn(produtos);
+        when(investimentoRepository.findByClienteIds(any())).thenReturn(new ArrayList<>());
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
+        when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
+        when(simulacaoMapper.toEntity(eq(1L), eq(2L), eq("CDB Teste"), eq(new BigDecimal("10000.00")), any()))
+                .thenReturn(simulacaoInvestimento);
+        when(produtoMapper.toResponse(validProduto)).thenReturn(produtoResponse);
+
+        // When
+        SimulacaoLoteResponse response = simulacaoService.simularInvestimentoLote(
+                List.of(validRequest, requestPrazoInvalido, validRequest));
+
+        // Then
+        assertEquals(3, response.totalItens());
+        assertEquals(2, response.totalSucesso());
+        assertEquals(1, response.totalErros());
+
+        assertTrue(response.itens().get(0).sucesso());
+        assertEquals(1L, response.itens().get(0).simulacao().simulacaoId());
+        assertFalse(response.itens().get(1).sucesso());
+        assertEquals(1, response.itens().get(1).indice());
+        assertTrue(response.itens().get(1).erro().contains("Prazo muito longo"));
+        assertTrue(response.itens().get(2).sucesso());
+
+        verify(produtoRepository, times(1)).listAll();
+        verify(produtoRepository, never()).findById(any());
+        verify(catalogoProdutos, times(1)).obterCatalogo();
+        verify(tabelaFatoresCapitalizacao, times(1)).obterFatores(any());
+        verify(tabelaFatoresCapitalizacao, never()).buscarFator(any(), any(), anyInt());
+        verify(investimentoRepository, times(1)).findByClienteIds(any());
+        verify(investimentoRepository, never()).findByClienteId(any());
+        verify(gravacaoAssincronaSimulacao, times(2)).atribuirId(simulacaoInvestimento);
+        verify(simulacaoRepository, times(1)).persist(anyList());
+        verify(simulacaoRepository, never()).persist(any(SimulacaoInvestimento.class));
+        verify(historicoAlterado, times(1)).fire(argThat(evento -> evento.clienteId().equals(1L) && evento.entradas().size() == 2));
+    }
+
+    @Test
+    void simularInvestimentoLote_WithEmptyList_ShouldThrowException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> simulacaoService.simularInvestimentoLote(List.of()));
+
+        assertEquals("Lote de simulações não pode ser vazio", exception.getMessage());
+        verifyNoInteractions(produtoRepository, simulacaoRepository);
+    }
+
+    @Test
+    void simularInvestimentoLote_AboveMaximumSize_ShouldThrowException() {
+        simulacaoService.tamanhoMaximoLote = 1;
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> simulacaoService.simularInvestimentoLote(List.of(validRequest, validRequest)));
+
+        assertEquals("Lote deve ter no máximo 1 simulações", exception.getMessage());
+        verifyNoInteractions(produtoRepository, simulacaoRepository);
+    }
+
+    @Test
+    void simularInvestimentoMonteCarlo_ShouldDelegateAndNotPersist() {
+        simulacaoService.caminhosPadraoMonteCarlo = 10000;
+        simulacaoService.caminhosMaximoMonteCarlo = 100000;
+
+        ResultadoMonteCarlo resultado = new ResultadoMonteCarlo(
+                new BigDecimal("10000.00"), 12, 10000, new BigDecimal("11000.00"), new BigDecimal("10500.00"),
+                new BigDecimal("10800.00"), new BigDecimal("11000.00"), new BigDecimal("11200.00"), new BigDecimal("11500.00"), 42L
+        );
+
+        when(produtoRepository.listAll()).thenReturn(produtos);
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simulacaoMonteCarloService.simular(new BigDecimal("10000.00"), 12, validProduto, 10000, null)).thenReturn(resultado);
+        when(produtoMapper.toResponse(validProduto)).thenReturn(produtoResponse);
+
+        SimulacaoMonteCarloResponse response = simulacaoService.simularInvestimentoMonteCarlo(validRequest, null);
+
+        assertEquals(produtoResponse, response.produtoValidado());
+        assertEquals(resultado, response.resultadoMonteCarlo());
+        assertEquals(1L, response.clienteId());
+        verify(simulacaoRepository, never()).persist(any(SimulacaoInvestimento.class));
+        verify(simuladorMercado, never()).gerarCenario(any(), anyInt(), any());
+    }
+
+    @Test
+    void simularInvestimentoComparacao_ShouldRankAllCandidatesAndPersistOnlySelected() {
+        Produto produtoMaisRentavel = new Produto("CDB Plus", TipoProduto.CDB, TipoRentabilidade.PRE,
+                new BigDecimal("12.0"), PeriodoRentabilidade.AO_ANO, null, 30, 90, true);
+        produtoMaisRentavel.setId(3L);
+        List<Produto> candidatos = List.of(validProduto, produtoMaisRentavel);
+
+        SimulacaoRequest requestComparacao = new SimulacaoRequest(
+                1L, null, new BigDecimal("10000.00"), 12, null, null,
+                TipoProduto.CDB, null, TipoRentabilidade.PRE, null, 30, true
+        );
+
+        when(produtoRepository.listAll()).thenReturn(candidatos);
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(candidatos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
+        when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(simulacaoMapper.toEntity(eq(1L), eq(2L), eq("CDB Teste"), eq(new BigDecimal("10000.00")), any()))
+                .thenReturn(simulacaoInvestimento);
+        when(produtoMapper.toResponse(any(Produto.class))).thenReturn(produtoResponse);
+
+        SimulacaoComparacaoResponse response = simulacaoService.simularInvestimentoComparacao(requestComparacao, true);
+
+        assertEquals(2, response.totalProdutos());
+        assertEquals(1L, response.simulacaoId());
+        assertEquals(new BigDecimal("11200.00"), response.produtos().get(0).resultadoSimulacao().valorFinal());
+        assertFalse(response.produtos().get(0).selecionado());
+        assertEquals(new BigDecimal("11000.00"), response.produtos().get(1).resultadoSimulacao().valorFinal());
+        assertTrue(response.produtos().get(1).selecionado());
+        assertEquals(2, response.produtos().get(1).posicao());
+
+        verify(gravacaoAssincronaSimulacao, times(1)).gravar(simulacaoInvestimento);
+        verify(simulacaoMapper, times(1)).toEntity(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void simularInvestimentoComparacao_WithoutPersistence_ShouldNotPersist() {
+        when(produtoRepository.listAll()).thenReturn(produtos);
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
+        when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
+        when(produtoMapper.toResponse(validProduto)).thenReturn(produtoResponse);
+
+        SimulacaoComparacaoResponse response = simulacaoService.simularInvestimentoComparacao(validRequest, false);
+
+        assertEquals(1, response.totalProdutos());
+        assertNull(response.simulacaoId());
+        assertTrue(response.produtos().getFirst().selecionado());
+        verifyNoInteractions(gravacaoAssincronaSimulacao, simulacaoMapper);
+    }
+
+    @Test
+    void simularLinhaDoTempo_ShouldStreamUpToFinalValueWithoutPersisting() {
+        simulacaoService.prazoMaximoLinhaDoTempo = 600;
+
+        when(produtoRepository.listAll()).thenReturn(produtos);
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), eq(12), any())).thenReturn(cenarioMercado);
+        when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
+        when(produtoMapper.toResponse(validProduto)).thenReturn(produtoResponse);
+
+        LinhaDoTempoSimulacao linhaDoTempo =
+                simulacaoService.simularLinhaDoTempo(validRequest, GranularidadeLinhaDoTempo.MENSAL);
+
+        assertEquals(produtoResponse, linhaDoTempo.getCabecalho().produtoValidado());
+        assertEquals(12, linhaDoTempo.getCabecalho().totalPeriodos());
+        assertEquals(new BigDecimal("10.0000"), linhaDoTempo.getCabecalho().rentabilidadeEfetiva());
+
+        PontoLinhaDoTempo ultimo = null;
+        while (linhaDoTempo.hasNext()) {
+            ultimo = linhaDoTempo.next();
+        }
+
+        assertEquals(12, ultimo.periodo());
+        assertEquals(new BigDecimal("11000.00"), ultimo.saldo());
+        verifyNoInteractions(simulacaoRepository, gravacaoAssincronaSimulacao);
+    }
+
+    @Test
+    void simularLinhaDoTempo_AboveMaximumTerm_ShouldThrowException() {
+        simulacaoService.prazoMaximoLinhaDoTempo = 6;
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> simulacaoService.simularLinhaDoTempo(validRequest, GranularidadeLinhaDoTempo.MENSAL));
+
+        assertEquals("Prazo da linha do tempo não pode ser maior que 6 meses", exception.getMessage());
+    }
+
+    @Test
+    void simularMeta_WithTerm_ShouldSolveInitialValueInClosedForm() {
+        stubSimulacaoMeta();
+
+        SimulacaoMetaResponse response = simulacaoService.simularMeta(metaRequest(new BigDecimal("11000.00"), null, 12));
+
+        assertEquals(IncognitaMeta.VALOR_INICIAL, response.incognita());
+        assertEquals(MetodoResolucaoMeta.FORMA_FECHADA, response.metodo());
+        assertEquals(new BigDecimal("10000.00"), response.valorInicial());
+        assertEquals(12, response.prazoMeses());
+        assertEquals(new BigDecimal("11000.00"), response.valorFinal());
+        verifyNoInteractions(simulacaoRepository, gravacaoAssincronaSimulacao);
+    }
+
+    @Test
+    void simularMeta_WithInitialValue_ShouldSolveShortestTermInClosedForm() {
+        stubSimulacaoMeta();
+
+        SimulacaoMetaResponse response = simulacaoService.simularMeta(
+                metaRequest(new BigDecimal("12000.00"), new BigDecimal("10000.00"), null));
+
+        assertEquals(IncognitaMeta.PRAZO, response.incognita());
+        assertEquals(MetodoResolucaoMeta.FORMA_FECHADA, response.metodo());
+        assertEquals(13, response.prazoMeses());
+        assertEquals(new BigDecimal("12100.00"), response.valorFinal());
+        verify(simuladorMercado).gerarCenario(eq(TipoProduto.CDB), eq(240), any());
+    }
+
+    @Test
+    void simularMeta_WhenClosedFormMisses_ShouldFallBackToBisection() {
+        stubSimulacaoMeta();
+        when(fatores.buscarFator(any(), any(), anyInt()))
+                .thenAnswer(invocation -> (int) invocation.getArgument(2) >= 50 ? new BigDecimal("2") : BigDecimal.ONE);
+
+        SimulacaoMetaResponse response = simulacaoService.simularMeta(
+                metaRequest(new BigDecimal("20000.00"), new BigDecimal("10000.00"), null));
+
+        assertEquals(MetodoResolucaoMeta.BISSECAO, response.metodo());
+        assertEquals(50, response.prazoMeses());
+        assertTrue(response.iteracoes() > 0 && response.iteracoes() <= 8);
+    }
+
+    @Test
+    void simularMeta_WhenGoalIsUnreachable_ShouldThrowException() {
+        stubSimulacaoMeta();
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> simulacaoService.simularMeta(
+                        metaRequest(new BigDecimal("100000000.00"), new BigDecimal("10000.00"), null)));
+
+        assertEquals("Meta não pode ser atingida em até 240 meses com o produto selecionado", exception.getMessage());
+    }
+
+    @Test
+    void simularMeta_WithBothOrNeitherUnknown_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> simulacaoService.simularMeta(
+                metaRequest(new BigDecimal("12000.00"), new BigDecimal("10000.00"), 12)));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> simulacaoService.simularMeta(metaRequest(new BigDecimal("12000.00"), null, null)));
+
+        assertEquals("Deve ser informado exatamente um entre 'valorInicial' e 'prazoMeses'", exception.getMessage());
+    }
+
+    private void stubSimulacaoMeta() {
+        when(produtoRepository.listAll()).thenReturn(produtos);
+        when(investimentoRepository.findByClienteId(1L)).thenReturn(new ArrayList<>());
+        when(geradorRecomendacaoML.encontrarProdutosOrdenadosPorAparicao(any(), any(), eq(1), any())).thenReturn(produtos);
+        when(simuladorMercado.gerarCenario(eq(TipoProduto.CDB), anyInt(), any())).thenReturn(cenarioMercado);
+        when(simuladorMercado.ajustarRentabilidadePorCenario(any(), any(), any())).thenReturn(new BigDecimal("10.0"));
+        when(produtoMapper.toResponse(validProduto)).thenReturn(produtoResponse);
+    }
+
+    private SimulacaoMetaRequest metaRequest(BigDecimal valorMeta, BigDecimal valorInicial, Integer prazoMeses) {
+        return new SimulacaoMetaRequest(1L, 2L, valorMeta, valorInicial, prazoMeses,
+                null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void simularInvestimentoMonteCarlo_WithPathsOutOfRange_ShouldThrowException() {
+        simulacaoService.caminhosMaximoMonteCarlo = 100;
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> simulacaoService.simularInvestimentoMonteCarlo(validRequest, 101));
+
+        assertEquals("Número de caminhos deve estar entre 1 e 100", exception.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> simulacaoService.simularInvestimentoMonteCarlo(validRequest, 0));
+        verifyNoInteractions(simulacaoMonteCarloService);
+    }
+}
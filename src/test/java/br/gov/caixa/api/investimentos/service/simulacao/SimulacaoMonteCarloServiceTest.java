@@ -0,0 +1,112 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.client.SimuladorIndices;
+import br.gov.caixa.api.investimentos.client.SimuladorMercado;
+import br.gov.caixa.api.investimentos.dto.simulacao.ResultadoMonteCarlo;
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulacaoMonteCarloServiceTest {
+
+    @Spy
+    private SimuladorMercado simuladorMercado = new SimuladorMercado();
+
+    @Spy
+    private SimuladorIndices simuladorIndices = new SimuladorIndices();
+
+    @Spy
+    private MotorCapitalizacao motorCapitalizacao = new MotorCapitalizacao();
+
+    @InjectMocks
+    private SimulacaoMonteCarloService monteCarloService;
+
+    private Produto cdbPre;
+    private Produto cdbPos;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        cdbPre = new Produto("CDB Pré", TipoProduto.CDB, TipoRentabilidade.PRE,
+                new BigDecimal("12.0"), PeriodoRentabilidade.AO_ANO, Indice.NENHUM, 30, 30, true);
+        cdbPos = new Produto("CDB 110% CDI", TipoProduto.CDB, TipoRentabilidade.POS,
+                new BigDecimal("110.0"), PeriodoRentabilidade.AO_DIA, Indice.CDI, 0, 1, true);
+    }
+
+    @Test
+    void deveRetornarPercentisOrdenadosParaProdutoPreFixado() {
+        ResultadoMonteCarlo resultado = monteCarloService.simular(new BigDecimal("10000.00"), 36, cdbPre, 5000, null);
+
+        assertEquals(5000, resultado.caminhos());
+        assertEquals(36, resultado.prazoMeses());
+        assertTrue(resultado.percentil5().compareTo(resultado.percentil25()) <= 0);
+        assertTrue(resultado.percentil25().compareTo(resultado.percentil50()) <= 0);
+        assertTrue(resultado.percentil50().compareTo(resultado.percentil75()) <= 0);
+        assertTrue(resultado.percentil75().compareTo(resultado.percentil95()) <= 0);
+        assertTrue(resultado.percentil5().compareTo(resultado.media()) <= 0);
+        assertTrue(resultado.media().compareTo(resultado.percentil95()) <= 0);
+        assertTrue(resultado.percentil5().compareTo(new BigDecimal("10000.00")) > 0);
+    }
+
+    @Test
+    void deveGerarDispersaoParaProdutoPosFixadoIndexado() {
+        ResultadoMonteCarlo resultado = monteCarloService.simular(new BigDecimal("1000.00"), 24, cdbPos, 10000, null);
+
+        assertTrue(resultado.percentil95().compareTo(resultado.percentil5()) > 0);
+        assertEquals(2, resultado.media().scale());
+    }
+
+    @Test
+    void deveRepetirDistribuicaoComMesmaSemente() {
+        ResultadoMonteCarlo primeira = monteCarloService.simular(new BigDecimal("1000.00"), 24, cdbPos, 20000, 7L);
+        ResultadoMonteCarlo segunda = monteCarloService.simular(new BigDecimal("1000.00"), 24, cdbPos, 20000, 7L);
+
+        assertEquals(primeira, segunda);
+        assertEquals(7L, primeira.semente());
+    }
+
+    @Test
+    void deveInformarSementeGeradaQuandoNaoInformada() {
+        ResultadoMonteCarlo resultado = monteCarloService.simular(new BigDecimal("1000.00"), 24, cdbPos, 100, null);
+
+        ResultadoMonteCarlo repetido = monteCarloService.simular(
+                new BigDecimal("1000.00"), 24, cdbPos, 100, resultado.semente());
+
+        assertNotNull(resultado.semente());
+        assertEquals(resultado, repetido);
+    }
+
+    @Test
+    void deveManterValorInicialEmPrazoZeroDeCapitalizacao() {
+        Produto periodoTotal = new Produto("LCI Período", TipoProduto.LCI, TipoRentabilidade.PRE,
+                BigDecimal.ZERO, PeriodoRentabilidade.PERIODO_TOTAL, Indice.NENHUM, 0, 1, true);
+
+        ResultadoMonteCarlo resultado = monteCarloService.simular(new BigDecimal("500.00"), 12, periodoTotal, 100, null);
+
+        assertEquals(new BigDecimal("500.00"), resultado.percentil5());
+        assertEquals(new BigDecimal("500.00"), resultado.percentil95());
+        assertEquals(new BigDecimal("500.00"), resultado.media());
+    }
+
+    @Test
+    void deveInterpolarPercentilEntrePosicoes() {
+        double[] ordenados = {1.0, 2.0, 3.0, 4.0, 5.0};
+
+        assertEquals(1.0, SimulacaoMonteCarloService.percentil(ordenados, 0), 1e-12);
+        assertEquals(3.0, SimulacaoMonteCarloService.percentil(ordenados, 50), 1e-12);
+        assertEquals(4.8, SimulacaoMonteCarloService.percentil(ordenados, 95), 1e-12);
+        assertEquals(5.0, SimulacaoMonteCarloService.percentil(ordenados, 100), 1e-12);
+    }
+}
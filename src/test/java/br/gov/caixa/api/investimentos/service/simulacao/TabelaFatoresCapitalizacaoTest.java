@@ -0,0 +1,116 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.client.SimuladorMercado;
+import br.gov.caixa.api.investimentos.enums.produto.PeriodoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.enums.produto.TipoRentabilidade;
+import br.gov.caixa.api.investimentos.enums.simulacao.Indice;
+import br.gov.caixa.api.investimentos.enums.simulacao.ModoCapitalizacao;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoIndexado;
+import br.gov.caixa.api.investimentos.service.produto.CatalogoProdutos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TabelaFatoresCapitalizacaoTest {
+
+    @Mock
+    private CatalogoProdutos catalogoProdutos;
+
+    @Spy
+    private SimuladorMercado simuladorMercado = new SimuladorMercado();
+
+    @Spy
+    private MotorCapitalizacao motorCapitalizacao = new MotorCapitalizacao();
+
+    @InjectMocks
+    private TabelaFatoresCapitalizacao tabela;
+
+    private Produto cdbPre;
+    private Produto cdbPos;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        motorCapitalizacao.modo = ModoCapitalizacao.EXATO_LIMITADO;
+
+        cdbPre = new Produto("CDB Pré", TipoProduto.CDB, TipoRentabilidade.PRE,
+                new BigDecimal("12.0"), PeriodoRentabilidade.AO_DIA, Indice.NENHUM, 30, 30, true);
+        cdbPos = new Produto("CDB 110% CDI", TipoProduto.CDB, TipoRentabilidade.POS,
+                new BigDecimal("110.0"), PeriodoRentabilidade.AO_DIA, Indice.CDI, 0, 1, true);
+    }
+
+    @Test
+    void deveTabelarApenasProdutosDeTaxaFixa() {
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(0, List.of(cdbPre, cdbPos)));
+
+        assertEquals(SimuladorMercado.CenarioEconomico.values().length, tabela.totalTaxas());
+    }
+
+    @Test
+    void fatorTabeladoDeveCoincidirComMotorEmCentavos() {
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(0, List.of(cdbPre)));
+
+        BigDecimal rentabilidade = simuladorMercado.calcularRentabilidadeNoCenario(cdbPre.getRentabilidade(),
+                TipoProduto.CDB, SimuladorMercado.CenarioEconomico.ESTAVEL, TipoRentabilidade.PRE);
+        BigDecimal taxaDecimal = rentabilidade.divide(new BigDecimal("100"), 6, RoundingMode.HALF_UP);
+
+        for (int prazo : new int[]{1, 12, 240, 600}) {
+            BigDecimal fator = tabela.buscarFator(taxaDecimal, PeriodoRentabilidade.AO_DIA, prazo);
+            BigDecimal esperado = motorCapitalizacao.calcularFatorNoPrazo(taxaDecimal, PeriodoRentabilidade.AO_DIA, prazo);
+
+            assertNotNull(fator);
+            assertEquals(new BigDecimal("10000").multiply(esperado).setScale(2, RoundingMode.HALF_UP),
+                    new BigDecimal("10000").multiply(fator).setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+
+    @Test
+    void deveRetornarNuloForaDaTabela() {
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(0, List.of(cdbPre)));
+
+        assertNull(tabela.buscarFator(new BigDecimal("0.999"), PeriodoRentabilidade.AO_DIA, 12));
+        assertNull(tabela.buscarFator(new BigDecimal("0.12"), PeriodoRentabilidade.AO_DIA, 601));
+        assertNull(tabela.buscarFator(new BigDecimal("0.12"), PeriodoRentabilidade.PERIODO_TOTAL, 12));
+    }
+
+    @Test
+    void deveReconstruirSomenteAposNovaVersaoDoCatalogo() {
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(0, List.of(cdbPre)));
+
+        assertEquals(7, tabela.totalTaxas());
+        assertEquals(7, tabela.totalTaxas());
+        verify(motorCapitalizacao, times(7)).calcularFatoresPorPrazo(any(), any(), anyInt());
+
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, List.of()));
+
+        assertEquals(0, tabela.totalTaxas());
+    }
+
+    @Test
+    void catalogoAntigoRecebidoPorParametro_naoSubstituiATabelaMaisNova() {
+        CatalogoIndexado antigo = CatalogoIndexado.construir(0, List.of(cdbPre));
+        when(catalogoProdutos.obterCatalogo()).thenReturn(CatalogoIndexado.construir(1, List.of()));
+
+        assertEquals(0, tabela.totalTaxas());
+
+        BigDecimal taxaDecimal = simuladorMercado.calcularRentabilidadeNoCenario(cdbPre.getRentabilidade(),
+                        TipoProduto.CDB, SimuladorMercado.CenarioEconomico.ESTAVEL, TipoRentabilidade.PRE)
+                .divide(new BigDecimal("100"), 6, RoundingMode.HALF_UP);
+
+        assertNotNull(tabela.obterFatores(antigo).buscarFator(taxaDecimal, PeriodoRentabilidade.AO_DIA, 12));
+        assertEquals(0, tabela.totalTaxas());
+        verify(catalogoProdutos, times(2)).obterCatalogo();
+    }
+}
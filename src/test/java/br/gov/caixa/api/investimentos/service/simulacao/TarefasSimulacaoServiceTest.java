@@ -0,0 +1,222 @@
+package br.gov.caixa.api.investimentos.service.simulacao;
+
+import br.gov.caixa.api.investimentos.dto.simulacao.ItemSimulacaoLote;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoLoteResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoMonteCarloResponse;
+import br.gov.caixa.api.investimentos.dto.simulacao.SimulacaoRequest;
+import br.gov.caixa.api.investimentos.dto.simulacao.TarefaSimulacaoResponse;
+import br.gov.caixa.api.investimentos.enums.simulacao.StatusTarefaSimulacao;
+import br.gov.caixa.api.investimentos.enums.simulacao.TipoTarefaSimulacao;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TarefasSimulacaoServiceTest {
+
+    @Mock
+    private SimulacaoInvestimentoService simulacaoInvestimentoService;
+
+    @InjectMocks
+    private TarefasSimulacaoService tarefasSimulacaoService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tarefasSimulacaoService.executores = 1;
+        tarefasSimulacaoService.capacidadeFila = 10;
+        tarefasSimulacaoService.tamanhoBloco = 2;
+        tarefasSimulacaoService.tamanhoMaximoLote = 100;
+        tarefasSimulacaoService.caminhosMaximoMonteCarlo = 1000;
+        tarefasSimulacaoService.retencaoMinutos = 60;
+        tarefasSimulacaoService.itensRetidosMaximo = 1000;
+        tarefasSimulacaoService.tentativasPorBloco = 2;
+        tarefasSimulacaoService.esperaEntreTentativasMs = 1;
+
+        when(simulacaoInvestimentoService.simularInvestimentoLote(anyList())).thenAnswer(invocation -> {
+            List<SimulacaoRequest> bloco = invocation.getArgument(0);
+            return SimulacaoLoteResponse.of(IntStream.range(0, bloco.size())
+                    .mapToObj(i -> ItemSimulacaoLote.erro(i, "cliente " + bloco.get(i).clienteId()))
+                    .toList());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tarefasSimulacaoService.encerrarExecutor();
+    }
+
+    @Test
+    void deveCalcularLoteEmBlocosMantendoOsIndicesOriginais() throws InterruptedException {
+        List<SimulacaoRequest> requests = IntStream.rangeClosed(1, 5).mapToObj(this::request).toList();
+
+        TarefaSimulacao tarefa = tarefasSimulacaoService.submeterLote(requests);
+        aguardarFinalizacao(tarefa);
+
+        TarefaSimulacaoResponse situacao = tarefa.getSituacao();
+        assertEquals(StatusTarefaSimulacao.CONCLUIDA, situacao.status());
+        assertEquals(TipoTarefaSimulacao.LOTE, situacao.tipo());
+        assertEquals(5, situacao.itensProcessados());
+        assertEquals(new BigDecimal("100.00"), situacao.percentualConcluido());
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), tarefa.getClienteIds());
+
+        SimulacaoLoteResponse resultado = (SimulacaoLoteResponse) tarefa.getResultado();
+        assertEquals(5, resultado.totalItens());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, resultado.itens().get(i).indice());
+            assertEquals("cliente " + (i + 1), resultado.itens().get(i).erro());
+        }
+        verify(simulacaoInvestimentoService, times(3)).simularInvestimentoLote(anyList());
+        assertSame(tarefa, tarefasSimulacaoService.buscar(tarefa.getId()));
+    }
+
+    @Test
+    void deveRepetirBlocoQueFalhouPorInfraestrutura() throws InterruptedException {
+        when(simulacaoInvestimentoService.simularInvestimentoLote(anyList()))
+                .thenThrow(new IllegalStateException("database is locked"))
+                .thenReturn(SimulacaoLoteResponse.of(List.of(ItemSimulacaoLote.erro(0, "erro"))));
+
+        TarefaSimulacao tarefa = tarefasSimulacaoService.submeterLote(List.of(request(1)));
+        aguardarFinalizacao(tarefa);
+
+        assertEquals(StatusTarefaSimulacao.CONCLUIDA, tarefa.getStatus());
+        verify(simulacaoInvestimentoService, times(2)).simularInvestimentoLote(anyList());
+    }
+
+    @Test
+    void deveRegistrarFalhaDaTarefaComAMensagemDaCausaSemResultado() throws InterruptedException {
+        when(simulacaoInvestimentoService.simularInvestimentoLote(anyList()))
+                .thenThrow(new IllegalStateException("Error invoking subclass method",
+                        new IllegalStateException("Banco indisponível")));
+
+        TarefaSimulacao tarefa = tarefasSimulacaoService.submeterLote(List.of(request(1)));
+        aguardarFinalizacao(tarefa);
+
+        assertEquals(StatusTarefaSimulacao.FALHOU, tarefa.getStatus());
+        assertEquals("Banco indisponível", tarefa.getSituacao().erro());
+        assertNull(tarefa.getResultado());
+        assertNotNull(tarefa.getSituacao().dataConclusao());
+        verify(simulacaoInvestimentoService, times(2)).simularInvestimentoLote(anyList());
+    }
+
+    @Test
+    void deveExecutarMonteCarloComOLimiteDeCaminhosDasTarefas() throws InterruptedException {
+        SimulacaoRequest request = request(7);
+        SimulacaoMonteCarloResponse distribuicao = new SimulacaoMonteCarloResponse(null, null, null, 7L);
+        when(simulacaoInvestimentoService.simularInvestimentoMonteCarlo(request, 500, 1000)).thenReturn(distribuicao);
+
+        TarefaSimulacao tarefa = tarefasSimulacaoService.submeterMonteCarlo(request, 500);
+        aguardarFinalizacao(tarefa);
+
+        assertEquals(StatusTarefaSimulacao.CONCLUIDA, tarefa.getStatus());
+        assertSame(distribuicao, tarefa.getResultado());
+        assertEquals(Set.of(7L), tarefa.getClienteIds());
+        assertThrows(IllegalArgumentException.class, () -> tarefasSimulacaoService.submeterMonteCarlo(request, 1001));
+    }
+
+    @Test
+    void deveRecusarTarefaComFilaCheia() throws InterruptedException {
+        tarefasSimulacaoService.capacidadeFila = 1;
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch iniciou = new CountDownLatch(1);
+
+        when(simulacaoInvestimentoService.simularInvestimentoLote(anyList())).thenAnswer(invocation -> {
+            iniciou.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return SimulacaoLoteResponse.of(List.of(ItemSimulacaoLote.erro(0, "erro")));
+        });
+
+        TarefaSimulacao executando = tarefasSimulacaoService.submeterLote(List.of(request(1)));
+        assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+
+        TarefaSimulacao naFila = tarefasSimulacaoService.submeterLote(List.of(request(2)));
+        assertEquals(StatusTarefaSimulacao.PENDENTE, naFila.getStatus());
+
+        WebApplicationException recusa = assertThrows(WebApplicationException.class,
+                () -> tarefasSimulacaoService.submeterLote(List.of(request(3))));
+        assertEquals(503, recusa.getResponse().getStatus());
+
+        liberar.countDown();
+        aguardarFinalizacao(executando);
+        aguardarFinalizacao(naFila);
+        assertEquals(StatusTarefaSimulacao.CONCLUIDA, naFila.getStatus());
+    }
+
+    @Test
+    void deveRecusarTarefaAcimaDoLimiteDeItensRetidosAteODescarteDasAnteriores() throws InterruptedException {
+        tarefasSimulacaoService.itensRetidosMaximo = 3;
+
+        TarefaSimulacao retida = tarefasSimulacaoService.submeterLote(List.of(request(1), request(2)));
+        aguardarFinalizacao(retida);
+
+        WebApplicationException recusa = assertThrows(WebApplicationException.class,
+                () -> tarefasSimulacaoService.submeterLote(List.of(request(3), request(4))));
+        assertEquals(503, recusa.getResponse().getStatus());
+        assertTrue(recusa.getMessage().contains("Limite de resultados"));
+
+        tarefasSimulacaoService.retencaoMinutos = -1;
+        TarefaSimulacao aceita = tarefasSimulacaoService.submeterLote(List.of(request(3), request(4)));
+        aguardarFinalizacao(aceita);
+
+        assertEquals(StatusTarefaSimulacao.CONCLUIDA, aceita.getStatus());
+        assertThrows(RuntimeException.class, () -> tarefasSimulacaoService.buscar(retida.getId()));
+    }
+
+    @Test
+    void deveValidarLoteAntesDeEnfileirar() {
+        assertThrows(IllegalArgumentException.class, () -> tarefasSimulacaoService.submeterLote(List.of()));
+
+        List<SimulacaoRequest> grande = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            grande.add(request(1));
+        }
+        assertThrows(IllegalArgumentException.class, () -> tarefasSimulacaoService.submeterLote(grande));
+        verifyNoInteractions(simulacaoInvestimentoService);
+    }
+
+    @Test
+    void deveRecusarLoteSemNenhumCliente() {
+        List<SimulacaoRequest> semCliente = new ArrayList<>();
+        semCliente.add(null);
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> tarefasSimulacaoService.submeterLote(semCliente));
+
+        assertTrue(erro.getMessage().contains("não pode ser"));
+        verifyNoInteractions(simulacaoInvestimentoService);
+    }
+
+    @Test
+    void deveFalharAoBuscarTarefaInexistente() {
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> tarefasSimulacaoService.buscar("abc"));
+        assertTrue(erro.getMessage().contains("não encontrada"));
+    }
+
+    private SimulacaoRequest request(long clienteId) {
+        return new SimulacaoRequest(clienteId, 1L, new BigDecimal("1000.00"), 12,
+                null, null, null, null, null, null, null, null);
+    }
+
+    private void aguardarFinalizacao(TarefaSimulacao tarefa) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!tarefa.getStatus().isFinalizada() && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertTrue(tarefa.getStatus().isFinalizada(), "Tarefa não finalizou a tempo");
+    }
+}
@@ -0,0 +1,130 @@
+package br.gov.caixa.api.investimentos.service.visao_cliente;
+
+import br.gov.caixa.api.investimentos.dto.produto.ProdutoResponse;
+import br.gov.caixa.api.investimentos.dto.visao_cliente.VisaoClienteResponse;
+import br.gov.caixa.api.investimentos.enums.produto.TipoProduto;
+import br.gov.caixa.api.investimentos.mapper.ProdutoMapper;
+import br.gov.caixa.api.investimentos.ml.ResultadoRecomendacao;
+import br.gov.caixa.api.investimentos.model.perfil_risco.PerfilRiscoPrecalculado;
+import br.gov.caixa.api.investimentos.model.produto.Produto;
+import br.gov.caixa.api.investimentos.repository.perfil_risco.IPerfilRiscoPrecalculadoRepository;
+import br.gov.caixa.api.investimentos.service.cliente.ClienteService;
+import br.gov.caixa.api.investimentos.service.perfil_risco.PerfilRiscoService;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.ProdutoRecomendadoService;
+import br.gov.caixa.api.investimentos.service.produto_recomendado.RecomendacaoClienteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class VisaoClienteServiceTest {
+
+    @InjectMocks
+    VisaoClienteService visaoClienteService;
+
+    @Mock
+    ClienteService clienteService;
+
+    @Mock
+    IPerfilRiscoPrecalculadoRepository precalculadoRepository;
+
+    @Mock
+    RecomendacaoClienteService recomendacaoClienteService;
+
+    @Spy
+    PerfilRiscoService perfilRiscoService = new PerfilRiscoService();
+
+    @Mock
+    ProdutoRecomendadoService produtoRecomendadoService;
+
+    @Mock
+    ProdutoMapper produtoMapper;
+
+    private final List<ProdutoResponse> respostas = List.of(mock(ProdutoResponse.class));
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(produtoMapper.toResponseList(any())).thenReturn(respostas);
+    }
+
+    @Test
+    void buscarVisao_semPrecalculo_usaUmaUnicaRecomendacaoParaPerfilEProdutos() {
+        Produto produto = criarProduto("Produto A", TipoProduto.POUPANCA);
+        ResultadoRecomendacao recomendacao = ResultadoRecomendacao.construir(List.of(produto), new double[]{100});
+
+        when(recomendacaoClienteService.recomendar(1L)).thenReturn(recomendacao);
+        when(produtoRecomendadoService.listarRecomendados(1L, recomendacao, 5)).thenReturn(List.of(produto));
+
+        VisaoClienteResponse visao = visaoClienteService.buscarVisao(1L, 5);
+
+        assertEquals(1L, visao.clienteId());
+        assertEquals("CONSERVADOR", visao.perfilRisco().perfil());
+        assertEquals(respostas, visao.produtosRecomendados());
+        verify(clienteService, times(1)).buscarPorId(1L);
+        verify(recomendacaoClienteService, times(1)).recomendar(1L);
+        verify(produtoMapper).toResponseList(List.of(produto));
+    }
+
+    @Test
+    void buscarVisao_comPrecalculoDoDia_naoRecomendaDeNovo() {
+        Produto produto = criarProduto("Produto A", TipoProduto.ACAO);
+        PerfilRiscoPrecalculado precalculado = new PerfilRiscoPrecalculado(1L, "AGRESSIVO", 80, List.of(3L), LocalDate.now());
+
+        when(precalculadoRepository.findByClienteId(1L, LocalDate.now())).thenReturn(precalculado);
+        when(produtoRecomendadoService.listarPrecalculados(precalculado, Integer.MAX_VALUE)).thenReturn(List.of(produto));
+
+        VisaoClienteResponse visao = visaoClienteService.buscarVisao(1L, null);
+
+        assertEquals("AGRESSIVO", visao.perfilRisco().perfil());
+        assertEquals(80, visao.perfilRisco().pontuacao());
+        verify(perfilRiscoService).lerPrecalculado(1L, precalculado);
+        verify(recomendacaoClienteService, never()).recomendar(any());
+    }
+
+    @Test
+    void buscarVisao_precalculoSemHistorico_lancaExcecao() {
+        when(precalculadoRepository.findByClienteId(1L, LocalDate.now()))
+                .thenReturn(new PerfilRiscoPrecalculado(1L, null, null, List.of(), LocalDate.now()));
+
+        IllegalStateException erro = assertThrows(IllegalStateException.class,
+                () -> visaoClienteService.buscarVisao(1L, null));
+        assertTrue(erro.getMessage().contains("não possui histórico"));
+        verify(recomendacaoClienteService, never()).recomendar(any());
+        verify(produtoRecomendadoService, never()).listarPrecalculados(any(), anyInt());
+    }
+
+    @Test
+    void buscarVisao_semHistorico_lancaExcecao() {
+        ResultadoRecomendacao vazia = ResultadoRecomendacao.construir(List.of(), new double[0]);
+        when(recomendacaoClienteService.recomendar(1L)).thenReturn(vazia);
+
+        assertThrows(IllegalStateException.class, () -> visaoClienteService.buscarVisao(1L, null));
+        verify(perfilRiscoService).determinarPerfil(1L, vazia);
+        verify(produtoRecomendadoService, never()).listarRecomendados(any(), any(), anyInt());
+    }
+
+    @Test
+    void buscarVisao_limiteMenorQueUm_lancaExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> visaoClienteService.buscarVisao(1L, 0));
+        verify(clienteService, never()).buscarPorId(any());
+    }
+
+    private Produto criarProduto(String nome, TipoProduto tipo) {
+        Produto produto = new Produto();
+        produto.setNome(nome);
+        produto.setTipo(tipo);
+        produto.setFgc(true);
+        return produto;
+    }
+}
@@ -64,6 +64,7 @@ create table simulacao_investimento (
 	data_simulacao timestamp not null,
 	produto_id bigint not null,
 	cenario_simulacao varchar(500),
+	semente bigint,
 	produto varchar(255) not null,
 	primary key (id)
 );
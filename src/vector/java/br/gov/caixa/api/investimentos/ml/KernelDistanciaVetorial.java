@@ -0,0 +1,41 @@
+package br.gov.caixa.api.investimentos.ml;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/* KERNEL SIMD SOBRE O jdk.incubator.vector: CADA PISTA E UM CANDIDATO E AS COLUNAS SAO ACUMULADAS EM ORDEM,
+ * COM SUBTRACAO, MULTIPLICACAO E SOMA SEPARADAS (SEM FMA) PARA REPRODUZIR BIT A BIT O KERNEL ESCALAR.
+ * SO E INSTANCIADO POR KernelDistancia.selecionar QUANDO O MODULO ESTA DISPONIVEL */
+final class KernelDistanciaVetorial implements KernelDistancia {
+
+    private static final VectorSpecies<Double> ESPECIE = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void calcularDistancias(double[] entrada, double[] colunas, int quantidade, double[] distancias) {
+
+        int limiteVetorial = ESPECIE.loopBound(quantidade);
+
+        for (int i = 0; i < limiteVetorial; i += ESPECIE.length()) {
+            DoubleVector acumulado = DoubleVector.zero(ESPECIE);
+
+            for (int coluna = 0; coluna < entrada.length; coluna++) {
+                DoubleVector diferenca = DoubleVector.broadcast(ESPECIE, entrada[coluna])
+                        .sub(DoubleVector.fromArray(ESPECIE, colunas, coluna * quantidade + i));
+                acumulado = acumulado.add(diferenca.mul(diferenca));
+            }
+
+            acumulado.intoArray(distancias, i);
+        }
+
+        for (int i = limiteVetorial; i < quantidade; i++) {
+            double distancia = 0;
+
+            for (int coluna = 0; coluna < entrada.length; coluna++) {
+                double diferenca = entrada[coluna] - colunas[coluna * quantidade + i];
+                distancia += diferenca * diferenca;
+            }
+
+            distancias[i] = distancia;
+        }
+    }
+}